@@ -0,0 +1,117 @@
+package qa.wiremock.concepts.benchmark;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import qa.wiremock.concepts.stores.ConceptStores;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * This code benchmarks withBodyFile() stubs with and without the cached body
+ * files store, for a small JSON-sized body and a multi-MB body.
+ * Without the cache, WireMock reads the file from __files on every request.
+ * <p>
+ * mvn test-compile exec:exec -Pbenchmark -Djmh.args="BodyFileBenchmark -prof gc"
+ *
+ * @author Jagatheshwaran N
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BodyFileBenchmark {
+
+    // Size of the body file in bytes
+    @Param({"1024", "4194304"})
+    public int bodySize;
+
+    // Whether body files are served through the CachedFilesBlobStore
+    @Param({"false", "true"})
+    public boolean cachedFiles;
+
+    // Temporary files root with the __files directory
+    private Path filesRoot;
+
+    // Embedded WireMock server under benchmark
+    private WireMockServer wireMockServer;
+
+    // HTTP client sending the benchmark requests
+    private HttpClient httpClient;
+
+    // Request matching the body file stub
+    private HttpRequest request;
+
+    // Method to write the body file and start the server before the trial
+    @Setup(Level.Trial)
+    public void startServer() throws IOException {
+        filesRoot = Files.createTempDirectory("wiremock-body-files");
+        Files.createDirectories(filesRoot.resolve("mappings"));
+        byte[] content = new byte[bodySize];
+        new Random(42).nextBytes(content);
+        Files.write(Files.createDirectories(filesRoot.resolve("__files")).resolve("body.bin"), content);
+
+        WireMockConfiguration options = WireMockConfiguration.options()
+                .dynamicPort()
+                .usingFilesUnderDirectory(filesRoot.toString())
+                .disableRequestJournal()
+                .stubRequestLoggingDisabled(true);
+        if (cachedFiles) {
+            options.withStores(new ConceptStores(options.filesRoot())
+                    .withCachedFiles(ConceptStores.DEFAULT_MAX_CACHED_FILE_BYTES));
+        }
+        wireMockServer = new WireMockServer(options);
+        wireMockServer.start();
+        wireMockServer.stubFor(WireMock.get("/body").willReturn(WireMock.aResponse().withBodyFile("body.bin")));
+
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        request = HttpRequest.newBuilder(URI.create(wireMockServer.baseUrl() + "/body")).GET().build();
+    }
+
+    // Method to stop the server and delete the body file after the trial
+    @TearDown(Level.Trial)
+    public void stopServer() throws IOException {
+        wireMockServer.stop();
+        try (Stream<Path> files = Files.walk(filesRoot)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    // Benchmark measuring the body file responses per second
+    @Benchmark
+    public long serveBodyFile() throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200 || response.body().length != bodySize) {
+            throw new IllegalStateException("Unexpected body file response, status " + response.statusCode());
+        }
+        return response.body().length;
+    }
+
+}
@@ -0,0 +1,139 @@
+package qa.wiremock.concepts.benchmark;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import qa.wiremock.concepts.proxy.CachingProxy;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This code benchmarks a proxy stub in front of a local stand-in upstream
+ * that answers after a 2 ms delay, with and without the CachingProxy.
+ * Requests pick one of 100 student URLs at random, so a cache of 64 entries
+ * also pays for its misses and evictions; the hit ratio is printed at the
+ * end of the trial.
+ * <p>
+ * mvn test-compile exec:exec -Pbenchmark -Djmh.args="CachingProxyBenchmark"
+ *
+ * @author Jagatheshwaran N
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CachingProxyBenchmark {
+
+    // Number of distinct student URLs requested
+    private static final int URLS = 100;
+
+    // Delay of the stand-in upstream in milliseconds
+    private static final int UPSTREAM_DELAY_MILLIS = 2;
+
+    // Proxy under benchmark
+    @Param({"PLAIN", "CACHING"})
+    public String proxy;
+
+    // Maximum number of responses of the caching proxy
+    @Param({"64", "1000"})
+    public int maxEntries;
+
+    // Stand-in of the students upstream
+    private WireMockServer upstreamServer;
+
+    // Server proxying every request to the upstream
+    private WireMockServer proxyServer;
+
+    // Caching proxy of the proxy server, null for the plain proxy
+    private CachingProxy cachingProxy;
+
+    // HTTP client sending the benchmark requests
+    private HttpClient httpClient;
+
+    // Requests of the student URLs
+    private HttpRequest[] requests;
+
+    // Random choice of the student URL
+    private SplittableRandom random;
+
+    // Method to start the upstream and the proxy before the trial
+    @Setup(Level.Trial)
+    public void startServers() {
+        upstreamServer = new WireMockServer(WireMockConfiguration.options()
+                .dynamicPort()
+                .disableRequestJournal()
+                .stubRequestLoggingDisabled(true));
+        upstreamServer.start();
+        upstreamServer.stubFor(WireMock.get(WireMock.urlPathMatching("/students/[0-9]+"))
+                .willReturn(WireMock.okJson("{\"id\": 2, \"name\": \"Nandhini\"}")
+                        .withHeader("Cache-Control", "public, max-age=60")
+                        .withHeader("ETag", "\"student-v1\"")
+                        .withFixedDelay(UPSTREAM_DELAY_MILLIS)));
+
+        WireMockConfiguration options = WireMockConfiguration.options()
+                .dynamicPort()
+                .disableRequestJournal()
+                .stubRequestLoggingDisabled(true);
+        if (proxy.equals("CACHING")) {
+            cachingProxy = new CachingProxy(maxEntries, Duration.ofMinutes(5));
+            CachingProxy.configure(options, cachingProxy);
+        }
+        proxyServer = new WireMockServer(options);
+        proxyServer.start();
+        proxyServer.stubFor(WireMock.any(WireMock.anyUrl())
+                .willReturn(WireMock.aResponse()
+                        .proxiedFrom(upstreamServer.baseUrl())
+                        .withTransformers(cachingProxy != null ? new String[]{CachingProxy.NAME} : new String[0])));
+
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        requests = new HttpRequest[URLS];
+        for (int i = 0; i < URLS; i++) {
+            requests[i] = HttpRequest.newBuilder(URI.create(proxyServer.baseUrl() + "/students/" + i)).GET().build();
+        }
+        random = new SplittableRandom(42);
+    }
+
+    // Method to print the hit ratio and stop the servers after the trial
+    @TearDown(Level.Trial)
+    public void stopServers() {
+        if (cachingProxy != null) {
+            System.out.println("Caching proxy: " + cachingProxy);
+        }
+        proxyServer.stop();
+        upstreamServer.stop();
+    }
+
+    // Benchmark measuring the proxied responses per second
+    @Benchmark
+    public int proxyRequest() throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = httpClient.send(requests[random.nextInt(URLS)],
+                HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Unexpected proxy response, status " + response.statusCode());
+        }
+        return response.body().length;
+    }
+
+}
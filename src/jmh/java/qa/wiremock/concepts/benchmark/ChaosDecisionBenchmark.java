@@ -0,0 +1,90 @@
+package qa.wiremock.concepts.benchmark;
+
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.common.Json;
+import com.github.tomakehurst.wiremock.http.Fault;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import qa.wiremock.concepts.errors.ChaosFaults;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This code benchmarks the decision ChaosFaults takes for each request of a
+ * chaotic stub, 2% connection resets, 1% 500s and 0.5% with 2 s more delay,
+ * against a stub serving every request unchanged. At 50k requests per
+ * second a server has 20 us per request, so the decision should cost a
+ * small fraction of it. Run it with -t 4 to see the cost with several
+ * server threads drawing from the same stub.
+ * <p>
+ * mvn test-compile exec:exec -Pbenchmark -Djmh.args="ChaosDecisionBenchmark"
+ *
+ * @author Jagatheshwaran N
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChaosDecisionBenchmark {
+
+    // Outcomes of the stub under benchmark
+    @Param({"NONE", "MIX"})
+    public String chaos;
+
+    // Chaos faults under benchmark
+    private ChaosFaults chaosFaults;
+
+    // Serve event of a request matched by the stub
+    private ServeEvent serveEvent;
+
+    // Method to build the serve event of the stub before the trial
+    @Setup(Level.Trial)
+    public void buildServeEvent() {
+        chaosFaults = new ChaosFaults();
+        ChaosFaults.Mix mix = ChaosFaults.mix().seed(42);
+        if (chaos.equals("MIX")) {
+            mix.fault(Fault.CONNECTION_RESET_BY_PEER, 0.02).status(500, 0.01).delay(2000, 0.005);
+        }
+        StubMapping stubMapping = WireMock.get("/user/emp101")
+                .willReturn(WireMock.okJson("{\"worker\": {\"id\": \"EMP101\"}}")
+                        .withTransformers(ChaosFaults.NAME)
+                        .withTransformerParameters(mix.toParameters()))
+                .build();
+        LoggedRequest request = Json.read("{\"url\": \"/user/emp101\", \"absoluteUrl\": \"http://localhost/user/emp101\","
+                + " \"method\": \"GET\"}", LoggedRequest.class);
+        serveEvent = ServeEvent.of(request)
+                .withStubMapping(stubMapping)
+                .withResponseDefinition(stubMapping.getResponse());
+    }
+
+    // Method to print the outcomes injected during the trial
+    @TearDown(Level.Trial)
+    public void printStats() {
+        System.out.printf("%n%s chaos: %s%n", chaos,
+                chaosFaults.getStats(serveEvent.getStubMapping().getId()).orElseThrow());
+    }
+
+    // Benchmark measuring the decision for one request
+    @Benchmark
+    public ResponseDefinition decide() {
+        return chaosFaults.transform(serveEvent);
+    }
+
+}
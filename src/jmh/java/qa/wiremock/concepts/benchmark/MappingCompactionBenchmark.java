@@ -0,0 +1,203 @@
+package qa.wiremock.concepts.benchmark;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import qa.wiremock.concepts.recordandplay.MappingCompactor;
+import qa.wiremock.concepts.recordandplay.SharedHeaderSets;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * This code measures the load time of a synthetic capture of 50,000 recorded
+ * mappings, before and after the MappingCompactor.
+ * The capture has 10,000 request patterns recorded 5 times each, 500
+ * distinct bodies of about 1 KB and 3 distinct sets of 11 headers, with
+ * a different Date on every recording, like the recordings of GET / under
+ * src/test/resources/mappings.
+ * One operation is the start of a server loading the root. The size of the
+ * root on disk and the heap its loaded stubs hold are printed once per trial.
+ * <p>
+ * RECORDED: the capture as WireMock's recorder writes it.
+ * <p>
+ * COMPACTED: the capture after the MappingCompactor, played back with the
+ * SharedHeaderSets.
+ * <p>
+ * mvn test-compile exec:exec -Pbenchmark -Djmh.args="MappingCompactionBenchmark"
+ *
+ * @author Jagatheshwaran N
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MappingCompactionBenchmark {
+
+    // Number of distinct request patterns of the capture
+    private static final int REQUEST_PATTERNS = 10_000;
+
+    // Number of recordings of each request pattern
+    private static final int RECORDINGS = 5;
+
+    // Number of distinct bodies of the capture
+    private static final int BODIES = 500;
+
+    // Number of distinct header sets of the capture
+    private static final int HEADER_SETS = 3;
+
+    // Layout of the root under benchmark
+    @Param({"RECORDED", "COMPACTED"})
+    public String layout;
+
+    // Temporary directory of the recorded and compacted roots
+    private Path workDirectory;
+
+    // Root loaded by the benchmark
+    private Path root;
+
+    // Size of the root on disk
+    private long rootBytes;
+
+    // Server started by the last invocation
+    private WireMockServer wireMockServer;
+
+    // Method to write the synthetic capture, and compact it for COMPACTED, before the trial
+    @Setup(Level.Trial)
+    public void writeCapture() throws IOException {
+        workDirectory = Files.createTempDirectory("mapping-compaction");
+        Path recordedRoot = workDirectory.resolve("recorded");
+        writeSyntheticCapture(recordedRoot);
+        root = recordedRoot;
+        if (layout.equals("COMPACTED")) {
+            root = workDirectory.resolve("compacted");
+            long started = System.nanoTime();
+            MappingCompactor.Report report = new MappingCompactor(recordedRoot, root).compact();
+            System.out.printf("%nCompaction: %s in %d ms%n", report,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+            rootBytes = report.getTargetBytes();
+        } else {
+            rootBytes = directorySize(recordedRoot);
+        }
+
+        // Measures the heap held by the loaded stubs once, outside of the timed invocations
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long heapBefore = memory.getHeapMemoryUsage().getUsed();
+        WireMockServer server = startServer();
+        System.gc();
+        long heapAfter = memory.getHeapMemoryUsage().getUsed();
+        System.out.printf("%s: %d stubs, %d KB on disk, %.1f MB of heap%n", layout, server.getStubMappings().size(),
+                rootBytes / 1024, (heapAfter - heapBefore) / (1024.0 * 1024.0));
+        server.stop();
+    }
+
+    // Method to delete the roots after the trial
+    @TearDown(Level.Trial)
+    public void deleteCapture() throws IOException {
+        try (Stream<Path> files = Files.walk(workDirectory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    // Method to stop the server started by an invocation
+    @TearDown(Level.Invocation)
+    public void stopServer() {
+        wireMockServer.stop();
+    }
+
+    // Benchmark measuring the start of a server loading the root
+    @Benchmark
+    public WireMockServer load() {
+        wireMockServer = startServer();
+        return wireMockServer;
+    }
+
+    // Method to start a server loading the root, with the shared header sets of a compacted root
+    private WireMockServer startServer() {
+        WireMockConfiguration options = WireMockConfiguration.options()
+                .dynamicPort()
+                .usingFilesUnderDirectory(root.toString());
+        if (layout.equals("COMPACTED")) {
+            SharedHeaderSets.configure(options);
+        }
+        return MappingCompactor.startPlayback(options);
+    }
+
+    // Method to write the recorded mappings of the synthetic capture
+    private static void writeSyntheticCapture(Path root) throws IOException {
+        Path mappingsDirectory = Files.createDirectories(root.resolve("mappings"));
+        Random random = new Random(42);
+        String[] bodies = new String[BODIES];
+        for (int i = 0; i < BODIES; i++) {
+            StringBuilder students = new StringBuilder();
+            for (int student = 0; student < 12; student++) {
+                students.append(student == 0 ? "" : ", ").append(String.format(
+                        "{\\\"id\\\": %d, \\\"name\\\": \\\"student-%d\\\", \\\"phone\\\": \\\"%d\\\"}",
+                        student, random.nextInt(100_000), random.nextInt(1_000_000_000)));
+            }
+            bodies[i] = "{\\\"course\\\": " + i + ", \\\"students\\\": [" + students + "]}";
+        }
+
+        int insertionIndex = 0;
+        for (int recording = 0; recording < RECORDINGS; recording++) {
+            for (int pattern = 0; pattern < REQUEST_PATTERNS; pattern++) {
+                String id = UUID.randomUUID().toString();
+                Files.writeString(mappingsDirectory.resolve("courses_" + pattern + "-" + id + ".json"), String.format(
+                        "{%n  \"id\" : \"%s\",%n  \"name\" : \"courses_%d\",%n  \"request\" : {%n"
+                                + "    \"url\" : \"/courses/%d\",%n    \"method\" : \"GET\"%n  },%n"
+                                + "  \"response\" : {%n    \"status\" : 200,%n    \"body\" : \"%s\",%n"
+                                + "    \"headers\" : {%n%s    }%n  },%n  \"uuid\" : \"%s\",%n"
+                                + "  \"persistent\" : true,%n  \"insertionIndex\" : %d%n}",
+                        id, pattern, pattern, bodies[random.nextInt(BODIES)],
+                        headers(pattern % HEADER_SETS, insertionIndex), id, insertionIndex++));
+            }
+        }
+    }
+
+    // Method to write the 11 headers of a recording, in one of the header sets and with its own Date
+    private static String headers(int headerSet, int insertionIndex) {
+        return String.format("      \"X-Powered-By\" : \"Express\",%n"
+                        + "      \"Vary\" : \"Origin, Accept-Encoding\",%n"
+                        + "      \"Access-Control-Allow-Credentials\" : \"true\",%n"
+                        + "      \"Cache-Control\" : \"no-cache\",%n"
+                        + "      \"Pragma\" : \"no-cache\",%n"
+                        + "      \"Expires\" : \"-1\",%n"
+                        + "      \"X-Content-Type-Options\" : \"nosniff\",%n"
+                        + "      \"Content-Type\" : \"application/json; charset=utf-8\",%n"
+                        + "      \"X-Api-Version\" : \"v%d\",%n"
+                        + "      \"Date\" : \"Fri, 10 Nov 2023 05:%02d:%02d GMT\",%n"
+                        + "      \"Keep-Alive\" : \"timeout=5\"%n",
+                headerSet, insertionIndex / 60 % 60, insertionIndex % 60);
+    }
+
+    // Method to sum the sizes of the files under a directory
+    private static long directorySize(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(Files::isRegularFile).mapToLong(file -> file.toFile().length()).sum();
+        }
+    }
+
+}
@@ -0,0 +1,143 @@
+package qa.wiremock.concepts.benchmark;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import qa.wiremock.concepts.recordandplay.BulkMappingLoader;
+import qa.wiremock.concepts.stores.ConceptStores;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * This code measures the time-to-ready of a mappings/ directory loaded into
+ * a running server, one admin round trip per file or in one bulk batch.
+ * One operation loads every mapping of the directory into a fresh server,
+ * so the stubs per second are the number of mappings over the score.
+ * BULK is expected to score well below PER_FILE. That comparison lives
+ * here rather than in BulkMappingLoaderTest, which only checks what is
+ * loaded; each invocation checks that every mapping was registered.
+ * <p>
+ * PER_FILE: Files.readString, StubMapping.buildFrom and wireMock.register
+ * for each file, as WireMockPlaybackAPITest does.
+ * <p>
+ * BULK: the BulkMappingLoader, parsing on the common fork-join pool and
+ * registering with a single importStubs().
+ * <p>
+ * Both servers use the ConceptStores, as importStubs() looks every stub up
+ * by id, and WireMock's default store scans all the stubs for each lookup.
+ * <p>
+ * mvn test-compile exec:exec -Pbenchmark -Djmh.args="MappingLoadBenchmark"
+ *
+ * @author Jagatheshwaran N
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class MappingLoadBenchmark {
+
+    // Loading path under benchmark
+    @Param({"PER_FILE", "BULK"})
+    public String loader;
+
+    // Number of mapping files of the directory
+    @Param({"100000"})
+    public int mappings;
+
+    // Temporary directory of the mapping files
+    private Path mappingsDirectory;
+
+    // Mapping files of the directory
+    private List<Path> mappingFiles;
+
+    // Server loaded by an invocation
+    private WireMockServer wireMockServer;
+
+    // Stubs of the server before an invocation, loaded from its own mappings/
+    private int stubsBefore;
+
+    // Method to write the mapping files before the trial
+    @Setup(Level.Trial)
+    public void writeMappings() throws IOException {
+        mappingsDirectory = Files.createDirectories(Files.createTempDirectory("mapping-load").resolve("mappings"));
+        for (int i = 0; i < mappings; i++) {
+            String id = UUID.randomUUID().toString();
+            Files.writeString(mappingsDirectory.resolve("students_" + i + "-" + id + ".json"), String.format(
+                    "{%n  \"id\" : \"%s\",%n  \"request\" : {%n    \"url\" : \"/students/%d\",%n"
+                            + "    \"method\" : \"GET\"%n  },%n  \"response\" : {%n    \"status\" : 200,%n"
+                            + "    \"jsonBody\" : {\"id\" : %d, \"name\" : \"student-%d\"},%n"
+                            + "    \"headers\" : {%n      \"Content-Type\" : \"application/json\"%n    }%n  },%n"
+                            + "  \"uuid\" : \"%s\"%n}", id, i, i, i, id));
+        }
+        try (Stream<Path> files = Files.list(mappingsDirectory)) {
+            mappingFiles = files.toList();
+        }
+    }
+
+    // Method to delete the mapping files after the trial
+    @TearDown(Level.Trial)
+    public void deleteMappings() throws IOException {
+        try (Stream<Path> files = Files.walk(mappingsDirectory.getParent())) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    // Method to start an empty server before each invocation
+    @Setup(Level.Invocation)
+    public void startServer() {
+        wireMockServer = new WireMockServer(ConceptStores.configure(WireMockConfiguration.options()
+                .dynamicPort()
+                .disableRequestJournal()
+                .stubRequestLoggingDisabled(true)));
+        wireMockServer.start();
+        stubsBefore = wireMockServer.getStubMappings().size();
+    }
+
+    // Method to stop the server after each invocation, checking that every mapping was registered so both loaders do the same work
+    @TearDown(Level.Invocation)
+    public void stopServer() {
+        int stubs = wireMockServer.getStubMappings().size() - stubsBefore;
+        wireMockServer.stop();
+        if (stubs != mappings) {
+            throw new IllegalStateException(loader + " registered " + stubs + " of " + mappings + " mappings");
+        }
+    }
+
+    // Benchmark measuring the time until every mapping of the directory is served
+    @Benchmark
+    public int load() throws IOException {
+        if (loader.equals("BULK")) {
+            return new BulkMappingLoader().load(wireMockServer, mappingsDirectory).getStubs();
+        }
+        WireMock wireMock = new WireMock(wireMockServer.port());
+        for (Path mappingFile : mappingFiles) {
+            wireMock.register(StubMapping.buildFrom(Files.readString(mappingFile, StandardCharsets.UTF_8)));
+        }
+        return mappingFiles.size();
+    }
+
+}
@@ -0,0 +1,219 @@
+package qa.wiremock.concepts.benchmark;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import qa.wiremock.concepts.recordandplay.StreamingRecorder;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.recordSpec;
+
+/**
+ * This code measures the peak live heap of a capture of a busy upstream,
+ * recorded either by WireMock's recorder or by the StreamingRecorder.
+ * One invocation sends all the requests through the recording server to a
+ * local upstream of 1,000 students, at most 64 at a time. The peak live heap
+ * is the largest heap left after a garbage collection while the capture runs,
+ * and is reported as peakLiveHeapMegabytes.
+ * <p>
+ * RECORDING_API: startRecording(recordSpec()...ignoreRepeatRequests()), which
+ * keeps every exchange in the request journal until stopRecording().
+ * <p>
+ * STREAMING: the StreamingRecorder, appending every exchange to a log file
+ * with the request journal disabled.
+ * <p>
+ * mvn test-compile exec:exec -Pbenchmark -Djmh.args="RecordingHeapBenchmark"
+ *
+ * @author Jagatheshwaran N
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class RecordingHeapBenchmark {
+
+    // Number of distinct students of the upstream
+    private static final int STUDENTS = 1000;
+
+    // Maximum number of requests in flight
+    private static final int IN_FLIGHT = 64;
+
+    // Recorder under benchmark
+    @Param({"RECORDING_API", "STREAMING"})
+    public String recorder;
+
+    // Number of requests of the capture
+    @Param({"1000000"})
+    public int requests;
+
+    // Local stand-in of the upstream
+    private WireMockServer upstreamServer;
+
+    // Server recording the traffic to the upstream
+    private WireMockServer recordingServer;
+
+    // Streaming recorder of the STREAMING mode
+    private StreamingRecorder streamingRecorder;
+
+    // Directory of the streaming log
+    private Path logDirectory;
+
+    // HTTP client sending the capture
+    private HttpClient httpClient;
+
+    // Counter of the peak live heap of the capture
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class HeapCounters {
+
+        // Largest heap used after a garbage collection, in megabytes
+        public double peakLiveHeapMegabytes;
+
+    }
+
+    // Method to start the upstream and the recording server before the trial
+    @Setup(Level.Trial)
+    public void startServers() throws IOException {
+        upstreamServer = new WireMockServer(WireMockConfiguration.options()
+                .dynamicPort()
+                .disableRequestJournal()
+                .stubRequestLoggingDisabled(true));
+        upstreamServer.start();
+        upstreamServer.stubFor(WireMock.get(WireMock.urlPathMatching("/students/[0-9]+"))
+                .willReturn(WireMock.okJson("{\"id\": 1, \"name\": \"Jagatheshwaran\", \"course\": \"WireMock\"}")));
+
+        WireMockConfiguration options = WireMockConfiguration.options()
+                .dynamicPort()
+                .stubRequestLoggingDisabled(true);
+        if (recorder.equals("STREAMING")) {
+            logDirectory = Files.createTempDirectory("recording-heap");
+            streamingRecorder = new StreamingRecorder(logDirectory.resolve("capture.jsonl"));
+            StreamingRecorder.configure(options, streamingRecorder);
+        }
+        recordingServer = new WireMockServer(options);
+        recordingServer.start();
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    // Method to stop the servers and delete the log after the trial
+    @TearDown(Level.Trial)
+    public void stopServers() throws IOException {
+        recordingServer.stop();
+        upstreamServer.stop();
+        if (logDirectory != null) {
+            Files.deleteIfExists(streamingRecorder.getLogFile());
+            Files.deleteIfExists(logDirectory);
+        }
+    }
+
+    // Benchmark measuring the time and peak live heap of one capture
+    @Benchmark
+    public void capture(HeapCounters heapCounters) throws Exception {
+        HeapSampler heapSampler = new HeapSampler();
+        heapSampler.start();
+        if (streamingRecorder != null) {
+            streamingRecorder.startRecording(recordingServer, upstreamServer.baseUrl());
+        } else {
+            recordingServer.startRecording(recordSpec().forTarget(upstreamServer.baseUrl())
+                    .ignoreRepeatRequests().makeStubsPersistent(false));
+        }
+
+        Semaphore inFlight = new Semaphore(IN_FLIGHT);
+        for (int i = 0; i < requests; i++) {
+            inFlight.acquire();
+            URI uri = URI.create(recordingServer.baseUrl() + "/students/" + (i % STUDENTS));
+            httpClient.sendAsync(HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, failure) -> inFlight.release());
+        }
+        inFlight.acquire(IN_FLIGHT);
+
+        // Collects once more, so that what the recorder still holds at the end of the capture is counted
+        System.gc();
+        heapSampler.sample();
+        heapCounters.peakLiveHeapMegabytes = heapSampler.finish() / (1024.0 * 1024.0);
+
+        if (streamingRecorder != null) {
+            streamingRecorder.stopRecording();
+        } else {
+            recordingServer.stopRecording();
+        }
+    }
+
+    // Thread sampling the heap left after each garbage collection
+    private static final class HeapSampler extends Thread {
+
+        // Largest heap used after a garbage collection, in bytes
+        private volatile long peakBytes;
+
+        // Whether the sampler is still running
+        private volatile boolean running = true;
+
+        private HeapSampler() {
+            super("heap-sampler");
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                sample();
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+
+        // Method to record the heap used after the last garbage collection of every heap pool
+        private synchronized void sample() {
+            long used = 0;
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                MemoryUsage collectionUsage = pool.getCollectionUsage();
+                if (pool.getType() == MemoryType.HEAP && collectionUsage != null) {
+                    used += collectionUsage.getUsed();
+                }
+            }
+            peakBytes = Math.max(peakBytes, used);
+        }
+
+        // Method to stop the sampler and return the peak in bytes
+        private long finish() throws InterruptedException {
+            running = false;
+            interrupt();
+            join();
+            return peakBytes;
+        }
+
+    }
+
+}
@@ -0,0 +1,120 @@
+package qa.wiremock.concepts.benchmark;
+
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.common.Json;
+import com.github.tomakehurst.wiremock.matching.RequestPattern;
+import com.github.tomakehurst.wiremock.matching.RequestPatternBuilder;
+import com.github.tomakehurst.wiremock.store.InMemoryRequestJournalStore;
+import com.github.tomakehurst.wiremock.store.RequestJournalStore;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
+import com.github.tomakehurst.wiremock.verification.StoreBackedRequestJournal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import qa.wiremock.concepts.endpointcount.RingBufferRequestJournalStore;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This code compares WireMock's default request journal store with the
+ * RingBufferRequestJournalStore after a soak run: the journal is filled with
+ * 100k POST requests of 1 KB bodies through WireMock's own journal, the
+ * retained heap is printed, and the benchmark times one verify(count, ...).
+ * <p>
+ * DEFAULT, ON_HEAP and OFF_HEAP count through the journal, scanning the
+ * events it keeps; COUNTERS_ONLY reads the per-stub counter.
+ * <p>
+ * mvn test-compile exec:exec -Pbenchmark -Djmh.args="RequestJournalBenchmark"
+ *
+ * @author Jagatheshwaran N
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class RequestJournalBenchmark {
+
+    // Number of requests of the soak run
+    private static final int REQUESTS = 100_000;
+
+    // Number of serve events kept by the ring buffer
+    private static final int CAPACITY = 10_000;
+
+    // Size of the request bodies in bytes
+    private static final int BODY_BYTES = 1024;
+
+    // Journal store under benchmark
+    @Param({"DEFAULT", "ON_HEAP", "OFF_HEAP", "COUNTERS_ONLY"})
+    public String journal;
+
+    // Store of the journal
+    private RequestJournalStore journalStore;
+
+    // WireMock's journal over the store
+    private StoreBackedRequestJournal requestJournal;
+
+    // Pattern verified by the benchmark
+    private RequestPatternBuilder verifiedPattern;
+
+    // Pattern verified by the benchmark, as the journal takes it
+    private RequestPattern verifiedRequestPattern;
+
+    // Method to fill the journal with the requests of the soak run and print the retained heap before the trial
+    @Setup(Level.Trial)
+    public void fillJournal() {
+        journalStore = journal.equals("DEFAULT")
+                ? new InMemoryRequestJournalStore()
+                : new RingBufferRequestJournalStore(CAPACITY, RingBufferRequestJournalStore.Mode.valueOf(journal));
+        requestJournal = new StoreBackedRequestJournal(null, Map.of(), journalStore);
+        verifiedPattern = WireMock.postRequestedFor(WireMock.urlPathEqualTo("/user"));
+        verifiedRequestPattern = verifiedPattern.build();
+
+        StubMapping stubMapping = WireMock.post(WireMock.urlPathEqualTo("/user"))
+                .willReturn(WireMock.jsonResponse("{\"created\": true}", 201))
+                .build();
+        long heapBefore = retainedHeap();
+        for (int i = 0; i < REQUESTS; i++) {
+            String body = String.format("{\"id\": %8d, \"name\": \"%s\"}", i, "x".repeat(BODY_BYTES - 30));
+            LoggedRequest request = Json.read(String.format("{\"url\": \"/user\", \"absoluteUrl\": \"http://localhost/user\","
+                    + " \"method\": \"POST\", \"headers\": {\"Content-Type\": \"application/json\"}, \"body\": %s}",
+                    Json.write(body)), LoggedRequest.class);
+            requestJournal.requestReceived(ServeEvent.of(request)
+                    .withStubMapping(stubMapping)
+                    .withResponseDefinition(stubMapping.getResponse()));
+        }
+        System.out.printf("%n%s journal: %d MB retained after %d requests%n",
+                journal, (retainedHeap() - heapBefore) / (1024 * 1024), REQUESTS);
+    }
+
+    // Benchmark measuring one verification of the request count
+    @Benchmark
+    public long verifyCount() {
+        if (journalStore instanceof RingBufferRequestJournalStore ring && journal.equals("COUNTERS_ONLY")) {
+            return ring.countRequestsMatching(verifiedPattern);
+        }
+        return requestJournal.countRequestsMatching(verifiedRequestPattern);
+    }
+
+    // Method to return the heap in use once the garbage is collected
+    private static long retainedHeap() {
+        System.gc();
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+}
@@ -0,0 +1,161 @@
+package qa.wiremock.concepts.benchmark;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import qa.wiremock.concepts.virtualthreads.VirtualThreadPoolFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * This code benchmarks a server on WireMock's default platform-thread pool
+ * against the VirtualThreadPoolFactory, for the blocking stubs of the
+ * concept tests.
+ * Each operation sends a burst of concurrent requests and waits for all of
+ * them, so the time per burst shows how many blocking requests the server
+ * handles at once.
+ * <p>
+ * DELAYED: withFixedDelay() stubs, sleeping on the request thread.
+ * <p>
+ * PROXIED: proxiedFrom() stubs to an origin server that answers after a delay.
+ * <p>
+ * BODY_FILE: withBodyFile() stubs reading a 256 KB body file.
+ * <p>
+ * mvn test-compile exec:exec -Pbenchmark -Djmh.args="ServerThreadingBenchmark"
+ *
+ * @author Jagatheshwaran N
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class ServerThreadingBenchmark {
+
+    // Delay of the delayed stub and of the proxy origin in milliseconds
+    private static final int DELAY = 50;
+
+    // Size of the body file in bytes
+    private static final int BODY_SIZE = 256 * 1024;
+
+    // Threads handling the requests of the server under benchmark
+    @Param({"PLATFORM", "VIRTUAL"})
+    public String threadMode;
+
+    // Blocking stub under benchmark
+    @Param({"DELAYED", "PROXIED", "BODY_FILE"})
+    public String stubKind;
+
+    // Number of concurrent requests per burst
+    @Param({"100"})
+    public int concurrency;
+
+    // Temporary files root with the __files directory
+    private Path filesRoot;
+
+    // Origin server of the proxied stub
+    private WireMockServer originServer;
+
+    // Embedded WireMock server under benchmark
+    private WireMockServer wireMockServer;
+
+    // HTTP client sending the benchmark requests
+    private HttpClient httpClient;
+
+    // Request matching the stub under benchmark
+    private HttpRequest request;
+
+    // Method to start the origin and the server under benchmark before the trial
+    @Setup(Level.Trial)
+    public void startServers() throws IOException {
+        filesRoot = Files.createTempDirectory("wiremock-threading");
+        Files.createDirectories(filesRoot.resolve("mappings"));
+        byte[] content = new byte[BODY_SIZE];
+        new Random(42).nextBytes(content);
+        Files.write(Files.createDirectories(filesRoot.resolve("__files")).resolve("body.bin"), content);
+
+        // The origin delays without holding threads, so it is never the bottleneck
+        originServer = new WireMockServer(WireMockConfiguration.options()
+                .dynamicPort()
+                .asynchronousResponseEnabled(true)
+                .disableRequestJournal());
+        originServer.start();
+        originServer.stubFor(WireMock.get("/stub").willReturn(WireMock.ok("origin").withFixedDelay(DELAY)));
+
+        WireMockConfiguration options = WireMockConfiguration.options()
+                .dynamicPort()
+                .usingFilesUnderDirectory(filesRoot.toString())
+                .disableRequestJournal()
+                .stubRequestLoggingDisabled(true);
+        if (threadMode.equals("VIRTUAL")) {
+            VirtualThreadPoolFactory.configure(options);
+        }
+        wireMockServer = new WireMockServer(options);
+        wireMockServer.start();
+        wireMockServer.stubFor(WireMock.get("/stub").willReturn(switch (stubKind) {
+            case "DELAYED" -> WireMock.ok("delayed").withFixedDelay(DELAY);
+            case "PROXIED" -> WireMock.aResponse().proxiedFrom(originServer.baseUrl());
+            default -> WireMock.aResponse().withBodyFile("body.bin");
+        }));
+
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        request = HttpRequest.newBuilder(URI.create(wireMockServer.baseUrl() + "/stub")).GET().build();
+    }
+
+    // Method to stop the servers and delete the body file after the trial
+    @TearDown(Level.Trial)
+    public void stopServers() throws IOException {
+        wireMockServer.stop();
+        originServer.stop();
+        try (Stream<Path> files = Files.walk(filesRoot)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    // Benchmark measuring the time to serve a burst of concurrent requests
+    @Benchmark
+    public int serveBurst() {
+        List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            responses.add(httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
+        }
+        int served = 0;
+        for (CompletableFuture<HttpResponse<Void>> response : responses) {
+            if (response.join().statusCode() != 200) {
+                throw new IllegalStateException("Unexpected response, status " + response.join().statusCode());
+            }
+            served++;
+        }
+        return served;
+    }
+
+}
@@ -0,0 +1,178 @@
+package qa.wiremock.concepts.benchmark;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.MappingBuilder;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import qa.wiremock.concepts.statefulness.SessionKey;
+import qa.wiremock.concepts.statefulness.SessionScenarios;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+
+/**
+ * This code benchmarks the cart flow of WireMockStatefulBehaviorTest with
+ * 1,000 concurrent sessions, each going through emptycart, addcart, fullcart
+ * and deletecart.
+ * One operation is one session's full cart cycle of four requests, and every
+ * invocation runs all the sessions at once.
+ * <p>
+ * GLOBAL: WireMock's scenario with a single state shared by every session,
+ * so sessions step on each other's cart (counted as wrongStateResponses).
+ * <p>
+ * SESSION: the SessionScenarios, with a state per session cookie.
+ * <p>
+ * mvn test-compile exec:exec -Pbenchmark -Djmh.args="SessionScenarioBenchmark"
+ *
+ * @author Jagatheshwaran N
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SessionScenarioBenchmark {
+
+    // Number of concurrent sessions, the operations of one invocation
+    private static final int SESSIONS = 1000;
+
+    // Scenario of the cart stubs
+    private static final String SCENARIO = "book_shopping";
+
+    // State of a cart with the book
+    private static final String CART_HAS_BOOK = "Cart has book";
+
+    // Book added to the cart
+    private static final String BOOK = "MicroService Architecture";
+
+    // Scenario state under benchmark
+    @Param({"GLOBAL", "SESSION"})
+    public String scenarioMode;
+
+    // Embedded WireMock server under benchmark
+    private WireMockServer wireMockServer;
+
+    // HTTP client sending the benchmark requests
+    private HttpClient httpClient;
+
+    // URL of the cart stubs
+    private URI cartUri;
+
+    // Counter of the responses that belonged to another session's cart state
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Mismatches {
+
+        // Responses with another status or body than the session's own state expects
+        public long wrongStateResponses;
+
+    }
+
+    // Method to start the server with the cart stubs before the trial
+    @Setup(Level.Trial)
+    public void startServer() {
+        WireMockConfiguration options = WireMockConfiguration.options()
+                .dynamicPort()
+                .disableRequestJournal()
+                .stubRequestLoggingDisabled(true);
+        UnaryOperator<MappingBuilder> started;
+        UnaryOperator<MappingBuilder> startedToHasBook;
+        UnaryOperator<MappingBuilder> hasBook;
+        UnaryOperator<MappingBuilder> hasBookToStarted;
+        if (scenarioMode.equals("SESSION")) {
+            options.extensions(new SessionScenarios());
+            SessionKey sessionKey = SessionKey.cookie("session");
+            started = stub -> SessionScenarios.inSessionScenario(stub, sessionKey, SCENARIO, Scenario.STARTED, null);
+            startedToHasBook = stub -> SessionScenarios.inSessionScenario(stub, sessionKey, SCENARIO,
+                    Scenario.STARTED, CART_HAS_BOOK);
+            hasBook = stub -> SessionScenarios.inSessionScenario(stub, sessionKey, SCENARIO, CART_HAS_BOOK, null);
+            hasBookToStarted = stub -> SessionScenarios.inSessionScenario(stub, sessionKey, SCENARIO,
+                    CART_HAS_BOOK, Scenario.STARTED);
+        } else {
+            started = stub -> stub.inScenario(SCENARIO).whenScenarioStateIs(Scenario.STARTED);
+            startedToHasBook = stub -> stub.inScenario(SCENARIO).whenScenarioStateIs(Scenario.STARTED)
+                    .willSetStateTo(CART_HAS_BOOK);
+            hasBook = stub -> stub.inScenario(SCENARIO).whenScenarioStateIs(CART_HAS_BOOK);
+            hasBookToStarted = stub -> stub.inScenario(SCENARIO).whenScenarioStateIs(CART_HAS_BOOK)
+                    .willSetStateTo(Scenario.STARTED);
+        }
+        wireMockServer = new WireMockServer(options);
+        wireMockServer.start();
+
+        wireMockServer.stubFor(started.apply(WireMock.get("/cart-items"))
+                .willReturn(WireMock.okJson("{\"cart\": []}")));
+        wireMockServer.stubFor(startedToHasBook.apply(WireMock.post("/cart-items")
+                        .withRequestBody(WireMock.containing(BOOK)))
+                .willReturn(WireMock.status(201)));
+        wireMockServer.stubFor(hasBook.apply(WireMock.get("/cart-items"))
+                .willReturn(WireMock.okJson("{\"cart\": [\"" + BOOK + "\"]}")));
+        wireMockServer.stubFor(hasBookToStarted.apply(WireMock.delete("/cart-items"))
+                .willReturn(WireMock.status(204)));
+
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        cartUri = URI.create(wireMockServer.baseUrl() + "/cart-items");
+    }
+
+    // Method to stop the server after the trial
+    @TearDown(Level.Trial)
+    public void stopServer() {
+        wireMockServer.stop();
+    }
+
+    // Benchmark measuring the cart cycles per second of all the sessions at once
+    @Benchmark
+    @OperationsPerInvocation(SESSIONS)
+    public void cartCycles(Mismatches mismatches) {
+        AtomicLong wrongStateResponses = new AtomicLong();
+        List<CompletableFuture<Void>> sessions = new ArrayList<>(SESSIONS);
+        for (int i = 0; i < SESSIONS; i++) {
+            String cookie = "session=shopper-" + i;
+            sessions.add(send(cookie, HttpRequest.newBuilder(cartUri).GET(), 200, "[]", wrongStateResponses)
+                    .thenCompose(step -> send(cookie, HttpRequest.newBuilder(cartUri)
+                            .POST(HttpRequest.BodyPublishers.ofString(BOOK)), 201, "", wrongStateResponses))
+                    .thenCompose(step -> send(cookie, HttpRequest.newBuilder(cartUri).GET(), 200, BOOK,
+                            wrongStateResponses))
+                    .thenCompose(step -> send(cookie, HttpRequest.newBuilder(cartUri).DELETE(), 204, "",
+                            wrongStateResponses)));
+        }
+        CompletableFuture.allOf(sessions.toArray(CompletableFuture[]::new)).join();
+        mismatches.wrongStateResponses += wrongStateResponses.get();
+    }
+
+    // Method to send one step of a session and count a response of another state
+    private CompletableFuture<Void> send(String cookie, HttpRequest.Builder request, int expectedStatus,
+                                         String expectedBody, AtomicLong wrongStateResponses) {
+        return httpClient.sendAsync(request.header("Cookie", cookie).build(), HttpResponse.BodyHandlers.ofString())
+                .thenAccept(response -> {
+                    if (response.statusCode() != expectedStatus || !response.body().contains(expectedBody)) {
+                        wrongStateResponses.incrementAndGet();
+                    }
+                });
+    }
+
+}
@@ -0,0 +1,146 @@
+package qa.wiremock.concepts.benchmark;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import qa.wiremock.concepts.snapshot.StubSnapshot;
+import qa.wiremock.concepts.stores.ConceptStores;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * This code measures the time from new WireMockServer(...) to the first
+ * served request of a server holding 10k or 100k stubs, loaded from a
+ * mappings/ directory of JSON files or from a StubSnapshot.
+ * <p>
+ * JSON_MAPPINGS: WireMock reads and parses every file of mappings/ at startup.
+ * <p>
+ * SNAPSHOT: the SnapshotStubMappingStore maps the snapshot and reads its
+ * index, parsing only the stub of the first request.
+ * <p>
+ * Both servers look stubs up by method and URL (IndexedStubMappingStore),
+ * so the difference is the loading alone.
+ * <p>
+ * mvn test-compile exec:exec -Pbenchmark -Djmh.args="SnapshotStartupBenchmark"
+ *
+ * @author Jagatheshwaran N
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class SnapshotStartupBenchmark {
+
+    // Source of the stubs under benchmark
+    @Param({"JSON_MAPPINGS", "SNAPSHOT"})
+    public String source;
+
+    // Number of stubs of the server
+    @Param({"10000", "100000"})
+    public int stubs;
+
+    // Temporary root directory of the server, holding mappings/ or the snapshot
+    private Path rootDirectory;
+
+    // Snapshot file of the stubs
+    private Path snapshotFile;
+
+    // Client of the first request
+    private HttpClient httpClient;
+
+    // Server started by an invocation
+    private WireMockServer wireMockServer;
+
+    // Method to write the mapping files or the snapshot before the trial
+    @Setup(Level.Trial)
+    public void writeStubs() throws IOException {
+        rootDirectory = Files.createTempDirectory("snapshot-startup");
+        Path mappingsDirectory = Files.createDirectories(rootDirectory.resolve("mappings"));
+        List<StubMapping> stubMappings = new ArrayList<>(stubs);
+        for (int i = 0; i < stubs; i++) {
+            String id = UUID.randomUUID().toString();
+            String json = String.format(
+                    "{%n  \"id\" : \"%s\",%n  \"request\" : {%n    \"url\" : \"/students/%d\",%n"
+                            + "    \"method\" : \"GET\"%n  },%n  \"response\" : {%n    \"status\" : 200,%n"
+                            + "    \"jsonBody\" : {\"id\" : %d, \"name\" : \"student-%d\"},%n"
+                            + "    \"headers\" : {%n      \"Content-Type\" : \"application/json\"%n    }%n  },%n"
+                            + "  \"uuid\" : \"%s\",%n  \"insertionIndex\" : %d%n}", id, i, i, i, id, i);
+            if (source.equals("SNAPSHOT")) {
+                stubMappings.add(StubMapping.buildFrom(json));
+            } else {
+                Files.writeString(mappingsDirectory.resolve("students_" + i + "-" + id + ".json"), json);
+            }
+        }
+        snapshotFile = rootDirectory.resolve("stubs.snapshot");
+        if (source.equals("SNAPSHOT")) {
+            StubSnapshot.write(stubMappings, snapshotFile);
+        }
+        httpClient = HttpClient.newHttpClient();
+    }
+
+    // Method to delete the root directory after the trial
+    @TearDown(Level.Trial)
+    public void deleteStubs() throws IOException {
+        try (Stream<Path> files = Files.walk(rootDirectory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    // Method to stop the server after each invocation
+    @TearDown(Level.Invocation)
+    public void stopServer() {
+        wireMockServer.stop();
+    }
+
+    // Benchmark measuring the time from a new server to its first served request
+    @Benchmark
+    public int startAndServe() throws IOException, InterruptedException {
+        WireMockConfiguration options = WireMockConfiguration.options()
+                .dynamicPort()
+                .usingFilesUnderDirectory(rootDirectory.toString())
+                .disableRequestJournal()
+                .stubRequestLoggingDisabled(true);
+        ConceptStores stores = new ConceptStores(options.filesRoot()).withIndexedStubStore();
+        if (source.equals("SNAPSHOT")) {
+            stores.withSnapshot(snapshotFile);
+        }
+        wireMockServer = new WireMockServer(options.withStores(stores));
+        wireMockServer.start();
+
+        HttpResponse<Void> response = httpClient.send(
+                HttpRequest.newBuilder(URI.create(wireMockServer.baseUrl() + "/students/" + (stubs - 1))).build(),
+                HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("First request answered " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+
+}
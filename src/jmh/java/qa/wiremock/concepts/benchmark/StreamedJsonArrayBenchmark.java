@@ -0,0 +1,178 @@
+package qa.wiremock.concepts.benchmark;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import qa.wiremock.concepts.response.StreamedJsonArray;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This code benchmarks the download of a large JSON array of students, in
+ * MB/s (the "megabytes" counter), and reports the peak heap of each
+ * iteration and the heap still held after it.
+ * <p>
+ * STRING: the array built once as a String and served with withBody(), as
+ * the stateful tests do with JSONObject.toString(2).
+ * <p>
+ * STREAMED: the array generated by StreamedJsonArray from the element template.
+ * <p>
+ * mvn test-compile exec:exec -Pbenchmark -Djmh.args="StreamedJsonArrayBenchmark"
+ * <p>
+ * A 500 MB array only fits the STREAMED source:
+ * -Djmh.args="StreamedJsonArrayBenchmark -p source=STREAMED -p megabytes=500"
+ *
+ * @author Jagatheshwaran N
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class StreamedJsonArrayBenchmark {
+
+    // Template of one student, as in the student list of the recorded mappings
+    private static final String STUDENT = "{\"id\": {{number}}, \"name\": \"John Doe\", \"location\": \"New York\","
+            + " \"phone\": \"123-456-7890\", \"courses\": [\"Mathematics\", \"History\", \"Science\"]}";
+
+    // Source of the array under benchmark
+    @Param({"STRING", "STREAMED"})
+    public String source;
+
+    // Size of the array in MB
+    @Param({"64"})
+    public int megabytes;
+
+    // Embedded WireMock server under benchmark
+    private WireMockServer wireMockServer;
+
+    // HTTP client sending the benchmark requests
+    private HttpClient httpClient;
+
+    // Request matching the array stub
+    private HttpRequest request;
+
+    // Method to start the server with the array stub before the trial
+    @Setup(Level.Trial)
+    public void startServer() {
+        StreamedJsonArray.ElementTemplate template = StreamedJsonArray.ElementTemplate.parse(STUDENT);
+        long count = megabytes * 1024L * 1024L / template.arrayLength(1);
+
+        wireMockServer = new WireMockServer(StreamedJsonArray.configure(WireMockConfiguration.options()
+                .dynamicPort()
+                .disableRequestJournal()
+                .stubRequestLoggingDisabled(true)));
+        wireMockServer.start();
+        if (source.equals("STRING")) {
+            wireMockServer.stubFor(WireMock.get("/students").willReturn(WireMock.okJson(buildArray(count))));
+        } else {
+            wireMockServer.stubFor(WireMock.get("/students").willReturn(WireMock.okJson(STUDENT)
+                    .withTransformers(StreamedJsonArray.NAME)
+                    .withTransformerParameters(StreamedJsonArray.count(count))));
+        }
+
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        request = HttpRequest.newBuilder(URI.create(wireMockServer.baseUrl() + "/students")).GET().build();
+    }
+
+    // Method to stop the server after the trial
+    @TearDown(Level.Trial)
+    public void stopServer() {
+        wireMockServer.stop();
+    }
+
+    // Method to clear the peak heap before each iteration
+    @Setup(Level.Iteration)
+    public void resetPeakHeap() {
+        System.gc();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    // Method to print the peak heap of the iteration, summed over the heap pools, and the heap held after it
+    @TearDown(Level.Iteration)
+    public void printHeap() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        System.gc();
+        long held = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        System.out.println(" [" + source + "] peak heap " + peak / (1024 * 1024) + " MB, held after GC "
+                + held / (1024 * 1024) + " MB");
+    }
+
+    // Benchmark downloading the whole array, discarding it as it arrives
+    @Benchmark
+    public long download(Downloaded downloaded) throws IOException, InterruptedException {
+        HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        long bytes;
+        try (InputStream body = response.body()) {
+            bytes = body.transferTo(OutputStream.nullOutputStream());
+        }
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Unexpected array response, status " + response.statusCode());
+        }
+        downloaded.megabytes += bytes / (1024.0 * 1024.0);
+        return bytes;
+    }
+
+    // Method to build the array as one String, replacing the placeholder of each element
+    private static String buildArray(long count) {
+        StringBuilder array = new StringBuilder("[");
+        for (long number = 1; number <= count; number++) {
+            if (number > 1) {
+                array.append(',');
+            }
+            array.append(STUDENT.replace("{{number}}", Long.toString(number)));
+        }
+        return array.append(']').toString();
+    }
+
+    /**
+     * Megabytes downloaded, reported by JMH as MB/s.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Downloaded {
+
+        public double megabytes;
+
+        // Method to clear the counter before each iteration
+        @Setup(Level.Iteration)
+        public void reset() {
+            megabytes = 0;
+        }
+    }
+
+}
@@ -0,0 +1,118 @@
+package qa.wiremock.concepts.benchmark;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import qa.wiremock.concepts.stores.ConceptStores;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This code benchmarks the stub matching of an embedded WireMock server.
+ * For every stub shape used in the concept tests, it registers from 10 up to
+ * 100,000 stubs and sends HTTP requests that match the stub evaluated last,
+ * with WireMock's own stub store and with the IndexedStubMappingStore.
+ * The throughput benchmark reports ops/s and the latency benchmark reports the
+ * sampled latency percentiles (p99 included). Run with "-prof gc" (the default
+ * of the benchmark profile) to report the allocation per request, which covers
+ * the embedded server since it runs in the benchmark JVM.
+ * <p>
+ * mvn test-compile exec:exec -Pbenchmark -Djmh.args="StubMatchingBenchmark -prof gc"
+ *
+ * @author Jagatheshwaran N
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StubMatchingBenchmark {
+
+    // Number of stubs registered on the server
+    @Param({"10", "100", "1000", "10000", "100000"})
+    public int stubCount;
+
+    // Shape of the registered stubs
+    @Param({"URL_PATH", "HEADER", "JSON_BODY", "ANY_URL"})
+    public StubShape stubShape;
+
+    // Whether stubs are looked up through the IndexedStubMappingStore instead of WireMock's linear scan
+    @Param({"false", "true"})
+    public boolean indexedStore;
+
+    // Embedded WireMock server under benchmark
+    private WireMockServer wireMockServer;
+
+    // HTTP client sending the benchmark requests
+    private HttpClient httpClient;
+
+    // Request matching the stub evaluated last
+    private HttpRequest request;
+
+    // Method to start the server and register the stubs before the trial
+    @Setup(Level.Trial)
+    public void startServer() {
+        // The request journal and request logging are disabled so that only matching is measured
+        WireMockConfiguration options = WireMockConfiguration.options()
+                .dynamicPort()
+                .disableRequestJournal()
+                .stubRequestLoggingDisabled(true);
+        if (indexedStore) {
+            options.withStores(new ConceptStores(options.filesRoot()).withIndexedStubStore());
+        }
+        wireMockServer = new WireMockServer(options);
+        wireMockServer.start();
+
+        stubShape.register(wireMockServer, stubCount);
+
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        request = stubShape.request(wireMockServer.baseUrl());
+    }
+
+    // Method to stop the server after the trial
+    @TearDown(Level.Trial)
+    public void stopServer() {
+        wireMockServer.stop();
+    }
+
+    // Benchmark measuring the matched requests per second
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public byte[] throughput() throws IOException, InterruptedException {
+        return matchStub();
+    }
+
+    // Benchmark sampling the latency distribution of matched requests
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public byte[] latency() throws IOException, InterruptedException {
+        return matchStub();
+    }
+
+    // Method to send one request and read the matched response
+    private byte[] matchStub() throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() >= 300) {
+            throw new IllegalStateException("Stub did not match, status " + response.statusCode());
+        }
+        return response.body();
+    }
+
+}
@@ -0,0 +1,93 @@
+package qa.wiremock.concepts.benchmark;
+
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.common.DataTruncationSettings;
+import com.github.tomakehurst.wiremock.common.Json;
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.http.Response;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import qa.wiremock.concepts.metrics.StubMetrics;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This code benchmarks the cost StubMetrics adds to each request: the four
+ * serve event listener callbacks WireMock makes while serving a request to a
+ * stub, from before the match to the completed response. The budget is
+ * 100 ns per request, met by recording the phases of one request in 16;
+ * sampleEvery=1 shows the cost of recording them all.
+ * <p>
+ * mvn test-compile exec:exec -Pbenchmark -Djmh.args="StubMetricsBenchmark"
+ *
+ * @author Jagatheshwaran N
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StubMetricsBenchmark {
+
+    // Number of stubs the requests are spread over
+    @Param({"1", "1000"})
+    public int stubs;
+
+    // Share of the requests whose phases are recorded, one in this many
+    @Param({"16", "1"})
+    public int sampleEvery;
+
+    // Metrics under benchmark
+    private StubMetrics stubMetrics;
+
+    // Completed serve events of a request to each stub
+    private ServeEvent[] serveEvents;
+
+    // Index of the next serve event
+    private int next;
+
+    // Method to build the completed serve events of the stubs before the trial
+    @Setup(Level.Trial)
+    public void buildServeEvents() {
+        stubMetrics = new StubMetrics(sampleEvery);
+        serveEvents = new ServeEvent[stubs];
+        LoggedRequest request = Json.read("{\"url\": \"/user/emp101\", \"absoluteUrl\": \"http://localhost/user/emp101\","
+                + " \"method\": \"GET\"}", LoggedRequest.class);
+        for (int i = 0; i < stubs; i++) {
+            StubMapping stubMapping = WireMock.get("/user/emp" + i)
+                    .willReturn(WireMock.okJson("{\"worker\": {\"id\": \"EMP101\"}}"))
+                    .build();
+            serveEvents[i] = ServeEvent.of(request)
+                    .withStubMapping(stubMapping)
+                    .withResponseDefinition(stubMapping.getResponse())
+                    .complete(Response.response().status(200).body("{}").build(), DataTruncationSettings.NO_TRUNCATION);
+        }
+    }
+
+    // Benchmark measuring the metrics callbacks of one request
+    @Benchmark
+    public StubMetrics recordRequest() {
+        ServeEvent serveEvent = serveEvents[next];
+        next = next + 1 == serveEvents.length ? 0 : next + 1;
+        stubMetrics.beforeMatch(serveEvent, Parameters.empty());
+        stubMetrics.afterMatch(serveEvent, Parameters.empty());
+        stubMetrics.beforeResponseSent(serveEvent, Parameters.empty());
+        stubMetrics.afterComplete(serveEvent, Parameters.empty());
+        return stubMetrics;
+    }
+
+}
@@ -0,0 +1,125 @@
+package qa.wiremock.concepts.benchmark;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+
+/**
+ * This code describes the stub shapes used by the stub matching benchmarks.
+ * Each shape is taken from a concept test of this repository and knows how to
+ * register a given number of stubs of that shape and how to build the request
+ * that the benchmark sends.
+ * The request always targets the oldest stub, which WireMock evaluates last
+ * among stubs of equal priority, so a linear scan visits every stub.
+ * <p>
+ * URL_PATH: urlPathEqualTo stubs, as in the stateful cart test.
+ * <p>
+ * HEADER: stubs on one path that differ by Accept header, as in ConditionalMockingTest.
+ * <p>
+ * JSON_BODY: equalToJson body stubs, as in VerifyMockPostAPITest.
+ * <p>
+ * ANY_URL: a single any(anyUrl()) catch-all behind path stubs, as in WireMockAnyUrlGetAPITest.
+ *
+ * @author Jagatheshwaran N
+ */
+public enum StubShape {
+
+    URL_PATH {
+        @Override
+        public void register(WireMockServer wireMockServer, int stubCount) {
+            for (int i = 0; i < stubCount; i++) {
+                wireMockServer.stubFor(WireMock.get(WireMock.urlPathEqualTo("/cart-items/" + i))
+                        .willReturn(WireMock.okJson("{\"cart\": [\"item-" + i + "\"]}")));
+            }
+        }
+
+        @Override
+        public HttpRequest request(String baseUrl) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/cart-items/0")).GET().build();
+        }
+    },
+
+    HEADER {
+        @Override
+        public void register(WireMockServer wireMockServer, int stubCount) {
+            for (int i = 0; i < stubCount; i++) {
+                wireMockServer.stubFor(WireMock.get(WireMock.urlPathEqualTo("/movies/1"))
+                        .withHeader("Accept", WireMock.equalTo(acceptHeader(i)))
+                        .willReturn(WireMock.okJson("{\"current-status\": \"running\"}")));
+            }
+        }
+
+        @Override
+        public HttpRequest request(String baseUrl) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/movies/1"))
+                    .header("Accept", acceptHeader(0))
+                    .GET()
+                    .build();
+        }
+    },
+
+    JSON_BODY {
+        @Override
+        public void register(WireMockServer wireMockServer, int stubCount) {
+            for (int i = 0; i < stubCount; i++) {
+                wireMockServer.stubFor(WireMock.post(WireMock.urlEqualTo("/user/add"))
+                        .withRequestBody(WireMock.equalToJson(payload(i)))
+                        .willReturn(WireMock.jsonResponse("{\"worker\": {\"id\": \"EMP" + i + "\"}}", 201)));
+            }
+        }
+
+        @Override
+        public HttpRequest request(String baseUrl) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/user/add"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(payload(0)))
+                    .build();
+        }
+    },
+
+    ANY_URL {
+        @Override
+        public void register(WireMockServer wireMockServer, int stubCount) {
+            // The catch-all is registered first, so it is evaluated after every path stub
+            wireMockServer.stubFor(WireMock.any(WireMock.anyUrl())
+                    .willReturn(WireMock.okJson("{\"worker\": {\"id\": \"EMP101\"}}")));
+            for (int i = 1; i < stubCount; i++) {
+                wireMockServer.stubFor(WireMock.any(WireMock.urlPathEqualTo("/other/" + i))
+                        .willReturn(WireMock.ok()));
+            }
+        }
+
+        @Override
+        public HttpRequest request(String baseUrl) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/user/emp101")).GET().build();
+        }
+    };
+
+    // Method to register the given number of stubs of this shape
+    public abstract void register(WireMockServer wireMockServer, int stubCount);
+
+    // Method to build the request matching the oldest stub of this shape
+    public abstract HttpRequest request(String baseUrl);
+
+    // Method to build the Accept header of a header-conditional stub
+    private static String acceptHeader(int index) {
+        return "application/vnd.movie." + index + "+json";
+    }
+
+    // Method to build the JSON payload of a body stub
+    private static String payload(int index) {
+        return """
+                {
+                  "id": %d,
+                  "name": "John Doe",
+                  "location": "New York",
+                  "address": {
+                    "city": "New York",
+                    "country": "United States"
+                  }
+                }""".formatted(index);
+    }
+
+}
@@ -0,0 +1,127 @@
+package qa.wiremock.concepts.benchmark;
+
+import com.github.javafaker.Faker;
+import com.github.jknack.handlebars.Helper;
+import com.github.tomakehurst.wiremock.extension.responsetemplating.HandlebarsOptimizedTemplate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import qa.wiremock.concepts.response_template.CachedTemplateEngine;
+import qa.wiremock.concepts.response_template.SyntheticDataPools;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This code benchmarks the renders per second of a worker response filled
+ * with synthetic people, from 4 threads at once (override with -t).
+ * <p>
+ * FAKER: a helper calling Faker on every render.
+ * <p>
+ * POOLS: the "synthetic" helper of SyntheticDataPools, each render drawing the
+ * next record of the seeded sequence.
+ * <p>
+ * POOLS_KEYED: the same helper, reading the record of the worker id.
+ * <p>
+ * On a single core, POOLS rendered about 91,000 workers per second (about
+ * 820,000 fields), against about 4,000 for FAKER. That is well short of
+ * hundreds of thousands of renders per second: most of a render is
+ * Handlebars itself, not the helper.
+ * <p>
+ * mvn test-compile exec:exec -Pbenchmark -Djmh.args="SyntheticDataBenchmark"
+ *
+ * @author Jagatheshwaran N
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class SyntheticDataBenchmark {
+
+    // Worker template, keyed by the worker id when the source is keyed
+    private static final String WORKER_TEMPLATE = "{\"worker\": {"
+            + "\"id\": \"EMP{{synthetic 'id' %1$s}}\", \"name\": \"{{synthetic 'name' %1$s}}\","
+            + " \"email\": \"{{synthetic 'email' %1$s}}\", \"phone\": \"{{synthetic 'phone' %1$s}}\","
+            + " \"address\": {\"street\": \"{{synthetic 'street' %1$s}}\", \"city\": \"{{synthetic 'city' %1$s}}\","
+            + " \"state\": \"{{synthetic 'state' %1$s}}\", \"zipcode\": \"{{synthetic 'zipcode' %1$s}}\","
+            + " \"country\": \"{{synthetic 'country' %1$s}}\"}}}";
+
+    // Source of the synthetic data under benchmark
+    @Param({"FAKER", "POOLS", "POOLS_KEYED"})
+    public String source;
+
+    // Compiled worker template
+    private HandlebarsOptimizedTemplate template;
+
+    // Template models, one per worker id
+    private List<Map<String, Object>> models;
+
+    // Method to build the helper and compile the template before the trial
+    @Setup(Level.Trial)
+    public void setUp() {
+        Map<String, Helper<?>> helpers;
+        if (source.equals("FAKER")) {
+            Faker faker = new Faker(Locale.US);
+            Helper<Object> helper = (field, options) -> switch (String.valueOf(field)) {
+                case "id" -> faker.number().digits(8);
+                case "name" -> faker.name().fullName();
+                case "email" -> faker.internet().emailAddress();
+                case "phone" -> faker.phoneNumber().cellPhone();
+                case "street" -> faker.address().streetAddress();
+                case "city" -> faker.address().city();
+                case "state" -> faker.address().state();
+                case "zipcode" -> faker.address().zipCode();
+                default -> faker.address().country();
+            };
+            helpers = Map.of(SyntheticDataPools.HELPER, helper);
+        } else {
+            long start = System.nanoTime();
+            helpers = new SyntheticDataPools(42).provideTemplateHelpers();
+            System.out.println("Pools generated in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        }
+        String key = source.equals("POOLS_KEYED") ? "key=request.pathSegments.[1]" : "";
+        template = new CachedTemplateEngine(helpers, null, Set.of(), false)
+                .getUncachedTemplate(String.format(WORKER_TEMPLATE, key));
+        models = IntStream.range(0, 1024)
+                .mapToObj(id -> Map.<String, Object>of("request", Map.of("pathSegments", List.of("workers", String.valueOf(id)))))
+                .toList();
+    }
+
+    // Benchmark rendering one worker
+    @Benchmark
+    public String render(ThreadIndex threadIndex) {
+        return template.apply(models.get(threadIndex.next()));
+    }
+
+    /**
+     * Worker id of the next render of a thread.
+     */
+    @State(Scope.Thread)
+    public static class ThreadIndex {
+
+        private int next;
+
+        private int next() {
+            next = (next + 1) & 1023;
+            return next;
+        }
+    }
+
+}
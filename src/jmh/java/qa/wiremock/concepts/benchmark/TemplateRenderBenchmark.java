@@ -0,0 +1,96 @@
+package qa.wiremock.concepts.benchmark;
+
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.extension.responsetemplating.HttpTemplateCacheKey;
+import com.github.tomakehurst.wiremock.extension.responsetemplating.TemplateEngine;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import qa.wiremock.concepts.response_template.CachedTemplateEngine;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This code benchmarks the render latency of the flight response template of
+ * WireMockResponseTemplatingTest, from 16 threads at once (override with -t).
+ * Each operation does what the response-template transformer does per
+ * request: look the template up for the stub's body and render it.
+ * <p>
+ * UNCACHED: the template is parsed on every request.
+ * <p>
+ * WIREMOCK_CACHE: WireMock's TemplateEngine, keyed by the response definition.
+ * <p>
+ * TEXT_CACHE: the CachedTemplateEngine, keyed by the template text.
+ * <p>
+ * mvn test-compile exec:exec -Pbenchmark -Djmh.args="TemplateRenderBenchmark -prof gc"
+ *
+ * @author Jagatheshwaran N
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class TemplateRenderBenchmark {
+
+    // Path of the flight stub definition
+    private static final String FLIGHT_FILE = "src/test/resources/__files/json/flight.json";
+
+    // Template lookup under benchmark
+    @Param({"UNCACHED", "WIREMOCK_CACHE", "TEXT_CACHE"})
+    public String templateCache;
+
+    // Template engine under benchmark
+    private TemplateEngine templateEngine;
+
+    // Response definition of the flight stub
+    private ResponseDefinition responseDefinition;
+
+    // Template model with the query parameters of a flight search
+    private Map<String, Object> model;
+
+    // Method to build the engine and the flight stub before the trial
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        templateEngine = templateCache.equals("TEXT_CACHE")
+                ? new CachedTemplateEngine(Map.of(), null, Set.of(), false)
+                : new TemplateEngine(Map.of(), null, Set.of(), false);
+
+        String flightTemplate = new JSONObject(Files.readString(Paths.get(FLIGHT_FILE), StandardCharsets.UTF_8))
+                .getJSONObject("response").getJSONObject("jsonBody").toString(2);
+        responseDefinition = ResponseDefinitionBuilder.responseDefinition().withBody(flightTemplate).build();
+        model = Map.of("request", Map.of("query", Map.of("from", "Chennai", "to", "Texas")));
+    }
+
+    // Benchmark looking up and rendering the flight template
+    @Benchmark
+    public String render() {
+        // The transformer reads the body from the response definition on every request
+        String content = responseDefinition.getBody();
+        if (templateCache.equals("UNCACHED")) {
+            return templateEngine.getUncachedTemplate(content).apply(model);
+        }
+        return templateEngine.getTemplate(HttpTemplateCacheKey.forInlineBody(responseDefinition), content).apply(model);
+    }
+
+}
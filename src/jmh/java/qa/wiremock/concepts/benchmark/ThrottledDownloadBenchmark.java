@@ -0,0 +1,144 @@
+package qa.wiremock.concepts.benchmark;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import qa.wiremock.concepts.delay.ThrottledResponses;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This code benchmarks thousands of concurrent slow downloads of a multi-MB
+ * body, dribbled in chunks over a few seconds:
+ * - WHEEL: ThrottledResponses writes every chunk from its timer wheel;
+ * - SLEEPING: WireMock's own dribble delay sleeps between the chunks, so
+ * the server needs a thread per download in flight, and it reads the whole
+ * body of each download into memory first.
+ * Each operation starts all downloads at once and waits for the last one;
+ * the peak number of live threads of the JVM is printed at the end of the
+ * trial. SLEEPING runs out of a 2 GB heap long before 5000 downloads of
+ * 2 MB, so the default run compares the two on 200 downloads.
+ * <p>
+ * mvn test-compile exec:exec -Pbenchmark -Djmh.args="ThrottledDownloadBenchmark"
+ * <p>
+ * The thousands of downloads are measured on the timer wheel alone:
+ * <p>
+ * mvn test-compile exec:exec -Pbenchmark -Djmh.args="ThrottledDownloadBenchmark -p writer=WHEEL -p downloads=5000"
+ *
+ * @author Jagatheshwaran N
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class ThrottledDownloadBenchmark {
+
+    // Chunks and duration of the dribble of each download
+    private static final int CHUNKS = 16;
+    private static final int DRIBBLE_MILLIS = 8000;
+
+    // Writer of the chunks
+    @Param({"WHEEL", "SLEEPING"})
+    public String writer;
+
+    // Number of concurrent downloads
+    @Param({"200"})
+    public int downloads;
+
+    // Size of the downloaded body in bytes
+    @Param({"2097152"})
+    public int bodyBytes;
+
+    // Server of the slow downloads
+    private WireMockServer wireMockServer;
+
+    // Throttled responses of the server, null for the sleeping writer
+    private ThrottledResponses throttledResponses;
+
+    // HTTP client of the downloads
+    private HttpClient httpClient;
+
+    // Request of the slow download
+    private HttpRequest request;
+
+    // Method to start the server with the slow download stub before the trial
+    @Setup(Level.Trial)
+    public void startServer() {
+        WireMockConfiguration options = WireMockConfiguration.options()
+                .dynamicPort()
+                .disableRequestJournal()
+                .stubRequestLoggingDisabled(true)
+                .gzipDisabled(true)
+                .jettyAcceptQueueSize(downloads);
+        if (writer.equals("WHEEL")) {
+            throttledResponses = new ThrottledResponses();
+            ThrottledResponses.configure(options, throttledResponses);
+        } else {
+            options.containerThreads(downloads + 50);
+        }
+        wireMockServer = new WireMockServer(options);
+        wireMockServer.start();
+        wireMockServer.stubFor(WireMock.get("/download/report")
+                .willReturn(WireMock.ok().withBody(new byte[bodyBytes])
+                        .withChunkedDribbleDelay(CHUNKS, DRIBBLE_MILLIS)
+                        .withTransformers(throttledResponses != null ? new String[]{ThrottledResponses.NAME} : new String[0])));
+
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        request = HttpRequest.newBuilder(URI.create(wireMockServer.baseUrl() + "/download/report")).GET().build();
+        ManagementFactory.getThreadMXBean().resetPeakThreadCount();
+    }
+
+    // Method to print the peak threads and stop the server after the trial
+    @TearDown(Level.Trial)
+    public void stopServer() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        System.out.printf("%n%s: peak %d live threads for %d downloads%s%n", writer, threads.getPeakThreadCount(),
+                downloads, throttledResponses != null ? "; " + throttledResponses : "");
+        wireMockServer.stop();
+        if (throttledResponses != null) {
+            throttledResponses.close();
+        }
+    }
+
+    // Benchmark measuring the time until every concurrent download is complete
+    @Benchmark
+    public long downloadAll() {
+        List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>(downloads);
+        for (int i = 0; i < downloads; i++) {
+            responses.add(httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
+        }
+        long ok = 0;
+        for (CompletableFuture<HttpResponse<Void>> response : responses) {
+            ok += response.join().statusCode() == 200 ? 1 : 0;
+        }
+        if (ok != downloads) {
+            throw new IllegalStateException((downloads - ok) + " downloads failed");
+        }
+        return ok;
+    }
+
+}
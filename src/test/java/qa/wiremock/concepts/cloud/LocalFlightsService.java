@@ -0,0 +1,179 @@
+package qa.wiremock.concepts.cloud;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.common.Json;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import qa.wiremock.concepts.parallel.WireMockServerPool;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManagerFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This code runs a local stand-in for the WireMock Cloud flights endpoint
+ * (https://testautomation.wiremockapi.cloud/flights), so that the cloud
+ * concept tests run without the internet.
+ * It serves the same templated /flights?from=&to= contract from the
+ * json/flight.json stub mapping, over HTTPS with a keystore generated by the
+ * JDK's keytool for localhost on the first start of each JVM, in a
+ * temporary directory of its own, so that JVMs running the tests at the same
+ * time never write the same keystore.
+ * The tests talk to the stand-in by default; -Dcloud.flights=remote points
+ * them at WireMock Cloud again.
+ *
+ * @author Jagatheshwaran N
+ */
+public final class LocalFlightsService implements AutoCloseable {
+
+    // Base URL of the flights endpoint on WireMock Cloud
+    public static final String CLOUD_BASE_URL = "https://testautomation.wiremockapi.cloud";
+
+    // System property switching the cloud tests between the stand-in ("local") and WireMock Cloud ("remote")
+    public static final String TARGET_PROPERTY = "cloud.flights";
+
+    // Stub mapping of the flights endpoint, under the __files directory
+    private static final Path FLIGHT_MAPPING = Paths.get(System.getProperty("user.dir"), "src", "test", "resources",
+            "__files", "json", "flight.json");
+
+    // Password of the generated keystore
+    private static final String KEYSTORE_PASSWORD = "local-flights";
+
+    // Accept queue of the stand-in, large enough for a burst of parallel queries each opening a connection
+    private static final int ACCEPT_QUEUE_SIZE = 1024;
+
+    // Keystore generated by this JVM, null until the first start
+    private static Path keystore;
+
+    // Server of the stand-in
+    private final WireMockServer wireMockServer;
+
+    private LocalFlightsService(WireMockServer wireMockServer) {
+        this.wireMockServer = wireMockServer;
+    }
+
+    // Method to check whether the cloud tests target WireMock Cloud rather than the stand-in
+    public static boolean targetsCloud() {
+        return "remote".equalsIgnoreCase(System.getProperty(TARGET_PROPERTY, "local"));
+    }
+
+    // Method to start the stand-in on free HTTP and HTTPS ports
+    public static LocalFlightsService start() {
+        Path keystore = generateKeystore();
+        WireMockServer wireMockServer = WireMockServerPool.acquire(WireMockServerPool.defaultOptions()
+                .jettyAcceptQueueSize(ACCEPT_QUEUE_SIZE)
+                .dynamicHttpsPort()
+                .keystoreType("PKCS12")
+                .keystorePath(keystore.toString())
+                .keystorePassword(KEYSTORE_PASSWORD)
+                .keyManagerPassword(KEYSTORE_PASSWORD));
+        try {
+            StubMapping flights = Json.read(Files.readString(FLIGHT_MAPPING, StandardCharsets.UTF_8), StubMapping.class);
+            // WireMock Cloud renders the mapping's templates, which a local server only does for templated stubs
+            flights.setResponse(ResponseDefinitionBuilder.like(flights.getResponse())
+                    .withTransformers("response-template")
+                    .build());
+            wireMockServer.addStubMapping(flights);
+        } catch (IOException e) {
+            WireMockServerPool.release(wireMockServer);
+            throw new UncheckedIOException(e);
+        }
+        return new LocalFlightsService(wireMockServer);
+    }
+
+    // Method to return the HTTPS base URL of the stand-in
+    public String baseUrl() {
+        return String.format("https://localhost:%d", wireMockServer.httpsPort());
+    }
+
+    // Method to return the server of the stand-in
+    public WireMockServer server() {
+        return wireMockServer;
+    }
+
+    // Method to return the keystore of the stand-in, which clients also trust
+    public Path keystore() {
+        return generateKeystore();
+    }
+
+    // Method to return the password of the keystore
+    public String keystorePassword() {
+        return KEYSTORE_PASSWORD;
+    }
+
+    // Method to build an SSL context trusting the certificate of the stand-in
+    public SSLContext sslContext() {
+        try (InputStream in = Files.newInputStream(keystore())) {
+            KeyStore keyStore = KeyStore.getInstance("PKCS12");
+            keyStore.load(in, KEYSTORE_PASSWORD.toCharArray());
+            TrustManagerFactory trustManagerFactory = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+            trustManagerFactory.init(keyStore);
+            SSLContext sslContext = SSLContext.getInstance("TLS");
+            sslContext.init(null, trustManagerFactory.getTrustManagers(), null);
+            return sslContext;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot trust the keystore " + keystore(), e);
+        }
+    }
+
+    // Stops the stand-in
+    @Override
+    public void close() {
+        WireMockServerPool.release(wireMockServer);
+    }
+
+    // Method to generate a fresh self-signed localhost keystore with keytool, once per JVM, in a temporary directory
+    private static synchronized Path generateKeystore() {
+        if (keystore != null) {
+            return keystore;
+        }
+        Path generated;
+        try {
+            Path directory = Files.createTempDirectory("local-flights");
+            generated = directory.resolve("localhost.p12");
+            // Deleted in reverse order of registration, the keystore before its directory
+            directory.toFile().deleteOnExit();
+            generated.toFile().deleteOnExit();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Path keytool = Paths.get(System.getProperty("java.home"), "bin", "keytool");
+        List<String> command = List.of(keytool.toString(), "-genkeypair",
+                "-alias", "localhost",
+                "-keyalg", "EC", "-groupname", "secp256r1",
+                "-dname", "CN=localhost",
+                "-ext", "SAN=dns:localhost,ip:127.0.0.1",
+                "-validity", "7",
+                "-storetype", "PKCS12",
+                "-keystore", generated.toString(),
+                "-storepass", KEYSTORE_PASSWORD,
+                "-keypass", KEYSTORE_PASSWORD);
+        try {
+            Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+            String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+            if (!process.waitFor(30, TimeUnit.SECONDS) || process.exitValue() != 0) {
+                throw new IllegalStateException("keytool failed to generate " + generated + ": " + output);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while generating " + generated, e);
+        }
+        keystore = generated;
+        return keystore;
+    }
+
+}
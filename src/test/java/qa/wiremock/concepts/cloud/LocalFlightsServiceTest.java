@@ -0,0 +1,152 @@
+package qa.wiremock.concepts.cloud;
+
+import com.github.tomakehurst.wiremock.client.WireMock;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * This code verifies the LocalFlightsService stand-in of the WireMock Cloud
+ * flights endpoint: its latency next to WireMock Cloud's, when the cloud is
+ * reachable, and 1000 parallel flight queries over HTTPS, each answered with
+ * its own route.
+ *
+ * @author Jagatheshwaran N
+ */
+public class LocalFlightsServiceTest {
+
+    // Sequential queries timed on each endpoint, after the warm-up ones
+    private static final int WARM_UP_QUERIES = 20;
+    private static final int TIMED_QUERIES = 100;
+    private static final int TIMED_CLOUD_QUERIES = 10;
+
+    // Parallel queries of the concurrency test
+    private static final int PARALLEL_QUERIES = 1000;
+
+    // Local stand-in under test
+    private static LocalFlightsService localFlightsService;
+
+    // HTTP client trusting the certificate of the stand-in, and one trusting the JDK's certificates for WireMock Cloud
+    private static HttpClient httpClient;
+    private static HttpClient cloudHttpClient;
+
+    // Method to start the local stand-in before test execution
+    @BeforeClass
+    public void startupServer() {
+        localFlightsService = LocalFlightsService.start();
+        // Connect timeout long enough for the TLS handshakes of a burst of parallel queries on a single core
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .sslContext(localFlightsService.sslContext())
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+        cloudHttpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    // Method to shut down the local stand-in after test execution
+    @AfterClass
+    public void shutdownServer() {
+        localFlightsService.close();
+    }
+
+    // Test method to compare the latency of the stand-in with WireMock Cloud's
+    @Test
+    public void testLatencyComparison() throws InterruptedException {
+        for (int i = 0; i < WARM_UP_QUERIES; i++) {
+            query(httpClient, localFlightsService.baseUrl(), "Chennai", "Texas");
+        }
+        double[] local = timeQueries(httpClient, localFlightsService.baseUrl(), TIMED_QUERIES);
+        System.out.printf("Local stand-in: p50 %.2f ms, p99 %.2f ms%n", percentile(local, 0.5), percentile(local, 0.99));
+
+        // Assert that the stand-in answers well within an internet round trip
+        Assert.assertTrue(percentile(local, 0.5) < 100, percentile(local, 0.5) + " ms");
+
+        // Compares with WireMock Cloud only when it can be reached, which air-gapped CI cannot
+        double[] cloud;
+        try {
+            cloud = timeQueries(cloudHttpClient, LocalFlightsService.CLOUD_BASE_URL, TIMED_CLOUD_QUERIES);
+        } catch (InterruptedException e) {
+            throw e;
+        } catch (Exception | AssertionError e) {
+            // Unreachable hosts, TLS failures and proxies answering with an error page all skip the comparison
+            System.out.println("WireMock Cloud unreachable, local latency only: " + e);
+            return;
+        }
+        System.out.printf("WireMock Cloud: p50 %.2f ms, p99 %.2f ms%n", percentile(cloud, 0.5), percentile(cloud, 0.99));
+        Assert.assertTrue(percentile(local, 0.5) < percentile(cloud, 0.5));
+    }
+
+    // Test method to verify that 1000 parallel flight queries are each answered with their own route
+    @Test
+    public void testParallelFlightQueries() {
+        long start = System.nanoTime();
+        List<CompletableFuture<HttpResponse<String>>> queries = new ArrayList<>();
+        for (int i = 0; i < PARALLEL_QUERIES; i++) {
+            queries.add(httpClient.sendAsync(flightsRequest(localFlightsService.baseUrl(), "City" + i % 50, "Destination" + i),
+                    HttpResponse.BodyHandlers.ofString()));
+        }
+        CompletableFuture.allOf(queries.toArray(CompletableFuture[]::new)).join();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        System.out.println(PARALLEL_QUERIES + " parallel flight queries in " + elapsedMillis + " ms");
+
+        // Assert that every query succeeded and was rendered with its own query parameters
+        for (int i = 0; i < PARALLEL_QUERIES; i++) {
+            HttpResponse<String> response = queries.get(i).join();
+            Assert.assertEquals(response.statusCode(), 200);
+            Assert.assertTrue(response.body().contains("\"from\":\"City" + i % 50 + "\""), response.body());
+            Assert.assertTrue(response.body().contains("\"to\":\"Destination" + i + "\""), response.body());
+        }
+        Assert.assertTrue(localFlightsService.server()
+                .countRequestsMatching(WireMock.getRequestedFor(WireMock.urlPathEqualTo("/flights")).build())
+                .getCount() >= PARALLEL_QUERIES);
+    }
+
+    // Method to time sequential flight queries, in milliseconds
+    private static double[] timeQueries(HttpClient client, String baseUrl, int queries) throws InterruptedException {
+        double[] millis = new double[queries];
+        for (int i = 0; i < queries; i++) {
+            long start = System.nanoTime();
+            query(client, baseUrl, "Chennai", "Texas");
+            millis[i] = (System.nanoTime() - start) / 1e6;
+        }
+        Arrays.sort(millis);
+        return millis;
+    }
+
+    // Method to send a flight query and check that it succeeded
+    private static void query(HttpClient client, String baseUrl, String from, String to) throws InterruptedException {
+        try {
+            HttpResponse<String> response = client.send(flightsRequest(baseUrl, from, to), HttpResponse.BodyHandlers.ofString());
+            Assert.assertEquals(response.statusCode(), 200);
+        } catch (IOException e) {
+            throw new IllegalStateException("Flight query to " + baseUrl + " failed: " + e, e);
+        }
+    }
+
+    // Method to build a flight query
+    private static HttpRequest flightsRequest(String baseUrl, String from, String to) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/flights?from=" + from + "&to=" + to))
+                .timeout(Duration.ofSeconds(30))
+                .build();
+    }
+
+    // Method to read a percentile of sorted samples
+    private static double percentile(double[] sorted, double quantile) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(quantile * sorted.length) - 1)];
+    }
+
+}
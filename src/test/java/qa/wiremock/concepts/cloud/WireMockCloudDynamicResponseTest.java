@@ -1,7 +1,10 @@
 package qa.wiremock.concepts.cloud;
 
 import io.restassured.response.ValidatableResponse;
+import io.restassured.specification.RequestSpecification;
 import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
 import static io.restassured.RestAssured.given;
@@ -15,20 +18,48 @@ import static io.restassured.RestAssured.given;
  * specific query parameters.
  * It's a fundamental test validating the functionality and responsiveness of the WireMock
  * cloud service.
+ * By default it runs against the LocalFlightsService stand-in over HTTPS, serving the same
+ * contract without the internet; -Dcloud.flights=remote runs it against WireMock Cloud.
  *
  * @author Jagatheshwaran N
  */
 public class WireMockCloudDynamicResponseTest {
 
+    // Local stand-in of the cloud endpoint, null when the test targets WireMock Cloud
+    private static LocalFlightsService localFlightsService;
+
+    // Method to start the local stand-in before test execution, unless WireMock Cloud is targeted
+    @BeforeClass
+    public void startupServer() {
+        if (!LocalFlightsService.targetsCloud()) {
+            localFlightsService = LocalFlightsService.start();
+        }
+    }
+
+    // Method to shut down the local stand-in after test execution
+    @AfterClass
+    public void shutdownServer() {
+        if (localFlightsService != null) {
+            localFlightsService.close();
+        }
+    }
+
     // Test method to validate WireMock cloud dynamic response
     @Test
     public void testWireMockCloudDynamicResponse() {
-        // Build the GET request URL for the flights API on WireMock Cloud
-        String requestUrl = "https://testautomation.wiremockapi.cloud/flights";
+        // Build the GET request URL for the flights API on WireMock Cloud or on its local stand-in
+        String baseUrl = localFlightsService != null ? localFlightsService.baseUrl() : LocalFlightsService.CLOUD_BASE_URL;
+        String requestUrl = baseUrl + "/flights";
+
+        // Trust the generated certificate of the local stand-in
+        RequestSpecification request = given();
+        if (localFlightsService != null) {
+            request.trustStore(localFlightsService.keystore().toFile(), localFlightsService.keystorePassword());
+        }
 
         // Perform a GET request to a WireMock cloud service with query parameters 'from' and 'to'
         ValidatableResponse response =
-                given() // Start building the request specification
+                request // Start building the request specification
                         .queryParam("from", "Chennai") // Set query parameter for "from" location (Chennai)
                         .queryParam("to", "California") // Set query parameter for "to" location (California)
                 .when() // Perform the action (in this case, an HTTP GET request)
@@ -38,5 +69,9 @@ public class WireMockCloudDynamicResponseTest {
 
         // Assert that the response status code is 200 (OK)
         Assert.assertEquals(response.extract().statusCode(), 200);
+
+        // Assert that the templated flights echo the requested route
+        Assert.assertEquals(response.extract().jsonPath().getString("available[0].from"), "Chennai");
+        Assert.assertEquals(response.extract().jsonPath().getString("cancelled[1].to"), "California");
     }
 }
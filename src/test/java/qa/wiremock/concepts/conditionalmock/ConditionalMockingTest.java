@@ -6,6 +6,7 @@ import com.github.tomakehurst.wiremock.client.WireMock;
 import io.restassured.response.ValidatableResponse;
 import org.testng.Assert;
 import org.testng.annotations.*;
+import qa.wiremock.concepts.parallel.WireMockServerPool;
 
 import static io.restassured.RestAssured.given;
 
@@ -23,24 +24,23 @@ import static io.restassured.RestAssured.given;
  */
 public class ConditionalMockingTest {
 
-    // Constants for host and port
+    // Constant for host
     private static final String HOST = "localhost";
-    private static final int PORT = 8080;
 
     // Instance of WireMockServer
     public static WireMockServer wireMockServer;
 
+    // WireMock client bound to this class's server instance
+    private static WireMock wireMock;
+
     // Method to start the WireMock server and configure stubs before test execution
-    @BeforeTest
+    @BeforeClass
     public void initializeServer() {
-        // Creates a new WireMock server instance.
-        wireMockServer = new WireMockServer(PORT);
-
-        // Starts the WireMock server.
-        wireMockServer.start();
+        // Acquires a WireMock server running on a free port from the pool.
+        wireMockServer = WireMockServerPool.acquire();
 
-        // Configures WireMock to listen on the specified host and port.
-        WireMock.configureFor(HOST, PORT);
+        // Binds a WireMock client to the acquired server instance.
+        wireMock = WireMockServerPool.clientFor(wireMockServer);
 
         // Creates a response definition builder object
         ResponseDefinitionBuilder serviceUnavailableResponse = new ResponseDefinitionBuilder();
@@ -55,7 +55,7 @@ public class ConditionalMockingTest {
         serviceUnavailableResponse.withBody("Service Not Available");
 
         // Stubs a response for the GET request to '/movies/1' with Accept header for plain text
-        WireMock.stubFor(WireMock.get("/movies/1")
+        wireMock.register(WireMock.get("/movies/1")
                 .withHeader("Accept", WireMock.equalTo("text/plain")) // Match request based on GET method and Accept header
                 .willReturn(serviceUnavailableResponse)); // Define response for matched request
 
@@ -78,17 +78,17 @@ public class ConditionalMockingTest {
         runningResponse.withFixedDelay(2500);
 
         // Stubs a response for the GET request to '/movies/1' with Accept header for application/json
-        WireMock.stubFor(WireMock.get("/movies/1")
+        wireMock.register(WireMock.get("/movies/1")
                 .withHeader("Accept", WireMock.equalTo("application/json")) // Match request based on GET method and Accept header
                 .willReturn(runningResponse)); // Define response for matched request
     }
 
     // Method to shut down the WireMock server after test execution
-    @AfterTest
+    @AfterClass
     public void shutdownServer() {
         // Checks if the WireMock server is running and not null before shutting it down
         if (wireMockServer != null && wireMockServer.isRunning()) {
-            wireMockServer.shutdownServer();
+            WireMockServerPool.release(wireMockServer);
         }
     }
 
@@ -98,8 +98,8 @@ public class ConditionalMockingTest {
         // Define the expected response
         String expectedResponse = "Service Not Available";
 
-        // Construct the request URL using the HOST and PORT constants
-        String requestUrl = String.format("http://%s:%d/movies/1", HOST, PORT);
+        // Construct the request URL using the HOST constant and the server port
+        String requestUrl = String.format("http://%s:%d/movies/1", HOST, wireMockServer.port());
 
         // Perform the GET request and validate the response
         ValidatableResponse response =
@@ -123,8 +123,8 @@ public class ConditionalMockingTest {
         // Define the expected response
         String expectedResponse = "running";
 
-        // Construct the request URL using the HOST and PORT constants
-        String requestUrl = String.format("http://%s:%d/movies/1", HOST, PORT);
+        // Construct the request URL using the HOST constant and the server port
+        String requestUrl = String.format("http://%s:%d/movies/1", HOST, wireMockServer.port());
 
         ValidatableResponse response =
                 given() // Start building the request specification
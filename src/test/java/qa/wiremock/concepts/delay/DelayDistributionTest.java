@@ -0,0 +1,244 @@
+package qa.wiremock.concepts.delay;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.http.UniformDistribution;
+import org.HdrHistogram.Histogram;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import qa.wiremock.concepts.parallel.WireMockServerPool;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This code validates the delay distributions of the delay concept tests
+ * statistically instead of timing a single request.
+ * For each stub, thousands of requests (override with -Ddelay.samples=N) are
+ * sent at a steady rate (-Ddelay.rate=N per second), so they overlap in their
+ * delays.
+ * <p>
+ * The distributions are checked on the delays the server drew, read from the
+ * request journal. They carry no client or server overhead. Their parameters
+ * are fitted (median and sigma for the log-normal delay, bounds for the
+ * uniform delays) and a Kolmogorov-Smirnov goodness-of-fit test compares them
+ * with the configured distribution.
+ * <p>
+ * The latencies the client measured with nanoTime only check the drift of
+ * the overhead. As many requests to a stub with a short fixed delay are sent
+ * in turn with each stub, under the same load. Their median overhead is the
+ * baseline. The median overhead of the delayed requests must stay within
+ * ALLOWED_DRIFT_MILLIS of it, and no response may come before its delay.
+ * The time added by the server alone (serve time in the journal) and end to
+ * end is reported for each stub.
+ *
+ * @author Jagatheshwaran N
+ */
+public class DelayDistributionTest {
+
+    // Number of concurrent requests sampled per stub
+    private static final int SAMPLES = Integer.getInteger("delay.samples", 2000);
+
+    // Requests sent per second
+    private static final int RATE = Integer.getInteger("delay.rate", 500);
+
+    // Significance level of the goodness-of-fit tests, low enough that a correct distribution almost never fails
+    private static final double ALPHA = 0.001;
+
+    // Instance of WireMockServer
+    private static WireMockServer wireMockServer;
+
+    // Sampler timing the delayed requests
+    private static DelaySampler delaySampler;
+
+    // Path and fixed delay of the baseline stub
+    private static final String BASELINE_PATH = "/delay/baseline";
+    private static final int BASELINE_DELAY_MILLIS = 100;
+
+    // Difference allowed between the median overhead of the baseline and that of the delayed requests
+    private static final long ALLOWED_DRIFT_MILLIS = 20;
+
+    // Runs of the baseline stub allowed to warm up, and margin between the medians of the last two once settled
+    private static final int MAX_BASELINE_RUNS = 10;
+    private static final long SETTLE_MARGIN_MILLIS = 2;
+
+    // Median latency of the requests to the baseline stub less its delay, sampled along the last stub, in nanoseconds
+    private static long baselineNanos;
+
+    // Method to start the server with the delayed stubs of the delay concept tests before test execution
+    @BeforeClass
+    public void startupServer() throws Exception {
+        wireMockServer = WireMockServerPool.acquire(NonBlockingDelays.configure(WireMockConfiguration.options()));
+        WireMock wireMock = WireMockServerPool.clientFor(wireMockServer);
+
+        // Same delays as FixedDelayTest, RandomDelayTest, UniformRandomDelayTest and LogNormalRandomDelayTest
+        wireMock.register(WireMock.get(WireMock.urlPathEqualTo("/delay/fixed"))
+                .willReturn(WireMock.ok().withFixedDelay(5000)));
+        wireMock.register(WireMock.get(WireMock.urlPathEqualTo("/delay/random"))
+                .willReturn(WireMock.ok().withRandomDelay(new UniformDistribution(1000, 3000))));
+        wireMock.register(WireMock.get(WireMock.urlPathEqualTo("/delay/uniform"))
+                .willReturn(WireMock.ok().withUniformRandomDelay(2000, 4000)));
+        wireMock.register(WireMock.get(WireMock.urlPathEqualTo("/delay/lognormal"))
+                .willReturn(WireMock.ok().withLogNormalRandomDelay(1000, 0.1)));
+
+        wireMock.register(WireMock.get(WireMock.urlPathEqualTo(BASELINE_PATH))
+                .willReturn(WireMock.ok().withFixedDelay(BASELINE_DELAY_MILLIS)));
+
+        delaySampler = new DelaySampler(wireMockServer);
+
+        // Warms up client and server on the baseline stub until its overhead settles, two runs in a row within the margin
+        long previousNanos = Long.MAX_VALUE;
+        for (int run = 0; run < MAX_BASELINE_RUNS; run++) {
+            long medianNanos = medianOverheadNanos(report(BASELINE_PATH, delaySampler.sample(BASELINE_PATH, SAMPLES, RATE)));
+            if (Math.abs(medianNanos - previousNanos) <= TimeUnit.MILLISECONDS.toNanos(SETTLE_MARGIN_MILLIS)) {
+                break;
+            }
+            previousNanos = medianNanos;
+        }
+    }
+
+    // Method to close the sampler and release the server after test execution
+    @AfterClass
+    public void shutdownServer() {
+        delaySampler.close();
+        WireMockServerPool.release(wireMockServer);
+    }
+
+    // Test method to verify that the fixed delay is applied to every request
+    @Test
+    public void testFixedDelay() throws Exception {
+        List<DelaySample> samples = sample("/delay/fixed");
+
+        // Assert that the server drew the configured delay for every request
+        Assert.assertTrue(samples.stream().allMatch(sample -> sample.getDelayMillis() == 5000),
+                "Some requests were not delayed by 5000 ms");
+
+        // Assert that the clients measured the delay, once the baseline is taken off
+        long[] latencies = latencies(samples);
+        long median = DelayStatistics.quantile(latencies, 0.5);
+        System.out.printf("fixed: median latency less baseline %d ms%n", median);
+        Assert.assertEquals(median, 5000, ALLOWED_DRIFT_MILLIS, "Median latency less baseline " + median + " ms");
+    }
+
+    // Test method to verify the uniform distribution of withRandomDelay(new UniformDistribution(1000, 3000))
+    @Test
+    public void testRandomDelayDistribution() throws Exception {
+        assertUniform(sample("/delay/random"), 1000, 3000);
+    }
+
+    // Test method to verify the uniform distribution of withUniformRandomDelay(2000, 4000)
+    @Test
+    public void testUniformRandomDelayDistribution() throws Exception {
+        assertUniform(sample("/delay/uniform"), 2000, 4000);
+    }
+
+    // Test method to verify the log-normal distribution of withLogNormalRandomDelay(1000, 0.1)
+    @Test
+    public void testLogNormalRandomDelayDistribution() throws Exception {
+        double median = 1000;
+        double sigma = 0.1;
+        List<DelaySample> samples = sample("/delay/lognormal");
+        long[] delays = delays(samples);
+
+        double fittedMedian = DelayStatistics.fitLogNormalMedian(delays);
+        double fittedSigma = DelayStatistics.fitLogNormalSigma(delays);
+        double statistic = DelayStatistics.ksStatistic(delays, DelayStatistics.logNormalCdf(median, sigma));
+        double criticalValue = DelayStatistics.ksCriticalValue(delays.length, ALPHA);
+        System.out.printf("lognormal: fitted median %.1f ms, sigma %.4f, KS %.4f (critical %.4f)%n",
+                fittedMedian, fittedSigma, statistic, criticalValue);
+
+        // Assert that the fitted parameters are within 4 standard errors of the configured ones, and half a millisecond of rounding
+        double logMedianError = sigma / Math.sqrt(delays.length);
+        double sigmaError = sigma / Math.sqrt(2.0 * delays.length);
+        Assert.assertEquals(Math.log(fittedMedian), Math.log(median), 4 * logMedianError + 0.5 / median,
+                "Fitted median " + fittedMedian + " ms");
+        Assert.assertEquals(fittedSigma, sigma, 4 * sigmaError, "Fitted sigma " + fittedSigma);
+
+        // Assert that the drawn delays fit the configured distribution
+        Assert.assertTrue(statistic < criticalValue,
+                "KS statistic " + statistic + " rejects the log-normal distribution at " + ALPHA);
+        assertNoDrift("lognormal", samples);
+    }
+
+    // Method to fit and test drawn delays against a uniform distribution between two bounds
+    private static void assertUniform(List<DelaySample> samples, long lower, long upper) {
+        long[] delays = delays(samples);
+        long[] fittedBounds = DelayStatistics.fitUniformBounds(delays);
+        double statistic = DelayStatistics.ksStatistic(delays, DelayStatistics.uniformCdf(lower, upper));
+        double criticalValue = DelayStatistics.ksCriticalValue(delays.length, ALPHA);
+        System.out.printf("uniform %d-%d: fitted lower %d ms, upper %d ms, KS %.4f (critical %.4f)%n",
+                lower, upper, fittedBounds[0], fittedBounds[1], statistic, criticalValue);
+
+        // Assert that the fitted bounds are within 4 standard errors of the configured ones
+        double allowedError = 4 * DelayStatistics.uniformBoundsError(upper - lower, delays.length);
+        Assert.assertEquals(fittedBounds[0], lower, allowedError, "Fitted lower bound " + fittedBounds[0] + " ms");
+        Assert.assertEquals(fittedBounds[1], upper, allowedError, "Fitted upper bound " + fittedBounds[1] + " ms");
+
+        // Assert that the drawn delays fit the configured distribution
+        Assert.assertTrue(statistic < criticalValue,
+                "KS statistic " + statistic + " rejects the uniform distribution at " + ALPHA);
+        assertNoDrift("uniform " + lower + "-" + upper, samples);
+    }
+
+    // Method to check that the overhead the client measured on a stub stays close to that of the baseline
+    private static void assertNoDrift(String name, List<DelaySample> samples) {
+        long driftMillis = TimeUnit.NANOSECONDS.toMillis(medianOverheadNanos(samples) - baselineNanos);
+        System.out.printf("%s: median overhead %d ms from the baseline%n", name, driftMillis);
+        Assert.assertEquals(driftMillis, 0, ALLOWED_DRIFT_MILLIS, "Median overhead drifted " + driftMillis + " ms");
+    }
+
+    // Method to sample a stub in turn with the baseline stub, taking the baseline of the stub from the same run
+    private static List<DelaySample> sample(String path) throws Exception {
+        Map<String, List<DelaySample>> samples = delaySampler.sample(List.of(path, BASELINE_PATH), SAMPLES, RATE);
+
+        List<DelaySample> baselineSamples = report(BASELINE_PATH, samples.get(BASELINE_PATH));
+        baselineNanos = medianOverheadNanos(baselineSamples);
+        System.out.printf("baseline: median overhead %.1f ms%n", baselineNanos / 1e6);
+        return report(path, samples.get(path));
+    }
+
+    // Method to report the overhead of the samples of a stub and check that no response came before its delay
+    private static List<DelaySample> report(String path, List<DelaySample> samples) {
+        Histogram overhead = new Histogram(TimeUnit.MINUTES.toMicros(1), 3);
+        Histogram serveTime = new Histogram(TimeUnit.MINUTES.toMillis(1), 3);
+        for (DelaySample sample : samples) {
+            overhead.recordValue(Math.max(0, TimeUnit.NANOSECONDS.toMicros(sample.getOverheadNanos())));
+            serveTime.recordValue(sample.getServeTimeMillis());
+        }
+        System.out.printf("%s: %d samples, added by the server p50 %d ms, p99 %d ms, max %d ms;"
+                        + " added end to end p50 %.1f ms, p99 %.1f ms, max %.1f ms%n",
+                path, samples.size(), serveTime.getValueAtPercentile(50), serveTime.getValueAtPercentile(99),
+                serveTime.getMaxValue(), overhead.getValueAtPercentile(50) / 1000.0,
+                overhead.getValueAtPercentile(99) / 1000.0, overhead.getMaxValue() / 1000.0);
+
+        // Assert that every request was served, and none of them before its drawn delay
+        Assert.assertEquals(samples.size(), SAMPLES);
+        Assert.assertTrue(samples.stream().allMatch(sample -> sample.getStatus() == 200), "Some requests failed");
+        Assert.assertTrue(samples.stream().allMatch(sample -> sample.getOverheadNanos() >= 0),
+                "Some responses came before their delay");
+        return samples;
+    }
+
+    // Method to compute the median time added on top of the drawn delays of the samples, in nanoseconds
+    private static long medianOverheadNanos(List<DelaySample> samples) {
+        return samples.stream().mapToLong(DelaySample::getOverheadNanos).sorted()
+                .skip(samples.size() / 2).findFirst().orElseThrow();
+    }
+
+    // Method to extract the delays the server drew, in whole milliseconds
+    private static long[] delays(List<DelaySample> samples) {
+        return samples.stream().mapToLong(DelaySample::getDelayMillis).toArray();
+    }
+
+    // Method to extract the latencies the client measured less the baseline, in whole milliseconds
+    private static long[] latencies(List<DelaySample> samples) {
+        return samples.stream()
+                .mapToLong(sample -> Math.round((sample.getLatencyNanos() - baselineNanos) / 1e6))
+                .toArray();
+    }
+
+}
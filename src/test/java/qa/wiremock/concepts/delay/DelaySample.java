@@ -0,0 +1,64 @@
+package qa.wiremock.concepts.delay;
+
+/**
+ * This code holds one request timed by the DelaySampler: the latency the
+ * client measured with nanoTime and the delay the server drew for it from
+ * the stub's distribution, as recorded in the request journal.
+ * The difference is the overhead the server and client added on top of the
+ * configured delay; the server's own share of it, the serve time recorded in
+ * the journal, is kept apart.
+ *
+ * @author Jagatheshwaran N
+ */
+public final class DelaySample {
+
+    // Latency measured by the client, in nanoseconds
+    private final long latencyNanos;
+
+    // Delay drawn by the server, in milliseconds
+    private final long delayMillis;
+
+    // Time the server spent serving the request apart from the delay, in milliseconds
+    private final long serveTimeMillis;
+
+    // Time the server received the request, in epoch milliseconds
+    private final long receivedAtMillis;
+
+    // Status code of the response
+    private final int status;
+
+    // Constructor of a sample of one timed request
+    DelaySample(long latencyNanos, long delayMillis, long serveTimeMillis, long receivedAtMillis, int status) {
+        this.latencyNanos = latencyNanos;
+        this.delayMillis = delayMillis;
+        this.serveTimeMillis = serveTimeMillis;
+        this.receivedAtMillis = receivedAtMillis;
+        this.status = status;
+    }
+
+    public long getLatencyNanos() {
+        return latencyNanos;
+    }
+
+    public long getDelayMillis() {
+        return delayMillis;
+    }
+
+    public long getServeTimeMillis() {
+        return serveTimeMillis;
+    }
+
+    public long getReceivedAtMillis() {
+        return receivedAtMillis;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    // Method to return the time added on top of the drawn delay, in nanoseconds
+    public long getOverheadNanos() {
+        return latencyNanos - delayMillis * 1_000_000L;
+    }
+
+}
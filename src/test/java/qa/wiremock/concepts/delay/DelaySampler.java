@@ -0,0 +1,147 @@
+package qa.wiremock.concepts.delay;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.http.QueryParameter;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * This code samples the delays of a delayed stub with many concurrent
+ * requests.
+ * The requests are sent at once, or at a steady rate so that the time the
+ * client and server add to each of them stays short and about the same
+ * whatever the delays; sent all at once, the last ones queue for seconds
+ * before reaching the server. Requests to several stubs can be sent in turn, so
+ * that all of them run under the same load. Each request is tagged with a
+ * sample query parameter and timed with nanoTime, then paired with its serve
+ * event in the request journal to get the delay the server drew for it.
+ * The requests are multiplexed over HTTP/2 (h2c) connections, so that client
+ * and server in one JVM stay within the file descriptor limit; each client
+ * keeps below the streams Jetty allows per connection.
+ *
+ * @author Jagatheshwaran N
+ */
+public class DelaySampler implements AutoCloseable {
+
+    // Requests in flight per HTTP/2 client, below Jetty's 128 concurrent streams per connection
+    private static final int STREAMS_PER_CLIENT = 100;
+
+    // Query parameter tagging each request with its sample number
+    private static final String SAMPLE_PARAMETER = "sample";
+
+    // Time allowed for every request to complete, delays of NonBlockingDelayLoadTest included
+    private static final long TIMEOUT_SECONDS = 120;
+
+    // Server of the delayed stub
+    private final WireMockServer wireMockServer;
+
+    // Executor of the HTTP clients
+    private final ExecutorService clientExecutor = Executors.newFixedThreadPool(4);
+
+    // HTTP/2 clients, each with its own connection
+    private final List<HttpClient> httpClients = new ArrayList<>();
+
+    // Constructor of a sampler for the stubs of a server
+    public DelaySampler(WireMockServer wireMockServer) {
+        this.wireMockServer = wireMockServer;
+    }
+
+    // Method to send the requests to a stub path at once and pair each with the delay the server drew
+    public List<DelaySample> sample(String path, int requests) throws Exception {
+        return sample(path, requests, Integer.MAX_VALUE);
+    }
+
+    // Method to send the requests to a stub path at a rate per second and pair each with the delay the server drew
+    public List<DelaySample> sample(String path, int requests, int ratePerSecond) throws Exception {
+        return sample(List.of(path), requests, ratePerSecond).get(path);
+    }
+
+    // Method to send the requests to each stub path in turn at a rate per second, so every path sees the same load
+    public Map<String, List<DelaySample>> sample(List<String> paths, int requestsPerPath, int ratePerSecond)
+            throws Exception {
+        int requests = requestsPerPath * paths.size();
+        addClients((requests + STREAMS_PER_CLIENT - 1) / STREAMS_PER_CLIENT);
+
+        String baseUrl = "http://localhost:" + wireMockServer.port();
+        long[] latencies = new long[requests];
+        List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>(requests);
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+        long startNanos = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            int sample = i;
+            String path = paths.get(i % paths.size());
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path
+                    + (path.contains("?") ? "&" : "?") + SAMPLE_PARAMETER + "=" + sample)).GET().build();
+            LockSupport.parkNanos(startNanos + i * intervalNanos - System.nanoTime());
+            long sentNanos = System.nanoTime();
+            responses.add(httpClients.get(i / STREAMS_PER_CLIENT)
+                    .sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, failure) -> latencies[sample] = System.nanoTime() - sentNanos));
+        }
+        CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new)).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        // Pairs each request with its latest serve event by its path and sample number
+        Map<String, ServeEvent> serveEvents = new HashMap<>();
+        for (ServeEvent serveEvent : wireMockServer.getAllServeEvents()) {
+            QueryParameter sampleParameter = serveEvent.getRequest().queryParameter(SAMPLE_PARAMETER);
+            if (sampleParameter.isPresent()) {
+                String url = serveEvent.getRequest().getUrl();
+                serveEvents.putIfAbsent(url.substring(0, url.lastIndexOf(SAMPLE_PARAMETER) - 1)
+                        + "#" + sampleParameter.firstValue(), serveEvent);
+            }
+        }
+
+        Map<String, List<DelaySample>> samples = new LinkedHashMap<>();
+        for (int i = 0; i < requests; i++) {
+            String path = paths.get(i % paths.size());
+            ServeEvent serveEvent = serveEvents.get(path + "#" + i);
+            if (serveEvent == null) {
+                throw new IllegalStateException("Sample " + i + " of " + path + " is not in the request journal");
+            }
+            Integer addedDelay = serveEvent.getTiming().getAddedDelay();
+            Integer serveTime = serveEvent.getTiming().getServeTime();
+            samples.computeIfAbsent(path, key -> new ArrayList<>(requestsPerPath))
+                    .add(new DelaySample(latencies[i], addedDelay == null ? 0 : addedDelay,
+                            serveTime == null ? 0 : serveTime, serveEvent.getRequest().getLoggedDate().getTime(),
+                            responses.get(i).join().statusCode()));
+        }
+        return samples;
+    }
+
+    // Method to close the executor of the HTTP clients
+    @Override
+    public void close() {
+        clientExecutor.shutdown();
+    }
+
+    // Method to add HTTP/2 clients up to the count, upgrading each connection before the samples are sent
+    private void addClients(int count) throws Exception {
+        HttpRequest upgradeRequest = HttpRequest.newBuilder(
+                URI.create("http://localhost:" + wireMockServer.port() + "/__admin/mappings?limit=1")).GET().build();
+        List<CompletableFuture<HttpResponse<Void>>> upgrades = new ArrayList<>();
+        while (httpClients.size() < count) {
+            HttpClient httpClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_2)
+                    .executor(clientExecutor)
+                    .build();
+            httpClients.add(httpClient);
+            upgrades.add(httpClient.sendAsync(upgradeRequest, HttpResponse.BodyHandlers.discarding()));
+        }
+        CompletableFuture.allOf(upgrades.toArray(CompletableFuture[]::new)).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+}
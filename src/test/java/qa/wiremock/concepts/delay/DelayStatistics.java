@@ -0,0 +1,115 @@
+package qa.wiremock.concepts.delay;
+
+import java.util.Arrays;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * This code fits and tests the delay distributions of WireMock's delayed
+ * stubs.
+ * WireMock draws whole milliseconds: the uniform delay is an integer between
+ * its bounds, and the log-normal delay is round(exp(N(0,1) * sigma) * median).
+ * The Kolmogorov-Smirnov statistic is therefore computed against the CDF of
+ * the rounded variable, F(x + 0.5), so the rounding alone does not fail the
+ * test. The samples are the delays the server drew, as recorded in the
+ * request journal, so no client or server overhead is added to them.
+ *
+ * @author Jagatheshwaran N
+ */
+public final class DelayStatistics {
+
+    private DelayStatistics() {
+    }
+
+    // Method to return the CDF of the uniform delay between two bounds in milliseconds, before rounding
+    public static DoubleUnaryOperator uniformCdf(long lower, long upper) {
+        double from = lower - 0.5;
+        double to = upper + 0.5;
+        return x -> x <= from ? 0.0 : x >= to ? 1.0 : (x - from) / (to - from);
+    }
+
+    // Method to return the CDF of the log-normal delay with a median in milliseconds and a sigma, before rounding
+    public static DoubleUnaryOperator logNormalCdf(double median, double sigma) {
+        return x -> x <= 0 ? 0.0 : 0.5 * (1 + erf(Math.log(x / median) / (sigma * Math.sqrt(2))));
+    }
+
+    // Method to return the value below which a fraction of the samples lie
+    public static long quantile(long[] samples, double fraction) {
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        return sorted[(int) Math.min(sorted.length - 1, Math.floor(fraction * sorted.length))];
+    }
+
+    // Method to fit the bounds of a uniform distribution from the quartiles, which a few outliers do not move
+    public static long[] fitUniformBounds(long[] samples) {
+        long lowerQuartile = quantile(samples, 0.25);
+        long upperQuartile = quantile(samples, 0.75);
+        long halfSpread = Math.round((upperQuartile - lowerQuartile) / 2.0);
+        return new long[]{lowerQuartile - halfSpread, upperQuartile + halfSpread};
+    }
+
+    // Method to return the standard error of the bounds fitted from the quartiles of a uniform range
+    public static double uniformBoundsError(long range, int sampleSize) {
+        // Variance of 1.5 * Q1 - 0.5 * Q3, from the variances and covariance of the sample quartiles
+        return range * Math.sqrt(0.375 / sampleSize);
+    }
+
+    // Method to fit the median of a log-normal distribution, exp of the mean of the logs
+    public static double fitLogNormalMedian(long[] samples) {
+        return Math.exp(meanOfLogs(samples));
+    }
+
+    // Method to fit the sigma of a log-normal distribution, the standard deviation of the logs
+    public static double fitLogNormalSigma(long[] samples) {
+        double mean = meanOfLogs(samples);
+        double sumOfSquares = 0;
+        for (long sample : samples) {
+            double deviation = Math.log(sample) - mean;
+            sumOfSquares += deviation * deviation;
+        }
+        return Math.sqrt(sumOfSquares / (samples.length - 1));
+    }
+
+    // Method to compute the Kolmogorov-Smirnov statistic of whole-millisecond samples against a continuous CDF
+    public static double ksStatistic(long[] samples, DoubleUnaryOperator cdf) {
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        int n = sorted.length;
+        double statistic = 0;
+        int i = 0;
+        while (i < n) {
+            long value = sorted[i];
+            int below = i;
+            while (i < n && sorted[i] == value) {
+                i++;
+            }
+            // Compares the empirical CDF just below and at each distinct value with the rounded variable's CDF
+            statistic = Math.max(statistic, Math.abs((double) below / n - cdf.applyAsDouble(value - 0.5)));
+            statistic = Math.max(statistic, Math.abs((double) i / n - cdf.applyAsDouble(value + 0.5)));
+        }
+        return statistic;
+    }
+
+    // Method to return the asymptotic Kolmogorov-Smirnov critical value for a sample size and significance level
+    public static double ksCriticalValue(int sampleSize, double alpha) {
+        return Math.sqrt(-Math.log(alpha / 2) / 2) / Math.sqrt(sampleSize);
+    }
+
+    // Method to compute the error function (Abramowitz and Stegun 7.1.26, absolute error below 1.5e-7)
+    static double erf(double x) {
+        double t = 1 / (1 + 0.3275911 * Math.abs(x));
+        double polynomial = t * (0.254829592 + t * (-0.284496736 + t * (1.421413741
+                + t * (-1.453152027 + t * 1.061405429))));
+        double result = 1 - polynomial * Math.exp(-x * x);
+        return x >= 0 ? result : -result;
+    }
+
+    // Method to compute the mean of the natural logs of the samples
+    private static double meanOfLogs(long[] samples) {
+        double sum = 0;
+        for (long sample : samples) {
+            sum += Math.log(sample);
+        }
+        return sum / samples.length;
+    }
+
+}
@@ -4,9 +4,10 @@ import com.github.tomakehurst.wiremock.WireMockServer;
 import com.github.tomakehurst.wiremock.client.WireMock;
 import io.restassured.response.ValidatableResponse;
 import org.testng.Assert;
-import org.testng.annotations.AfterTest;
-import org.testng.annotations.BeforeTest;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
+import qa.wiremock.concepts.parallel.WireMockServerPool;
 
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.Matchers.equalTo;
@@ -26,38 +27,37 @@ import static org.hamcrest.Matchers.equalTo;
  */
 public class FixedDelayTest {
 
-    // Constants for host and port
+    // Constant for host
     private static final String HOST = "localhost";
-    private static final int PORT = 8080;
 
     // Instance of WireMockServer
     public static WireMockServer wireMockServer;
 
+    // WireMock client bound to this class's server instance
+    private static WireMock wireMock;
+
     // Method to set up the WireMock server before tests
-    @BeforeTest
+    @BeforeClass
     public void setupServer() {
-        // Creates a new WireMock server instance.
-        wireMockServer = new WireMockServer(PORT);
-
-        // Starts the WireMock server.
-        wireMockServer.start();
+        // Acquires a WireMock server running on a free port from the pool.
+        wireMockServer = WireMockServerPool.acquire();
 
-        // Configures WireMock to listen on the specified host and port.
-        WireMock.configureFor(HOST, PORT);
+        // Binds a WireMock client to the acquired server instance.
+        wireMock = WireMockServerPool.clientFor(wireMockServer);
 
         // Stubbing any URL to simulate a fixed delay of 5000ms with a proxy response
-        WireMock.stubFor(WireMock.any(WireMock.anyUrl()) // Match any request on any URL
+        wireMock.register(WireMock.any(WireMock.anyUrl()) // Match any request on any URL
                 .willReturn(WireMock.aResponse() // Define response
                         .proxiedFrom("http://localhost:3000/students/2") // Proxy response from another service
                         .withFixedDelay(5000))); // Simulate a delay of 5 seconds
     }
 
     // Method to shut down the WireMock server after tests
-    @AfterTest
+    @AfterClass
     public void shutdownServer() {
         // Check if the server is running and then shut it down
         if (wireMockServer != null && wireMockServer.isRunning()) {
-            wireMockServer.shutdownServer();
+            WireMockServerPool.release(wireMockServer);
         }
     }
 
@@ -67,8 +67,8 @@ public class FixedDelayTest {
         // Define the expected Id
         int expectedId = 2;
 
-        // Construct the request URL using the HOST and PORT constants
-        String requestUrl = String.format("http://%s:%d", HOST, PORT);
+        // Construct the request URL using the HOST constant and the server port
+        String requestUrl = String.format("http://%s:%d", HOST, wireMockServer.port());
 
         // Perform the GET request and validate the response
         ValidatableResponse response =
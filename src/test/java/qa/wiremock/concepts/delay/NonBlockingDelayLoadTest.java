@@ -0,0 +1,133 @@
+package qa.wiremock.concepts.delay;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import qa.wiremock.concepts.parallel.WireMockServerPool;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.LongSummaryStatistics;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This code load tests the NonBlockingDelays with 10,000 delayed requests
+ * sent at once (override with -Ddelay.load.requests=N) to a server limited
+ * to a small, fixed Jetty thread pool.
+ * The delays last longer than the time this machine takes to send every
+ * request, about 3 ms per request on a single core, so every request is
+ * still waiting when the last one arrives.
+ * The request journal must show at least 90% of the requests in flight at
+ * the same time, which blocking threads cannot do. All of them must be
+ * served within the longest delay plus the time it took to send them.
+ * The requests are sent and timed by the DelaySampler.
+ *
+ * @author Jagatheshwaran N
+ */
+public class NonBlockingDelayLoadTest {
+
+    // Number of delayed requests sent at once
+    private static final int REQUESTS = Integer.getInteger("delay.load.requests", 10_000);
+
+    // Jetty threads of the server, far fewer than the requests in flight
+    private static final int CONTAINER_THREADS = 12;
+
+    // Time allowed to send and serve each request, which the shortest delay must outlast
+    private static final int SEND_MILLIS_PER_REQUEST = 3;
+
+    // Bounds of the uniform random delay in milliseconds
+    private static final int MIN_DELAY = Math.max(1000, REQUESTS * SEND_MILLIS_PER_REQUEST);
+    private static final int MAX_DELAY = MIN_DELAY + 2000;
+
+    // Share of the requests that must be in flight at the same time
+    private static final double MIN_IN_FLIGHT_SHARE = 0.9;
+
+    // Time allowed on top of the longest delay and the send time, to set up the clients and read the request journal
+    private static final long ALLOWED_OVERHEAD_MILLIS = 10_000;
+
+    // Instance of WireMockServer
+    private static WireMockServer wireMockServer;
+
+    // Method to start a server with non-blocking delays and a small thread pool before test execution
+    @BeforeClass
+    public void startupServer() {
+        // Keeps the connections open while their streams wait for the longest delay
+        wireMockServer = WireMockServerPool.acquire(NonBlockingDelays.configure(WireMockConfiguration.options()
+                .containerThreads(CONTAINER_THREADS)
+                .jettyIdleTimeout(MAX_DELAY + ALLOWED_OVERHEAD_MILLIS)));
+
+        WireMockServerPool.clientFor(wireMockServer).register(WireMock.get(WireMock.urlPathEqualTo("/flights/delayed"))
+                .willReturn(WireMock.okJson("{\"status\": \"delayed\"}")
+                        .withUniformRandomDelay(MIN_DELAY, MAX_DELAY)));
+    }
+
+    // Method to shut down the WireMock server after test execution
+    @AfterClass
+    public void shutdownServer() {
+        WireMockServerPool.release(wireMockServer);
+    }
+
+    // Test method to verify that thousands of delayed requests are in flight on a few threads
+    @Test
+    public void testDelayedRequestsInFlight() throws Exception {
+        List<DelaySample> samples;
+        long startTime = System.nanoTime();
+        try (DelaySampler delaySampler = new DelaySampler(wireMockServer)) {
+            samples = delaySampler.sample("/flights/delayed", REQUESTS);
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+
+        int peakInFlight = peakInFlight(samples);
+        long sendMillis = sendMillis(samples);
+
+        // Print the load result for visibility purposes
+        System.out.printf("%d delayed requests on %d Jetty threads: sent in %d ms, served in %d ms, peak %d in flight%n",
+                REQUESTS, CONTAINER_THREADS, sendMillis, elapsedMillis, peakInFlight);
+
+        // Assert that every request was served with its delay
+        Assert.assertEquals(samples.size(), REQUESTS);
+        Assert.assertTrue(samples.stream().allMatch(sample -> sample.getStatus() == 200),
+                "Some delayed requests failed");
+
+        // Assert that nearly every request was delayed at the same time, instead of queueing for a thread
+        Assert.assertTrue(sendMillis < MIN_DELAY, "Sending took " + sendMillis + " ms, longer than the shortest delay");
+        Assert.assertTrue(peakInFlight >= MIN_IN_FLIGHT_SHARE * REQUESTS,
+                "Only " + peakInFlight + " of " + REQUESTS + " delayed requests were in flight at once");
+
+        // Assert that they were all served about the longest delay after they were sent
+        Assert.assertTrue(elapsedMillis >= MIN_DELAY, "Delayed requests took only " + elapsedMillis + " ms");
+        Assert.assertTrue(elapsedMillis <= MAX_DELAY + sendMillis + ALLOWED_OVERHEAD_MILLIS,
+                "Delayed requests took " + elapsedMillis + " ms, sent in " + sendMillis + " ms");
+    }
+
+    // Method to compute the time from the first to the last request reaching the server
+    private static long sendMillis(List<DelaySample> samples) {
+        LongSummaryStatistics receivedAt = samples.stream().mapToLong(DelaySample::getReceivedAtMillis).summaryStatistics();
+        return receivedAt.getMax() - receivedAt.getMin();
+    }
+
+    // Method to compute the largest number of requests the server was delaying at the same time
+    private static int peakInFlight(List<DelaySample> samples) {
+        // Each request adds one at its arrival and removes one when its delay is over
+        List<long[]> changes = new ArrayList<>(samples.size() * 2);
+        for (DelaySample sample : samples) {
+            changes.add(new long[] {sample.getReceivedAtMillis(), 1});
+            changes.add(new long[] {sample.getReceivedAtMillis() + sample.getDelayMillis(), -1});
+        }
+        // Ends sort before arrivals at the same millisecond
+        changes.sort((one, two) -> one[0] != two[0] ? Long.compare(one[0], two[0]) : Long.compare(one[1], two[1]));
+
+        int inFlight = 0;
+        int peak = 0;
+        for (long[] change : changes) {
+            inFlight += (int) change[1];
+            peak = Math.max(peak, inFlight);
+        }
+        return peak;
+    }
+
+}
@@ -0,0 +1,37 @@
+package qa.wiremock.concepts.delay;
+
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+
+/**
+ * This code switches a WireMock server to non-blocking response delays.
+ * By default a delayed stub (withFixedDelay, withUniformRandomDelay,
+ * withRandomDelay, withLogNormalRandomDelay) sleeps on its Jetty thread for the
+ * whole delay, so a few hundred slow callers exhaust the thread pool.
+ * With asynchronous responses, the request is suspended (servlet async) and
+ * its response is written by a timer-scheduled task once the delay is over,
+ * so a small fixed number of scheduler threads serves any number of delayed
+ * requests in flight.
+ * Chunked dribble delays are still written with sleeps between the chunks,
+ * unless the stub is throttled by ThrottledResponses.
+ *
+ * @author Jagatheshwaran N
+ */
+public final class NonBlockingDelays {
+
+    // Default number of scheduler threads writing the delayed responses
+    public static final int DEFAULT_SCHEDULER_THREADS = 2;
+
+    // Accept queue of the server, large enough for bursts of new connections
+    private static final int ACCEPT_QUEUE_SIZE = 1024;
+
+    private NonBlockingDelays() {
+    }
+
+    // Method to switch server options to timer-scheduled delays (override the threads with -Ddelay.scheduler.threads=N)
+    public static WireMockConfiguration configure(WireMockConfiguration options) {
+        return options.asynchronousResponseEnabled(true)
+                .asynchronousResponseThreads(Integer.getInteger("delay.scheduler.threads", DEFAULT_SCHEDULER_THREADS))
+                .jettyAcceptQueueSize(ACCEPT_QUEUE_SIZE);
+    }
+
+}
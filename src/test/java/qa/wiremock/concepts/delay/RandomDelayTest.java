@@ -7,9 +7,10 @@ import com.github.tomakehurst.wiremock.http.DelayDistribution;
 import com.github.tomakehurst.wiremock.http.UniformDistribution;
 import io.restassured.response.ValidatableResponse;
 import org.testng.Assert;
-import org.testng.annotations.AfterTest;
-import org.testng.annotations.BeforeTest;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
+import qa.wiremock.concepts.parallel.WireMockServerPool;
 
 import static io.restassured.RestAssured.given;
 
@@ -28,24 +29,23 @@ import static io.restassured.RestAssured.given;
  */
 public class RandomDelayTest {
 
-    // Constants for host and port
+    // Constant for host
     private static final String HOST = "localhost";
-    private static final int PORT = 8080;
 
     // Instance of WireMockServer
     public static WireMockServer wireMockServer;
 
+    // WireMock client bound to this class's server instance
+    private static WireMock wireMock;
+
     // Method to set up the WireMock server before tests
-    @BeforeTest
+    @BeforeClass
     public void setupServer() {
-        // Creates a new WireMock server instance.
-        wireMockServer = new WireMockServer(PORT);
-
-        // Starts the WireMock server.
-        wireMockServer.start();
+        // Acquires a WireMock server running on a free port from the pool.
+        wireMockServer = WireMockServerPool.acquire();
 
-        // Configures WireMock to listen on the specified host and port.
-        WireMock.configureFor(HOST, PORT);
+        // Binds a WireMock client to the acquired server instance.
+        wireMock = WireMockServerPool.clientFor(wireMockServer);
 
         // Define a Uniform Distribution for random delay between 1-3 seconds (configurable)
         DelayDistribution uniformDistribution = new UniformDistribution(1000, 3000);
@@ -57,16 +57,16 @@ public class RandomDelayTest {
         responseDefinitionBuilder.withBodyFile("json/randelay.json");
 
         // Define the endpoint stub with "/random/delay" path and random delay
-        WireMock.stubFor(WireMock.get("/random/delay")
+        wireMock.register(WireMock.get("/random/delay")
                 .willReturn(responseDefinitionBuilder.withRandomDelay(uniformDistribution)));
     }
 
     // Method to shut down the WireMock server after tests
-    @AfterTest
+    @AfterClass
     public void shutdownServer() {
         // Check if the server is running and then shut it down
         if (wireMockServer != null && wireMockServer.isRunning()) {
-            wireMockServer.shutdownServer();
+            WireMockServerPool.release(wireMockServer);
         }
     }
 
@@ -79,8 +79,8 @@ public class RandomDelayTest {
         // Record the start time to calculate response time
         long startTime = System.currentTimeMillis();
 
-        // Construct the request URL using the HOST and PORT constants
-        String requestUrl = String.format("http://%s:%d/random/delay", HOST, PORT);
+        // Construct the request URL using the HOST constant and the server port
+        String requestUrl = String.format("http://%s:%d/random/delay", HOST, wireMockServer.port());
 
         // Perform the GET request and validate the response
         ValidatableResponse response =
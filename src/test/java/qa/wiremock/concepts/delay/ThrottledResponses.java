@@ -0,0 +1,449 @@
+package qa.wiremock.concepts.delay;
+
+import com.github.tomakehurst.wiremock.core.Options;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.extension.ResponseTransformerV2;
+import com.github.tomakehurst.wiremock.http.AdminRequestHandler;
+import com.github.tomakehurst.wiremock.http.ChunkedDribbleDelay;
+import com.github.tomakehurst.wiremock.http.HttpHeader;
+import com.github.tomakehurst.wiremock.http.HttpServer;
+import com.github.tomakehurst.wiremock.http.HttpServerFactory;
+import com.github.tomakehurst.wiremock.http.Response;
+import com.github.tomakehurst.wiremock.http.StubRequestHandler;
+import com.github.tomakehurst.wiremock.jetty11.Jetty11HttpServer;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.eclipse.jetty.servlet.FilterHolder;
+import org.eclipse.jetty.servlet.ServletContextHandler;
+import org.eclipse.jetty.servlet.ServletHolder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.EnumSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This code serves the bodies of chosen stubs at a limited bandwidth, or in
+ * chunks spread over a duration, to simulate slow links:
+ * <p>
+ * stubFor(get("/download").willReturn(ok().withBodyFile(...)
+ * .withTransformers(ThrottledResponses.NAME)
+ * .withTransformerParameters(ThrottledResponses.bandwidth(64 * 1024))));
+ * <p>
+ * stubFor(get("/feed").willReturn(ok().withBody(...)
+ * .withChunkedDribbleDelay(10, 5000)
+ * .withTransformers(ThrottledResponses.NAME)));
+ * <p>
+ * WireMock writes chunked dribble delays with a sleep between the chunks,
+ * so each slow response holds a server thread until its last byte. Here the
+ * stub servlet answers at once with the headers only, the request is
+ * suspended (servlet async), and every chunk is written by a task of one
+ * shared TimerWheel with a non-blocking write, so thousands of slow
+ * downloads cost a few KB each and no thread. The stub's own delay is
+ * served by the wheel too, before the first chunk. When a stub sets both,
+ * the bandwidth wins over the dribble delay. A dribble chunk is the body
+ * length (its Content-Length, else the bytes available from the stream)
+ * over the number of chunks, at most 128 KB; a generated body of unknown
+ * length is dribbled 8 KB at a time until its end.
+ * The limit applies to the body as the stub renders it, before Jetty's gzip.
+ * <p>
+ * Register it with ThrottledResponses.configure(options, throttledResponses);
+ * it also builds the server, to put its filter in front of the stub servlet.
+ *
+ * @author Jagatheshwaran N
+ */
+public class ThrottledResponses implements ResponseTransformerV2, HttpServerFactory, AutoCloseable {
+
+    // Name of the extension, as transformer of the throttled stubs
+    public static final String NAME = "throttled-responses";
+
+    // Transformer parameter holding the bandwidth of a stub in bytes per second
+    public static final String BYTES_PER_SECOND_PARAMETER = "bytesPerSecond";
+
+    // Longest and shortest interval between two writes of a bandwidth-limited body
+    private static final int MAX_WRITE_INTERVAL_MILLIS = 50;
+    private static final int MIN_WRITE_INTERVAL_MILLIS = TimerWheel.DEFAULT_TICK_MILLIS;
+
+    // Largest chunk written at once, bounding the buffer of each response
+    private static final int MAX_CHUNK_BYTES = 64 * 1024;
+
+    // Chunk of a dribble delay whose body has no known length, such as a generated stream
+    private static final int MIN_DRIBBLE_CHUNK_BYTES = 8 * 1024;
+
+    // Throttled response rendered on the current request thread, taken over by the filter once the servlet returns
+    private static final ThreadLocal<ThrottledWrite> RENDERED = new ThreadLocal<>();
+
+    // Wheel writing the chunks of every throttled response
+    private final TimerWheel timerWheel = new TimerWheel("throttled-responses-wheel");
+
+    // Throttled responses being written, written completely, and cut by an error such as a client disconnect
+    private final LongAdder inFlight = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    // Method to register the throttled responses on server options
+    public static WireMockConfiguration configure(WireMockConfiguration options, ThrottledResponses throttledResponses) {
+        return options.extensions(throttledResponses);
+    }
+
+    // Method to build the transformer parameters of a stub limited to bytesPerSecond
+    public static Parameters bandwidth(long bytesPerSecond) {
+        return Parameters.one(BYTES_PER_SECOND_PARAMETER, bytesPerSecond);
+    }
+
+    // Hands the body over to the filter and leaves the servlet an empty one, without delay
+    @Override
+    public Response transform(Response response, ServeEvent serveEvent) {
+        if (response.getFault() != null) {
+            return response;
+        }
+        Object bytesPerSecond = serveEvent.getTransformerParameters().get(BYTES_PER_SECOND_PARAMETER);
+        ChunkedDribbleDelay dribbleDelay = response.getChunkedDribbleDelay();
+        if (!(bytesPerSecond instanceof Number) && !response.shouldAddChunkedDribbleDelay()) {
+            return response;
+        }
+
+        InputStream body = response.getBodyStream();
+        if (body == null) {
+            return response;
+        }
+        ThrottledWrite throttledWrite = bytesPerSecond instanceof Number number
+                ? ThrottledWrite.withBandwidth(this, body, response.getInitialDelay(), number.longValue())
+                : ThrottledWrite.withDribble(this, body, bodyLength(response, body), response.getInitialDelay(), dribbleDelay);
+        RENDERED.set(throttledWrite);
+        return Response.Builder.like(response)
+                .body(new byte[0])
+                .chunkedDribbleDelay(null)
+                .incrementInitialDelay(-response.getInitialDelay())
+                .build();
+    }
+
+    // Method to return the length of a body from its Content-Length, or from the stream, 0 when unknown
+    private static long bodyLength(Response response, InputStream body) {
+        HttpHeader contentLength = response.getHeaders().getHeader("Content-Length");
+        if (contentLength.isPresent()) {
+            try {
+                return Long.parseLong(contentLength.firstValue().trim());
+            } catch (NumberFormatException ignored) {
+                // Falls back on the stream
+            }
+        }
+        try {
+            // Exact for the in-memory and file bodies of the stubs, 0 for generated streams
+            return body.available();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    // Applies only to the stubs that name it
+    @Override
+    public boolean applyGlobally() {
+        return false;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    // Builds WireMock's Jetty server with the throttling filter in front of the stub servlet
+    @Override
+    public HttpServer buildHttpServer(Options options, AdminRequestHandler adminRequestHandler, StubRequestHandler stubRequestHandler) {
+        return new Jetty11HttpServer(options, adminRequestHandler, stubRequestHandler) {
+            @Override
+            protected void decorateMockServiceContextBeforeConfig(ServletContextHandler mockServiceContext) {
+                FilterHolder filterHolder = new FilterHolder(new ThrottlingFilter());
+                filterHolder.setAsyncSupported(true);
+                mockServiceContext.addFilter(filterHolder, "/*", EnumSet.of(DispatcherType.REQUEST));
+            }
+
+            @Override
+            protected void decorateMockServiceContextAfterConfig(ServletContextHandler mockServiceContext) {
+                // The filter suspends the request once the servlet returns, so the servlets must allow it
+                for (ServletHolder servletHolder : mockServiceContext.getServletHandler().getServlets()) {
+                    servletHolder.setAsyncSupported(true);
+                }
+            }
+        };
+    }
+
+    // Method to return the number of throttled responses being written
+    public long getInFlight() {
+        return inFlight.sum();
+    }
+
+    // Method to return the number of throttled responses written completely
+    public long getCompleted() {
+        return completed.sum();
+    }
+
+    // Method to return the number of throttled responses cut by an error
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    // Method to return the number of chunks waiting on the wheel
+    public int getPendingChunks() {
+        return timerWheel.pending();
+    }
+
+    // Stops the wheel; throttled responses still being written are never finished
+    @Override
+    public void close() {
+        timerWheel.close();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ThrottledResponses{inFlight=%d, completed=%d, failed=%d, pendingChunks=%d}",
+                getInFlight(), getCompleted(), getFailed(), getPendingChunks());
+    }
+
+    /**
+     * Filter suspending the request of a throttled response once the stub
+     * servlet has written its status and headers, and starting its writes.
+     */
+    private final class ThrottlingFilter implements Filter {
+
+        @Override
+        public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+                throws IOException, ServletException {
+            ThrottledWrite throttledWrite;
+            try {
+                chain.doFilter(request, new ThrottledResponseWrapper((HttpServletResponse) response));
+            } finally {
+                throttledWrite = RENDERED.get();
+                RENDERED.remove();
+            }
+            if (throttledWrite == null) {
+                return;
+            }
+
+            AsyncContext asyncContext = request.startAsync();
+            asyncContext.setTimeout(0);
+            throttledWrite.start(asyncContext, response.getOutputStream());
+        }
+    }
+
+    /**
+     * Response of the stub servlet, which drops the empty body and content
+     * length the servlet writes for a throttled response, so the response is
+     * not committed before the filter starts writing it.
+     */
+    private static final class ThrottledResponseWrapper extends HttpServletResponseWrapper {
+
+        private ThrottledResponseWrapper(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            return RENDERED.get() != null ? DiscardingOutputStream.INSTANCE : super.getOutputStream();
+        }
+
+        @Override
+        public void setContentLength(int length) {
+            if (RENDERED.get() == null) {
+                super.setContentLength(length);
+            }
+        }
+
+        @Override
+        public void setContentLengthLong(long length) {
+            if (RENDERED.get() == null) {
+                super.setContentLengthLong(length);
+            }
+        }
+    }
+
+    /**
+     * Output stream dropping whatever is written to it.
+     */
+    private static final class DiscardingOutputStream extends ServletOutputStream {
+
+        private static final DiscardingOutputStream INSTANCE = new DiscardingOutputStream();
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            throw new IllegalStateException("Throttled responses are written by the timer wheel");
+        }
+
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+        }
+    }
+
+    /**
+     * Writes of one throttled response: a chunk on each tick of the wheel,
+     * and the next tick scheduled once the chunk is written. With a
+     * bandwidth, each chunk is what the bandwidth allows since the first
+     * write, so the rate stays exact whatever the wheel's precision.
+     */
+    private static final class ThrottledWrite implements WriteListener {
+
+        // Throttled responses the write belongs to
+        private final ThrottledResponses owner;
+
+        // Body of the stub, read one chunk at a time
+        private final InputStream body;
+
+        // Delay before the first chunk
+        private final long initialDelayMillis;
+
+        // Bandwidth in bytes per second, 0 for a dribble delay
+        private final long bytesPerSecond;
+
+        // Interval between two chunks
+        private final long intervalMillis;
+
+        // Buffer of a chunk
+        private final byte[] buffer;
+
+        // Suspended request and its output
+        private AsyncContext asyncContext;
+        private ServletOutputStream output;
+
+        // Time of the first write, and bytes written since
+        private long firstWriteNanos;
+        private long written;
+
+        // Whether the first write is scheduled, and whether the next one waits for the output to be writable
+        private boolean started;
+        private boolean awaitingWritable;
+
+        private ThrottledWrite(ThrottledResponses owner, InputStream body, long initialDelayMillis,
+                               long bytesPerSecond, long intervalMillis, int chunkBytes) {
+            this.owner = owner;
+            this.body = body;
+            this.initialDelayMillis = initialDelayMillis;
+            this.bytesPerSecond = bytesPerSecond;
+            this.intervalMillis = intervalMillis;
+            this.buffer = new byte[chunkBytes];
+        }
+
+        // Method to build the writes of a body limited to bytesPerSecond
+        private static ThrottledWrite withBandwidth(ThrottledResponses owner, InputStream body, long initialDelayMillis,
+                                                    long bytesPerSecond) {
+            if (bytesPerSecond < 1) {
+                throw new IllegalArgumentException("Bandwidth must be at least 1 byte per second, was " + bytesPerSecond);
+            }
+            // Writes more often at high bandwidths, and twice the bytes of an interval at most to catch up with a late tick
+            long intervalMillis = Math.max(MIN_WRITE_INTERVAL_MILLIS,
+                    Math.min(MAX_WRITE_INTERVAL_MILLIS, MAX_CHUNK_BYTES * 1000L / bytesPerSecond));
+            long chunkBytes = Math.max(1, 2 * bytesPerSecond * intervalMillis / 1000);
+            return new ThrottledWrite(owner, body, initialDelayMillis, bytesPerSecond, intervalMillis,
+                    (int) Math.min(2 * MAX_CHUNK_BYTES, chunkBytes));
+        }
+
+        // Method to build the writes of a body of bodyBytes (0 when unknown) split into the chunks of a dribble delay
+        private static ThrottledWrite withDribble(ThrottledResponses owner, InputStream body, long bodyBytes,
+                                                  long initialDelayMillis, ChunkedDribbleDelay dribbleDelay) {
+            int chunks = Math.max(1, dribbleDelay.getNumberOfChunks());
+            long chunkBytes = bodyBytes > 0 ? (bodyBytes + chunks - 1) / chunks : MIN_DRIBBLE_CHUNK_BYTES;
+            return new ThrottledWrite(owner, body, initialDelayMillis, 0, dribbleDelay.getTotalDuration() / chunks,
+                    (int) Math.min(2 * MAX_CHUNK_BYTES, chunkBytes));
+        }
+
+        // Method to start writing the response of a suspended request
+        private void start(AsyncContext asyncContext, ServletOutputStream output) {
+            this.asyncContext = asyncContext;
+            this.output = output;
+            owner.inFlight.increment();
+            output.setWriteListener(this);
+        }
+
+        // Schedules the first chunk when the output is first writable, and the next one once a chunk is written
+        @Override
+        public synchronized void onWritePossible() {
+            if (!started) {
+                started = true;
+                owner.timerWheel.schedule(initialDelayMillis, this::writeChunk);
+            } else if (awaitingWritable) {
+                awaitingWritable = false;
+                owner.timerWheel.schedule(intervalMillis, this::writeChunk);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            finish(false);
+        }
+
+        // Method to write the next chunk of the body on a tick of the wheel
+        private synchronized void writeChunk() {
+            try {
+                if (firstWriteNanos == 0) {
+                    firstWriteNanos = System.nanoTime();
+                }
+                int length = nextChunkBytes();
+                if (length == 0) {
+                    owner.timerWheel.schedule(intervalMillis, this::writeChunk);
+                    return;
+                }
+                int read = body.readNBytes(buffer, 0, length);
+                if (read == 0) {
+                    finish(true);
+                    return;
+                }
+                output.write(buffer, 0, read);
+                written += read;
+                if (output.isReady()) {
+                    owner.timerWheel.schedule(intervalMillis, this::writeChunk);
+                } else {
+                    awaitingWritable = true;
+                }
+            } catch (IOException | RuntimeException e) {
+                finish(false);
+            }
+        }
+
+        // Method to return the size of the next chunk
+        private int nextChunkBytes() {
+            if (bytesPerSecond == 0) {
+                return buffer.length;
+            }
+            long elapsedNanos = System.nanoTime() - firstWriteNanos + TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+            long allowed = bytesPerSecond * elapsedNanos / TimeUnit.SECONDS.toNanos(1) - written;
+            return (int) Math.max(0, Math.min(buffer.length, allowed));
+        }
+
+        // Method to close the body and complete the request once, counting its outcome
+        private synchronized void finish(boolean success) {
+            if (asyncContext == null) {
+                return;
+            }
+            try {
+                body.close();
+            } catch (IOException ignored) {
+                // The body is only read
+            }
+            asyncContext.complete();
+            asyncContext = null;
+            owner.inFlight.decrement();
+            (success ? owner.completed : owner.failed).increment();
+        }
+    }
+
+}
@@ -0,0 +1,168 @@
+package qa.wiremock.concepts.delay;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import io.restassured.response.Response;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import qa.wiremock.concepts.parallel.WireMockServerPool;
+import qa.wiremock.concepts.response.StreamedJsonArray;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * This code verifies that ThrottledResponses serves bodies at the bandwidth
+ * of their stub and spreads chunked dribble delays over their duration,
+ * without holding a server thread per slow response: far more slow
+ * downloads than server threads finish together. A generated array is
+ * dribbled in chunks sized from its Content-Length.
+ *
+ * @author Jagatheshwaran N
+ */
+public class ThrottledResponsesTest {
+
+    // Size of the downloaded body, and the bandwidth of its stub
+    private static final int BODY_BYTES = 256 * 1024;
+    private static final int BYTES_PER_SECOND = 128 * 1024;
+
+    // Delay of the download stub before its first byte
+    private static final int FIXED_DELAY_MILLIS = 500;
+
+    // Chunks and duration of the dribble delay
+    private static final int DRIBBLE_CHUNKS = 10;
+    private static final int DRIBBLE_MILLIS = 2000;
+
+    // Students of the generated array dribbled with its Content-Length
+    private static final int STREAMED_STUDENTS = 2000;
+
+    // Server threads, and concurrent dribbled downloads well beyond them
+    private static final int CONTAINER_THREADS = 20;
+    private static final int CONCURRENT_DOWNLOADS = 200;
+
+    // Instance of WireMockServer
+    private static WireMockServer wireMockServer;
+
+    // Throttled responses of the server
+    private static ThrottledResponses throttledResponses;
+
+    // Body served by the stubs
+    private static byte[] body;
+
+    // Method to start the WireMock server with throttled stubs before test execution
+    @BeforeClass
+    public void startupServer() {
+        throttledResponses = new ThrottledResponses();
+        wireMockServer = WireMockServerPool.acquire(ThrottledResponses.configure(NonBlockingDelays.configure(
+                StreamedJsonArray.configure(WireMockConfiguration.options().containerThreads(CONTAINER_THREADS))),
+                throttledResponses));
+        body = new byte[BODY_BYTES];
+        for (int i = 0; i < BODY_BYTES; i++) {
+            body[i] = (byte) ('a' + i % 26);
+        }
+
+        WireMock client = WireMockServerPool.clientFor(wireMockServer);
+        client.register(WireMock.get("/download/report")
+                .willReturn(WireMock.ok().withBody(body)
+                        .withFixedDelay(FIXED_DELAY_MILLIS)
+                        .withTransformers(ThrottledResponses.NAME)
+                        .withTransformerParameters(ThrottledResponses.bandwidth(BYTES_PER_SECOND))));
+        client.register(WireMock.get("/download/summary")
+                .willReturn(WireMock.ok().withBody(body)));
+        client.register(WireMock.get("/feed/students")
+                .willReturn(WireMock.okJson("{\"students\": [\"Jagatheshwaran\", \"Arun\", \"Priya\"]}")
+                        .withChunkedDribbleDelay(DRIBBLE_CHUNKS, DRIBBLE_MILLIS)
+                        .withTransformers(ThrottledResponses.NAME)));
+        client.register(WireMock.get("/feed/students/all")
+                .willReturn(WireMock.okJson("{\"id\": {{number}}, \"name\": \"Jagatheshwaran\"}")
+                        .withChunkedDribbleDelay(DRIBBLE_CHUNKS, DRIBBLE_MILLIS)
+                        .withTransformers(StreamedJsonArray.NAME, ThrottledResponses.NAME)
+                        .withTransformerParameters(StreamedJsonArray.count(STREAMED_STUDENTS))));
+    }
+
+    // Method to shut down the WireMock server after test execution
+    @AfterClass
+    public void shutdownServer() {
+        WireMockServerPool.release(wireMockServer);
+        throttledResponses.close();
+    }
+
+    // Test method to verify that a body is served at the bandwidth of its stub, after its delay
+    @Test
+    public void testBandwidthLimitedDownload() {
+        // Warms up the client on a stub that is not throttled, served in full at once
+        Response plain = given().baseUri(WireMockServerPool.baseUrlOf(wireMockServer)).when().get("/download/summary");
+        Assert.assertEquals(plain.asByteArray().length, BODY_BYTES);
+
+        long start = System.nanoTime();
+        Response response = given().baseUri(WireMockServerPool.baseUrlOf(wireMockServer))
+                .when().get("/download/report");
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        System.out.println("Downloaded " + BODY_BYTES + " bytes at " + BYTES_PER_SECOND + " bytes/s in " + elapsedMillis + " ms");
+
+        // Assert that the whole body arrived, no faster than the delay and bandwidth allow
+        Assert.assertEquals(response.getStatusCode(), 200);
+        Assert.assertTrue(Arrays.equals(response.asByteArray(), body));
+        long expectedMillis = FIXED_DELAY_MILLIS + 1000L * BODY_BYTES / BYTES_PER_SECOND;
+        Assert.assertTrue(elapsedMillis >= expectedMillis - 100, elapsedMillis + " ms");
+        Assert.assertTrue(elapsedMillis < expectedMillis + 1500, elapsedMillis + " ms");
+    }
+
+    // Test method to verify that a generated body, with no bytes available upfront, is dribbled in chunks of its Content-Length
+    @Test
+    public void testDribbledGeneratedArray() {
+        long start = System.nanoTime();
+        Response response = given().baseUri(WireMockServerPool.baseUrlOf(wireMockServer))
+                .when().get("/feed/students/all");
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // Assert that the whole array arrived over the duration of the dribble delay, not one byte per chunk
+        Assert.assertEquals(response.getStatusCode(), 200);
+        Assert.assertEquals(response.jsonPath().getList("id").size(), STREAMED_STUDENTS);
+        Assert.assertTrue(elapsedMillis >= DRIBBLE_MILLIS - 300, elapsedMillis + " ms");
+        Assert.assertTrue(elapsedMillis < 3 * DRIBBLE_MILLIS, elapsedMillis + " ms");
+    }
+
+    // Test method to verify that many more dribbled downloads than server threads finish together
+    @Test
+    public void testConcurrentDribbleWithoutHoldingThreads() {
+        HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        HttpRequest request = HttpRequest.newBuilder(
+                URI.create(WireMockServerPool.baseUrlOf(wireMockServer) + "/feed/students")).build();
+
+        long start = System.nanoTime();
+        List<CompletableFuture<HttpResponse<String>>> downloads = new ArrayList<>();
+        for (int i = 0; i < CONCURRENT_DOWNLOADS; i++) {
+            downloads.add(httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+        }
+        CompletableFuture.allOf(downloads.toArray(CompletableFuture[]::new)).join();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        System.out.println(CONCURRENT_DOWNLOADS + " dribbled downloads in " + elapsedMillis + " ms on "
+                + CONTAINER_THREADS + " server threads; " + throttledResponses);
+
+        // Assert that every download is complete, dribbled over its duration
+        for (CompletableFuture<HttpResponse<String>> download : downloads) {
+            HttpResponse<String> response = download.join();
+            Assert.assertEquals(response.statusCode(), 200);
+            Assert.assertTrue(response.body().contains("Jagatheshwaran"));
+        }
+        Assert.assertTrue(elapsedMillis >= DRIBBLE_MILLIS - 100, elapsedMillis + " ms");
+
+        // Assert that they ran together, where a sleeping server thread per download would take over 20 s
+        Assert.assertTrue(elapsedMillis < 3 * DRIBBLE_MILLIS, elapsedMillis + " ms");
+        Assert.assertEquals(throttledResponses.getInFlight(), 0);
+        Assert.assertEquals(throttledResponses.getFailed(), 0);
+    }
+
+}
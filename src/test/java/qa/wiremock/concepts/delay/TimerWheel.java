@@ -0,0 +1,167 @@
+package qa.wiremock.concepts.delay;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * This code provides a hashed timer wheel: one thread, ticking every
+ * tickMillis, runs the tasks whose delay is over.
+ * A task is dropped into the bucket of the tick it expires on, so scheduling
+ * and expiring a task cost the same whatever the number of pending tasks,
+ * unlike a ScheduledExecutorService whose heap grows with every task. The
+ * price is precision: a task runs up to one tick late.
+ * Tasks run on the wheel's thread, so they must be short and never block;
+ * a task throwing an exception is dropped, counted by failed(), and the
+ * wheel keeps ticking.
+ *
+ * @author Jagatheshwaran N
+ */
+public class TimerWheel implements AutoCloseable {
+
+    // Default length of a tick
+    public static final int DEFAULT_TICK_MILLIS = 10;
+
+    // Default number of buckets of the wheel, one turn being 5.12 s with the default tick
+    public static final int DEFAULT_BUCKETS = 512;
+
+    // Length of a tick in nanoseconds
+    private final long tickNanos;
+
+    // Tasks of each bucket, only touched by the wheel's thread
+    private final Queue<Timeout>[] buckets;
+
+    // Tasks scheduled since the last tick, moved into their buckets by the wheel's thread
+    private final Queue<Timeout> scheduled = new ConcurrentLinkedQueue<>();
+
+    // Tasks scheduled and not run yet
+    private final AtomicInteger pending = new AtomicInteger();
+
+    // Tasks that threw an exception
+    private final LongAdder failed = new LongAdder();
+
+    // Thread of the wheel
+    private final Thread thread;
+
+    // Start of the wheel, tick 0
+    private final long startNanos;
+
+    // Whether the wheel is stopped
+    private volatile boolean closed;
+
+    // Constructor of a wheel with the default tick and buckets
+    public TimerWheel(String name) {
+        this(name, DEFAULT_TICK_MILLIS, DEFAULT_BUCKETS);
+    }
+
+    // Constructor of a wheel ticking every tickMillis, with a power of two number of buckets
+    @SuppressWarnings("unchecked")
+    public TimerWheel(String name, int tickMillis, int buckets) {
+        if (tickMillis < 1 || Integer.bitCount(buckets) != 1) {
+            throw new IllegalArgumentException("Timer wheel needs a tick of at least 1 ms and a power of two number of buckets, was "
+                    + tickMillis + " ms and " + buckets);
+        }
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        this.buckets = new Queue[buckets];
+        for (int i = 0; i < buckets; i++) {
+            this.buckets[i] = new ArrayDeque<>();
+        }
+        this.startNanos = System.nanoTime();
+        this.thread = Thread.ofPlatform().name(name).daemon().start(this::run);
+    }
+
+    // Method to run a task once delayMillis are over
+    public void schedule(long delayMillis, Runnable task) {
+        if (closed) {
+            throw new IllegalStateException("Timer wheel " + thread.getName() + " is closed");
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(0, delayMillis));
+        pending.incrementAndGet();
+        scheduled.add(new Timeout(deadline, task));
+    }
+
+    // Method to return the number of tasks scheduled and not run yet
+    public int pending() {
+        return pending.get();
+    }
+
+    // Method to return the number of tasks that threw an exception
+    public long failed() {
+        return failed.sum();
+    }
+
+    // Stops the wheel; pending tasks never run
+    @Override
+    public void close() {
+        closed = true;
+        thread.interrupt();
+    }
+
+    // Method to tick until the wheel is closed
+    private void run() {
+        long tick = 0;
+        while (!closed) {
+            // Sleeps until the end of the current tick
+            long tickEnd = startNanos + (tick + 1) * tickNanos;
+            for (long wait = tickEnd - System.nanoTime(); wait > 0 && !closed; wait = tickEnd - System.nanoTime()) {
+                LockSupport.parkNanos(wait);
+            }
+            transferScheduled(tick);
+            expire(buckets[(int) (tick & (buckets.length - 1))]);
+            tick++;
+        }
+    }
+
+    // Method to drop the tasks scheduled since the last tick into the bucket of the tick they expire on
+    private void transferScheduled(long currentTick) {
+        for (Timeout timeout = scheduled.poll(); timeout != null; timeout = scheduled.poll()) {
+            // A task already due expires on the current tick
+            long expiryTick = Math.max(currentTick, (timeout.deadline - startNanos + tickNanos - 1) / tickNanos - 1);
+            timeout.rounds = (expiryTick - currentTick) / buckets.length;
+            buckets[(int) (expiryTick & (buckets.length - 1))].add(timeout);
+        }
+    }
+
+    // Method to run the tasks of a bucket that are due on this turn of the wheel
+    private void expire(Queue<Timeout> bucket) {
+        for (int i = bucket.size(); i > 0; i--) {
+            Timeout timeout = bucket.poll();
+            if (timeout.rounds > 0) {
+                timeout.rounds--;
+                bucket.add(timeout);
+                continue;
+            }
+            pending.decrementAndGet();
+            try {
+                timeout.task.run();
+            } catch (RuntimeException e) {
+                failed.increment();
+            }
+        }
+    }
+
+    /**
+     * A task waiting in a bucket, with the turns of the wheel left before it expires.
+     */
+    private static final class Timeout {
+
+        // Time the task is due, from System.nanoTime()
+        private final long deadline;
+
+        // Task to run
+        private final Runnable task;
+
+        // Turns of the wheel left before the task expires
+        private long rounds;
+
+        private Timeout(long deadline, Runnable task) {
+            this.deadline = deadline;
+            this.task = task;
+        }
+    }
+
+}
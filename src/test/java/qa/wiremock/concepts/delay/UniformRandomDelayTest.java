@@ -5,9 +5,10 @@ import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
 import com.github.tomakehurst.wiremock.client.WireMock;
 import io.restassured.response.ValidatableResponse;
 import org.testng.Assert;
-import org.testng.annotations.AfterTest;
-import org.testng.annotations.BeforeTest;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
+import qa.wiremock.concepts.parallel.WireMockServerPool;
 
 import static io.restassured.RestAssured.given;
 
@@ -26,24 +27,23 @@ import static io.restassured.RestAssured.given;
  */
 public class UniformRandomDelayTest {
 
-    // Constants for host and port
+    // Constant for host
     private static final String HOST = "localhost";
-    private static final int PORT = 8080;
 
     // Instance of WireMockServer
     public static WireMockServer wireMockServer;
 
+    // WireMock client bound to this class's server instance
+    private static WireMock wireMock;
+
     // Method to set up the WireMock server before tests
-    @BeforeTest
+    @BeforeClass
     public void startupServer() {
-        // Creates a new WireMock server instance.
-        wireMockServer = new WireMockServer(PORT);
-
-        // Starts the WireMock server.
-        wireMockServer.start();
+        // Acquires a WireMock server running on a free port from the pool.
+        wireMockServer = WireMockServerPool.acquire();
 
-        // Configures WireMock to listen on the specified host and port.
-        WireMock.configureFor(HOST, PORT);
+        // Binds a WireMock client to the acquired server instance.
+        wireMock = WireMockServerPool.clientFor(wireMockServer);
 
         // Create a response definition builder for the endpoint
         ResponseDefinitionBuilder responseDefinitionBuilder = new ResponseDefinitionBuilder();
@@ -52,17 +52,17 @@ public class UniformRandomDelayTest {
         responseDefinitionBuilder.withBodyFile("json/randelay.json");
 
         // Stub the endpoint to simulate a uniform random delay between 2000ms and 4000ms
-        WireMock.stubFor(WireMock.get("/random/delay").
+        wireMock.register(WireMock.get("/random/delay").
                 // Define the response with a uniform random delay
                 willReturn(responseDefinitionBuilder.withUniformRandomDelay(2000, 4000)));
     }
 
     // Method to shut down the WireMock server after tests
-    @AfterTest
+    @AfterClass
     public void shutdownServer() {
         // Check if the server is running and then shut it down
         if (wireMockServer != null && wireMockServer.isRunning()) {
-            wireMockServer.shutdownServer();
+            WireMockServerPool.release(wireMockServer);
         }
     }
 
@@ -75,8 +75,8 @@ public class UniformRandomDelayTest {
         // Record the start time to calculate response time
         long startTime = System.currentTimeMillis();
 
-        // Construct the request URL using the HOST and PORT constants
-        String requestUrl = String.format("http://%s:%d/random/delay", HOST, PORT);
+        // Construct the request URL using the HOST constant and the server port
+        String requestUrl = String.format("http://%s:%d/random/delay", HOST, wireMockServer.port());
 
         // Perform the GET request and validate the response
         ValidatableResponse response =
@@ -0,0 +1,340 @@
+package qa.wiremock.concepts.endpointcount;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.tomakehurst.wiremock.client.VerificationException;
+import com.github.tomakehurst.wiremock.common.Json;
+import com.github.tomakehurst.wiremock.matching.RequestPattern;
+import com.github.tomakehurst.wiremock.matching.RequestPatternBuilder;
+import com.github.tomakehurst.wiremock.store.RequestJournalStore;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * This code provides a request journal store of fixed size for soak runs,
+ * where WireMock's default journal keeps every request and the heap grows
+ * without bound.
+ * The last "capacity" serve events are kept in a ring buffer, the oldest
+ * one being overwritten by each new event, so WireMock.verify(...) and the
+ * admin API see a sliding window of the traffic:
+ * - ON_HEAP: the ServeEvent objects themselves;
+ * - OFF_HEAP: each event as JSON in a fixed-size slot of a direct buffer,
+ * without its request and response bodies when it does not fit the slot;
+ * - COUNTERS_ONLY: no event at all.
+ * In every mode, requests are also counted per matched stub and per request
+ * pattern of the matched stub. The counters are never evicted, so they stay
+ * exact for the whole run, and verify(count, pattern) checks them with one
+ * lookup instead of scanning the journal. A pattern equal to no stub's
+ * request pattern counts 0; verify it through the journal instead.
+ * Resetting the requests of the server resets the counters too.
+ * <p>
+ * Register it with new ConceptStores(filesRoot).withRingBufferJournal(capacity, mode).
+ *
+ * @author Jagatheshwaran N
+ */
+public class RingBufferRequestJournalStore implements RequestJournalStore {
+
+    /**
+     * Where the serve events of the ring buffer are kept.
+     */
+    public enum Mode {
+        ON_HEAP, OFF_HEAP, COUNTERS_ONLY
+    }
+
+    // Default size of an off-heap slot in bytes
+    public static final int DEFAULT_SLOT_BYTES = 8 * 1024;
+
+    // Mapper of the off-heap events
+    private static final ObjectMapper MAPPER = Json.getObjectMapper();
+
+    // Number of serve events kept
+    private final int capacity;
+
+    // Where the serve events are kept
+    private final Mode mode;
+
+    // Size of an off-heap slot in bytes, its length prefix included
+    private final int slotBytes;
+
+    // Serve events of the ON_HEAP ring, null for the other modes
+    private final ServeEvent[] events;
+
+    // Slots of the OFF_HEAP ring, null for the other modes
+    private final ByteBuffer slots;
+
+    // Ids of the events of each slot, null for an empty slot
+    private final UUID[] ids;
+
+    // Slot of each event of the ring
+    private final Map<UUID, Integer> slotsById = new HashMap<>();
+
+    // Slot of the next event, overwriting the oldest one once the ring is full
+    private int next;
+
+    // Requests per matched stub id, never evicted
+    private final Map<UUID, LongAdder> hitsByStub = new ConcurrentHashMap<>();
+
+    // Requests per request pattern of the matched stub, never evicted
+    private final Map<RequestPattern, LongAdder> hitsByPattern = new ConcurrentHashMap<>();
+
+    // Requests matching no stub, never evicted
+    private final LongAdder unmatched = new LongAdder();
+
+    // Serve events overwritten by newer ones, and events kept off-heap without their bodies
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder truncations = new LongAdder();
+
+    // Constructor of a store keeping the last capacity events, with off-heap slots of the default size
+    public RingBufferRequestJournalStore(int capacity, Mode mode) {
+        this(capacity, mode, DEFAULT_SLOT_BYTES);
+    }
+
+    // Constructor of a store keeping the last capacity events, with off-heap slots of slotBytes
+    public RingBufferRequestJournalStore(int capacity, Mode mode, int slotBytes) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Journal capacity must be at least 1, was " + capacity);
+        }
+        this.capacity = capacity;
+        this.mode = mode;
+        this.slotBytes = slotBytes;
+        this.events = mode == Mode.ON_HEAP ? new ServeEvent[capacity] : null;
+        this.slots = mode == Mode.OFF_HEAP ? ByteBuffer.allocateDirect(Math.multiplyExact(capacity, slotBytes)) : null;
+        this.ids = mode == Mode.COUNTERS_ONLY ? null : new UUID[capacity];
+    }
+
+    // Counts the request, then keeps its event in the ring
+    @Override
+    public void add(ServeEvent serveEvent) {
+        if (serveEvent.getWasMatched() && serveEvent.getStubMapping() != null) {
+            hitsByStub.computeIfAbsent(serveEvent.getStubMapping().getId(), id -> new LongAdder()).increment();
+            hitsByPattern.computeIfAbsent(serveEvent.getStubMapping().getRequest(), pattern -> new LongAdder()).increment();
+        } else {
+            unmatched.increment();
+        }
+        if (mode == Mode.COUNTERS_ONLY) {
+            return;
+        }
+
+        synchronized (this) {
+            if (ids[next] != null) {
+                slotsById.remove(ids[next]);
+                evictions.increment();
+            }
+            if (write(next, serveEvent)) {
+                truncations.increment();
+            }
+            ids[next] = serveEvent.getId();
+            slotsById.put(serveEvent.getId(), next);
+            next = (next + 1) % capacity;
+        }
+    }
+
+    // Replaces an event still in the ring with its completed version, as WireMock does once it is served
+    @Override
+    public synchronized void put(UUID id, ServeEvent serveEvent) {
+        Integer slot = slotsById.get(id);
+        if (slot != null) {
+            write(slot, serveEvent);
+        }
+    }
+
+    @Override
+    public synchronized Optional<ServeEvent> get(UUID id) {
+        Integer slot = slotsById.get(id);
+        return slot == null ? Optional.empty() : Optional.of(read(slot));
+    }
+
+    // Returns the events of the ring, newest first, as WireMock's default journal store does
+    @Override
+    public Stream<ServeEvent> getAll() {
+        return snapshot().stream();
+    }
+
+    @Override
+    public synchronized Stream<UUID> getAllKeys() {
+        if (mode == Mode.COUNTERS_ONLY) {
+            return Stream.empty();
+        }
+        List<UUID> keys = new ArrayList<>(slotsById.size());
+        for (int i = 1; i <= capacity; i++) {
+            UUID id = ids[Math.floorMod(next - i, capacity)];
+            if (id != null) {
+                keys.add(id);
+            }
+        }
+        return keys.stream();
+    }
+
+    // Removes the oldest event of the ring
+    @Override
+    public synchronized void removeLast() {
+        if (mode == Mode.COUNTERS_ONLY) {
+            return;
+        }
+        for (int i = 0; i < capacity; i++) {
+            int slot = (next + i) % capacity;
+            if (ids[slot] != null) {
+                clearSlot(slot);
+                return;
+            }
+        }
+    }
+
+    @Override
+    public synchronized void remove(UUID id) {
+        Integer slot = slotsById.get(id);
+        if (slot != null) {
+            clearSlot(slot);
+        }
+    }
+
+    // Empties the ring and resets the counters, as resetting the requests of the server does
+    @Override
+    public synchronized void clear() {
+        if (mode != Mode.COUNTERS_ONLY) {
+            for (int slot = 0; slot < capacity; slot++) {
+                clearSlot(slot);
+            }
+        }
+        next = 0;
+        hitsByStub.clear();
+        hitsByPattern.clear();
+        unmatched.reset();
+    }
+
+    // Method to return the number of requests served by a stub
+    public long getHitCount(UUID stubId) {
+        LongAdder hits = hitsByStub.get(stubId);
+        return hits == null ? 0 : hits.sum();
+    }
+
+    // Method to count the requests served by the stubs with the given request pattern, with one lookup
+    public long countRequestsMatching(RequestPatternBuilder requestPatternBuilder) {
+        LongAdder hits = hitsByPattern.get(requestPatternBuilder.build());
+        return hits == null ? 0 : hits.sum();
+    }
+
+    // Method to verify the number of requests served by the stubs with the given request pattern
+    public void verify(int expectedCount, RequestPatternBuilder requestPatternBuilder) {
+        long actualCount = countRequestsMatching(requestPatternBuilder);
+        if (actualCount != expectedCount) {
+            throw new VerificationException(requestPatternBuilder.build(), expectedCount, (int) actualCount);
+        }
+    }
+
+    // Method to return the number of requests that matched no stub
+    public long getUnmatchedCount() {
+        return unmatched.sum();
+    }
+
+    // Method to return the number of events overwritten by newer ones
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    // Method to return the number of events kept off-heap without their bodies
+    public long getTruncations() {
+        return truncations.sum();
+    }
+
+    // Method to return the maximum number of events kept
+    public int getCapacity() {
+        return capacity;
+    }
+
+    // Method to copy the events of the ring, newest first
+    private synchronized List<ServeEvent> snapshot() {
+        if (mode == Mode.COUNTERS_ONLY) {
+            return List.of();
+        }
+        List<ServeEvent> snapshot = new ArrayList<>(slotsById.size());
+        for (int i = 1; i <= capacity; i++) {
+            int slot = Math.floorMod(next - i, capacity);
+            if (ids[slot] != null) {
+                snapshot.add(read(slot));
+            }
+        }
+        return snapshot;
+    }
+
+    // Method to keep an event in a slot of the ring, returning whether its bodies were left out
+    private boolean write(int slot, ServeEvent serveEvent) {
+        if (mode == Mode.ON_HEAP) {
+            events[slot] = serveEvent;
+            return false;
+        }
+        try {
+            byte[] json = MAPPER.writeValueAsBytes(serveEvent);
+            boolean truncated = json.length + Integer.BYTES > slotBytes;
+            if (truncated) {
+                json = withoutBodies(serveEvent);
+            }
+            ByteBuffer slotBuffer = slots.duplicate().position(slot * slotBytes).limit((slot + 1) * slotBytes);
+            slotBuffer.putInt(json.length).put(json);
+            return truncated;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Method to read the event of a slot of the ring
+    private ServeEvent read(int slot) {
+        if (mode == Mode.ON_HEAP) {
+            return events[slot];
+        }
+        int offset = slot * slotBytes;
+        byte[] json = new byte[slots.getInt(offset)];
+        slots.get(offset + Integer.BYTES, json);
+        try {
+            return MAPPER.readValue(json, ServeEvent.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Method to empty a slot of the ring
+    private void clearSlot(int slot) {
+        if (ids[slot] != null) {
+            slotsById.remove(ids[slot]);
+            ids[slot] = null;
+        }
+        if (events != null) {
+            events[slot] = null;
+        }
+    }
+
+    // Method to serialize an event without its request and response bodies, for an off-heap slot it does not fit
+    private byte[] withoutBodies(ServeEvent serveEvent) throws IOException {
+        ObjectNode tree = MAPPER.valueToTree(serveEvent);
+        removeBodies(tree.get("request"), "body", "bodyAsBase64", "multiparts");
+        removeBodies(tree.get("response"), "body", "bodyAsBase64");
+        removeBodies(tree.get("responseDefinition"), "body", "base64Body", "jsonBody");
+        byte[] json = MAPPER.writeValueAsBytes(tree);
+        if (json.length + Integer.BYTES > slotBytes) {
+            throw new IllegalStateException("Serve event of " + json.length + " bytes without its bodies does not fit a "
+                    + slotBytes + " bytes journal slot; use larger slots");
+        }
+        return json;
+    }
+
+    // Method to remove the body fields of a JSON object
+    private static void removeBodies(JsonNode node, String... fields) {
+        if (node instanceof ObjectNode object) {
+            object.remove(List.of(fields));
+        }
+    }
+
+}
@@ -0,0 +1,136 @@
+package qa.wiremock.concepts.endpointcount;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.VerificationException;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import qa.wiremock.concepts.stores.ConceptStores;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * This code verifies the RingBufferRequestJournalStore on the GET and POST
+ * endpoints of VerifyMockGetAPITest and VerifyMockPostAPITest: the journal
+ * keeps the last requests only, while the per-stub counters stay exact
+ * after the older requests are evicted, and in every mode.
+ *
+ * @author Jagatheshwaran N
+ */
+public class RingBufferRequestJournalTest {
+
+    // Number of serve events kept by the journal
+    private static final int CAPACITY = 50;
+
+    // Number of GET requests sent, several times the journal capacity
+    private static final int GET_REQUESTS = 200;
+
+    // Size of the off-heap slots, smaller than a POST event with its body
+    private static final int SLOT_BYTES = 4 * 1024;
+
+    // Method to provide the modes keeping serve events
+    @DataProvider(name = "ringModes")
+    public Object[][] ringModes() {
+        return new Object[][]{{RingBufferRequestJournalStore.Mode.ON_HEAP}, {RingBufferRequestJournalStore.Mode.OFF_HEAP}};
+    }
+
+    // Test method to verify that the journal keeps the last requests while the counters stay exact
+    @Test(dataProvider = "ringModes")
+    public void testKeepsLastRequestsWithExactCounters(RingBufferRequestJournalStore.Mode mode) throws IOException {
+        ConceptStores stores = newStores().withRingBufferJournal(CAPACITY, mode, SLOT_BYTES);
+        RingBufferRequestJournalStore journalStore = stores.getRingBufferJournalStore();
+        WireMockServer wireMockServer = startServer(stores);
+        try {
+            WireMock wireMock = new WireMock(wireMockServer.port());
+            StubMapping getStub = wireMock.register(WireMock.get(WireMock.urlPathEqualTo("/user/emp101"))
+                    .willReturn(WireMock.okJson("{\"worker\": {\"id\": \"EMP101\"}}")));
+            wireMock.register(WireMock.post(WireMock.urlPathEqualTo("/user"))
+                    .willReturn(WireMock.jsonResponse("{\"created\": true}", 201)));
+
+            String baseUrl = wireMockServer.baseUrl();
+            for (int i = 0; i < GET_REQUESTS; i++) {
+                given().when().get(baseUrl + "/user/emp101").then().statusCode(200);
+            }
+            String largeBody = "{\"name\": \"" + "x".repeat(2 * SLOT_BYTES) + "\"}";
+            given().body(largeBody).when().post(baseUrl + "/user").then().statusCode(201);
+            given().when().get(baseUrl + "/user/unknown").then().statusCode(404);
+
+            // Assert that the journal holds the last requests only, newest first
+            List<ServeEvent> serveEvents = wireMockServer.getAllServeEvents();
+            Assert.assertEquals(serveEvents.size(), CAPACITY);
+            Assert.assertEquals(serveEvents.get(0).getRequest().getUrl(), "/user/unknown");
+            Assert.assertEquals(serveEvents.get(1).getRequest().getUrl(), "/user");
+            Assert.assertEquals(journalStore.getEvictions(), GET_REQUESTS + 2 - CAPACITY);
+
+            // Assert that WireMock.verify sees the window, and the counters every request
+            wireMock.verifyThat(CAPACITY - 2, WireMock.getRequestedFor(WireMock.urlPathEqualTo("/user/emp101")));
+            journalStore.verify(GET_REQUESTS, WireMock.getRequestedFor(WireMock.urlPathEqualTo("/user/emp101")));
+            journalStore.verify(1, WireMock.postRequestedFor(WireMock.urlPathEqualTo("/user")));
+            Assert.assertEquals(journalStore.getHitCount(getStub.getId()), GET_REQUESTS);
+            Assert.assertEquals(journalStore.getUnmatchedCount(), 1);
+
+            // Assert that an off-heap event too large for its slot is kept without its body
+            if (mode == RingBufferRequestJournalStore.Mode.OFF_HEAP) {
+                Assert.assertEquals(journalStore.getTruncations(), 1);
+                Assert.assertEquals(serveEvents.get(1).getRequest().getMethod().getName(), "POST");
+            } else {
+                Assert.assertEquals(serveEvents.get(1).getRequest().getBodyAsString(), largeBody);
+            }
+        } finally {
+            wireMockServer.stop();
+        }
+    }
+
+    // Test method to verify that the counters-only mode keeps no request and verifies counts from its counters
+    @Test
+    public void testCountersOnlyVerification() throws IOException {
+        ConceptStores stores = newStores().withRingBufferJournal(CAPACITY, RingBufferRequestJournalStore.Mode.COUNTERS_ONLY);
+        RingBufferRequestJournalStore journalStore = stores.getRingBufferJournalStore();
+        WireMockServer wireMockServer = startServer(stores);
+        try {
+            WireMock wireMock = new WireMock(wireMockServer.port());
+            wireMock.register(WireMock.post(WireMock.urlPathEqualTo("/user"))
+                    .willReturn(WireMock.jsonResponse("{\"created\": true}", 201)));
+            for (int i = 0; i < GET_REQUESTS; i++) {
+                given().body("{\"id\": " + i + "}").when().post(wireMockServer.baseUrl() + "/user").then().statusCode(201);
+            }
+
+            // Assert that no request is kept, and that the counters verify every one of them
+            Assert.assertTrue(wireMockServer.getAllServeEvents().isEmpty());
+            journalStore.verify(GET_REQUESTS, WireMock.postRequestedFor(WireMock.urlPathEqualTo("/user")));
+            Assert.expectThrows(VerificationException.class,
+                    () -> journalStore.verify(GET_REQUESTS + 1, WireMock.postRequestedFor(WireMock.urlPathEqualTo("/user"))));
+
+            // Assert that resetting the requests of the server resets the counters
+            wireMockServer.resetRequests();
+            journalStore.verify(0, WireMock.postRequestedFor(WireMock.urlPathEqualTo("/user")));
+        } finally {
+            wireMockServer.stop();
+        }
+    }
+
+    // Method to create the stores of a server with an empty files root
+    private static ConceptStores newStores() throws IOException {
+        return new ConceptStores(WireMockConfiguration.options()
+                .usingFilesUnderDirectory(Files.createTempDirectory("ring-journal").toString())
+                .filesRoot());
+    }
+
+    // Method to start a server with the stores under test
+    private static WireMockServer startServer(ConceptStores stores) {
+        WireMockServer wireMockServer = new WireMockServer(WireMockConfiguration.options()
+                .dynamicPort()
+                .withStores(stores));
+        wireMockServer.start();
+        return wireMockServer;
+    }
+
+}
@@ -5,9 +5,10 @@ import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
 import com.github.tomakehurst.wiremock.client.WireMock;
 import io.restassured.response.ValidatableResponse;
 import org.testng.Assert;
-import org.testng.annotations.AfterTest;
-import org.testng.annotations.BeforeTest;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
+import qa.wiremock.concepts.parallel.WireMockServerPool;
 
 import static io.restassured.RestAssured.given;
 
@@ -27,24 +28,23 @@ import static io.restassured.RestAssured.given;
  */
 public class VerifyMockGetAPITest {
 
-    // Constants for host and port
+    // Constant for host
     private static final String HOST = "localhost";
-    private static final int PORT = 8080;
 
     // Instance of WireMockServer
     public static WireMockServer wireMockServer;
 
+    // WireMock client bound to this class's server instance
+    private static WireMock wireMock;
+
     // Method to start the WireMock server and configure stubs before test execution
-    @BeforeTest
+    @BeforeClass
     public void startupServer() {
-        // Creates a new WireMock server instance.
-        wireMockServer = new WireMockServer(PORT);
-
-        // Starts the WireMock server.
-        wireMockServer.start();
+        // Acquires a WireMock server running on a free port from the pool.
+        wireMockServer = WireMockServerPool.acquire();
 
-        // Configures WireMock to listen on the specified host and port.
-        WireMock.configureFor(HOST, PORT);
+        // Binds a WireMock client to the acquired server instance.
+        wireMock = WireMockServerPool.clientFor(wireMockServer);
 
         // Creates a response definition builder object.
         ResponseDefinitionBuilder responseDefinitionBuilder = new ResponseDefinitionBuilder();
@@ -59,24 +59,24 @@ public class VerifyMockGetAPITest {
         responseDefinitionBuilder.withBodyFile("json/get_user.json");
 
         // Stubs a response for the GET request to "/user/emp101".
-        WireMock.stubFor(WireMock.get(WireMock.urlPathEqualTo("/user/emp101"))
+        wireMock.register(WireMock.get(WireMock.urlPathEqualTo("/user/emp101"))
                 .willReturn(responseDefinitionBuilder));
     }
 
     // Method to shut down the WireMock server after test execution
-    @AfterTest
+    @AfterClass
     public void shutdownServer() {
         // Checks if the WireMock server is running and not null before shutting it down.
         if (wireMockServer != null && wireMockServer.isRunning()) {
-            wireMockServer.shutdownServer();
+            WireMockServerPool.release(wireMockServer);
         }
     }
 
     // Test method to verify the behavior of the mocked GET API
     @Test
     public void testVerifyMockGetAPI() {
-        // Construct the request URL using the HOST and PORT constants
-        String requestUrl = String.format("http://%s:%d/user/emp101", HOST, PORT);
+        // Construct the request URL using the HOST constant and the server port
+        String requestUrl = String.format("http://%s:%d/user/emp101", HOST, wireMockServer.port());
 
         // Perform the GET request and validate the response
         ValidatableResponse response =
@@ -91,7 +91,7 @@ public class VerifyMockGetAPITest {
 
         // Verifying that the GET request was made to the specified endpoint once and
         // received the expected request once.
-        WireMock.verify(1, WireMock.getRequestedFor(WireMock.urlPathEqualTo("/user/emp101")));
+        wireMock.verifyThat(1, WireMock.getRequestedFor(WireMock.urlPathEqualTo("/user/emp101")));
 
         // Assertions to validate specific fields in the response
         // Verify the status code
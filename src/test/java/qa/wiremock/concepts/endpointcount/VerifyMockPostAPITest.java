@@ -5,9 +5,10 @@ import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
 import com.github.tomakehurst.wiremock.client.WireMock;
 import io.restassured.response.ValidatableResponse;
 import org.testng.Assert;
-import org.testng.annotations.AfterTest;
-import org.testng.annotations.BeforeTest;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
+import qa.wiremock.concepts.parallel.WireMockServerPool;
 
 import static io.restassured.RestAssured.given;
 
@@ -26,23 +27,22 @@ import static io.restassured.RestAssured.given;
  */
 public class VerifyMockPostAPITest {
 
-    // Constants for host and port
+    // Constant for host
     private static final String HOST = "localhost";
-    private static final int PORT = 8080;
 
     // Instance of WireMockServer
     public static WireMockServer wireMockServer;
 
-    @BeforeTest
-    public void startupServer() {
-        // Initialize and start WireMockServer
-        wireMockServer = new WireMockServer(PORT);
+    // WireMock client bound to this class's server instance
+    private static WireMock wireMock;
 
-        // Start the WireMockServer
-        wireMockServer.start();
+    @BeforeClass
+    public void startupServer() {
+        // Acquires a WireMock server running on a free port from the pool.
+        wireMockServer = WireMockServerPool.acquire();
 
-        // Configure WireMock for host and port
-        WireMock.configureFor(HOST, PORT);
+        // Binds a WireMock client to the acquired server instance.
+        wireMock = WireMockServerPool.clientFor(wireMockServer);
 
         // Define the expected response for the POST /user/add endpoint
         ResponseDefinitionBuilder responseDefinitionBuilder = new ResponseDefinitionBuilder();
@@ -57,25 +57,25 @@ public class VerifyMockPostAPITest {
         responseDefinitionBuilder.withBodyFile("json/add_user.json");
 
         // Stub the WireMock behavior for the POST request with expected payload
-        WireMock.stubFor(WireMock.post(WireMock.urlEqualTo("/user/add"))
+        wireMock.register(WireMock.post(WireMock.urlEqualTo("/user/add"))
                 .withRequestBody(WireMock.equalToJson(getPayload())) // Verify the request body matches the expected payload
                 .willReturn(responseDefinitionBuilder));
 
     }
 
     // Method to shut down WireMockServer after tests
-    @AfterTest
+    @AfterClass
     public void shutdownServer() {
         // Check if WireMockServer is initialized and running, then shut it down
         if (wireMockServer != null && wireMockServer.isRunning()) {
-            wireMockServer.shutdownServer();
+            WireMockServerPool.release(wireMockServer);
         }
     }
 
     @Test
     public void testVerifyMockPostAPI() {
-        // Construct the request URL using the HOST and PORT constants
-        String requestUrl = String.format("http://%s:%d/user/add", HOST, PORT);
+        // Construct the request URL using the HOST constant and the server port
+        String requestUrl = String.format("http://%s:%d/user/add", HOST, wireMockServer.port());
 
         // Get the JSON payload for the request
         String payloadJson = getPayload();
@@ -94,7 +94,7 @@ public class VerifyMockPostAPITest {
 
         // Verifying that the POST request was made to the specified endpoint once and
         // received the expected request once.
-        WireMock.verify(1, WireMock.postRequestedFor(WireMock.urlEqualTo("/user/add")).withRequestBody(WireMock.equalToJson(
+        wireMock.verifyThat(1, WireMock.postRequestedFor(WireMock.urlEqualTo("/user/add")).withRequestBody(WireMock.equalToJson(
                 getPayload())));
 
         // Assertions to validate specific fields in the response
@@ -0,0 +1,303 @@
+package qa.wiremock.concepts.errors;
+
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformerV2;
+import com.github.tomakehurst.wiremock.http.Fault;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This code injects a weighted mix of faults and extra latency into a
+ * fraction of the traffic of a stub, where the stubs of the errors package
+ * fail every request, so that a client can be tested for resilience under
+ * load, e.g. 2% connection resets, 1% 500s and 0.5% with 2 s more delay:
+ * <p>
+ * stubFor(get("/user/emp101").willReturn(okJson(...)
+ * .withTransformers(ChaosFaults.NAME)
+ * .withTransformerParameters(ChaosFaults.mix()
+ * .fault(Fault.CONNECTION_RESET_BY_PEER, 0.02).status(500, 0.01).delay(2000, 0.005)
+ * .toParameters())));
+ * <p>
+ * Each stub draws from its own SplitMix64 generator, advanced with a single
+ * atomic add, so the decision takes no lock and a few nanoseconds even when
+ * many server threads serve the same stub. With a seed, the sequence of
+ * outcomes of a stub is the same on every run. Every outcome is counted per
+ * stub, and getStats(stubId) returns the ratios actually injected.
+ * <p>
+ * Register it with ChaosFaults.configure(options, chaosFaults).
+ *
+ * @author Jagatheshwaran N
+ */
+public class ChaosFaults implements ResponseDefinitionTransformerV2 {
+
+    // Name of the extension, as transformer of the chaotic stubs
+    public static final String NAME = "chaos-faults";
+
+    // Transformer parameter holding the outcomes and their rates
+    public static final String OUTCOMES_PARAMETER = "chaos";
+
+    // Transformer parameter holding the seed of the stub's generator
+    public static final String SEED_PARAMETER = "chaosSeed";
+
+    // Increment of the SplitMix64 generator
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    // Number of distinct draws, as the 53 high bits of a generated long
+    private static final double DRAWS = 0x1p53;
+
+    // Body of the injected error statuses
+    private static final String INJECTED_BODY = "{\"error\": \"Injected by chaos faults\"}";
+
+    // Chaos state of each stub, keyed by stub id
+    private final Map<UUID, StubChaos> stubChaos = new ConcurrentHashMap<>();
+
+    // Method to register the chaos faults on server options
+    public static WireMockConfiguration configure(WireMockConfiguration options, ChaosFaults chaosFaults) {
+        return options.extensions(chaosFaults);
+    }
+
+    // Method to start describing the outcomes of a stub
+    public static Mix mix() {
+        return new Mix();
+    }
+
+    @Override
+    public ResponseDefinition transform(ServeEvent serveEvent) {
+        ResponseDefinition responseDefinition = serveEvent.getResponseDefinition();
+        StubMapping stubMapping = serveEvent.getStubMapping();
+        if (stubMapping == null || stubMapping.getId() == null) {
+            return responseDefinition;
+        }
+        StubChaos chaos = stubChaos.get(stubMapping.getId());
+        if (chaos == null || chaos.stubMapping != stubMapping) {
+            // Parses the outcomes once per stub, and again once the stub is edited
+            chaos = stubChaos.compute(stubMapping.getId(), (id, current) -> current != null && current.stubMapping == stubMapping
+                    ? current : new StubChaos(stubMapping, serveEvent.getTransformerParameters()));
+        }
+
+        int outcome = chaos.draw();
+        if (outcome < 0) {
+            return responseDefinition;
+        }
+        Outcome injected = chaos.outcomes.get(outcome);
+        ResponseDefinitionBuilder builder = ResponseDefinitionBuilder.like(responseDefinition);
+        if (injected.fault() != null) {
+            builder.withFault(injected.fault());
+        } else if (injected.status() != null) {
+            builder.withStatus(injected.status()).withBody(INJECTED_BODY);
+        } else {
+            Integer fixedDelay = responseDefinition.getFixedDelayMilliseconds();
+            builder.withFixedDelay((fixedDelay != null ? fixedDelay : 0) + injected.delayMillis());
+        }
+        return builder.build();
+    }
+
+    // Applies only to the stubs that name it
+    @Override
+    public boolean applyGlobally() {
+        return false;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    // Method to return the outcomes injected so far into the traffic of a stub
+    public Optional<Stats> getStats(UUID stubId) {
+        StubChaos chaos = stubChaos.get(stubId);
+        if (chaos == null) {
+            return Optional.empty();
+        }
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (int i = 0; i < chaos.outcomes.size(); i++) {
+            counts.put(chaos.outcomes.get(i).name(), chaos.counts[i].sum());
+        }
+        return Optional.of(new Stats(chaos.requests.sum(), counts));
+    }
+
+    // Method to forget the outcomes injected so far
+    public void reset() {
+        stubChaos.clear();
+    }
+
+    /**
+     * One outcome injected into a fraction of the traffic: a fault, an error
+     * status, or extra delay on top of the stub's own.
+     */
+    public record Outcome(Fault fault, Integer status, Integer delayMillis, double rate) {
+
+        // Method to return the name of the outcome in the stats
+        public String name() {
+            if (fault != null) {
+                return fault.name();
+            }
+            return status != null ? "STATUS_" + status : "DELAY_" + delayMillis + "_MS";
+        }
+    }
+
+    /**
+     * Outcomes injected so far into the traffic of a stub.
+     */
+    public record Stats(long requests, Map<String, Long> counts) {
+
+        // Method to return the share of the requests that got an outcome
+        public double ratio(String outcome) {
+            return requests == 0 ? 0 : counts.getOrDefault(outcome, 0L) / (double) requests;
+        }
+
+        // Method to return the share of the requests that were served unchanged
+        public double passThroughRatio() {
+            long injected = counts.values().stream().mapToLong(Long::longValue).sum();
+            return requests == 0 ? 0 : (requests - injected) / (double) requests;
+        }
+    }
+
+    /**
+     * Builder of the transformer parameters of a chaotic stub.
+     */
+    public static final class Mix {
+
+        // Outcomes of the stub, as transformer parameters
+        private final List<Map<String, Object>> outcomes = new ArrayList<>();
+
+        // Seed of the stub's generator, null for a random one
+        private Long seed;
+
+        private Mix() {
+        }
+
+        // Method to inject a WireMock fault into a fraction of the traffic
+        public Mix fault(Fault fault, double rate) {
+            outcomes.add(Map.of("fault", fault.name(), "rate", rate));
+            return this;
+        }
+
+        // Method to answer a fraction of the traffic with an error status
+        public Mix status(int status, double rate) {
+            outcomes.add(Map.of("status", status, "rate", rate));
+            return this;
+        }
+
+        // Method to delay a fraction of the traffic further
+        public Mix delay(int delayMillis, double rate) {
+            outcomes.add(Map.of("delayMillis", delayMillis, "rate", rate));
+            return this;
+        }
+
+        // Method to make the sequence of outcomes the same on every run
+        public Mix seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        // Method to build the transformer parameters of the stub
+        public Parameters toParameters() {
+            Map<String, Object> parameters = new LinkedHashMap<>();
+            parameters.put(OUTCOMES_PARAMETER, outcomes);
+            if (seed != null) {
+                parameters.put(SEED_PARAMETER, seed);
+            }
+            return Parameters.from(parameters);
+        }
+    }
+
+    /**
+     * Outcomes, generator and counters of one stub.
+     */
+    private static final class StubChaos {
+
+        // Stub the outcomes were parsed from
+        private final StubMapping stubMapping;
+
+        // Outcomes of the stub, in parameter order
+        private final List<Outcome> outcomes;
+
+        // Cumulative upper bound of the draws of each outcome
+        private final long[] thresholds;
+
+        // State of the SplitMix64 generator
+        private final AtomicLong state;
+
+        // Requests served by the stub, and requests given each outcome
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder[] counts;
+
+        private StubChaos(StubMapping stubMapping, Parameters parameters) {
+            this.stubMapping = stubMapping;
+            this.outcomes = parseOutcomes(parameters);
+            this.thresholds = new long[outcomes.size()];
+            this.counts = new LongAdder[outcomes.size()];
+            double cumulativeRate = 0;
+            for (int i = 0; i < outcomes.size(); i++) {
+                cumulativeRate += outcomes.get(i).rate();
+                thresholds[i] = (long) (cumulativeRate * DRAWS);
+                counts[i] = new LongAdder();
+            }
+            if (cumulativeRate > 1.0 + 1e-9) {
+                throw new IllegalArgumentException("Chaos rates of stub " + stubMapping.getId() + " add up to "
+                        + cumulativeRate + ", more than 1");
+            }
+            Object seed = parameters.get(SEED_PARAMETER);
+            this.state = new AtomicLong(seed instanceof Number number
+                    ? number.longValue() : stubMapping.getId().getLeastSignificantBits() ^ System.nanoTime());
+        }
+
+        // Method to draw the outcome of a request, -1 to serve it unchanged
+        private int draw() {
+            requests.increment();
+            long draw = mix64(state.addAndGet(GOLDEN_GAMMA)) >>> 11;
+            for (int i = 0; i < thresholds.length; i++) {
+                if (draw < thresholds[i]) {
+                    counts[i].increment();
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        // Method to scramble the generator state into a uniformly distributed long (SplitMix64)
+        private static long mix64(long z) {
+            z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            return z ^ (z >>> 31);
+        }
+
+        // Method to read the outcomes of the transformer parameters
+        @SuppressWarnings("unchecked")
+        private static List<Outcome> parseOutcomes(Parameters parameters) {
+            List<Outcome> outcomes = new ArrayList<>();
+            Object configured = parameters.get(OUTCOMES_PARAMETER);
+            if (!(configured instanceof List<?> list)) {
+                return outcomes;
+            }
+            for (Object item : list) {
+                Map<String, Object> outcome = (Map<String, Object>) item;
+                double rate = ((Number) outcome.get("rate")).doubleValue();
+                if (rate < 0) {
+                    throw new IllegalArgumentException("Chaos rate must not be negative, was " + rate);
+                }
+                outcomes.add(new Outcome(
+                        outcome.containsKey("fault") ? Fault.valueOf((String) outcome.get("fault")) : null,
+                        outcome.containsKey("status") ? ((Number) outcome.get("status")).intValue() : null,
+                        outcome.containsKey("delayMillis") ? ((Number) outcome.get("delayMillis")).intValue() : null,
+                        rate));
+            }
+            return outcomes;
+        }
+    }
+
+}
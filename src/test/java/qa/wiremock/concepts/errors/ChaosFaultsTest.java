@@ -0,0 +1,112 @@
+package qa.wiremock.concepts.errors;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.http.Fault;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import qa.wiremock.concepts.delay.NonBlockingDelays;
+import qa.wiremock.concepts.load.LoadResult;
+import qa.wiremock.concepts.load.OpenLoopLoadGenerator;
+import qa.wiremock.concepts.parallel.WireMockServerPool;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * This code verifies that ChaosFaults injects its weighted mix of faults,
+ * error statuses and extra delay into the configured fractions of the
+ * traffic of a stub under open-loop load, and that the exported ratios
+ * match both the configuration and what the client saw, down to the
+ * percentile file of the load report.
+ *
+ * @author Jagatheshwaran N
+ */
+public class ChaosFaultsTest {
+
+    // Rates of the injected outcomes, high enough to be measured on a short run
+    private static final double RESET_RATE = 0.10;
+    private static final double ERROR_RATE = 0.05;
+    private static final double DELAY_RATE = 0.05;
+
+    // Extra delay of the delayed requests
+    private static final int DELAY_MILLIS = 100;
+
+    // Rate and duration of the load
+    private static final int REQUESTS_PER_SECOND = 500;
+    private static final Duration LOAD_DURATION = Duration.ofSeconds(4);
+
+    // Instance of WireMockServer
+    private static WireMockServer wireMockServer;
+
+    // Chaos faults of the server
+    private static ChaosFaults chaosFaults;
+
+    // Chaotic stub of the user endpoint
+    private static StubMapping chaoticStub;
+
+    // Open-loop load driver
+    private static OpenLoopLoadGenerator loadGenerator;
+
+    // Method to start the WireMock server with a chaotic stub before test execution
+    @BeforeClass
+    public void startupServer() {
+        chaosFaults = new ChaosFaults();
+        wireMockServer = WireMockServerPool.acquire(ChaosFaults.configure(
+                NonBlockingDelays.configure(WireMockConfiguration.options()), chaosFaults));
+        chaoticStub = WireMockServerPool.clientFor(wireMockServer).register(WireMock.get("/user/emp101")
+                .willReturn(WireMock.okJson("{\"worker\": {\"id\": \"EMP101\"}}")
+                        .withTransformers(ChaosFaults.NAME)
+                        .withTransformerParameters(ChaosFaults.mix()
+                                .fault(Fault.CONNECTION_RESET_BY_PEER, RESET_RATE)
+                                .status(500, ERROR_RATE)
+                                .delay(DELAY_MILLIS, DELAY_RATE)
+                                .seed(42)
+                                .toParameters())));
+        loadGenerator = new OpenLoopLoadGenerator();
+    }
+
+    // Method to shut down the WireMock server after test execution
+    @AfterClass
+    public void shutdownServer() throws Exception {
+        loadGenerator.close();
+        WireMockServerPool.release(wireMockServer);
+    }
+
+    // Test method to verify the ratios of the injected outcomes under load
+    @Test
+    public void testWeightedFaultMixUnderLoad() throws IOException, InterruptedException {
+        LoadResult result = loadGenerator.run(WireMockServerPool.baseUrlOf(wireMockServer) + "/user/emp101",
+                REQUESTS_PER_SECOND, LOAD_DURATION);
+        result.writeSummary(System.out);
+        Path percentileFile = result.writeReport("chaos-faults");
+        ChaosFaults.Stats stats = chaosFaults.getStats(chaoticStub.getId()).orElseThrow();
+        System.out.println("Chaos faults: " + stats);
+
+        // Assert that every injected ratio is within four standard deviations of its rate
+        for (Object[] expected : List.of(
+                new Object[]{Fault.CONNECTION_RESET_BY_PEER.name(), RESET_RATE},
+                new Object[]{"STATUS_500", ERROR_RATE},
+                new Object[]{"DELAY_" + DELAY_MILLIS + "_MS", DELAY_RATE})) {
+            double rate = (double) expected[1];
+            double tolerance = 4 * Math.sqrt(rate * (1 - rate) / stats.requests());
+            Assert.assertEquals(stats.ratio((String) expected[0]), rate, tolerance, (String) expected[0]);
+        }
+
+        // Assert that the client saw exactly the injected outcomes, each request being served once as it is never retried
+        Assert.assertEquals(stats.requests(), result.getSentCount());
+        Assert.assertEquals(result.getStatusCount(500), (long) stats.counts().get("STATUS_500"));
+        Assert.assertEquals(result.getErrorCount(), (long) stats.counts().get(Fault.CONNECTION_RESET_BY_PEER.name()));
+
+        // Assert that the delayed requests show in the tail of the written percentile file
+        double p99Millis = LoadResult.readPercentileMillis(percentileFile, 99);
+        Assert.assertTrue(p99Millis >= DELAY_MILLIS, "p99 of " + percentileFile + " is " + p99Millis + " ms");
+    }
+
+}
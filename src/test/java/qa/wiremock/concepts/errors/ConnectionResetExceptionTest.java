@@ -5,9 +5,10 @@ import com.github.tomakehurst.wiremock.client.WireMock;
 import com.github.tomakehurst.wiremock.http.Fault;
 import org.apache.hc.client5.http.fluent.Request;
 import org.testng.Assert;
-import org.testng.annotations.AfterTest;
-import org.testng.annotations.BeforeTest;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
+import qa.wiremock.concepts.parallel.WireMockServerPool;
 
 /**
  * This code demonstrates the fault injection using WireMock to simulate a
@@ -23,28 +24,27 @@ import org.testng.annotations.Test;
  */
 public class ConnectionResetExceptionTest {
 
-    // Constants for host and port
+    // Constant for host
     private static final String HOST = "localhost";
-    private static final int PORT = 8080;
 
     // Instance of WireMockServer
     public static WireMockServer wireMockServer;
 
+    // WireMock client bound to this class's server instance
+    private static WireMock wireMock;
+
     // Method to start the WireMock server and configure stubs before test execution
-    @BeforeTest
+    @BeforeClass
     public void startupServer() {
-        // Creates a new WireMock server instance.
-        wireMockServer = new WireMockServer(PORT);
-
-        // Starts the WireMock server.
-        wireMockServer.start();
+        // Acquires a WireMock server running on a free port from the pool.
+        wireMockServer = WireMockServerPool.acquire();
 
-        // Configures WireMock to listen on the specified host and port.
-        WireMock.configureFor(HOST, PORT);
+        // Binds a WireMock client to the acquired server instance.
+        wireMock = WireMockServerPool.clientFor(wireMockServer);
 
         // Stubbing any request with the URL path '/user/emp103' to simulate
         // a connection reset by peer fault
-        WireMock.stubFor(
+        wireMock.register(
                 // Matching any HTTP method for the specific URL path
                 WireMock.any(WireMock.urlPathEqualTo("/user/emp103"))
                         .willReturn(WireMock.aResponse()
@@ -53,21 +53,21 @@ public class ConnectionResetExceptionTest {
     }
 
     // Method to shut down the WireMock server after test execution
-    @AfterTest
+    @AfterClass
     public void shutdownServer() {
         // Check if the WireMock server instance exists and is running
         if (wireMockServer != null && wireMockServer.isRunning()) {
 
-            // Shutdown the WireMock server
-            wireMockServer.shutdownServer();
+            // Releases the WireMock server back to the pool
+            WireMockServerPool.release(wireMockServer);
         }
     }
 
     // Test method to validate the occurrence of a SocketException (connection reset) when making a GET request
     @Test
     public void testConnectionResetException() {
-        // Construct the request URL using the HOST and PORT constants
-        String requestUrl = String.format("http://%s:%d/user/emp103", HOST, PORT);
+        // Construct the request URL using the HOST constant and the server port
+        String requestUrl = String.format("http://%s:%d/user/emp103", HOST, wireMockServer.port());
 
         // Assert that a ConnectionResetException is thrown when trying to access a non-existent endpoint.
         Assert.assertThrows(java.net.SocketException.class, () -> {
@@ -5,14 +5,16 @@ import com.github.tomakehurst.wiremock.client.WireMock;
 import com.github.tomakehurst.wiremock.http.Fault;
 import org.apache.hc.client5.http.fluent.Request;
 import org.testng.Assert;
-import org.testng.annotations.AfterTest;
-import org.testng.annotations.BeforeTest;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
+import qa.wiremock.concepts.parallel.WireMockServerPool;
 
 /**
  * This code showcases the utilization of WireMock to simulate an empty response
  * scenario and test the system's behavior when encountering such an exception.
- * It sets up a WireMock server and configures it to listen on a specific port (8080).
+ * It sets up a WireMock server and configures it to listen on a free port
+ * taken from the server pool.
  * It defines a stub for any HTTP method sent to the /user/emp103 URL path.
  * This stub uses the Fault.EMPTY_RESPONSE fault, instructing WireMock to return
  * an empty response body for any request matching the URL path.
@@ -23,27 +25,26 @@ import org.testng.annotations.Test;
  */
 public class EmptyResponseExceptionTest {
 
-    // Constants for host and port
+    // Constant for host
     private static final String HOST = "localhost";
-    private static final int PORT = 8080;
 
     // Instance of WireMockServer
     public static WireMockServer wireMockServer;
 
+    // WireMock client bound to this class's server instance
+    private static WireMock wireMock;
+
     // Method to start the WireMock server and configure stubs before test execution
-    @BeforeTest
+    @BeforeClass
     public void startupServer() {
-        // Creates a new WireMock server instance.
-        wireMockServer = new WireMockServer(PORT);
-
-        // Starts the WireMock server.
-        wireMockServer.start();
+        // Acquires a WireMock server running on a free port from the pool.
+        wireMockServer = WireMockServerPool.acquire();
 
-        // Configures WireMock to listen on the specified host and port.
-        WireMock.configureFor(HOST, PORT);
+        // Binds a WireMock client to the acquired server instance.
+        wireMock = WireMockServerPool.clientFor(wireMockServer);
 
         // Stubbing any request URL that matches "/user/emp103" and returning an empty response
-        WireMock.stubFor(
+        wireMock.register(
                 // Match any HTTP method and the specific URL path
                 WireMock.any(WireMock.urlPathEqualTo("/user/emp103"))
                         .willReturn(WireMock.aResponse()
@@ -52,26 +53,26 @@ public class EmptyResponseExceptionTest {
     }
 
     // Method to shut down the WireMock server after test execution
-    @AfterTest
+    @AfterClass
     public void shutdownServer() {
         // Check if the WireMock server instance exists and is running
         if (wireMockServer != null && wireMockServer.isRunning()) {
 
-            // Shutdown the WireMock server
-            wireMockServer.shutdownServer();
+            // Releases the WireMock server back to the pool
+            WireMockServerPool.release(wireMockServer);
         }
     }
 
     // Test method to verify the behavior of the empty response exception scenario
     @Test
     public void testEmptyResponseException() {
-        // Construct the request URL using the HOST and PORT constants
-        String requestUrl = String.format("http://%s:%d/user/emp103", HOST, PORT);
+        // Construct the request URL using the HOST constant and the server port
+        String requestUrl = String.format("http://%s:%d/user/emp103", HOST, wireMockServer.port());
 
         // Asserting that an org.apache.hc.core5.http.NoHttpResponseException is thrown
         Assert.assertThrows(org.apache.hc.core5.http.NoHttpResponseException.class, () -> {
 
-            // Sending a GET request to "http://localhost:8080/user/emp103" using HTTP Client Fluent API
+            // Sending a GET request to the "/user/emp103" endpoint using HTTP Client Fluent API
             org.apache.hc.client5.http.fluent.Response response = Request.get(requestUrl).execute();
 
             // Printing the response body if the request is successful (Note: This line will not execute if an exception is thrown)
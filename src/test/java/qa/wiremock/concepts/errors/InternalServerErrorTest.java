@@ -5,14 +5,16 @@ import com.github.tomakehurst.wiremock.client.WireMock;
 import io.restassured.RestAssured;
 import io.restassured.response.Response;
 import org.testng.Assert;
-import org.testng.annotations.AfterTest;
-import org.testng.annotations.BeforeTest;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
+import qa.wiremock.concepts.parallel.WireMockServerPool;
 
 /**
  * This code demonstrates the usage of WireMock to simulate an internal server error
  * scenario and test how a system interacts when encountering such an error.
- * It sets up a WireMock server and configures it to listen on a specific port (8080).
+ * It sets up a WireMock server and configures it to listen on a free port
+ * taken from the server pool.
  * It defines a stub for any HTTP method sent to the /user/emp102 URL path.
  * This stub uses the serverError() method to instruct WireMock to return a response
  * with a 500 status code and nobody, simulating an internal server error.
@@ -23,28 +25,27 @@ import org.testng.annotations.Test;
  */
 public class InternalServerErrorTest {
 
-    // Constants for host and port
+    // Constant for host
     private static final String HOST = "localhost";
-    private static final int PORT = 8080;
 
     // Instance of WireMockServer
     public static WireMockServer wireMockServer;
 
+    // WireMock client bound to this class's server instance
+    private static WireMock wireMock;
+
     // Method to start the WireMock server and configure stubs before test execution
-    @BeforeTest
+    @BeforeClass
     public void startupServer() {
-        // Creates a new WireMock server instance.
-        wireMockServer = new WireMockServer(PORT);
-
-        // Starts the WireMock server.
-        wireMockServer.start();
+        // Acquires a WireMock server running on a free port from the pool.
+        wireMockServer = WireMockServerPool.acquire();
 
-        // Configures WireMock to listen on the specified host and port.
-        WireMock.configureFor(HOST, PORT);
+        // Binds a WireMock client to the acquired server instance.
+        wireMock = WireMockServerPool.clientFor(wireMockServer);
 
         // Stubbing any request with the URL path "/user/emp102" to return
         // a server error (HTTP status code 500)
-        WireMock.stubFor(
+        wireMock.register(
                 // Match any HTTP method for the URL path "/user/emp102"
                 WireMock.any(WireMock.urlPathEqualTo("/user/emp102"))
                         // Define the response to return a server error (status code 500)
@@ -52,21 +53,21 @@ public class InternalServerErrorTest {
     }
 
     // Method to shut down the WireMock server after test execution
-    @AfterTest
+    @AfterClass
     public void shutdownServer() {
         // Check if the WireMock server instance exists and is running
         if (wireMockServer != null && wireMockServer.isRunning()) {
 
-            // Shutdown the WireMock server
-            wireMockServer.shutdownServer();
+            // Releases the WireMock server back to the pool
+            WireMockServerPool.release(wireMockServer);
         }
     }
 
     // Test method to verify the behavior of the internal server error scenario
     @Test
     public void testInternalServerError() {
-        // Construct the request URL using the HOST and PORT constants
-        String requestUrl = String.format("http://%s:%d/user/emp102", HOST, PORT);
+        // Construct the request URL using the HOST constant and the server port
+        String requestUrl = String.format("http://%s:%d/user/emp102", HOST, wireMockServer.port());
 
         // Send a GET request to the specified URL
         Response response = RestAssured.get(requestUrl);
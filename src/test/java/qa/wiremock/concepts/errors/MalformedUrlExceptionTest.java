@@ -5,14 +5,16 @@ import com.github.tomakehurst.wiremock.client.WireMock;
 import com.github.tomakehurst.wiremock.http.Fault;
 import org.apache.hc.client5.http.fluent.Request;
 import org.testng.Assert;
-import org.testng.annotations.AfterTest;
-import org.testng.annotations.BeforeTest;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
+import qa.wiremock.concepts.parallel.WireMockServerPool;
 
 /**
  * This code utilizes WireMock, a mock server, to simulate a specific fault scenario
  * and test how a system behaves when faced with a malformed response chunk.
- * It sets up a WireMock server and configures it to listen on a specific port (8080).
+ * It sets up a WireMock server and configures it to listen on a free port
+ * taken from the server pool.
  * It defines a stub for any HTTP method sent to the /user/emp103 URL path.
  * This stub uses the Fault.MALFORMED_RESPONSE_CHUNK fault, instructing WireMock to
  * inject a malformed chunk into the response body, simulating an invalid data structure.
@@ -22,28 +24,27 @@ import org.testng.annotations.Test;
  */
 public class MalformedUrlExceptionTest {
 
-    // Constants for host and port
+    // Constant for host
     private static final String HOST = "localhost";
-    private static final int PORT = 8080;
 
     // Instance of WireMockServer
     public static WireMockServer wireMockServer;
 
+    // WireMock client bound to this class's server instance
+    private static WireMock wireMock;
+
     // Method to start the WireMock server and configure stubs before test execution
-    @BeforeTest
+    @BeforeClass
     public void startupServer() {
-        // Creates a new WireMock server instance.
-        wireMockServer = new WireMockServer(PORT);
-
-        // Starts the WireMock server.
-        wireMockServer.start();
+        // Acquires a WireMock server running on a free port from the pool.
+        wireMockServer = WireMockServerPool.acquire();
 
-        // Configures WireMock to listen on the specified host and port.
-        WireMock.configureFor(HOST, PORT);
+        // Binds a WireMock client to the acquired server instance.
+        wireMock = WireMockServerPool.clientFor(wireMockServer);
 
         // Stubbing any request to a specific URL path ("/user/emp103")
         // to generate a Fault with a malformed response chunk
-        WireMock.stubFor(
+        wireMock.register(
                 // Matches any HTTP method for the specified URL
                 WireMock.any(WireMock.urlPathEqualTo("/user/emp103"))
                         .willReturn(WireMock.aResponse()
@@ -52,21 +53,21 @@ public class MalformedUrlExceptionTest {
     }
 
     // Method to shut down the WireMock server after test execution
-    @AfterTest
+    @AfterClass
     public void shutdownServer() {
         // Check if the WireMock server instance exists and is running
         if (wireMockServer != null && wireMockServer.isRunning()) {
 
-            // Shutdown the WireMock server
-            wireMockServer.shutdownServer();
+            // Releases the WireMock server back to the pool
+            WireMockServerPool.release(wireMockServer);
         }
     }
 
     // Test method to verify the behavior of the Fault with a malformed response exception scenario
     @Test
     public void testMalformedUrlException() {
-        // Construct the request URL using the HOST and PORT constants for '/user/emp103'
-        String requestUrl = String.format("http://%s:%d/user/emp103", HOST, PORT);
+        // Construct the request URL using the HOST constant and the server port for '/user/emp103'
+        String requestUrl = String.format("http://%s:%d/user/emp103", HOST, wireMockServer.port());
 
         // Assert that executing the GET request to the constructed URL throws a MalformedChunkCodingException
         Assert.assertThrows(org.apache.hc.core5.http.MalformedChunkCodingException.class, () -> {
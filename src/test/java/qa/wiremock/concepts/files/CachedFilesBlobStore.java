@@ -0,0 +1,316 @@
+package qa.wiremock.concepts.files;
+
+import com.github.tomakehurst.wiremock.common.InputStreamSource;
+import com.github.tomakehurst.wiremock.common.StreamSources;
+import com.github.tomakehurst.wiremock.store.BlobStore;
+import com.github.tomakehurst.wiremock.store.files.PathBased;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * This code caches the body files of the __files directory, so that stubs
+ * such as withBodyFile("json/get_user.json") stop reading the file on every
+ * request.
+ * A file is copied onto the heap once, and every request streams a read-only
+ * view of the cached copy, so the content is only copied into the response
+ * itself. Files are never memory-mapped: a mapping keeps the file open on
+ * Windows, so it cannot be deleted, and a file truncated under its mapping
+ * crashes the JVM.
+ * The cache is an LRU bounded by the total size of the cached files; files
+ * larger than the bound skip the cache and are read by the delegate.
+ * A cached file is checked again at most once per revalidation interval: its
+ * modification time and size are compared with the cached ones and the file
+ * is reloaded when it changed, so a file changed on disk is served stale for
+ * at most that interval. Writes through the blob store (for example by the
+ * recorder) invalidate the entry at once.
+ *
+ * @author Jagatheshwaran N
+ */
+public class CachedFilesBlobStore implements BlobStore, PathBased {
+
+    // Interval between two checks of a cached file on disk, unless given
+    public static final Duration DEFAULT_REVALIDATE_INTERVAL = Duration.ofSeconds(1);
+
+    // Blob store reading the __files directory, used for writes and listing
+    private final BlobStore delegate;
+
+    // Root directory of the body files
+    private final Path root;
+
+    // Upper bound of the total size of the cached files
+    private final long maxCachedBytes;
+
+    // Interval between two checks of a cached file on disk
+    private final long revalidateNanos;
+
+    // Cached files in least recently used order
+    private final LinkedHashMap<String, CachedFile> cache = new LinkedHashMap<>(16, 0.75f, true);
+
+    // Total size of the cached files, guarded by the cache
+    private long cachedBytes;
+
+    // Cache statistics
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    // A cached file with the attributes it was loaded with, and when they were last checked
+    private static final class CachedFile {
+
+        private final ByteBuffer content;
+        private final FileTime lastModified;
+        private final long size;
+        private volatile long checkedNanos;
+
+        private CachedFile(ByteBuffer content, FileTime lastModified, long size, long checkedNanos) {
+            this.content = content;
+            this.lastModified = lastModified;
+            this.size = size;
+            this.checkedNanos = checkedNanos;
+        }
+    }
+
+    public <T extends BlobStore & PathBased> CachedFilesBlobStore(T delegate, long maxCachedBytes) {
+        this(delegate, maxCachedBytes, DEFAULT_REVALIDATE_INTERVAL);
+    }
+
+    public <T extends BlobStore & PathBased> CachedFilesBlobStore(T delegate, long maxCachedBytes, Duration revalidateInterval) {
+        this.delegate = delegate;
+        this.root = Paths.get(delegate.getPath()).toAbsolutePath().normalize();
+        this.maxCachedBytes = maxCachedBytes;
+        this.revalidateNanos = revalidateInterval.toNanos();
+    }
+
+    @Override
+    public Optional<InputStream> getStream(String key) {
+        Optional<ByteBuffer> content = lookup(key);
+        if (content.isEmpty()) {
+            return delegate.getStream(key);
+        }
+        return content.map(ByteBufferInputStream::new);
+    }
+
+    @Override
+    public InputStreamSource getStreamSource(String key) {
+        return StreamSources.forBlobStoreItem(this, key);
+    }
+
+    @Override
+    public Stream<String> getAllKeys() {
+        return delegate.getAllKeys();
+    }
+
+    @Override
+    public Optional<byte[]> get(String key) {
+        Optional<ByteBuffer> content = lookup(key);
+        if (content.isEmpty()) {
+            return delegate.get(key);
+        }
+        // Callers own the returned array, so the cached content is copied
+        ByteBuffer buffer = content.get();
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return Optional.of(bytes);
+    }
+
+    @Override
+    public void put(String key, byte[] content) {
+        delegate.put(key, content);
+        invalidate(key);
+    }
+
+    @Override
+    public void remove(String key) {
+        delegate.remove(key);
+        invalidate(key);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+        synchronized (cache) {
+            cache.clear();
+            cachedBytes = 0;
+        }
+    }
+
+    @Override
+    public String getPath() {
+        return root.toString();
+    }
+
+    // Method to count the requests served from the cache
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    // Method to count the requests that loaded the file
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    // Method to count the entries dropped because their file changed or was written
+    public long getInvalidationCount() {
+        return invalidations.sum();
+    }
+
+    // Method to return the total size of the cached files
+    public long getCachedBytes() {
+        synchronized (cache) {
+            return cachedBytes;
+        }
+    }
+
+    // Method to find the content of a body file, loading it when it is not cached or changed
+    private Optional<ByteBuffer> lookup(String key) {
+        Path file = root.resolve(key).normalize();
+        // Keys outside the __files directory are left to the delegate
+        if (!file.startsWith(root)) {
+            return Optional.empty();
+        }
+
+        // Serves a cached file without touching the disk until its revalidation interval is over
+        CachedFile cached;
+        synchronized (cache) {
+            cached = cache.get(key);
+        }
+        long now = System.nanoTime();
+        if (cached != null && now - cached.checkedNanos < revalidateNanos) {
+            hits.increment();
+            return Optional.of(cached.content.duplicate());
+        }
+
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            invalidate(key);
+            return Optional.empty();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (!attributes.isRegularFile()) {
+            return Optional.empty();
+        }
+
+        if (cached != null && cached.lastModified.equals(attributes.lastModifiedTime())
+                && cached.size == attributes.size()) {
+            cached.checkedNanos = now;
+            hits.increment();
+            return Optional.of(cached.content.duplicate());
+        }
+        if (cached != null) {
+            invalidate(key);
+        }
+        // Files over the bound are never loaded here, the delegate streams them from disk
+        if (attributes.size() > maxCachedBytes) {
+            return Optional.empty();
+        }
+
+        misses.increment();
+        byte[] content = load(file);
+        // A file changed between the check and the read is cached with the size read, and reloaded on its next check
+        CachedFile loaded = new CachedFile(ByteBuffer.wrap(content).asReadOnlyBuffer(), attributes.lastModifiedTime(),
+                content.length, now);
+        if (loaded.size <= maxCachedBytes) {
+            store(key, loaded);
+        }
+        return Optional.of(loaded.content.duplicate());
+    }
+
+    // Method to copy a file onto the heap
+    private static byte[] load(Path file) {
+        try {
+            return Files.readAllBytes(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Method to cache a loaded file, evicting the least recently used files over the size bound
+    private void store(String key, CachedFile loaded) {
+        synchronized (cache) {
+            CachedFile previous = cache.put(key, loaded);
+            cachedBytes += loaded.size - (previous != null ? previous.size : 0);
+
+            Iterator<Map.Entry<String, CachedFile>> eldest = cache.entrySet().iterator();
+            while (cachedBytes > maxCachedBytes && eldest.hasNext()) {
+                cachedBytes -= eldest.next().getValue().size;
+                eldest.remove();
+            }
+        }
+    }
+
+    // Method to drop the cached content of a file
+    private void invalidate(String key) {
+        synchronized (cache) {
+            CachedFile removed = cache.remove(key);
+            if (removed != null) {
+                cachedBytes -= removed.size;
+                invalidations.increment();
+            }
+        }
+    }
+
+    /**
+     * Input stream reading a view of a cached buffer, so that every response
+     * shares the cached content instead of a copy of it.
+     */
+    private static final class ByteBufferInputStream extends InputStream {
+
+        // View of the cached content with its own position
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+
+        @Override
+        public long skip(long count) {
+            int skipped = (int) Math.max(0, Math.min(count, buffer.remaining()));
+            buffer.position(buffer.position() + skipped);
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+
+    }
+
+}
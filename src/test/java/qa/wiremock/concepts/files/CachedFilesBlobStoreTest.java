@@ -0,0 +1,165 @@
+package qa.wiremock.concepts.files;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import qa.wiremock.concepts.parallel.WireMockServerPool;
+import qa.wiremock.concepts.stores.ConceptStores;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * This code verifies the CachedFilesBlobStore behind withBodyFile() stubs.
+ * The server reads its body files from a temporary directory, so that the test
+ * can change a file and check that the cached content is reloaded once its
+ * revalidation interval is over, and it covers small and large cached files
+ * and files larger than the cache bound.
+ *
+ * @author Jagatheshwaran N
+ */
+public class CachedFilesBlobStoreTest {
+
+    // Upper bound of the cached body files of this test
+    private static final long MAX_CACHED_BYTES = 1024 * 1024;
+
+    // Interval between two checks of a cached file on disk
+    private static final Duration REVALIDATE_INTERVAL = Duration.ofMillis(200);
+
+    // Temporary files root with the __files directory
+    private static Path filesRoot;
+
+    // Stores of the server, to read the cache statistics
+    private static ConceptStores stores;
+
+    // Instance of WireMockServer
+    private static WireMockServer wireMockServer;
+
+    // WireMock client bound to this class's server instance
+    private static WireMock wireMock;
+
+    // Method to start a server serving body files from a temporary directory through the cache
+    @BeforeClass
+    public void startupServer() throws IOException {
+        filesRoot = Files.createTempDirectory("wiremock-files");
+        Files.createDirectories(filesRoot.resolve("__files/json"));
+        Files.createDirectories(filesRoot.resolve("mappings"));
+
+        WireMockConfiguration options = WireMockConfiguration.options().usingFilesUnderDirectory(filesRoot.toString());
+        stores = new ConceptStores(options.filesRoot()).withCachedFiles(MAX_CACHED_BYTES, REVALIDATE_INTERVAL);
+        wireMockServer = WireMockServerPool.acquire(options.withStores(stores));
+        wireMock = WireMockServerPool.clientFor(wireMockServer);
+    }
+
+    // Method to shut down the WireMock server and delete the temporary files after test execution
+    @AfterClass
+    public void shutdownServer() throws IOException {
+        WireMockServerPool.release(wireMockServer);
+        try (Stream<Path> files = Files.walk(filesRoot)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    // Test method to verify that a body file is read once and then served from the cache
+    @Test(priority = 1)
+    public void testBodyFileIsCached() throws IOException {
+        writeFile("json/worker.json", "{\"worker\": {\"id\": \"EMP101\"}}".getBytes(StandardCharsets.UTF_8));
+        wireMock.register(WireMock.get("/worker").willReturn(WireMock.aResponse().withBodyFile("json/worker.json")));
+
+        long missesBefore = stores.getCachedFilesBlobStore().getMissCount();
+        long hitsBefore = stores.getCachedFilesBlobStore().getHitCount();
+        for (int i = 0; i < 3; i++) {
+            Assert.assertEquals(given().when().get(url("/worker")).then().statusCode(200)
+                    .extract().jsonPath().getString("worker.id"), "EMP101");
+        }
+
+        // Assert that only the first request read the file; WireMock opens the body more than
+        // once per request (response and request journal), so every other open is a hit
+        Assert.assertEquals(stores.getCachedFilesBlobStore().getMissCount() - missesBefore, 1);
+        Assert.assertTrue(stores.getCachedFilesBlobStore().getHitCount() - hitsBefore >= 2, "Body file was not cached");
+    }
+
+    // Test method to verify that a changed file replaces the cached content once the revalidation interval is over
+    @Test(priority = 2)
+    public void testChangedFileIsReloaded() throws IOException, InterruptedException {
+        Path file = writeFile("json/worker.json", "{\"worker\": {\"id\": \"EMP102\"}}".getBytes(StandardCharsets.UTF_8));
+        // Moves the modification time forward, since the rewrite may land in the same timestamp tick
+        Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 2000));
+        Thread.sleep(REVALIDATE_INTERVAL.toMillis() + 50);
+
+        long invalidationsBefore = stores.getCachedFilesBlobStore().getInvalidationCount();
+        Assert.assertEquals(given().when().get(url("/worker")).then().statusCode(200)
+                .extract().jsonPath().getString("worker.id"), "EMP102");
+
+        // Assert that the stale entry was dropped
+        Assert.assertEquals(stores.getCachedFilesBlobStore().getInvalidationCount() - invalidationsBefore, 1);
+    }
+
+    // Test method to verify that large files are cached and served unchanged
+    @Test(priority = 3)
+    public void testLargeBodyFile() throws IOException {
+        byte[] content = randomBytes(512 * 1024);
+        writeFile("large.bin", content);
+        wireMock.register(WireMock.get("/large").willReturn(WireMock.aResponse().withBodyFile("large.bin")));
+
+        // Assert that the cached content is served twice without being consumed
+        for (int i = 0; i < 2; i++) {
+            Assert.assertEquals(given().when().get(url("/large")).then().statusCode(200)
+                    .extract().asByteArray(), content);
+        }
+        Assert.assertTrue(stores.getCachedFilesBlobStore().getCachedBytes() >= content.length,
+                "Large body file was not cached");
+    }
+
+    // Test method to verify that files over the cache bound skip the cache
+    @Test(priority = 4)
+    public void testFileOverCacheBound() throws IOException {
+        byte[] content = randomBytes((int) MAX_CACHED_BYTES + 1);
+        writeFile("oversized.bin", content);
+        wireMock.register(WireMock.get("/oversized").willReturn(WireMock.aResponse().withBodyFile("oversized.bin")));
+
+        long missesBefore = stores.getCachedFilesBlobStore().getMissCount();
+        Assert.assertEquals(given().when().get(url("/oversized")).then().statusCode(200)
+                .extract().asByteArray(), content);
+
+        // Assert that the file was read by the delegate, not loaded by the cache
+        Assert.assertEquals(stores.getCachedFilesBlobStore().getMissCount(), missesBefore);
+
+        // Assert that the cache stays within its bound
+        Assert.assertTrue(stores.getCachedFilesBlobStore().getCachedBytes() <= MAX_CACHED_BYTES,
+                "Cache grew over its bound");
+    }
+
+    // Method to write a body file under the __files directory
+    private static Path writeFile(String name, byte[] content) throws IOException {
+        return Files.write(filesRoot.resolve("__files").resolve(name), content);
+    }
+
+    // Method to build random binary content of the given size
+    private static byte[] randomBytes(int size) {
+        byte[] content = new byte[size];
+        new Random(42).nextBytes(content);
+        return content;
+    }
+
+    // Method to build the URL of a path on this class's server
+    private static String url(String path) {
+        return WireMockServerPool.baseUrlOf(wireMockServer) + path;
+    }
+
+}
@@ -5,9 +5,10 @@ import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
 import com.github.tomakehurst.wiremock.client.WireMock;
 import io.restassured.response.ValidatableResponse;
 import org.testng.Assert;
-import org.testng.annotations.AfterTest;
-import org.testng.annotations.BeforeTest;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
+import qa.wiremock.concepts.parallel.WireMockServerPool;
 
 import static io.restassured.RestAssured.given;
 
@@ -24,25 +25,24 @@ import static io.restassured.RestAssured.given;
  */
 public class MockDeleteAPITest {
 
-    // Constants for host and port
+    // Constant for host
     private static final String HOST = "localhost";
-    private static final int PORT = 8080;
 
     // Instance of WireMockServer
     public static WireMockServer wireMockServer;
 
+    // WireMock client bound to this class's server instance
+    private static WireMock wireMock;
+
     // Method to start WireMockServer before tests
-    @BeforeTest
+    @BeforeClass
     public void startupServer() {
-        // Initialize and start WireMockServer
-        wireMockServer = new WireMockServer(PORT);
+        // Acquires a WireMock server running on a free port from the pool.
+        wireMockServer = WireMockServerPool.acquire();
 
         try {
-            // Start the WireMockServer
-            wireMockServer.start();
-
-            // Configure WireMock for host and port
-            WireMock.configureFor(HOST, PORT);
+            // Binds a WireMock client to the acquired server instance.
+            wireMock = WireMockServerPool.clientFor(wireMockServer);
 
             // Define the expected response for the DELETE /user/.* endpoint
             ResponseDefinitionBuilder responseDefinitionBuilder = new ResponseDefinitionBuilder();
@@ -57,7 +57,7 @@ public class MockDeleteAPITest {
             responseDefinitionBuilder.withBodyFile("json/delete_user.json");
 
             // Stub the WireMock behavior for the DELETE request
-            WireMock.stubFor(WireMock.delete(WireMock.urlPathMatching("/user/.*"))
+            wireMock.register(WireMock.delete(WireMock.urlPathMatching("/user/.*"))
                     .willReturn(responseDefinitionBuilder));
         } catch (Exception e) {
             // Handle any startup exceptions
@@ -66,19 +66,19 @@ public class MockDeleteAPITest {
     }
 
     // Method to shut down WireMockServer after tests
-    @AfterTest
+    @AfterClass
     public void shutdownServer() {
         // Check if WireMockServer is initialized and running, then shut it down
         if (wireMockServer != null && wireMockServer.isRunning()) {
-            wireMockServer.shutdownServer();
+            WireMockServerPool.release(wireMockServer);
         }
     }
 
     // Test method to mock the DELETE API call and validate the response
     @Test
     public void testMockDeleteAPI() {
-        // Construct the request URL using the HOST and PORT constants
-        String requestUrl = String.format("http://%s:%d/user/emp101", HOST, PORT);
+        // Construct the request URL using the HOST constant and the server port
+        String requestUrl = String.format("http://%s:%d/user/emp101", HOST, wireMockServer.port());
 
         // Perform the DELETE request and validate the response
         ValidatableResponse response =
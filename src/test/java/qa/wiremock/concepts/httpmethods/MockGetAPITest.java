@@ -5,9 +5,10 @@ import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
 import com.github.tomakehurst.wiremock.client.WireMock;
 import io.restassured.response.ValidatableResponse;
 import org.testng.Assert;
-import org.testng.annotations.AfterTest;
-import org.testng.annotations.BeforeTest;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
+import qa.wiremock.concepts.parallel.WireMockServerPool;
 
 import static io.restassured.RestAssured.given;
 
@@ -24,25 +25,24 @@ import static io.restassured.RestAssured.given;
  */
 public class MockGetAPITest {
 
-    // Constants for host and port
+    // Constant for host
     private static final String HOST = "localhost";
-    private static final int PORT = 8080;
 
     // Instance of WireMockServer
     public static WireMockServer wireMockServer;
 
+    // WireMock client bound to this class's server instance
+    private static WireMock wireMock;
+
     // Method to start WireMockServer before tests
-    @BeforeTest
+    @BeforeClass
     public void startupServer() {
-        // Initialize and start WireMockServer
-        wireMockServer = new WireMockServer(PORT);
+        // Acquires a WireMock server running on a free port from the pool.
+        wireMockServer = WireMockServerPool.acquire();
 
         try {
-            // Start the WireMockServer
-            wireMockServer.start();
-
-            // Configure WireMock for host and port
-            WireMock.configureFor(HOST, PORT);
+            // Binds a WireMock client to the acquired server instance.
+            wireMock = WireMockServerPool.clientFor(wireMockServer);
 
             // Define the expected response for the GET /user/emp101 endpoint
             ResponseDefinitionBuilder responseDefinitionBuilder = new ResponseDefinitionBuilder();
@@ -57,7 +57,7 @@ public class MockGetAPITest {
             responseDefinitionBuilder.withBodyFile("json/get_user.json");
 
             // Stub the GET request for a specific URL with the prepared response
-            WireMock.stubFor(WireMock.get(WireMock.urlPathEqualTo("/user/emp101")).willReturn(responseDefinitionBuilder));
+            wireMock.register(WireMock.get(WireMock.urlPathEqualTo("/user/emp101")).willReturn(responseDefinitionBuilder));
         } catch (Exception e) {
             // Handle any startup exceptions
             e.printStackTrace();
@@ -65,19 +65,19 @@ public class MockGetAPITest {
     }
 
     // Method to shut down WireMockServer after tests
-    @AfterTest
+    @AfterClass
     public void shutdownServer() {
         // Stop the WireMock server if it is running
         if (wireMockServer != null && wireMockServer.isRunning()) {
-            wireMockServer.shutdownServer();
+            WireMockServerPool.release(wireMockServer);
         }
     }
 
     // Test method to mock the GET API call and validate the response
     @Test
     public void testMockGetAPI() {
-        // Construct the request URL using the HOST and PORT constants
-        String requestUrl = String.format("http://%s:%d/user/emp101", HOST, PORT);
+        // Construct the request URL using the HOST constant and the server port
+        String requestUrl = String.format("http://%s:%d/user/emp101", HOST, wireMockServer.port());
 
         // Perform the GET request and validate the response
         ValidatableResponse response =
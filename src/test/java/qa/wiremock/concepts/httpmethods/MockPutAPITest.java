@@ -5,9 +5,10 @@ import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
 import com.github.tomakehurst.wiremock.client.WireMock;
 import io.restassured.response.ValidatableResponse;
 import org.testng.Assert;
-import org.testng.annotations.AfterTest;
-import org.testng.annotations.BeforeTest;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
+import qa.wiremock.concepts.parallel.WireMockServerPool;
 
 import static io.restassured.RestAssured.given;
 
@@ -24,25 +25,24 @@ import static io.restassured.RestAssured.given;
  */
 public class MockPutAPITest {
 
-    // Constants for host and port
+    // Constant for host
     private static final String HOST = "localhost";
-    private static final int PORT = 8080;
 
     // Instance of WireMockServer
     public static WireMockServer wireMockServer;
 
+    // WireMock client bound to this class's server instance
+    private static WireMock wireMock;
+
     // Method to start WireMockServer before tests
-    @BeforeTest
+    @BeforeClass
     public void startupServer() {
-        // Initialize and start WireMockServer
-        wireMockServer = new WireMockServer(PORT);
+        // Acquires a WireMock server running on a free port from the pool.
+        wireMockServer = WireMockServerPool.acquire();
 
         try {
-            // Start the WireMockServer
-            wireMockServer.start();
-
-            // Configure WireMock for host and port
-            WireMock.configureFor(HOST, PORT);
+            // Binds a WireMock client to the acquired server instance.
+            wireMock = WireMockServerPool.clientFor(wireMockServer);
 
             // Define the expected response for the PUT /user/update/.* endpoint
             ResponseDefinitionBuilder responseDefinitionBuilder = new ResponseDefinitionBuilder();
@@ -57,7 +57,7 @@ public class MockPutAPITest {
             responseDefinitionBuilder.withBodyFile("json/update_user.json");
 
             // Stub the WireMock behavior for the PUT request with expected payload
-            WireMock.stubFor(WireMock.put(WireMock.urlMatching("/user/update/.*"))
+            wireMock.register(WireMock.put(WireMock.urlMatching("/user/update/.*"))
                     .withRequestBody(WireMock.equalToJson(getPayload())) // Verify the request body matches the expected payload
                     .willReturn(responseDefinitionBuilder));
         } catch (Exception e) {
@@ -67,19 +67,19 @@ public class MockPutAPITest {
     }
 
     // Method to shut down WireMockServer after tests
-    @AfterTest
+    @AfterClass
     public void shutdownServer() {
         // Check if WireMockServer is initialized and running, then shut it down
         if (wireMockServer != null && wireMockServer.isRunning()) {
-            wireMockServer.shutdownServer();
+            WireMockServerPool.release(wireMockServer);
         }
     }
 
     // Test method to mock the PUT API call and validate the response
     @Test
     public void testMockPutAPI() {
-        // Construct the request URL using the HOST and PORT constants
-        String requestUrl = String.format("http://%s:%d/user/update/emp101", HOST, PORT);
+        // Construct the request URL using the HOST constant and the server port
+        String requestUrl = String.format("http://%s:%d/user/update/emp101", HOST, wireMockServer.port());
 
         // Get the JSON payload for the request
         String payloadJson = getPayload();
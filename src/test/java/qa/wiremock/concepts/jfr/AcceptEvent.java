@@ -0,0 +1,31 @@
+package qa.wiremock.concepts.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * This code is the Java Flight Recorder event of a connection accepted by a
+ * WireMock server, committed by PipelineEvents when Jetty opens it.
+ *
+ * @author Jagatheshwaran N
+ */
+@Name(AcceptEvent.NAME)
+@Label("Accept")
+@Category({"WireMock", "Pipeline"})
+@Description("Connection accepted by a WireMock server")
+@StackTrace(false)
+public class AcceptEvent extends jdk.jfr.Event {
+
+    // Stable name of the event
+    public static final String NAME = "qa.wiremock.Accept";
+
+    @Label("Remote Address")
+    String remoteAddress;
+
+    @Label("Local Port")
+    int localPort;
+
+}
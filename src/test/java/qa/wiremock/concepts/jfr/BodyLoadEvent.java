@@ -0,0 +1,39 @@
+package qa.wiremock.concepts.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * This code is the Java Flight Recorder event of loading a body file from
+ * the __files blob store, when the response body is read.
+ *
+ * @author Jagatheshwaran N
+ */
+@Name(BodyLoadEvent.NAME)
+@Label("Body Load")
+@Category({"WireMock", "Pipeline"})
+@Description("Loading a body file of the __files directory")
+@Threshold("1 ms")
+@StackTrace(false)
+public class BodyLoadEvent extends jdk.jfr.Event {
+
+    // Stable name of the event
+    public static final String NAME = "qa.wiremock.BodyLoad";
+
+    @Label("Path")
+    String path;
+
+    @Label("Found")
+    boolean found;
+
+    @Label("Size")
+    @Description("Bytes available right after loading, -1 when unknown")
+    @DataAmount
+    long size;
+
+}
@@ -0,0 +1,104 @@
+package qa.wiremock.concepts.jfr;
+
+import com.github.tomakehurst.wiremock.common.InputStreamSource;
+import com.github.tomakehurst.wiremock.common.StreamSources;
+import com.github.tomakehurst.wiremock.store.BlobStore;
+import com.github.tomakehurst.wiremock.store.files.PathBased;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * This code wraps the blob store of the __files directory so that every body
+ * file read commits a BodyLoadEvent.
+ * WireMock reads a body file when it writes the response, so the event is
+ * committed by the thread writing it: the request thread, or a scheduler
+ * thread for delayed asynchronous responses.
+ *
+ * @author Jagatheshwaran N
+ */
+public class BodyLoadEventsBlobStore implements BlobStore, PathBased {
+
+    // Blob store reading the body files
+    private final BlobStore delegate;
+
+    // Root directory of the body files
+    private final String path;
+
+    public <T extends BlobStore & PathBased> BodyLoadEventsBlobStore(T delegate) {
+        this.delegate = delegate;
+        this.path = delegate.getPath();
+    }
+
+    @Override
+    public Optional<InputStream> getStream(String key) {
+        BodyLoadEvent event = new BodyLoadEvent();
+        event.begin();
+        Optional<InputStream> stream = delegate.getStream(key);
+        event.end();
+        if (event.shouldCommit()) {
+            event.path = key;
+            event.found = stream.isPresent();
+            event.size = stream.map(BodyLoadEventsBlobStore::available).orElse(-1L);
+            event.commit();
+        }
+        return stream;
+    }
+
+    @Override
+    public InputStreamSource getStreamSource(String key) {
+        return StreamSources.forBlobStoreItem(this, key);
+    }
+
+    @Override
+    public Optional<byte[]> get(String key) {
+        BodyLoadEvent event = new BodyLoadEvent();
+        event.begin();
+        Optional<byte[]> content = delegate.get(key);
+        event.end();
+        if (event.shouldCommit()) {
+            event.path = key;
+            event.found = content.isPresent();
+            event.size = content.map(bytes -> (long) bytes.length).orElse(-1L);
+            event.commit();
+        }
+        return content;
+    }
+
+    @Override
+    public Stream<String> getAllKeys() {
+        return delegate.getAllKeys();
+    }
+
+    @Override
+    public void put(String key, byte[] content) {
+        delegate.put(key, content);
+    }
+
+    @Override
+    public void remove(String key) {
+        delegate.remove(key);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+
+    @Override
+    public String getPath() {
+        return path;
+    }
+
+    // Method to return the bytes a stream can give without blocking, -1 when unknown
+    private static long available(InputStream stream) {
+        try {
+            return stream.available();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+}
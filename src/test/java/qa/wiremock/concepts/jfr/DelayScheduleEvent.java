@@ -0,0 +1,41 @@
+package qa.wiremock.concepts.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * This code is the Java Flight Recorder event of the delay configured on a
+ * stub, committed once the delayed response is scheduled (asynchronous
+ * responses) or slept on (synchronous ones). Only delayed responses commit it.
+ *
+ * @author Jagatheshwaran N
+ */
+@Name(DelayScheduleEvent.NAME)
+@Label("Delay Schedule")
+@Category({"WireMock", "Pipeline"})
+@Description("Delay configured on the stub of a response")
+@StackTrace(false)
+public class DelayScheduleEvent extends jdk.jfr.Event {
+
+    // Stable name of the event
+    public static final String NAME = "qa.wiremock.DelaySchedule";
+
+    @Label("URL")
+    String url;
+
+    @Label("Stub Id")
+    String stubId;
+
+    @Label("Delay")
+    @Timespan(Timespan.MILLISECONDS)
+    long delayMillis;
+
+    @Label("Asynchronous")
+    @Description("Whether the response is written by a scheduler thread once the delay is over")
+    boolean asynchronous;
+
+}
@@ -0,0 +1,228 @@
+package qa.wiremock.concepts.jfr;
+
+import com.github.tomakehurst.wiremock.common.Timing;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.extension.Extension;
+import com.github.tomakehurst.wiremock.extension.ExtensionFactory;
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.extension.ServeEventListener;
+import com.github.tomakehurst.wiremock.extension.WireMockServices;
+import com.github.tomakehurst.wiremock.http.LoggedResponse;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.trafficlistener.WiremockNetworkTrafficListener;
+import com.github.tomakehurst.wiremock.store.StubMappingStore;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import qa.wiremock.concepts.matching.IndexedStubMappingStore;
+
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * This code emits Java Flight Recorder events across the request pipeline of
+ * a WireMock server, so that a recording tells whether matching, templating,
+ * body file I/O or the configured delay makes a stub slow:
+ * - qa.wiremock.Accept: a connection is accepted (network traffic listener);
+ * - qa.wiremock.StubMatch: finding the stub, with the number of candidate stubs;
+ * - qa.wiremock.TemplateRender: rendering the response, transformers included;
+ * - qa.wiremock.BodyLoad: reading a body file (BodyLoadEventsBlobStore of the ConceptStores);
+ * - qa.wiremock.DelaySchedule: the delay of a delayed response;
+ * - qa.wiremock.ResponseWrite: sending the response, or handing it over when asynchronous.
+ * The duration events have a 1 ms threshold, so a default recording only
+ * keeps the slow ones. When no recording is running the events are disabled
+ * and each callback only checks that, without reading the clock.
+ * <p>
+ * Register it with PipelineEvents.configure(options); it takes the network
+ * traffic listener slot of the options.
+ *
+ * @author Jagatheshwaran N
+ */
+public class PipelineEvents implements ExtensionFactory, WiremockNetworkTrafficListener {
+
+    // Name of the serve event listener
+    public static final String NAME = "pipeline-events";
+
+    // Names of the events, in pipeline order
+    public static final List<String> EVENT_NAMES = List.of(AcceptEvent.NAME, StubMatchEvent.NAME,
+            TemplateRenderEvent.NAME, BodyLoadEvent.NAME, DelayScheduleEvent.NAME, ResponseWriteEvent.NAME);
+
+    // Events in progress for the request being served by the current thread
+    private static final ThreadLocal<InFlight> IN_FLIGHT = ThreadLocal.withInitial(InFlight::new);
+
+    // Method to register the pipeline events on server options
+    public static WireMockConfiguration configure(WireMockConfiguration options) {
+        PipelineEvents pipelineEvents = new PipelineEvents();
+        return options.networkTrafficListener(pipelineEvents).extensions(pipelineEvents);
+    }
+
+    @Override
+    public List<Extension> create(WireMockServices services) {
+        return List.of(new RequestEvents(services.getStores().getStubStore(),
+                services.getOptions().getAsynchronousResponseSettings().isEnabled()));
+    }
+
+    @Override
+    public void opened(Socket socket) {
+        AcceptEvent event = new AcceptEvent();
+        if (event.shouldCommit()) {
+            event.remoteAddress = String.valueOf(socket.getRemoteSocketAddress());
+            event.localPort = socket.getLocalPort();
+            event.commit();
+        }
+    }
+
+    @Override
+    public void incoming(Socket socket, ByteBuffer bytes) {
+    }
+
+    @Override
+    public void outgoing(Socket socket, ByteBuffer bytes) {
+    }
+
+    @Override
+    public void closed(Socket socket) {
+    }
+
+    /**
+     * Serve event listener timing the phases of each request on its thread.
+     */
+    private static final class RequestEvents implements ServeEventListener {
+
+        // Stub store of the server, to count the candidate stubs of a request
+        private final StubMappingStore stubStore;
+
+        // Whether delayed responses are written by scheduler threads
+        private final boolean asynchronous;
+
+        private RequestEvents(StubMappingStore stubStore, boolean asynchronous) {
+            this.stubStore = stubStore;
+            this.asynchronous = asynchronous;
+        }
+
+        @Override
+        public String getName() {
+            return NAME;
+        }
+
+        @Override
+        public boolean applyGlobally() {
+            return true;
+        }
+
+        @Override
+        public void beforeMatch(ServeEvent serveEvent, Parameters parameters) {
+            StubMatchEvent match = new StubMatchEvent();
+            IN_FLIGHT.get().match = begin(match) ? match : null;
+        }
+
+        @Override
+        public void afterMatch(ServeEvent serveEvent, Parameters parameters) {
+            InFlight inFlight = IN_FLIGHT.get();
+            StubMatchEvent match = inFlight.match;
+            inFlight.match = null;
+            if (match != null) {
+                match.end();
+                if (match.shouldCommit()) {
+                    match.method = serveEvent.getRequest().getMethod().getName();
+                    match.url = serveEvent.getRequest().getUrl();
+                    match.matched = serveEvent.getWasMatched();
+                    match.stubId = stubIdOf(serveEvent);
+                    match.candidates = countCandidates(serveEvent.getRequest());
+                    match.commit();
+                }
+            }
+
+            TemplateRenderEvent render = new TemplateRenderEvent();
+            inFlight.render = begin(render) ? render : null;
+        }
+
+        @Override
+        public void beforeResponseSent(ServeEvent serveEvent, Parameters parameters) {
+            InFlight inFlight = IN_FLIGHT.get();
+            TemplateRenderEvent render = inFlight.render;
+            inFlight.render = null;
+            if (render != null) {
+                render.end();
+                if (render.shouldCommit()) {
+                    List<String> transformers = serveEvent.getResponseDefinition().getTransformers();
+                    render.url = serveEvent.getRequest().getUrl();
+                    render.stubId = stubIdOf(serveEvent);
+                    render.transformers = transformers != null ? String.join(",", transformers) : "";
+                    render.commit();
+                }
+            }
+
+            ResponseWriteEvent write = new ResponseWriteEvent();
+            inFlight.write = begin(write) ? write : null;
+        }
+
+        @Override
+        public void afterComplete(ServeEvent serveEvent, Parameters parameters) {
+            InFlight inFlight = IN_FLIGHT.get();
+            ResponseWriteEvent write = inFlight.write;
+            inFlight.write = null;
+            if (write != null) {
+                write.end();
+                if (write.shouldCommit()) {
+                    LoggedResponse response = serveEvent.getResponse();
+                    write.url = serveEvent.getRequest().getUrl();
+                    write.stubId = stubIdOf(serveEvent);
+                    write.status = response != null ? response.getStatus() : 0;
+                    write.bodyBytes = response != null && response.getBody() != null ? response.getBody().length : 0;
+                    write.commit();
+                }
+            }
+
+            DelayScheduleEvent delay = new DelayScheduleEvent();
+            if (delay.isEnabled()) {
+                Timing timing = serveEvent.getTiming();
+                if (timing != null && timing.getAddedDelay() != null && timing.getAddedDelay() > 0
+                        && delay.shouldCommit()) {
+                    delay.url = serveEvent.getRequest().getUrl();
+                    delay.stubId = stubIdOf(serveEvent);
+                    delay.delayMillis = timing.getAddedDelay();
+                    delay.asynchronous = asynchronous;
+                    delay.commit();
+                }
+            }
+        }
+
+        // Method to count the stubs evaluated against a request, only the indexed candidates with an IndexedStubMappingStore
+        private int countCandidates(Request request) {
+            if (stubStore instanceof IndexedStubMappingStore indexedStubStore) {
+                return indexedStubStore.countCandidates(request);
+            }
+            return (int) stubStore.getAll().count();
+        }
+    }
+
+    // Method to start timing an event when it is enabled, returning whether it was
+    private static boolean begin(jdk.jfr.Event event) {
+        if (!event.isEnabled()) {
+            return false;
+        }
+        event.begin();
+        return true;
+    }
+
+    // Method to return the id of the stub of a serve event, null for a request matching no stub
+    private static String stubIdOf(ServeEvent serveEvent) {
+        StubMapping stubMapping = serveEvent.getStubMapping();
+        if (!serveEvent.getWasMatched() || stubMapping == null || stubMapping.getId() == null) {
+            return null;
+        }
+        return stubMapping.getId().toString();
+    }
+
+    /**
+     * Events begun on a thread and not ended yet, null when disabled.
+     */
+    private static final class InFlight {
+
+        private StubMatchEvent match;
+        private TemplateRenderEvent render;
+        private ResponseWriteEvent write;
+    }
+
+}
@@ -0,0 +1,153 @@
+package qa.wiremock.concepts.jfr;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import qa.wiremock.concepts.delay.NonBlockingDelays;
+import qa.wiremock.concepts.parallel.WireMockServerPool;
+import qa.wiremock.concepts.stores.ConceptStores;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * This code verifies the PipelineEvents: it records a JFR file while a
+ * server of its own serves a templated stub, a body file stub and a delayed
+ * stub, and checks the breakdown of the recorded events of those requests.
+ * A recording covers the whole JVM, so every URL carries a run id unique to
+ * this test, and only the events of those URLs are checked.
+ *
+ * @author Jagatheshwaran N
+ */
+public class PipelineEventsTest {
+
+    // Recording file, kept for JDK Mission Control
+    private static final Path RECORDING_FILE = Paths.get("target", "jfr", "pipeline-events.jfr");
+
+    // Run id carried by every request of this test
+    private static final String RUN = UUID.randomUUID().toString();
+
+    // URLs of the templated, body file and delayed stubs
+    private static final String FLIGHTS_URL = "/flights?from=Chennai&to=Texas&run=" + RUN;
+    private static final String WORKER_URL = "/worker/1?run=" + RUN;
+    private static final String REPORT_URL = "/reports/daily?run=" + RUN;
+
+    // Delay of the delayed stub
+    private static final int DELAY_MILLIS = 100;
+
+    // Instance of WireMockServer
+    private static WireMockServer wireMockServer;
+
+    // Method to start a server emitting the pipeline events, with non-blocking delays, before test execution
+    @BeforeClass
+    public void startupServer() {
+        wireMockServer = WireMockServerPool.acquire(NonBlockingDelays.configure(
+                PipelineEvents.configure(ConceptStores.configure(WireMockConfiguration.options()))));
+
+        WireMock client = WireMockServerPool.clientFor(wireMockServer);
+        client.register(WireMock.get(WireMock.urlPathEqualTo("/flights"))
+                .withQueryParam("run", WireMock.equalTo(RUN))
+                .willReturn(WireMock.okJson("{\"from\": \"{{request.query.from}}\", \"to\": \"{{request.query.to}}\"}")
+                        .withTransformers("response-template")));
+        client.register(WireMock.get(WireMock.urlPathEqualTo("/worker/1"))
+                .withQueryParam("run", WireMock.equalTo(RUN))
+                .willReturn(WireMock.ok().withBodyFile("json/worker.json")));
+        client.register(WireMock.get(WireMock.urlPathEqualTo("/reports/daily"))
+                .withQueryParam("run", WireMock.equalTo(RUN))
+                .willReturn(WireMock.okJson("{\"report\": \"daily\"}").withFixedDelay(DELAY_MILLIS)));
+    }
+
+    // Method to shut down the WireMock server after test execution
+    @AfterClass
+    public void shutdownServer() {
+        WireMockServerPool.release(wireMockServer);
+    }
+
+    // Test method to verify the breakdown of the events recorded while the stubs are served
+    @Test
+    public void testPipelineEventBreakdown() throws IOException {
+        try (Recording recording = new Recording()) {
+            // Keeps every pipeline event, however short
+            PipelineEvents.EVENT_NAMES.forEach(name -> recording.enable(name).withThreshold(Duration.ZERO));
+            recording.start();
+
+            String baseUrl = WireMockServerPool.baseUrlOf(wireMockServer);
+            given().baseUri(baseUrl).when().get(FLIGHTS_URL).then().statusCode(200);
+            given().baseUri(baseUrl).when().get(WORKER_URL).then().statusCode(200);
+            given().baseUri(baseUrl).when().get(REPORT_URL).then().statusCode(200);
+
+            recording.stop();
+            Files.createDirectories(RECORDING_FILE.getParent());
+            recording.dump(RECORDING_FILE);
+        }
+        List<RecordedEvent> events = RecordingFile.readAllEvents(RECORDING_FILE);
+
+        // Prints the count and total duration of each event, as a breakdown of the pipeline
+        Map<String, List<RecordedEvent>> byName = events.stream()
+                .collect(Collectors.groupingBy(event -> event.getEventType().getName(), TreeMap::new, Collectors.toList()));
+        byName.forEach((name, recorded) -> System.out.printf("%-28s %5d events %10.3f ms%n", name, recorded.size(),
+                recorded.stream().mapToLong(event -> event.getDuration().toNanos()).sum() / 1e6));
+
+        // Assert that the connections were accepted
+        Assert.assertFalse(byName.getOrDefault(AcceptEvent.NAME, List.of()).isEmpty());
+
+        // Assert that both requests were matched, with at least their own stub as candidate
+        for (String url : List.of(FLIGHTS_URL, WORKER_URL)) {
+            RecordedEvent match = single(byName, StubMatchEvent.NAME, url);
+            Assert.assertTrue(match.getBoolean("matched"), url);
+            Assert.assertEquals(match.getString("method"), "GET");
+            Assert.assertTrue(match.getInt("candidates") >= 1, url);
+            Assert.assertNotNull(match.getString("stubId"), url);
+        }
+
+        // Assert that the templated response was rendered through the response-template transformer
+        Assert.assertEquals(single(byName, TemplateRenderEvent.NAME, FLIGHTS_URL).getString("transformers"), "response-template");
+        Assert.assertEquals(single(byName, TemplateRenderEvent.NAME, WORKER_URL).getString("transformers"), "");
+
+        // Assert that the body file of the worker was loaded
+        Assert.assertTrue(byName.getOrDefault(BodyLoadEvent.NAME, List.of()).stream()
+                .anyMatch(event -> event.getString("path").equals("json/worker.json") && event.getBoolean("found")
+                        && event.getLong("size") > 0));
+
+        // Assert that only the delayed stub scheduled a delay, written later by a scheduler thread
+        List<RecordedEvent> delays = byName.getOrDefault(DelayScheduleEvent.NAME, List.of()).stream()
+                .filter(event -> List.of(FLIGHTS_URL, WORKER_URL, REPORT_URL).contains(event.getString("url")))
+                .toList();
+        Assert.assertEquals(delays.size(), 1);
+        Assert.assertEquals(delays.get(0).getString("url"), REPORT_URL);
+        Assert.assertEquals(delays.get(0).getLong("delayMillis"), DELAY_MILLIS);
+        Assert.assertTrue(delays.get(0).getBoolean("asynchronous"));
+
+        // Assert that every response was written with its status
+        for (String url : List.of(FLIGHTS_URL, WORKER_URL, REPORT_URL)) {
+            Assert.assertEquals(single(byName, ResponseWriteEvent.NAME, url).getInt("status"), 200, url);
+        }
+    }
+
+    // Method to find the only event of a name committed for a URL of this run
+    private static RecordedEvent single(Map<String, List<RecordedEvent>> byName, String name, String url) {
+        List<RecordedEvent> events = byName.getOrDefault(name, List.of()).stream()
+                .filter(event -> url.equals(event.getString("url")))
+                .toList();
+        Assert.assertEquals(events.size(), 1, name + " " + url);
+        return events.get(0);
+    }
+
+}
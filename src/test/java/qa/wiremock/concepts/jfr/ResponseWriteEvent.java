@@ -0,0 +1,42 @@
+package qa.wiremock.concepts.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * This code is the Java Flight Recorder event of sending a response. With
+ * asynchronous responses the response is handed over to a scheduler thread,
+ * so the event only covers that handover.
+ *
+ * @author Jagatheshwaran N
+ */
+@Name(ResponseWriteEvent.NAME)
+@Label("Response Write")
+@Category({"WireMock", "Pipeline"})
+@Description("Sending a response, its delay included when slept on the request thread")
+@Threshold("1 ms")
+@StackTrace(false)
+public class ResponseWriteEvent extends jdk.jfr.Event {
+
+    // Stable name of the event
+    public static final String NAME = "qa.wiremock.ResponseWrite";
+
+    @Label("URL")
+    String url;
+
+    @Label("Stub Id")
+    String stubId;
+
+    @Label("Status")
+    int status;
+
+    @Label("Body Size")
+    @DataAmount
+    long bodyBytes;
+
+}
@@ -0,0 +1,43 @@
+package qa.wiremock.concepts.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * This code is the Java Flight Recorder event of finding the stub of a
+ * request, with the number of stubs evaluated to find it.
+ *
+ * @author Jagatheshwaran N
+ */
+@Name(StubMatchEvent.NAME)
+@Label("Stub Match")
+@Category({"WireMock", "Pipeline"})
+@Description("Finding the stub of a request")
+@Threshold("1 ms")
+@StackTrace(false)
+public class StubMatchEvent extends jdk.jfr.Event {
+
+    // Stable name of the event
+    public static final String NAME = "qa.wiremock.StubMatch";
+
+    @Label("Method")
+    String method;
+
+    @Label("URL")
+    String url;
+
+    @Label("Matched")
+    boolean matched;
+
+    @Label("Stub Id")
+    String stubId;
+
+    @Label("Candidates")
+    @Description("Stubs evaluated against the request")
+    int candidates;
+
+}
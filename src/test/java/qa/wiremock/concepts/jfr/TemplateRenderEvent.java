@@ -0,0 +1,37 @@
+package qa.wiremock.concepts.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * This code is the Java Flight Recorder event of rendering the response of a
+ * stub: response templating and the other transformers of the stub.
+ *
+ * @author Jagatheshwaran N
+ */
+@Name(TemplateRenderEvent.NAME)
+@Label("Template Render")
+@Category({"WireMock", "Pipeline"})
+@Description("Rendering the response of a stub, response templating and other transformers included")
+@Threshold("1 ms")
+@StackTrace(false)
+public class TemplateRenderEvent extends jdk.jfr.Event {
+
+    // Stable name of the event
+    public static final String NAME = "qa.wiremock.TemplateRender";
+
+    @Label("URL")
+    String url;
+
+    @Label("Stub Id")
+    String stubId;
+
+    @Label("Transformers")
+    @Description("Transformers named by the stub, comma separated")
+    String transformers;
+
+}
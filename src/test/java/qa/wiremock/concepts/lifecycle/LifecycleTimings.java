@@ -0,0 +1,104 @@
+package qa.wiremock.concepts.lifecycle;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LongSummaryStatistics;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This code collects the timings of the suite-scoped shared WireMock server:
+ * one startup, one shutdown and a cheap reset between every test class.
+ * It also holds the measured cost of starting and stopping a fresh server, which
+ * is what each class paid with the per-class @BeforeTest/@AfterTest pattern, so
+ * the report can show the time saved by sharing one server across the suite.
+ *
+ * @author Jagatheshwaran N
+ */
+public class LifecycleTimings {
+
+    // Time taken to start the shared server
+    private long startupNanos;
+
+    // Time taken to stop the shared server
+    private long shutdownNanos;
+
+    // Time taken to start and stop a fresh server, as each class did before
+    private long perClassServerNanos;
+
+    // Statistics of the resets performed between test classes
+    private final LongSummaryStatistics resetNanos = new LongSummaryStatistics();
+
+    // Method to record the startup time of the shared server
+    synchronized void recordStartup(long nanos) {
+        startupNanos = nanos;
+    }
+
+    // Method to record the shutdown time of the shared server
+    synchronized void recordShutdown(long nanos) {
+        shutdownNanos = nanos;
+    }
+
+    // Method to record the time of one reset between test classes
+    synchronized void recordReset(long nanos) {
+        resetNanos.accept(nanos);
+    }
+
+    // Method to record the start and stop time of a fresh server
+    synchronized void recordPerClassServer(long nanos) {
+        perClassServerNanos = nanos;
+    }
+
+    // Method to return the number of resets performed so far
+    public synchronized long getResetCount() {
+        return resetNanos.getCount();
+    }
+
+    // Method to return the total time spent by the shared lifecycle
+    public synchronized long getSharedTotalNanos() {
+        return startupNanos + shutdownNanos + resetNanos.getSum();
+    }
+
+    // Method to return the estimated time the per-class pattern would have spent
+    public synchronized long getPerClassTotalNanos() {
+        // The first class pays the same cold startup either way, the others a warm start and stop each
+        return startupNanos + shutdownNanos + perClassServerNanos * Math.max(0, resetNanos.getCount() - 1);
+    }
+
+    // Method to build the human-readable timing report
+    public synchronized String report() {
+        long classes = resetNanos.getCount();
+        return String.join(System.lineSeparator(),
+                "Shared WireMock server lifecycle",
+                "================================",
+                String.format("Test classes served          : %d", classes),
+                String.format("Shared server startup        : %.2f ms", millis(startupNanos)),
+                String.format("Shared server shutdown       : %.2f ms", millis(shutdownNanos)),
+                String.format("Resets (avg / max / total)   : %.3f / %.3f / %.2f ms",
+                        millis((long) resetNanos.getAverage()), millis(classes == 0 ? 0 : resetNanos.getMax()),
+                        millis(resetNanos.getSum())),
+                String.format("Fresh server start + stop    : %.2f ms per class", millis(perClassServerNanos)),
+                String.format("Shared lifecycle total       : %.2f ms", millis(getSharedTotalNanos())),
+                String.format("Per-class lifecycle estimate : %.2f ms", millis(getPerClassTotalNanos())),
+                String.format("Estimated saving             : %.2f ms",
+                        millis(getPerClassTotalNanos() - getSharedTotalNanos())));
+    }
+
+    // Method to write the timing report to the given file
+    public void writeTo(Path reportFile) {
+        try {
+            Files.createDirectories(reportFile.getParent());
+            Files.writeString(reportFile, report() + System.lineSeparator(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            // If an IOException occurs during file writing, wrap it in a RuntimeException and throw
+            throw new RuntimeException(e);
+        }
+    }
+
+    // Method to convert nanoseconds to fractional milliseconds
+    private static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+}
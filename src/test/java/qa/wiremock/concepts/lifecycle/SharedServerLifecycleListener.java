@@ -0,0 +1,63 @@
+package qa.wiremock.concepts.lifecycle;
+
+import org.testng.IClassListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestClass;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * This code drives the suite-scoped WireMock server lifecycle from TestNG.
+ * The server is started once when the suite starts, reset before every test
+ * class and stopped when the suite finishes, at which point the startup/reset
+ * timing report is printed and written to target/shared-server-timings.txt.
+ * While it runs, WireMockServerPool.acquire() hands out the shared server, so
+ * the concept tests use it without any change.
+ * Parallel suites are left alone, because one shared server cannot isolate
+ * test classes that run at the same time.
+ *
+ * @author Jagatheshwaran N
+ */
+public class SharedServerLifecycleListener implements ISuiteListener, IClassListener {
+
+    // Location of the timing report
+    private static final Path REPORT_FILE = Paths.get("target", "shared-server-timings.txt");
+
+    // Whether this listener manages the shared server for the running suite
+    private volatile boolean active;
+
+    @Override
+    public void onStart(ISuite suite) {
+        // Skips parallel suites, where classes must own their servers
+        active = !suite.getXmlSuite().getParallel().isParallel();
+        if (active) {
+            SharedWireMockServer.start();
+        }
+    }
+
+    @Override
+    public void onBeforeClass(ITestClass testClass) {
+        if (active) {
+            SharedWireMockServer.reset();
+        }
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        if (!active) {
+            return;
+        }
+        SharedWireMockServer.stop();
+
+        // Measures the start and stop of a fresh server to compare with the per-class pattern
+        SharedWireMockServer.measurePerClassServer();
+
+        // Print and store the timing report
+        LifecycleTimings timings = SharedWireMockServer.timings();
+        System.out.println(timings.report());
+        timings.writeTo(REPORT_FILE);
+    }
+
+}
@@ -0,0 +1,113 @@
+package qa.wiremock.concepts.lifecycle;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import qa.wiremock.concepts.parallel.WireMockServerPool;
+
+/**
+ * This code holds the single WireMock server shared by every test class of a
+ * suite, instead of each class paying a full Jetty startup and shutdown.
+ * The server is started once, reset cheaply between test classes (stubs,
+ * scenarios and request journal) and stopped at the end of the suite.
+ * Every step is timed in LifecycleTimings so that the saving against the
+ * per-class lifecycle can be reported.
+ *
+ * @author Jagatheshwaran N
+ */
+public final class SharedWireMockServer {
+
+    // Constant for host
+    private static final String HOST = "localhost";
+
+    // The server shared by the suite, null when no suite-scoped server is running
+    private static volatile WireMockServer wireMockServer;
+
+    // WireMock client bound to the shared server
+    private static volatile WireMock wireMock;
+
+    // Timings of the shared lifecycle
+    private static final LifecycleTimings TIMINGS = new LifecycleTimings();
+
+    private SharedWireMockServer() {
+    }
+
+    // Method to start the shared server on a free port
+    public static synchronized void start() {
+        if (isRunning()) {
+            return;
+        }
+        long startTime = System.nanoTime();
+        WireMockServer server = new WireMockServer(serverOptions());
+        server.start();
+        TIMINGS.recordStartup(System.nanoTime() - startTime);
+
+        wireMock = new WireMock(HOST, server.port());
+        wireMockServer = server;
+    }
+
+    // Method to clear stubs, scenarios and the request journal before the next test class
+    public static synchronized void reset() {
+        if (!isRunning()) {
+            return;
+        }
+        long startTime = System.nanoTime();
+        // Clears the stub store, scenarios and journal and reloads the default mappings,
+        // without touching the mapping files on disk
+        wireMockServer.resetAll();
+        TIMINGS.recordReset(System.nanoTime() - startTime);
+    }
+
+    // Method to stop the shared server at the end of the suite
+    public static synchronized void stop() {
+        if (!isRunning()) {
+            return;
+        }
+        long startTime = System.nanoTime();
+        wireMockServer.stop();
+        TIMINGS.recordShutdown(System.nanoTime() - startTime);
+        wireMockServer = null;
+        wireMock = null;
+    }
+
+    // Method to measure what a test class paid to start and stop its own server, configured as the shared one
+    public static void measurePerClassServer() {
+        long startTime = System.nanoTime();
+        WireMockServer server = new WireMockServer(serverOptions());
+        server.start();
+        server.stop();
+        TIMINGS.recordPerClassServer(System.nanoTime() - startTime);
+    }
+
+    // Method to build the options of the shared server, also used for the per-class server it is compared with
+    private static WireMockConfiguration serverOptions() {
+        return WireMockServerPool.defaultOptions().dynamicPort();
+    }
+
+    // Method to check whether the suite-scoped server is running
+    public static boolean isRunning() {
+        WireMockServer server = wireMockServer;
+        return server != null && server.isRunning();
+    }
+
+    // Method to check whether the given server is the suite-scoped one
+    public static boolean isShared(WireMockServer server) {
+        return server != null && server == wireMockServer;
+    }
+
+    // Method to return the shared server
+    public static WireMockServer server() {
+        return wireMockServer;
+    }
+
+    // Method to return the WireMock client bound to the shared server
+    public static WireMock client() {
+        return wireMock;
+    }
+
+    // Method to return the timings of the shared lifecycle
+    public static LifecycleTimings timings() {
+        return TIMINGS;
+    }
+
+}
@@ -0,0 +1,91 @@
+package qa.wiremock.concepts.lifecycle;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import qa.wiremock.concepts.parallel.WireMockServerPool;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * This code verifies the suite-scoped shared WireMock server lifecycle.
+ * It starts the shared server the way the SharedServerLifecycleListener does,
+ * checks that the WireMockServerPool hands it out to test classes, that the
+ * reset between classes clears stubs, scenarios and the request journal, and
+ * that the timing report compares the shared lifecycle with the per-class one.
+ *
+ * @author Jagatheshwaran N
+ */
+public class SharedWireMockServerTest {
+
+    // Method to start the shared server before test execution
+    @BeforeClass
+    public void startSharedServer() {
+        SharedWireMockServer.start();
+    }
+
+    // Method to stop the shared server after test execution
+    @AfterClass
+    public void stopSharedServer() {
+        SharedWireMockServer.stop();
+    }
+
+    // Test method to verify that the pool hands out the shared server
+    @Test(priority = 1)
+    public void testPoolHandsOutSharedServer() {
+        WireMockServer first = WireMockServerPool.acquire();
+        WireMockServer second = WireMockServerPool.acquire();
+
+        // Assert that both classes get the same suite-scoped server
+        Assert.assertSame(first, SharedWireMockServer.server());
+        Assert.assertSame(second, SharedWireMockServer.server());
+
+        // Releasing the shared server must keep it running for the next class
+        WireMockServerPool.release(first);
+        Assert.assertTrue(SharedWireMockServer.isRunning(), "Shared server was stopped on release");
+    }
+
+    // Test method to verify that the reset between classes clears stubs, scenarios and journal
+    @Test(priority = 2)
+    public void testResetClearsStateBetweenClasses() {
+        WireMock wireMock = SharedWireMockServer.client();
+        String requestUrl = WireMockServerPool.baseUrlOf(SharedWireMockServer.server()) + "/shared/item";
+
+        // Registers a scenario stub and moves the scenario forward, as a test class would
+        wireMock.register(WireMock.get("/shared/item")
+                .inScenario("shared")
+                .whenScenarioStateIs("Started")
+                .willReturn(WireMock.ok("first"))
+                .willSetStateTo("Served"));
+        given().when().get(requestUrl).then().statusCode(200);
+
+        // Resets the server as the listener does before the next class
+        SharedWireMockServer.reset();
+
+        // Assert that the stub, the scenario and the journal are gone
+        given().when().get(requestUrl).then().statusCode(404);
+        Assert.assertTrue(SharedWireMockServer.server().getAllScenarios().getScenarios().isEmpty(),
+                "Scenarios survived the reset");
+        Assert.assertEquals(SharedWireMockServer.server().getAllServeEvents().size(), 1,
+                "Request journal survived the reset");
+    }
+
+    // Test method to verify the timing report of the shared lifecycle
+    @Test(priority = 3)
+    public void testTimingReport() {
+        SharedWireMockServer.measurePerClassServer();
+        LifecycleTimings timings = SharedWireMockServer.timings();
+
+        // Print the report for visibility purposes
+        System.out.println(timings.report());
+
+        // Assert that resets were measured and are cheaper than a fresh server per class
+        Assert.assertTrue(timings.getResetCount() >= 1, "No reset was measured");
+        Assert.assertTrue(timings.report().contains("Estimated saving"));
+        Assert.assertTrue(timings.getPerClassTotalNanos() > 0, "Per-class server cost was not measured");
+    }
+
+}
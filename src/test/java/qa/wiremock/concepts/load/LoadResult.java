@@ -0,0 +1,202 @@
+package qa.wiremock.concepts.load;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * This code holds the outcome of one OpenLoopLoadGenerator run.
+ * Latencies are recorded in microseconds and reported in milliseconds.
+ * The latency histogram measures every request from the time it was meant
+ * to be sent, so a stalled server also delays the requests queued behind it
+ * (coordinated omission corrected); the service time histogram measures from
+ * the time it was actually sent, as a closed-loop client would. Both
+ * include the requests that failed or timed out, up to their failure, and
+ * the error histogram holds those alone. Each failed request is a single
+ * attempt, counted by the type of its failure.
+ * The report is written as a summary and an HdrHistogram percentile
+ * distribution (.hgrm) under target/load-reports, which tests can read back
+ * with readPercentileMillis().
+ *
+ * @author Jagatheshwaran N
+ */
+public class LoadResult {
+
+    // Directory of the load reports
+    public static final Path REPORT_DIR = Paths.get("target", "load-reports");
+
+    // Percentiles of the summary
+    private static final double[] SUMMARY_PERCENTILES = {50.0, 90.0, 99.0, 99.9};
+
+    // Ratio from the recorded microseconds to the reported milliseconds
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    // Latencies from the intended send times, in microseconds
+    private final Histogram latencyHistogram;
+
+    // Latencies from the actual send times, in microseconds
+    private final Histogram serviceTimeHistogram;
+
+    // Latencies of the failed requests from the intended send times, in microseconds
+    private final Histogram errorLatencyHistogram;
+
+    // Requested rate in requests per second
+    private final int requestsPerSecond;
+
+    // Number of requests sent
+    private final long sentCount;
+
+    // Number of requests that failed without a response
+    private final long errorCount;
+
+    // Number of failed requests per type of failure, such as IOException or TimeoutException
+    private final Map<String, Long> errorCounts;
+
+    // Number of responses per status code
+    private final Map<Integer, Long> statusCounts;
+
+    // Time from the first intended send to the last completion, in nanoseconds
+    private final long elapsedNanos;
+
+    // Constructor of the result of a finished run
+    LoadResult(Histogram latencyHistogram, Histogram serviceTimeHistogram, Histogram errorLatencyHistogram,
+               int requestsPerSecond, long sentCount, Map<String, Long> errorCounts, Map<Integer, Long> statusCounts,
+               long elapsedNanos) {
+        this.latencyHistogram = latencyHistogram;
+        this.serviceTimeHistogram = serviceTimeHistogram;
+        this.errorLatencyHistogram = errorLatencyHistogram;
+        this.requestsPerSecond = requestsPerSecond;
+        this.sentCount = sentCount;
+        this.errorCounts = new TreeMap<>(errorCounts);
+        this.errorCount = this.errorCounts.values().stream().mapToLong(Long::longValue).sum();
+        this.statusCounts = new TreeMap<>(statusCounts);
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    // Method to return the latency at a percentile (0-100) in milliseconds, corrected for coordinated omission
+    public double latencyMillis(double percentile) {
+        return latencyHistogram.getValueAtPercentile(percentile) / MICROS_PER_MILLI;
+    }
+
+    // Method to return the service time at a percentile (0-100) in milliseconds, as measured from the actual send
+    public double serviceTimeMillis(double percentile) {
+        return serviceTimeHistogram.getValueAtPercentile(percentile) / MICROS_PER_MILLI;
+    }
+
+    // Method to return the latency of the failed requests at a percentile (0-100) in milliseconds
+    public double errorLatencyMillis(double percentile) {
+        return errorLatencyHistogram.getValueAtPercentile(percentile) / MICROS_PER_MILLI;
+    }
+
+    // Method to return the largest latency in milliseconds
+    public double maxLatencyMillis() {
+        return latencyHistogram.getMaxValue() / MICROS_PER_MILLI;
+    }
+
+    // Method to return the achieved rate of completed requests per second
+    public double achievedRequestsPerSecond() {
+        return (sentCount - errorCount) * 1_000_000_000.0 / Math.max(1, elapsedNanos);
+    }
+
+    public Histogram getLatencyHistogram() {
+        return latencyHistogram;
+    }
+
+    public Histogram getServiceTimeHistogram() {
+        return serviceTimeHistogram;
+    }
+
+    public Histogram getErrorLatencyHistogram() {
+        return errorLatencyHistogram;
+    }
+
+    public long getSentCount() {
+        return sentCount;
+    }
+
+    public long getErrorCount() {
+        return errorCount;
+    }
+
+    // Method to return the number of failed requests per type of failure
+    public Map<String, Long> getErrorCounts() {
+        return errorCounts;
+    }
+
+    // Method to return the number of responses with a status code
+    public long getStatusCount(int status) {
+        return statusCounts.getOrDefault(status, 0L);
+    }
+
+    // Method to print the p50/p90/p99/p99.9 summary of the run
+    public void writeSummary(PrintStream out) {
+        out.printf("requests: %d sent at %d/s, %.1f/s completed, %d errors %s, status %s%n",
+                sentCount, requestsPerSecond, achievedRequestsPerSecond(), errorCount, errorCounts, statusCounts);
+        out.printf("%-14s", "latency ms");
+        for (double percentile : SUMMARY_PERCENTILES) {
+            out.printf("  p%-5s %9.3f", formatPercentile(percentile), latencyMillis(percentile));
+        }
+        out.printf("  max %9.3f%n", maxLatencyMillis());
+        out.printf("%-14s", "service ms");
+        for (double percentile : SUMMARY_PERCENTILES) {
+            out.printf("  p%-5s %9.3f", formatPercentile(percentile), serviceTimeMillis(percentile));
+        }
+        out.printf("  max %9.3f%n", serviceTimeHistogram.getMaxValue() / MICROS_PER_MILLI);
+        if (errorCount > 0) {
+            out.printf("%-14s", "errors ms");
+            for (double percentile : SUMMARY_PERCENTILES) {
+                out.printf("  p%-5s %9.3f", formatPercentile(percentile), errorLatencyMillis(percentile));
+            }
+            out.printf("  max %9.3f%n", errorLatencyHistogram.getMaxValue() / MICROS_PER_MILLI);
+        }
+    }
+
+    // Method to write the summary and the latency percentile file of the run under target/load-reports
+    public Path writeReport(String name) throws IOException {
+        Files.createDirectories(REPORT_DIR);
+        try (PrintStream summary = new PrintStream(REPORT_DIR.resolve(name + "-summary.txt").toFile(),
+                StandardCharsets.UTF_8)) {
+            writeSummary(summary);
+        }
+        Path percentileFile = REPORT_DIR.resolve(name + ".hgrm");
+        try (PrintStream percentiles = new PrintStream(percentileFile.toFile(), StandardCharsets.UTF_8)) {
+            latencyHistogram.outputPercentileDistribution(percentiles, MICROS_PER_MILLI);
+        }
+        return percentileFile;
+    }
+
+    // Method to read the value in milliseconds at the first row at or above a percentile (0-100) of a written .hgrm file
+    public static double readPercentileMillis(Path percentileFile, double percentile) throws IOException {
+        List<String> lines = Files.readAllLines(percentileFile, StandardCharsets.UTF_8);
+        double lastValue = Double.NaN;
+        for (String line : lines) {
+            String[] columns = line.trim().split("\\s+");
+            // Rows are "Value Percentile TotalCount 1/(1-Percentile)"; the header and footer are skipped
+            if (columns.length < 3 || !Character.isDigit(columns[0].charAt(0))) {
+                continue;
+            }
+            lastValue = Double.parseDouble(columns[0]);
+            if (Double.parseDouble(columns[1]) * 100.0 >= percentile) {
+                return lastValue;
+            }
+        }
+        if (Double.isNaN(lastValue)) {
+            throw new IOException("No percentile rows in " + percentileFile);
+        }
+        return lastValue;
+    }
+
+    // Method to format a percentile without trailing zeros
+    private static String formatPercentile(double percentile) {
+        return percentile == Math.rint(percentile) ? String.valueOf((int) percentile) : String.valueOf(percentile);
+    }
+
+}
@@ -0,0 +1,147 @@
+package qa.wiremock.concepts.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.asynchttpclient.AsyncCompletionHandler;
+import org.asynchttpclient.AsyncHttpClient;
+import org.asynchttpclient.Dsl;
+import org.asynchttpclient.Response;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * This code is an open-loop load driver for the stubs of the concept tests,
+ * built on async-http-client.
+ * It sends GET requests at a fixed rate for a fixed duration, whatever the
+ * server's response times: request i is due at start + i / rate and is sent
+ * without waiting for earlier responses.
+ * Every latency is measured from the time the request was due, so requests
+ * that the driver could only send late because the server or the machine
+ * stalled still count the stall (coordinated omission correction). A
+ * request that fails or times out is recorded too, up to the time its
+ * failure was known, and again in an error histogram of its own; dropping
+ * it would hide the stall it measures. Failed requests are never retried,
+ * so every fault of the server shows as one error, counted by the type of
+ * its failure, and every latency covers a single attempt. The latencies are
+ * recorded in HdrHistograms and returned as a LoadResult.
+ * <p>
+ * try (OpenLoopLoadGenerator generator = new OpenLoopLoadGenerator()) {
+ * LoadResult result = generator.run(url, 200, Duration.ofSeconds(5)); }
+ *
+ * @author Jagatheshwaran N
+ */
+public class OpenLoopLoadGenerator implements AutoCloseable {
+
+    // Default time a request may take before it counts as an error
+    public static final Duration DEFAULT_REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    // Largest latency the histograms track, in microseconds
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.HOURS.toMicros(1);
+
+    // Significant decimal digits of the recorded latencies
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    // Asynchronous HTTP client sending the requests
+    private final AsyncHttpClient asyncHttpClient;
+
+    // Time a request may take before it counts as an error
+    private final Duration requestTimeout;
+
+    // Constructor of a load generator with the default request timeout
+    public OpenLoopLoadGenerator() {
+        this(DEFAULT_REQUEST_TIMEOUT);
+    }
+
+    // Constructor of a load generator with the given request timeout
+    public OpenLoopLoadGenerator(Duration requestTimeout) {
+        this.requestTimeout = requestTimeout;
+        this.asyncHttpClient = Dsl.asyncHttpClient(Dsl.config()
+                .setRequestTimeout((int) requestTimeout.toMillis())
+                .setKeepAlive(true)
+                .setMaxRequestRetry(0)
+                .setFollowRedirect(false));
+    }
+
+    // Method to send GET requests to the URL at a fixed rate for a duration and wait for every response
+    public LoadResult run(String url, int requestsPerSecond, Duration duration) throws InterruptedException {
+        if (requestsPerSecond <= 0 || duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("Rate and duration must be positive");
+        }
+        long totalRequests = Math.max(1, duration.toNanos() * requestsPerSecond / TimeUnit.SECONDS.toNanos(1));
+        double intervalNanos = (double) TimeUnit.SECONDS.toNanos(1) / requestsPerSecond;
+
+        Histogram latencyHistogram = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+        Histogram serviceTimeHistogram = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+        Histogram errorLatencyHistogram = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+        Map<Integer, LongAdder> statusCounts = new ConcurrentHashMap<>();
+        Map<String, LongAdder> errorCounts = new ConcurrentHashMap<>();
+        CountDownLatch completed = new CountDownLatch((int) Math.min(Integer.MAX_VALUE, totalRequests));
+
+        long startNanos = System.nanoTime();
+        for (long i = 0; i < totalRequests; i++) {
+            long intendedNanos = startNanos + (long) (i * intervalNanos);
+
+            // Waits for the due time of the request, but never for earlier responses
+            long waitNanos = intendedNanos - System.nanoTime();
+            while (waitNanos > 0) {
+                LockSupport.parkNanos(waitNanos);
+                waitNanos = intendedNanos - System.nanoTime();
+            }
+
+            long sentNanos = System.nanoTime();
+            asyncHttpClient.prepareGet(url).execute(new AsyncCompletionHandler<Void>() {
+                @Override
+                public Void onCompleted(Response response) {
+                    long completedNanos = System.nanoTime();
+                    latencyHistogram.recordValue(toMicros(completedNanos - intendedNanos));
+                    serviceTimeHistogram.recordValue(toMicros(completedNanos - sentNanos));
+                    statusCounts.computeIfAbsent(response.getStatusCode(), status -> new LongAdder()).increment();
+                    completed.countDown();
+                    return null;
+                }
+
+                // Records a failed or timed out request like a response, so the stall still counts
+                @Override
+                public void onThrowable(Throwable throwable) {
+                    long failedNanos = System.nanoTime();
+                    latencyHistogram.recordValue(toMicros(failedNanos - intendedNanos));
+                    serviceTimeHistogram.recordValue(toMicros(failedNanos - sentNanos));
+                    errorLatencyHistogram.recordValue(toMicros(failedNanos - intendedNanos));
+                    errorCounts.computeIfAbsent(throwable.getClass().getSimpleName(), type -> new LongAdder()).increment();
+                    completed.countDown();
+                }
+            });
+        }
+
+        // Waits for the responses still in flight, which time out on their own after the request timeout
+        if (!completed.await(requestTimeout.toMillis() + TimeUnit.SECONDS.toMillis(5), TimeUnit.MILLISECONDS)) {
+            throw new IllegalStateException(completed.getCount() + " requests neither completed nor timed out");
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+
+        Map<Integer, Long> statuses = new ConcurrentHashMap<>();
+        statusCounts.forEach((status, count) -> statuses.put(status, count.sum()));
+        Map<String, Long> errors = new ConcurrentHashMap<>();
+        errorCounts.forEach((type, count) -> errors.put(type, count.sum()));
+        return new LoadResult(latencyHistogram, serviceTimeHistogram, errorLatencyHistogram, requestsPerSecond,
+                totalRequests, errors, statuses, elapsedNanos);
+    }
+
+    // Method to close the HTTP client of the generator
+    @Override
+    public void close() throws Exception {
+        asyncHttpClient.close();
+    }
+
+    // Method to convert a duration in nanoseconds to the recorded microseconds
+    private static long toMicros(long nanos) {
+        return Math.min(HIGHEST_TRACKABLE_MICROS, Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos)));
+    }
+
+}
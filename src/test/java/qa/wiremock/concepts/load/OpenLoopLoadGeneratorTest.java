@@ -0,0 +1,144 @@
+package qa.wiremock.concepts.load;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.http.Fault;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import qa.wiremock.concepts.delay.NonBlockingDelays;
+import qa.wiremock.concepts.parallel.WireMockServerPool;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * This code verifies the OpenLoopLoadGenerator against a delayed stub, a
+ * faulty stub and a stalled stub.
+ * The delayed stub must show its delay in every percentile, the faulty stub
+ * must be counted as errors, the stalled stub must show in the latencies as
+ * requests timing out, and the percentile file of the report must give back
+ * the percentiles of the run.
+ *
+ * @author Jagatheshwaran N
+ */
+public class OpenLoopLoadGeneratorTest {
+
+    // Fixed delay of the delayed stub in milliseconds
+    private static final int DELAY = 200;
+
+    // Rate of the load in requests per second
+    private static final int REQUESTS_PER_SECOND = 100;
+
+    // Duration of each load run
+    private static final Duration DURATION = Duration.ofSeconds(3);
+
+    // Fixed delay of the stalled stub, and the request timeout of the generator loading it, in milliseconds
+    private static final int STALL = 3000;
+    private static final int STALL_TIMEOUT = 500;
+
+    // Instance of WireMockServer
+    private static WireMockServer wireMockServer;
+
+    // Load generator shared by the tests
+    private static OpenLoopLoadGenerator loadGenerator;
+
+    // Method to start the server and the load generator before test execution
+    @BeforeClass
+    public void startupServer() {
+        wireMockServer = WireMockServerPool.acquire(NonBlockingDelays.configure(WireMockConfiguration.options()));
+        WireMock wireMock = WireMockServerPool.clientFor(wireMockServer);
+        wireMock.register(WireMock.get(WireMock.urlPathEqualTo("/flights/delayed"))
+                .willReturn(WireMock.okJson("{\"status\": \"delayed\"}").withFixedDelay(DELAY)));
+        wireMock.register(WireMock.get(WireMock.urlPathEqualTo("/flights/reset"))
+                .willReturn(WireMock.aResponse().withFault(Fault.CONNECTION_RESET_BY_PEER)));
+        wireMock.register(WireMock.get(WireMock.urlPathEqualTo("/flights/stalled"))
+                .willReturn(WireMock.okJson("{\"status\": \"stalled\"}").withFixedDelay(STALL)));
+
+        loadGenerator = new OpenLoopLoadGenerator(Duration.ofSeconds(10));
+    }
+
+    // Method to close the load generator and release the server after test execution
+    @AfterClass
+    public void shutdownServer() throws Exception {
+        loadGenerator.close();
+        WireMockServerPool.release(wireMockServer);
+    }
+
+    // Test method to verify the latency percentiles of a delayed stub under a fixed rate
+    @Test(priority = 1)
+    public void testDelayedStubPercentiles() throws Exception {
+        LoadResult result = loadGenerator.run(WireMockServerPool.baseUrlOf(wireMockServer) + "/flights/delayed",
+                REQUESTS_PER_SECOND, DURATION);
+
+        // Print the summary for visibility purposes
+        result.writeSummary(System.out);
+
+        // Assert that every request was sent and answered
+        Assert.assertEquals(result.getSentCount(), (long) REQUESTS_PER_SECOND * DURATION.toSeconds());
+        Assert.assertEquals(result.getErrorCount(), 0);
+        Assert.assertEquals(result.getStatusCount(200), result.getSentCount());
+
+        // Assert that the delay shows in every percentile, and the corrected latency is never below the service time
+        Assert.assertTrue(result.latencyMillis(50) >= DELAY, "p50 " + result.latencyMillis(50) + " ms");
+        Assert.assertTrue(result.latencyMillis(99.9) < DELAY * 10, "p99.9 " + result.latencyMillis(99.9) + " ms");
+        Assert.assertTrue(result.latencyMillis(99) >= result.serviceTimeMillis(99));
+    }
+
+    // Test method to verify that a faulty stub is counted as errors
+    @Test(priority = 2)
+    public void testFaultyStubErrors() throws Exception {
+        LoadResult result = loadGenerator.run(WireMockServerPool.baseUrlOf(wireMockServer) + "/flights/reset",
+                REQUESTS_PER_SECOND, Duration.ofSeconds(1));
+
+        // Assert that every request failed without a response, and still counts in the latencies
+        Assert.assertEquals(result.getErrorCount(), result.getSentCount());
+        Assert.assertEquals(result.getStatusCount(200), 0);
+        Assert.assertEquals(result.getLatencyHistogram().getTotalCount(), result.getSentCount());
+    }
+
+    // Test method to verify that the percentile file gives back the percentiles of the run
+    @Test(priority = 3)
+    public void testPercentileFile() throws Exception {
+        LoadResult result = loadGenerator.run(WireMockServerPool.baseUrlOf(wireMockServer) + "/flights/delayed",
+                REQUESTS_PER_SECOND, Duration.ofSeconds(1));
+        Path percentileFile = result.writeReport("open-loop-delayed");
+
+        // Assert that the report files are written
+        Assert.assertTrue(Files.exists(percentileFile));
+        Assert.assertTrue(Files.exists(LoadResult.REPORT_DIR.resolve("open-loop-delayed-summary.txt")));
+
+        // Assert that the file percentiles match the run, up to the next percentile row of the file
+        for (double percentile : new double[] {50, 90, 99, 99.9}) {
+            double fileMillis = LoadResult.readPercentileMillis(percentileFile, percentile);
+            Assert.assertTrue(fileMillis >= result.latencyMillis(percentile)
+                            && fileMillis <= result.latencyMillis(percentile + (100 - percentile) / 2),
+                    "p" + percentile + " of " + percentileFile + " is " + fileMillis + " ms");
+        }
+    }
+
+    // Test method to verify that requests timing out on a stalled stub are recorded in the latencies, not dropped
+    @Test(priority = 4)
+    public void testStalledStubTimeouts() throws Exception {
+        LoadResult result;
+        try (OpenLoopLoadGenerator stallGenerator = new OpenLoopLoadGenerator(Duration.ofMillis(STALL_TIMEOUT))) {
+            result = stallGenerator.run(WireMockServerPool.baseUrlOf(wireMockServer) + "/flights/stalled",
+                    REQUESTS_PER_SECOND, Duration.ofSeconds(1));
+        }
+        result.writeSummary(System.out);
+
+        // Assert that every request timed out, and was recorded with the time it waited
+        Assert.assertEquals(result.getErrorCount(), result.getSentCount());
+        Assert.assertEquals(result.getLatencyHistogram().getTotalCount(), result.getSentCount());
+        Assert.assertEquals(result.getErrorLatencyHistogram().getTotalCount(), result.getSentCount());
+
+        // Assert that the timeout shows in the percentiles instead of an empty histogram
+        Assert.assertTrue(result.latencyMillis(50) >= STALL_TIMEOUT, "p50 " + result.latencyMillis(50) + " ms");
+        Assert.assertTrue(result.errorLatencyMillis(50) >= STALL_TIMEOUT, "p50 " + result.errorLatencyMillis(50) + " ms");
+        Assert.assertTrue(result.latencyMillis(99) < STALL, "p99 " + result.latencyMillis(99) + " ms");
+    }
+
+}
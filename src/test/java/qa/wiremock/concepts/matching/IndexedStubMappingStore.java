@@ -0,0 +1,253 @@
+package qa.wiremock.concepts.matching;
+
+import com.github.tomakehurst.wiremock.common.Urls;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.matching.EqualToPattern;
+import com.github.tomakehurst.wiremock.matching.RequestMatcherExtension;
+import com.github.tomakehurst.wiremock.matching.RequestPattern;
+import com.github.tomakehurst.wiremock.store.StubMappingStore;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import com.github.tomakehurst.wiremock.stubbing.SubEvent;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * This code provides a stub store that narrows the stubs evaluated for a
+ * request with an index, instead of matching the request against every stub.
+ * Stubs with an exact URL (urlEqualTo) or an exact URL path (urlPathEqualTo)
+ * are indexed by HTTP method and URL, while regex, path template and anyUrl
+ * stubs such as WireMock.any(WireMock.anyUrl()) are kept in a small residual
+ * list that is evaluated for every request.
+ * The candidates are still evaluated with the full RequestPattern and in the
+ * same order as WireMock's own store (priority first, then the most recently
+ * added stub first), so the matched stub is always the same.
+ *
+ * @author Jagatheshwaran N
+ */
+public class IndexedStubMappingStore implements StubMappingStore {
+
+    // Index key of stubs that accept any HTTP method
+    private static final String ANY_METHOD = "ANY";
+
+    // Priority first, then the most recently added stub first, as in WireMock's own store
+    private static final Comparator<StubMapping> PRIORITY_ORDER = (one, two) -> {
+        int priorityComparison = one.comparePriorityWith(two);
+        if (priorityComparison != 0) {
+            return priorityComparison;
+        }
+        return Long.compare(two.getInsertionIndex(), one.getInsertionIndex());
+    };
+
+    // Every stub of the store in matching order
+    private final Set<StubMapping> allMappings = new ConcurrentSkipListSet<>(PRIORITY_ORDER);
+
+    // Stubs by their id
+    private final Map<UUID, StubMapping> mappingsById = new ConcurrentHashMap<>();
+
+    // Stubs with an exact URL, keyed by method and URL (query included)
+    private final Map<String, Set<StubMapping>> urlIndex = new ConcurrentHashMap<>();
+
+    // Stubs with an exact URL path, keyed by method and path
+    private final Map<String, Set<StubMapping>> urlPathIndex = new ConcurrentHashMap<>();
+
+    // Stubs that cannot be indexed and are evaluated for every request
+    private final Set<StubMapping> residualMappings = new ConcurrentSkipListSet<>(PRIORITY_ORDER);
+
+    // Insertion counter, which orders stubs of equal priority
+    private final AtomicLong insertionCount = new AtomicLong();
+
+    @Override
+    public Stream<StubMapping> getAll() {
+        return allMappings.stream();
+    }
+
+    @Override
+    public Optional<StubMapping> get(UUID id) {
+        return Optional.ofNullable(mappingsById.get(id));
+    }
+
+    @Override
+    public Stream<StubMapping> findAllMatchingRequest(Request request,
+                                                      Map<String, RequestMatcherExtension> customMatchers,
+                                                      Consumer<SubEvent> subEventConsumer) {
+        return candidatesFor(request).stream()
+                .map(stubMapping -> Map.entry(stubMapping, stubMapping.getRequest().match(request, customMatchers)))
+                .peek(matched -> matched.getValue().getSubEvents().forEach(subEventConsumer))
+                .filter(matched -> matched.getValue().isExactMatch())
+                .map(Map.Entry::getKey);
+    }
+
+    @Override
+    public synchronized void add(StubMapping stubMapping) {
+        stubMapping.setInsertionIndex(insertionCount.getAndIncrement());
+        index(stubMapping);
+    }
+
+    // Method to add a stub saved with its insertion index, such as a stub of a snapshot, keeping that index
+    public synchronized void restore(StubMapping stubMapping) {
+        insertionCount.accumulateAndGet(stubMapping.getInsertionIndex() + 1, Math::max);
+        index(stubMapping);
+    }
+
+    // Method to make the stubs added from now on newer than the stubs restored with lower insertion indexes
+    public void reserveInsertionIndexes(long nextInsertionIndex) {
+        insertionCount.accumulateAndGet(nextInsertionIndex, Math::max);
+    }
+
+    @Override
+    public synchronized void replace(StubMapping existing, StubMapping updated) {
+        // The updated stub keeps the insertion index given by WireMock
+        if (unindex(existing)) {
+            index(updated);
+        }
+    }
+
+    @Override
+    public synchronized void remove(StubMapping stubMapping) {
+        // Removes every stub with the id, or else every stub with an equal request pattern, as WireMock's own store does
+        List<StubMapping> removed = allMappings.stream()
+                .filter(candidate -> stubMapping.getId() != null && stubMapping.getId().equals(candidate.getId()))
+                .toList();
+        if (removed.isEmpty()) {
+            removed = allMappings.stream()
+                    .filter(candidate -> candidate.getRequest().equals(stubMapping.getRequest()))
+                    .toList();
+        }
+        removed.forEach(this::unindex);
+    }
+
+    @Override
+    public synchronized void clear() {
+        allMappings.clear();
+        mappingsById.clear();
+        urlIndex.clear();
+        urlPathIndex.clear();
+        residualMappings.clear();
+    }
+
+    // Method to count the stubs held in the method and URL index
+    public int getIndexedCount() {
+        return allMappings.size() - residualMappings.size();
+    }
+
+    // Method to count the stubs evaluated for every request
+    public int getResidualCount() {
+        return residualMappings.size();
+    }
+
+    // Method to count the stubs evaluated for a request
+    public int countCandidates(Request request) {
+        return candidatesFor(request).size();
+    }
+
+    // Method to collect the stubs worth evaluating for a request, in matching order
+    private List<StubMapping> candidatesFor(Request request) {
+        String method = request.getMethod().getName();
+        String url = request.getUrl();
+        String path = Urls.getPath(url);
+
+        List<StubMapping> candidates = new ArrayList<>(residualMappings);
+        addAll(candidates, urlIndex.get(key(method, url)));
+        addAll(candidates, urlIndex.get(key(ANY_METHOD, url)));
+        addAll(candidates, urlPathIndex.get(key(method, path)));
+        addAll(candidates, urlPathIndex.get(key(ANY_METHOD, path)));
+
+        // Skips sorting when every candidate came from the residual list, which is already ordered
+        if (candidates.size() > residualMappings.size()) {
+            candidates.sort(PRIORITY_ORDER);
+        }
+        return candidates;
+    }
+
+    // Method to add the stubs of an index entry to the candidates
+    private static void addAll(List<StubMapping> candidates, Set<StubMapping> indexed) {
+        if (indexed != null) {
+            candidates.addAll(indexed);
+        }
+    }
+
+    // Method to add a stub to the store and to its index entry
+    private void index(StubMapping stubMapping) {
+        allMappings.add(stubMapping);
+        if (stubMapping.getId() != null) {
+            mappingsById.put(stubMapping.getId(), stubMapping);
+        }
+
+        RequestPattern requestPattern = stubMapping.getRequest();
+        if (!isIndexable(requestPattern)) {
+            residualMappings.add(stubMapping);
+            return;
+        }
+        indexOf(requestPattern)
+                .computeIfAbsent(keyOf(requestPattern), key -> new ConcurrentSkipListSet<>(PRIORITY_ORDER))
+                .add(stubMapping);
+    }
+
+    // Method to remove a stub from the store and from its index entry
+    private boolean unindex(StubMapping stubMapping) {
+        if (!allMappings.remove(stubMapping)) {
+            return false;
+        }
+        if (stubMapping.getId() != null) {
+            mappingsById.remove(stubMapping.getId(), stubMapping);
+        }
+
+        RequestPattern requestPattern = stubMapping.getRequest();
+        if (!isIndexable(requestPattern)) {
+            residualMappings.remove(stubMapping);
+            return true;
+        }
+        Map<String, Set<StubMapping>> index = indexOf(requestPattern);
+        String key = keyOf(requestPattern);
+        Set<StubMapping> indexed = index.get(key);
+        if (indexed != null) {
+            indexed.remove(stubMapping);
+            // Drops empty entries so that the index does not grow with removed URLs
+            if (indexed.isEmpty()) {
+                index.remove(key, indexed);
+            }
+        }
+        return true;
+    }
+
+    // Method to check whether a stub can be found by method and exact URL or path
+    public static boolean isIndexable(RequestPattern requestPattern) {
+        if (requestPattern == null || requestPattern.getMethod() == null || requestPattern.hasInlineCustomMatcher()) {
+            return false;
+        }
+        if (requestPattern.getUrl() == null && requestPattern.getUrlPath() == null) {
+            return false;
+        }
+        // Only case-sensitive equality gives the same result as an exact key lookup
+        return requestPattern.getUrlMatcher().getPattern() instanceof EqualToPattern equalTo
+                && !Boolean.TRUE.equals(equalTo.getCaseInsensitive());
+    }
+
+    // Method to select the index of an indexable stub
+    private Map<String, Set<StubMapping>> indexOf(RequestPattern requestPattern) {
+        return requestPattern.getUrl() != null ? urlIndex : urlPathIndex;
+    }
+
+    // Method to build the index key of an indexable stub
+    private static String keyOf(RequestPattern requestPattern) {
+        String url = requestPattern.getUrl() != null ? requestPattern.getUrl() : requestPattern.getUrlPath();
+        return key(requestPattern.getMethod().getName(), url);
+    }
+
+    // Method to build an index key from a method and a URL
+    private static String key(String method, String url) {
+        return method + " " + url;
+    }
+
+}
@@ -0,0 +1,173 @@
+package qa.wiremock.concepts.matching;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import qa.wiremock.concepts.parallel.WireMockServerPool;
+import qa.wiremock.concepts.stores.ConceptStores;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * This code verifies that the IndexedStubMappingStore matches the same stubs
+ * as WireMock's linear lookup.
+ * It mixes exact URL and URL path stubs, which are indexed, with regex and
+ * anyUrl stubs, which stay in the residual list, and checks that priority,
+ * the most recently added stub, query strings and stub removal (by id, or
+ * of every stub with an equal request pattern) behave as usual.
+ *
+ * @author Jagatheshwaran N
+ */
+public class IndexedStubMappingStoreTest {
+
+    // Stores of the server, to read the index statistics
+    private static ConceptStores stores;
+
+    // Instance of WireMockServer
+    private static WireMockServer wireMockServer;
+
+    // WireMock client bound to this class's server instance
+    private static WireMock wireMock;
+
+    // Method to start a server backed by the indexed stub store
+    @BeforeClass
+    public void startupServer() {
+        WireMockConfiguration options = WireMockConfiguration.options();
+        stores = new ConceptStores(options.filesRoot()).withIndexedStubStore();
+        wireMockServer = WireMockServerPool.acquire(options.withStores(stores));
+        wireMock = WireMockServerPool.clientFor(wireMockServer);
+    }
+
+    // Method to shut down the WireMock server after test execution
+    @AfterClass
+    public void shutdownServer() {
+        WireMockServerPool.release(wireMockServer);
+    }
+
+    // Method to drop the stubs of a test and reload the default mappings, without touching the mapping files
+    @AfterMethod
+    public void resetStubs() {
+        wireMockServer.resetAll();
+    }
+
+    // Test method to verify that indexed and residual stubs are told apart
+    @Test
+    public void testIndexedAndResidualStubs() {
+        int indexedBefore = stores.getIndexedStubStore().getIndexedCount();
+        int residualBefore = stores.getIndexedStubStore().getResidualCount();
+        wireMock.register(WireMock.get(WireMock.urlEqualTo("/movies?page=1")).willReturn(WireMock.ok()));
+        wireMock.register(WireMock.get(WireMock.urlPathEqualTo("/movies/1")).willReturn(WireMock.ok()));
+        wireMock.register(WireMock.get(WireMock.urlPathMatching("/movies/[0-9]+")).willReturn(WireMock.ok()));
+        wireMock.register(WireMock.any(WireMock.anyUrl()).willReturn(WireMock.ok()));
+
+        // Assert that only the exact URL and URL path stubs are indexed
+        Assert.assertEquals(stores.getIndexedStubStore().getIndexedCount(), indexedBefore + 2);
+        Assert.assertEquals(stores.getIndexedStubStore().getResidualCount(), residualBefore + 2);
+    }
+
+    // Test method to verify that a higher priority residual stub wins over an indexed stub
+    @Test
+    public void testPriorityAcrossIndexAndResidualList() {
+        wireMock.register(WireMock.get(WireMock.urlPathEqualTo("/movies/1"))
+                .willReturn(WireMock.ok("indexed")));
+        wireMock.register(WireMock.get(WireMock.urlPathMatching("/movies/.*"))
+                .atPriority(1)
+                .willReturn(WireMock.ok("regex")));
+        wireMock.register(WireMock.any(WireMock.anyUrl())
+                .atPriority(10)
+                .willReturn(WireMock.ok("fallback")));
+
+        // Assert that the priority 1 regex stub wins and the catch-all serves the other URLs
+        Assert.assertEquals(get("/movies/1"), "regex");
+        Assert.assertEquals(get("/cart-items"), "fallback");
+    }
+
+    // Test method to verify that the most recently added stub wins among stubs of equal priority
+    @Test
+    public void testMostRecentStubWins() {
+        wireMock.register(WireMock.any(WireMock.urlPathMatching("/user/.*"))
+                .willReturn(WireMock.ok("residual")));
+        wireMock.register(WireMock.get(WireMock.urlPathEqualTo("/user/emp101"))
+                .willReturn(WireMock.ok("first")));
+        wireMock.register(WireMock.get(WireMock.urlPathEqualTo("/user/emp101"))
+                .willReturn(WireMock.ok("second")));
+
+        // Assert that the newest indexed stub is matched first
+        Assert.assertEquals(get("/user/emp101"), "second");
+
+        // Register a newer residual stub, which then comes before both indexed stubs
+        wireMock.register(WireMock.any(WireMock.anyUrl()).willReturn(WireMock.ok("newest")));
+        Assert.assertEquals(get("/user/emp101"), "newest");
+    }
+
+    // Test method to verify that exact URL stubs include the query string and URL path stubs do not
+    @Test
+    public void testUrlAndUrlPathKeys() {
+        // The exact URL stub is added last, so it comes before the URL path stub that also matches it
+        wireMock.register(WireMock.get(WireMock.urlPathEqualTo("/movies")).willReturn(WireMock.ok("path")));
+        wireMock.register(WireMock.get(WireMock.urlEqualTo("/movies?page=2")).willReturn(WireMock.ok("page")));
+        wireMock.register(WireMock.post(WireMock.urlPathEqualTo("/movies")).willReturn(WireMock.ok("post")));
+
+        // Assert that the query string selects the exact URL stub and any other query the path stub
+        Assert.assertEquals(get("/movies?page=2"), "page");
+        Assert.assertEquals(get("/movies?page=3"), "path");
+
+        // Assert that the HTTP method is part of the index key
+        Assert.assertEquals(given().when().post(url("/movies")).then().extract().asString(), "post");
+        given().when().put(url("/movies")).then().statusCode(404);
+    }
+
+    // Test method to verify that a removed stub is no longer matched
+    @Test
+    public void testRemovedStubIsNotMatched() {
+        StubMapping stubMapping = wireMock.register(WireMock.delete(WireMock.urlPathEqualTo("/user/emp101"))
+                .willReturn(WireMock.ok()));
+        given().when().delete(url("/user/emp101")).then().statusCode(200);
+
+        wireMock.removeStubMapping(stubMapping);
+
+        // Assert that the removed stub is gone from both the store and the index
+        given().when().delete(url("/user/emp101")).then().statusCode(404);
+        Assert.assertTrue(stores.getIndexedStubStore().get(stubMapping.getId()).isEmpty());
+    }
+
+    // Test method to verify that removing by request pattern drops every equal stub, including those of any method
+    @Test
+    public void testRemoveByRequestPatternDropsEveryEqualStub() {
+        int indexedBefore = stores.getIndexedStubStore().getIndexedCount();
+        wireMock.register(WireMock.any(WireMock.urlPathEqualTo("/reports/daily")).willReturn(WireMock.ok("first")));
+        wireMock.register(WireMock.any(WireMock.urlPathEqualTo("/reports/daily")).willReturn(WireMock.ok("second")));
+        wireMock.register(WireMock.get(WireMock.urlPathEqualTo("/reports/weekly")).willReturn(WireMock.ok("weekly")));
+
+        // Assert that the stubs of any method are indexed and matched for every method
+        Assert.assertEquals(stores.getIndexedStubStore().getIndexedCount(), indexedBefore + 3);
+        Assert.assertEquals(get("/reports/daily"), "second");
+        Assert.assertEquals(given().when().post(url("/reports/daily")).then().extract().asString(), "second");
+
+        // Removes with a stub of the same request pattern and an id of its own
+        wireMockServer.removeStubMapping(WireMock.any(WireMock.urlPathEqualTo("/reports/daily"))
+                .willReturn(WireMock.ok()).build());
+
+        // Assert that both equal stubs are gone from the index, and the other stub is kept
+        Assert.assertEquals(stores.getIndexedStubStore().getIndexedCount(), indexedBefore + 1);
+        given().when().get(url("/reports/daily")).then().statusCode(404);
+        Assert.assertEquals(get("/reports/weekly"), "weekly");
+    }
+
+    // Method to send a GET request and return the response body
+    private static String get(String path) {
+        return given().when().get(url(path)).then().statusCode(200).extract().asString();
+    }
+
+    // Method to build the URL of a path on this class's server
+    private static String url(String path) {
+        return WireMockServerPool.baseUrlOf(wireMockServer) + path;
+    }
+
+}
@@ -0,0 +1,377 @@
+package qa.wiremock.concepts.metrics;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.tomakehurst.wiremock.admin.Router;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.common.Json;
+import com.github.tomakehurst.wiremock.common.Timing;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.extension.AdminApiExtension;
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.extension.ServeEventListener;
+import com.github.tomakehurst.wiremock.http.LoggedResponse;
+import com.github.tomakehurst.wiremock.http.RequestMethod;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import com.github.tomakehurst.wiremock.matching.RequestPattern;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This code keeps metrics for every stub of a server: the requests it served
+ * per response status, and HdrHistogram latency recorders for each phase of
+ * serving a request:
+ * - match: finding the stub of the request;
+ * - render: building the response, transformers included;
+ * - delay: the delay configured on the stub;
+ * - write: sending the response, the configured delay excluded when it was
+ * slept on the request thread. With asynchronous responses, the delay and
+ * the write happen later on another thread, so this is only the handover.
+ * Requests matching no stub are kept under the "unmatched" stub.
+ * <p>
+ * The phases are timed on the request thread from the serve event listener
+ * callbacks and recorded with wait-free writes. Reading the clock and
+ * recording four phases still costs a few hundred ns, so the phases of one
+ * request in sampleEvery (16 by default), drawn at random, are recorded,
+ * while the requests are all counted; this keeps the cost of a busy stub
+ * below 100 ns per request (StubMetricsBenchmark). Use new StubMetrics(1) to
+ * record them all.
+ * The metrics are served by the admin API:
+ * - GET /__admin/metrics: Prometheus text format, phases as summaries in seconds;
+ * - GET /__admin/metrics/json: JSON, phases in microseconds;
+ * - DELETE /__admin/metrics: forgets every metric.
+ * <p>
+ * Register it with StubMetrics.configure(options, stubMetrics).
+ *
+ * @author Jagatheshwaran N
+ */
+public class StubMetrics implements ServeEventListener, AdminApiExtension {
+
+    // Name of the extension
+    public static final String NAME = "stub-metrics";
+
+    // Key of the requests matching no stub
+    public static final String UNMATCHED = "unmatched";
+
+    // Phases of serving a request, in order
+    public static final List<String> PHASES = List.of("match", "render", "delay", "write");
+
+    // Quantiles exported for each phase
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    // Default share of the requests whose phases are recorded, one in this many
+    public static final int DEFAULT_SAMPLE_EVERY = 16;
+
+    // Significant digits of the histograms, 1% precision keeping them small
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    // Content type of the Prometheus text format
+    private static final String PROMETHEUS_CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    // Start of the phases of the request being served by the current thread, 0 when it is not sampled
+    private static final ThreadLocal<long[]> PHASE_STARTS = ThreadLocal.withInitial(() -> new long[3]);
+
+    // Share of the requests whose phases are recorded, one in this many
+    private final int sampleEvery;
+
+    // Metrics of each stub, keyed by stub id
+    private final Map<UUID, Metrics> metricsByStub = new ConcurrentHashMap<>();
+
+    // Metrics of the requests matching no stub
+    private volatile Metrics unmatched = new Metrics(null);
+
+    // Constructor of metrics recording the phases of one request in DEFAULT_SAMPLE_EVERY
+    public StubMetrics() {
+        this(DEFAULT_SAMPLE_EVERY);
+    }
+
+    // Constructor of metrics recording the phases of one request in sampleEvery
+    public StubMetrics(int sampleEvery) {
+        if (sampleEvery < 1) {
+            throw new IllegalArgumentException("Sample rate must be at least 1, was " + sampleEvery);
+        }
+        this.sampleEvery = sampleEvery;
+    }
+
+    // Method to register the metrics on server options
+    public static WireMockConfiguration configure(WireMockConfiguration options, StubMetrics stubMetrics) {
+        return options.extensions(stubMetrics);
+    }
+
+    @Override
+    public void beforeMatch(ServeEvent serveEvent, Parameters parameters) {
+        boolean sampled = sampleEvery == 1 || ThreadLocalRandom.current().nextInt(sampleEvery) == 0;
+        PHASE_STARTS.get()[0] = sampled ? System.nanoTime() : 0;
+    }
+
+    @Override
+    public void afterMatch(ServeEvent serveEvent, Parameters parameters) {
+        long[] starts = PHASE_STARTS.get();
+        if (starts[0] != 0) {
+            starts[1] = System.nanoTime();
+        }
+    }
+
+    @Override
+    public void beforeResponseSent(ServeEvent serveEvent, Parameters parameters) {
+        long[] starts = PHASE_STARTS.get();
+        if (starts[0] != 0) {
+            starts[2] = System.nanoTime();
+        }
+    }
+
+    // Counts the request once its response is sent, and records its phases when it is sampled
+    @Override
+    public void afterComplete(ServeEvent serveEvent, Parameters parameters) {
+        Metrics metrics = metricsOf(serveEvent);
+        LoggedResponse response = serveEvent.getResponse();
+        metrics.countStatus(response != null ? response.getStatus() : 0);
+
+        long[] starts = PHASE_STARTS.get();
+        if (starts[0] == 0) {
+            return;
+        }
+        long completed = System.nanoTime();
+        Timing timing = serveEvent.getTiming();
+        long delayNanos = timing != null && timing.getAddedDelay() != null
+                ? TimeUnit.MILLISECONDS.toNanos(timing.getAddedDelay()) : 0;
+        long sendNanos = completed - starts[2];
+        metrics.record(starts[1] - starts[0], starts[2] - starts[1], delayNanos,
+                sendNanos >= delayNanos ? sendNanos - delayNanos : sendNanos);
+        starts[0] = 0;
+    }
+
+    // Applies to every stub of the server
+    @Override
+    public boolean applyGlobally() {
+        return true;
+    }
+
+    @Override
+    public void contributeAdminApiRoutes(Router router) {
+        router.add(RequestMethod.GET, "/metrics", (admin, serveEvent, pathParams) -> ResponseDefinitionBuilder.responseDefinition()
+                .withStatus(200)
+                .withHeader("Content-Type", PROMETHEUS_CONTENT_TYPE)
+                .withBody(toPrometheus())
+                .build());
+        router.add(RequestMethod.GET, "/metrics/json", (admin, serveEvent, pathParams) -> ResponseDefinitionBuilder.responseDefinition()
+                .withStatus(200)
+                .withHeader("Content-Type", "application/json")
+                .withBody(Json.write(toJson()))
+                .build());
+        router.add(RequestMethod.DELETE, "/metrics", (admin, serveEvent, pathParams) -> {
+            reset();
+            return ResponseDefinition.ok();
+        });
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    // Method to return the number of requests served by a stub
+    public long getRequestCount(UUID stubId) {
+        Metrics metrics = metricsByStub.get(stubId);
+        return metrics == null ? 0 : metrics.requests();
+    }
+
+    // Method to return a copy of the latency histogram of a phase of a stub, in nanoseconds
+    public Optional<Histogram> getHistogram(UUID stubId, String phase) {
+        Metrics metrics = metricsByStub.get(stubId);
+        return metrics == null ? Optional.empty() : Optional.of(metrics.snapshot().get(PHASES.indexOf(phase)));
+    }
+
+    // Method to forget every metric
+    public void reset() {
+        metricsByStub.clear();
+        unmatched = new Metrics(null);
+    }
+
+    // Method to render the metrics in the Prometheus text format
+    public String toPrometheus() {
+        StringBuilder requests = new StringBuilder()
+                .append("# HELP wiremock_stub_requests_total Requests served by each stub, per response status.\n")
+                .append("# TYPE wiremock_stub_requests_total counter\n");
+        StringBuilder phases = new StringBuilder()
+                .append("# HELP wiremock_stub_phase_seconds Time spent in each phase of serving a request, over the sampled requests.\n")
+                .append("# TYPE wiremock_stub_phase_seconds summary\n");
+        for (Metrics metrics : allMetrics()) {
+            String labels = "stub=\"" + metrics.key() + "\",request=\"" + escape(metrics.describe()) + "\"";
+            metrics.statuses.forEach((status, count) -> requests.append("wiremock_stub_requests_total{")
+                    .append(labels).append(",status=\"").append(status).append("\"} ").append(count.sum()).append('\n'));
+
+            List<Histogram> histograms = metrics.snapshot();
+            for (int phase = 0; phase < PHASES.size(); phase++) {
+                Histogram histogram = histograms.get(phase);
+                String phaseLabels = labels + ",phase=\"" + PHASES.get(phase) + "\"";
+                for (double quantile : QUANTILES) {
+                    phases.append("wiremock_stub_phase_seconds{").append(phaseLabels).append(",quantile=\"").append(quantile)
+                            .append("\"} ").append(seconds(histogram.getValueAtPercentile(quantile * 100))).append('\n');
+                }
+                phases.append("wiremock_stub_phase_seconds_sum{").append(phaseLabels).append("} ")
+                        .append(seconds(histogram.getMean() * histogram.getTotalCount())).append('\n');
+                phases.append("wiremock_stub_phase_seconds_count{").append(phaseLabels).append("} ")
+                        .append(histogram.getTotalCount()).append('\n');
+            }
+        }
+        return requests.append(phases).toString();
+    }
+
+    // Method to render the metrics as JSON, with the phases in microseconds
+    public ObjectNode toJson() {
+        ObjectNode root = Json.getObjectMapper().createObjectNode();
+        ArrayNode stubs = root.putArray("stubs");
+        for (Metrics metrics : allMetrics()) {
+            ObjectNode stub = stubs.addObject();
+            stub.put("id", metrics.key());
+            stub.put("request", metrics.describe());
+            stub.put("requests", metrics.requests());
+            stub.put("sampleEvery", sampleEvery);
+            ObjectNode statuses = stub.putObject("statuses");
+            metrics.statuses.forEach((status, count) -> statuses.put(String.valueOf(status), count.sum()));
+
+            ObjectNode phases = stub.putObject("phasesMicros");
+            List<Histogram> histograms = metrics.snapshot();
+            for (int phase = 0; phase < PHASES.size(); phase++) {
+                Histogram histogram = histograms.get(phase);
+                ObjectNode summary = phases.putObject(PHASES.get(phase));
+                summary.put("count", histogram.getTotalCount());
+                summary.put("mean", micros(histogram.getMean()));
+                summary.put("p50", micros(histogram.getValueAtPercentile(50)));
+                summary.put("p90", micros(histogram.getValueAtPercentile(90)));
+                summary.put("p99", micros(histogram.getValueAtPercentile(99)));
+                summary.put("p999", micros(histogram.getValueAtPercentile(99.9)));
+                summary.put("max", micros(histogram.getMaxValue()));
+            }
+        }
+        return root;
+    }
+
+    // Method to return the metrics of the stub of a serve event
+    private Metrics metricsOf(ServeEvent serveEvent) {
+        StubMapping stubMapping = serveEvent.getStubMapping();
+        if (!serveEvent.getWasMatched() || stubMapping == null || stubMapping.getId() == null) {
+            return unmatched;
+        }
+        Metrics metrics = metricsByStub.get(stubMapping.getId());
+        return metrics != null ? metrics : metricsByStub.computeIfAbsent(stubMapping.getId(), id -> new Metrics(stubMapping));
+    }
+
+    // Method to list the metrics of every stub, then those of the unmatched requests
+    private List<Metrics> allMetrics() {
+        List<Metrics> all = new ArrayList<>(metricsByStub.values());
+        if (unmatched.requests() > 0) {
+            all.add(unmatched);
+        }
+        return all;
+    }
+
+    // Method to convert nanoseconds to seconds
+    private static double seconds(double nanos) {
+        return nanos / TimeUnit.SECONDS.toNanos(1);
+    }
+
+    // Method to convert nanoseconds to microseconds, rounded to 0.1 us
+    private static double micros(double nanos) {
+        return Math.round(nanos / 100) / 10.0;
+    }
+
+    // Method to escape a Prometheus label value
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    /**
+     * Counters and latency recorders of one stub.
+     */
+    private static final class Metrics {
+
+        // Stub of the metrics, null for the unmatched requests
+        private final StubMapping stubMapping;
+
+        // Requests served per response status, 0 for a fault
+        private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+
+        // Recorders of the phases, written by the request threads
+        private final Recorder[] recorders = new Recorder[PHASES.size()];
+
+        // Histograms of the phases since the start, read by the scrapes
+        private final Histogram[] accumulated = new Histogram[PHASES.size()];
+
+        // Histograms recycled by the recorders between two scrapes
+        private final Histogram[] intervals = new Histogram[PHASES.size()];
+
+        private Metrics(StubMapping stubMapping) {
+            this.stubMapping = stubMapping;
+            for (int phase = 0; phase < PHASES.size(); phase++) {
+                recorders[phase] = new Recorder(SIGNIFICANT_DIGITS);
+                accumulated[phase] = new Histogram(SIGNIFICANT_DIGITS);
+            }
+        }
+
+        // Method to record the phases of a request, in nanoseconds
+        private void record(long matchNanos, long renderNanos, long delayNanos, long writeNanos) {
+            recorders[0].recordValue(Math.max(0, matchNanos));
+            recorders[1].recordValue(Math.max(0, renderNanos));
+            recorders[2].recordValue(delayNanos);
+            recorders[3].recordValue(Math.max(0, writeNanos));
+        }
+
+        // Method to count the status of a response
+        private void countStatus(int status) {
+            LongAdder count = statuses.get(status);
+            if (count == null) {
+                count = statuses.computeIfAbsent(status, key -> new LongAdder());
+            }
+            count.increment();
+        }
+
+        // Method to return the number of requests served
+        private long requests() {
+            return statuses.values().stream().mapToLong(LongAdder::sum).sum();
+        }
+
+        // Method to add what was recorded since the last scrape and copy the histograms of the phases
+        private synchronized List<Histogram> snapshot() {
+            List<Histogram> snapshot = new ArrayList<>(PHASES.size());
+            for (int phase = 0; phase < PHASES.size(); phase++) {
+                intervals[phase] = recorders[phase].getIntervalHistogram(intervals[phase]);
+                accumulated[phase].add(intervals[phase]);
+                snapshot.add(accumulated[phase].copy());
+            }
+            return snapshot;
+        }
+
+        // Method to return the key of the metrics
+        private String key() {
+            return stubMapping == null ? UNMATCHED : stubMapping.getId().toString();
+        }
+
+        // Method to describe the requests of the stub, such as "GET /user/emp101"
+        private String describe() {
+            if (stubMapping == null) {
+                return UNMATCHED;
+            }
+            if (stubMapping.getName() != null) {
+                return stubMapping.getName();
+            }
+            RequestPattern request = stubMapping.getRequest();
+            String url = request.getUrlMatcher() != null ? request.getUrlMatcher().getExpected() : "(any)";
+            return request.getMethod().getName() + " " + url;
+        }
+    }
+
+}
@@ -0,0 +1,108 @@
+package qa.wiremock.concepts.metrics;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import io.restassured.path.json.JsonPath;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import qa.wiremock.concepts.parallel.WireMockServerPool;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * This code verifies that StubMetrics counts the requests of each stub and
+ * records the latency of their phases, and serves them on the admin API in
+ * the Prometheus text format and as JSON.
+ *
+ * @author Jagatheshwaran N
+ */
+public class StubMetricsTest {
+
+    // Requests sent to each stub
+    private static final int REQUESTS = 20;
+
+    // Delay configured on the slow stub
+    private static final int DELAY_MILLIS = 100;
+
+    // Instance of WireMockServer
+    private static WireMockServer wireMockServer;
+
+    // Fast and slow stubs of the server
+    private static StubMapping employeeStub;
+    private static StubMapping reportStub;
+
+    // Method to start the WireMock server with the phases of every request recorded, and serve requests before test execution
+    @BeforeClass
+    public void startupServer() {
+        wireMockServer = WireMockServerPool.acquire(StubMetrics.configure(WireMockServerPool.defaultOptions(), new StubMetrics(1)));
+        WireMock client = WireMockServerPool.clientFor(wireMockServer);
+        employeeStub = client.register(WireMock.get("/user/emp101")
+                .willReturn(WireMock.okJson("{\"worker\": {\"id\": \"EMP101\"}}")));
+        reportStub = client.register(WireMock.get("/reports/daily")
+                .willReturn(WireMock.okJson("{\"report\": \"daily\"}").withFixedDelay(DELAY_MILLIS)));
+
+        String baseUrl = WireMockServerPool.baseUrlOf(wireMockServer);
+        for (int i = 0; i < REQUESTS; i++) {
+            given().baseUri(baseUrl).when().get("/user/emp101").then().statusCode(200);
+            given().baseUri(baseUrl).when().get("/reports/daily").then().statusCode(200);
+        }
+        given().baseUri(baseUrl).when().get("/user/unknown").then().statusCode(404);
+    }
+
+    // Method to shut down the WireMock server after test execution
+    @AfterClass
+    public void shutdownServer() {
+        WireMockServerPool.release(wireMockServer);
+    }
+
+    // Test method to verify the metrics in the Prometheus text format
+    @Test
+    public void testPrometheusMetrics() {
+        String metrics = given().baseUri(WireMockServerPool.baseUrlOf(wireMockServer))
+                .when().get("/__admin/metrics")
+                .then().statusCode(200).contentType("text/plain")
+                .extract().asString();
+        System.out.println(metrics);
+
+        // Assert that the requests are counted per stub and status, the unmatched one included
+        Assert.assertTrue(metrics.contains("# TYPE wiremock_stub_requests_total counter"));
+        Assert.assertTrue(metrics.contains("wiremock_stub_requests_total{stub=\"" + employeeStub.getId()
+                + "\",request=\"GET /user/emp101\",status=\"200\"} " + REQUESTS));
+        Assert.assertTrue(metrics.contains("wiremock_stub_requests_total{stub=\"unmatched\",request=\"unmatched\",status=\"404\"} 1"));
+
+        // Assert that every phase of the slow stub is summarised, with the configured delay
+        Assert.assertTrue(metrics.contains("# TYPE wiremock_stub_phase_seconds summary"));
+        for (String phase : StubMetrics.PHASES) {
+            Assert.assertTrue(metrics.contains("wiremock_stub_phase_seconds_count{stub=\"" + reportStub.getId()
+                    + "\",request=\"GET /reports/daily\",phase=\"" + phase + "\"} " + REQUESTS), phase);
+        }
+        Assert.assertTrue(metrics.contains("wiremock_stub_phase_seconds{stub=\"" + reportStub.getId()
+                + "\",request=\"GET /reports/daily\",phase=\"delay\",quantile=\"0.5\"} 0.1"));
+    }
+
+    // Test method to verify the metrics as JSON
+    @Test
+    public void testJsonMetrics() {
+        JsonPath metrics = given().baseUri(WireMockServerPool.baseUrlOf(wireMockServer))
+                .when().get("/__admin/metrics/json")
+                .then().statusCode(200)
+                .extract().jsonPath();
+        String employee = "stubs.find { it.id == '" + employeeStub.getId() + "' }";
+        String report = "stubs.find { it.id == '" + reportStub.getId() + "' }";
+
+        // Assert that the requests and their statuses are counted per stub
+        Assert.assertEquals(metrics.getInt(employee + ".requests"), REQUESTS);
+        Assert.assertEquals(metrics.getInt(employee + ".statuses.200"), REQUESTS);
+        Assert.assertEquals(metrics.getString(employee + ".request"), "GET /user/emp101");
+
+        // Assert that the phases are recorded, the delay of the slow stub within the 1% precision of the histograms
+        Assert.assertEquals(metrics.getInt(employee + ".phasesMicros.match.count"), REQUESTS);
+        Assert.assertTrue(metrics.getDouble(employee + ".phasesMicros.render.p50") > 0);
+        Assert.assertEquals(metrics.getDouble(employee + ".phasesMicros.delay.max"), 0.0);
+        Assert.assertEquals(metrics.getDouble(report + ".phasesMicros.delay.p50"), DELAY_MILLIS * 1000.0, DELAY_MILLIS * 10.0);
+    }
+
+}
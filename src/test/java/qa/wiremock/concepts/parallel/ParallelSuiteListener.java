@@ -0,0 +1,37 @@
+package qa.wiremock.concepts.parallel;
+
+import org.testng.IAlterSuiteListener;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.util.List;
+
+/**
+ * This code sizes the parallel TestNG suite to the machine it runs on.
+ * TestNG suite files only accept a fixed thread count, so this listener replaces
+ * it with the number of available processors, letting the concept test classes
+ * (each owning a server from the WireMockServerPool) run across all cores.
+ * An explicit count can still be forced with the "suite.threads" system property.
+ *
+ * @author Jagatheshwaran N
+ */
+public class ParallelSuiteListener implements IAlterSuiteListener {
+
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        // Resolve the thread count from the system property or the available processors
+        int threadCount = Integer.getInteger("suite.threads", Runtime.getRuntime().availableProcessors());
+
+        for (XmlSuite suite : suites) {
+            // Only alters suites that already ask for parallel execution
+            if (suite.getParallel() == null || !suite.getParallel().isParallel()) {
+                continue;
+            }
+            suite.setThreadCount(threadCount);
+            for (XmlTest test : suite.getTests()) {
+                test.setThreadCount(threadCount);
+            }
+        }
+    }
+
+}
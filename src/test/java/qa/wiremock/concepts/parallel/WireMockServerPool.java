@@ -0,0 +1,142 @@
+package qa.wiremock.concepts.parallel;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import qa.wiremock.concepts.lifecycle.SharedWireMockServer;
+
+import java.util.Deque;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+/**
+ * This code provides a pool of WireMock servers so that every test class can
+ * own its server instance instead of sharing the fixed port 8080.
+ * Each server is started on a free (dynamic) port and is handed out together
+ * with a WireMock client bound to that instance, so test classes no longer rely
+ * on the static global client configured through WireMock.configureFor().
+ * Servers built from the default configuration, WireMock's own defaults, are
+ * reset and kept for reuse when released, while servers built from a custom
+ * configuration are stopped. The optional server features (ConceptStores,
+ * cached response templating, non-blocking delays, JFR pipeline events) are
+ * never part of the defaults: a test opts in with a custom configuration, so
+ * the baseline tests keep measuring plain WireMock.
+ * This allows the concept tests to run in parallel without port collisions.
+ * When a suite-scoped SharedWireMockServer is running (sequential suites), the
+ * pool hands out that server instead and leaves its reset to the suite listener.
+ *
+ * @author Jagatheshwaran N
+ */
+public final class WireMockServerPool {
+
+    // Constant for host
+    private static final String HOST = "localhost";
+
+    // Started servers with the default configuration waiting to be reused
+    private static final Deque<WireMockServer> IDLE_SERVERS = new ConcurrentLinkedDeque<>();
+
+    // Servers started from a custom configuration, which are never reused
+    private static final Set<WireMockServer> DEDICATED_SERVERS = ConcurrentHashMap.newKeySet();
+
+    // Every server started by the pool, used to stop them all on JVM exit
+    private static final Set<WireMockServer> ALL_SERVERS = ConcurrentHashMap.newKeySet();
+
+    // WireMock clients bound to each server of the pool
+    private static final Map<WireMockServer, WireMock> CLIENTS = new ConcurrentHashMap<>();
+
+    static {
+        // Stops any server still running when the JVM exits
+        Runtime.getRuntime().addShutdownHook(new Thread(WireMockServerPool::shutdownAll, "wiremock-pool-shutdown"));
+    }
+
+    private WireMockServerPool() {
+    }
+
+    // Method to acquire a running server with the default configuration on a free port
+    public static WireMockServer acquire() {
+        // Hands out the suite-scoped shared server when one is running
+        if (SharedWireMockServer.isRunning()) {
+            return SharedWireMockServer.server();
+        }
+
+        // Reuses an idle server when one is available, discarding any that stopped while idle
+        for (WireMockServer wireMockServer = IDLE_SERVERS.pollFirst(); wireMockServer != null;
+             wireMockServer = IDLE_SERVERS.pollFirst()) {
+            if (wireMockServer.isRunning()) {
+                return wireMockServer;
+            }
+            discard(wireMockServer);
+        }
+
+        // Otherwise starts a new server with the default configuration
+        return start(defaultOptions());
+    }
+
+    // Method to build the default configuration of the pool's servers, WireMock's own defaults
+    public static WireMockConfiguration defaultOptions() {
+        return WireMockConfiguration.options();
+    }
+
+    // Method to acquire a dedicated running server built from the given configuration on a free port
+    public static WireMockServer acquire(WireMockConfiguration options) {
+        WireMockServer wireMockServer = start(options);
+        DEDICATED_SERVERS.add(wireMockServer);
+        return wireMockServer;
+    }
+
+    // Method to return the WireMock client bound to a server of the pool
+    public static WireMock clientFor(WireMockServer wireMockServer) {
+        return CLIENTS.computeIfAbsent(wireMockServer, server -> new WireMock(HOST, server.port()));
+    }
+
+    // Method to build the base URL of a server of the pool
+    public static String baseUrlOf(WireMockServer wireMockServer) {
+        return String.format("http://%s:%d", HOST, wireMockServer.port());
+    }
+
+    // Method to give a server back to the pool once the test class is done with it
+    public static void release(WireMockServer wireMockServer) {
+        // The shared server is reset by the suite listener before the next class
+        if (wireMockServer == null || SharedWireMockServer.isShared(wireMockServer)) {
+            return;
+        }
+
+        // Dedicated or already stopped servers are discarded
+        if (DEDICATED_SERVERS.remove(wireMockServer) || !wireMockServer.isRunning()) {
+            discard(wireMockServer);
+            return;
+        }
+
+        // Clears stubs, scenarios and the request journal before the server is reused
+        wireMockServer.resetAll();
+        IDLE_SERVERS.offerFirst(wireMockServer);
+    }
+
+    // Method to stop every server started by the pool
+    public static void shutdownAll() {
+        IDLE_SERVERS.clear();
+        DEDICATED_SERVERS.clear();
+        ALL_SERVERS.forEach(WireMockServerPool::discard);
+    }
+
+    // Method to start a server on a free port from the given configuration
+    private static WireMockServer start(WireMockConfiguration options) {
+        // Always binds to a dynamic port so that parallel classes never collide
+        WireMockServer wireMockServer = new WireMockServer(options.dynamicPort());
+        wireMockServer.start();
+        ALL_SERVERS.add(wireMockServer);
+        return wireMockServer;
+    }
+
+    // Method to stop a server and forget its client
+    private static void discard(WireMockServer wireMockServer) {
+        ALL_SERVERS.remove(wireMockServer);
+        CLIENTS.remove(wireMockServer);
+        if (wireMockServer.isRunning()) {
+            wireMockServer.stop();
+        }
+    }
+
+}
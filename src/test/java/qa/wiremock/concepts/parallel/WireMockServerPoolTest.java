@@ -0,0 +1,126 @@
+package qa.wiremock.concepts.parallel;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import io.restassured.response.ValidatableResponse;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * This code verifies the WireMockServerPool used to run the concept tests in
+ * parallel.
+ * It acquires several servers concurrently and checks that each one listens on
+ * its own free port, that the WireMock client handed out with a server only
+ * registers stubs on that instance, and that a server comes back from the pool
+ * without the stubs and requests of its previous owner.
+ * The pool is shared with the classes running in parallel, which may take a
+ * released server first, so the tests check the state of whatever server the
+ * pool hands out rather than which one it is.
+ *
+ * @author Jagatheshwaran N
+ */
+public class WireMockServerPoolTest {
+
+    // Number of servers acquired concurrently
+    private static final int SERVER_COUNT = 4;
+
+    // Servers acquired from the pool for this test class
+    private final List<WireMockServer> wireMockServers = new ArrayList<>();
+
+    // Method to acquire several servers from the pool concurrently before test execution
+    @BeforeClass
+    public void acquireServers() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(SERVER_COUNT);
+        try {
+            // Acquires the servers from different threads, as parallel test classes would
+            List<Future<WireMockServer>> futures = new ArrayList<>();
+            for (int i = 0; i < SERVER_COUNT; i++) {
+                futures.add(executor.submit(() -> WireMockServerPool.acquire()));
+            }
+            for (Future<WireMockServer> future : futures) {
+                wireMockServers.add(future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    // Method to release the servers back to the pool after test execution
+    @AfterClass
+    public void releaseServers() {
+        wireMockServers.forEach(WireMockServerPool::release);
+    }
+
+    // Test method to verify that every acquired server runs on its own port
+    @Test(priority = 1)
+    public void testServersRunOnDistinctPorts() {
+        Set<Integer> ports = new HashSet<>();
+        for (WireMockServer wireMockServer : wireMockServers) {
+            Assert.assertTrue(wireMockServer.isRunning(), "Server from the pool is not running");
+            ports.add(wireMockServer.port());
+        }
+
+        // Assert that no two servers share a port
+        Assert.assertEquals(ports.size(), SERVER_COUNT, "Servers from the pool share a port");
+    }
+
+    // Test method to verify that each client only stubs its own server instance
+    @Test(priority = 2)
+    public void testClientIsBoundToItsServer() {
+        // Registers a different body on each server through its own client
+        for (int i = 0; i < wireMockServers.size(); i++) {
+            WireMock wireMock = WireMockServerPool.clientFor(wireMockServers.get(i));
+            wireMock.register(WireMock.get("/pool/owner")
+                    .willReturn(WireMock.aResponse().withStatus(200).withBody("server-" + i)));
+        }
+
+        // Verifies that each server answers with its own body
+        for (int i = 0; i < wireMockServers.size(); i++) {
+            String requestUrl = WireMockServerPool.baseUrlOf(wireMockServers.get(i)) + "/pool/owner";
+            ValidatableResponse response =
+                    given() // Start building the request specification
+                    .when() // Perform the action (in this case, an HTTP GET request)
+                            .get(requestUrl) // Specify the URL to send the GET request
+                    .then() // Start defining assertions on the response
+                            .statusCode(200); // Check that the response status code is 200 (OK)
+
+            Assert.assertEquals(response.extract().body().asString(), "server-" + i);
+        }
+    }
+
+    // Test method to verify that a released server is reset before it is handed out again
+    @Test(priority = 3)
+    public void testReleasedServerIsResetBeforeReuse() {
+        // Releases one server which still holds the stub registered and the requests sent above
+        WireMockServer released = wireMockServers.remove(0);
+        WireMockServerPool.release(released);
+
+        // Acquires a server again, most likely the released instance
+        WireMockServer reused = WireMockServerPool.acquire();
+        wireMockServers.add(reused);
+
+        // Assert that the server holds no stub and no request of a previous owner, only the default mappings
+        Assert.assertTrue(reused.getStubMappings().stream()
+                        .noneMatch(stub -> "/pool/owner".equals(stub.getRequest().getUrl())),
+                "Server from the pool still has the stub of its previous owner");
+        Assert.assertTrue(reused.getAllServeEvents().isEmpty(), "Server from the pool still has requests");
+        given()
+        .when()
+                .get(WireMockServerPool.baseUrlOf(reused) + "/pool/owner")
+        .then()
+                .statusCode(404);
+    }
+
+}
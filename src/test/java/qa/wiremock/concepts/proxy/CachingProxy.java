@@ -0,0 +1,350 @@
+package qa.wiremock.concepts.proxy;
+
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformerV2;
+import com.github.tomakehurst.wiremock.extension.ResponseTransformerV2;
+import com.github.tomakehurst.wiremock.http.HttpHeader;
+import com.github.tomakehurst.wiremock.http.HttpHeaders;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.RequestMethod;
+import com.github.tomakehurst.wiremock.http.Response;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This code turns a proxiedFrom(...) stub into a caching proxy, so that
+ * repeated requests are served from memory instead of paying an upstream
+ * round trip each time.
+ * Upstream responses are kept in a bounded LRU, keyed by the upstream base
+ * URL of the stub, method, URL and the request headers named in the
+ * "varyHeaders" transformer parameter (Accept by default), and follow the
+ * upstream Cache-Control and ETag:
+ * - max-age (or s-maxage) sets how long a response is served without asking,
+ * and responses without either are kept for the default TTL;
+ * - no-cache keeps the response but revalidates it on every request;
+ * - no-store and private responses are never kept, nor responses with a
+ * malformed max-age or s-maxage;
+ * - a stale response with an ETag is revalidated with If-None-Match, and a
+ * 304 from the upstream serves the cached body again.
+ * Only GET and HEAD requests without conditional headers of their own are
+ * cached. Every response carries an X-Cache header: HIT, MISS or REVALIDATED.
+ * Misses and revalidations go through WireMock's proxy, which already keeps
+ * pooled keep-alive connections to the upstream.
+ * <p>
+ * Register it with CachingProxy.configure(options, cachingProxy) and name it
+ * in the proxy stub with withTransformers(CachingProxy.NAME).
+ *
+ * @author Jagatheshwaran N
+ */
+public class CachingProxy implements ResponseDefinitionTransformerV2, ResponseTransformerV2 {
+
+    // Name of the extension, as transformer of the proxy stubs
+    public static final String NAME = "caching-proxy";
+
+    // Transformer parameter naming the request headers the responses vary on
+    public static final String VARY_HEADERS_PARAMETER = "varyHeaders";
+
+    // Response header telling how the response was served
+    public static final String CACHE_STATUS_HEADER = "X-Cache";
+
+    // Request headers the responses vary on when the stub names none
+    private static final List<String> DEFAULT_VARY_HEADERS = List.of("Accept");
+
+    // Upstream headers not kept with a cached response, as WireMock sets them again
+    private static final Set<String> SKIPPED_HEADERS = Set.of(
+            "transfer-encoding", "content-length", "connection", "keep-alive",
+            "matched-stub-id", "matched-stub-name", CACHE_STATUS_HEADER.toLowerCase(Locale.ROOT));
+
+    // Time to live of the responses that are never kept
+    private static final long NOT_STORED = Long.MIN_VALUE;
+
+    // Maximum number of cached responses
+    private final int maxEntries;
+
+    // Time a response without max-age is served without asking the upstream
+    private final long defaultTtlNanos;
+
+    // Cached responses, least recently used first, guarded by itself
+    private final LinkedHashMap<String, CachedResponse> cache;
+
+    // Requests served from the cache, from the upstream, and revalidated with the upstream
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder revalidations = new LongAdder();
+
+    // Responses dropped to keep the cache within its maximum
+    private final LongAdder evictions = new LongAdder();
+
+    // Constructor of a caching proxy keeping up to maxEntries responses
+    public CachingProxy(int maxEntries, Duration defaultTtl) {
+        this.maxEntries = maxEntries;
+        this.defaultTtlNanos = defaultTtl.toNanos();
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                if (size() > CachingProxy.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    // Method to register the caching proxy on server options
+    public static WireMockConfiguration configure(WireMockConfiguration options, CachingProxy cachingProxy) {
+        return options.extensions(cachingProxy);
+    }
+
+    // Serves a fresh cached response, or asks the upstream to revalidate a stale one
+    @Override
+    public ResponseDefinition transform(ServeEvent serveEvent) {
+        ResponseDefinition responseDefinition = serveEvent.getResponseDefinition();
+        if (!responseDefinition.isProxyResponse() || !isCacheable(serveEvent.getRequest())) {
+            return responseDefinition;
+        }
+        CachedResponse cached = lookup(keyOf(responseDefinition, serveEvent.getRequest(), serveEvent.getTransformerParameters()));
+        if (cached == null) {
+            return responseDefinition;
+        }
+        if (cached.isFreshAt(System.nanoTime())) {
+            hits.increment();
+            return ResponseDefinitionBuilder.responseDefinition()
+                    .withStatus(cached.status())
+                    .withHeaders(withCacheStatus(cached.headers(), "HIT"))
+                    .withBody(cached.body())
+                    .build();
+        }
+        if (cached.etag() == null) {
+            return responseDefinition;
+        }
+
+        // like() already copies the additional request headers of the stub
+        return ((ResponseDefinitionBuilder.ProxyResponseDefinitionBuilder) ResponseDefinitionBuilder.like(responseDefinition))
+                .withAdditionalRequestHeader("If-None-Match", cached.etag())
+                .build();
+    }
+
+    // Keeps the upstream response, or serves the cached body again when the upstream answered 304
+    @Override
+    public Response transform(Response response, ServeEvent serveEvent) {
+        ResponseDefinition responseDefinition = serveEvent.getResponseDefinition();
+        if (!responseDefinition.isProxyResponse() || !isCacheable(serveEvent.getRequest())) {
+            return response;
+        }
+        String key = keyOf(responseDefinition, serveEvent.getRequest(), serveEvent.getTransformerParameters());
+        HttpHeaders additionalHeaders = responseDefinition.getAdditionalProxyRequestHeaders();
+        boolean revalidating = additionalHeaders != null && additionalHeaders.getHeader("If-None-Match").isPresent();
+
+        if (revalidating && response.getStatus() == 304) {
+            CachedResponse cached = lookup(key);
+            if (cached != null) {
+                revalidations.increment();
+                long ttlNanos = ttlNanosOf(response.getHeaders());
+                store(key, cached.refreshedAt(System.nanoTime(), ttlNanos < 0 ? cached.ttlNanos() : ttlNanos));
+                return Response.Builder.like(response).but()
+                        .status(cached.status())
+                        .headers(withCacheStatus(cached.headers(), "REVALIDATED"))
+                        .body(cached.body())
+                        .build();
+            }
+        }
+
+        misses.increment();
+        if (response.getStatus() == 200) {
+            long ttlNanos = ttlNanosOf(response.getHeaders());
+            String etag = response.getHeaders().getHeader("ETag").isPresent()
+                    ? response.getHeaders().getHeader("ETag").firstValue() : null;
+            if (ttlNanos == -1) {
+                ttlNanos = defaultTtlNanos;
+            }
+            if (ttlNanos != NOT_STORED && (ttlNanos > 0 || etag != null)) {
+                store(key, new CachedResponse(response.getStatus(), keptHeaders(response.getHeaders()),
+                        response.getBody(), etag, ttlNanos, System.nanoTime() + ttlNanos));
+            }
+        }
+        return Response.Builder.like(response).but().headers(withCacheStatus(response.getHeaders(), "MISS")).build();
+    }
+
+    // Applies only to the proxy stubs that name it
+    @Override
+    public boolean applyGlobally() {
+        return false;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    // Method to return the number of requests served from the cache
+    public long getHits() {
+        return hits.sum();
+    }
+
+    // Method to return the number of requests served from the upstream
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    // Method to return the number of cached responses revalidated with the upstream
+    public long getRevalidations() {
+        return revalidations.sum();
+    }
+
+    // Method to return the number of responses evicted as least recently used
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    // Method to return the share of cacheable requests served without an upstream round trip
+    public double getHitRatio() {
+        long lookups = hits.sum() + misses.sum() + revalidations.sum();
+        return lookups == 0 ? 0 : (double) hits.sum() / lookups;
+    }
+
+    // Method to return the number of cached responses
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("hits=%d, misses=%d, revalidations=%d, evictions=%d, hitRatio=%.3f",
+                getHits(), getMisses(), getRevalidations(), getEvictions(), getHitRatio());
+    }
+
+    // Method to read the time to live of a response from its Cache-Control, -1 when it sets none
+    private static long ttlNanosOf(HttpHeaders headers) {
+        HttpHeader cacheControl = headers.getHeader("Cache-Control");
+        if (!cacheControl.isPresent()) {
+            return -1;
+        }
+        long maxAgeSeconds = -1;
+        for (String value : cacheControl.values()) {
+            for (String directive : value.split(",")) {
+                String name = directive.trim().toLowerCase(Locale.ROOT);
+                if (name.equals("no-store") || name.equals("private")) {
+                    return NOT_STORED;
+                } else if (name.equals("no-cache")) {
+                    return 0;
+                } else if (name.startsWith("s-maxage=")) {
+                    maxAgeSeconds = secondsOf(name.substring("s-maxage=".length()));
+                } else if (name.startsWith("max-age=") && maxAgeSeconds < 0) {
+                    maxAgeSeconds = secondsOf(name.substring("max-age=".length()));
+                }
+                if (maxAgeSeconds == NOT_STORED) {
+                    return NOT_STORED;
+                }
+            }
+        }
+        return maxAgeSeconds < 0 ? -1 : TimeUnit.SECONDS.toNanos(maxAgeSeconds);
+    }
+
+    // Method to read the seconds of a max-age or s-maxage directive, NOT_STORED when they are malformed
+    private static long secondsOf(String value) {
+        try {
+            long seconds = Long.parseLong(value.trim());
+            return seconds < 0 ? NOT_STORED : seconds;
+        } catch (NumberFormatException e) {
+            return NOT_STORED;
+        }
+    }
+
+    // Method to check that a request is answered the same way each time it is sent
+    private static boolean isCacheable(Request request) {
+        RequestMethod method = request.getMethod();
+        return (method.equals(RequestMethod.GET) || method.equals(RequestMethod.HEAD))
+                && !request.containsHeader("If-None-Match")
+                && !request.containsHeader("If-Modified-Since");
+    }
+
+    // Method to build the cache key of a request from the upstream of its stub, its method, URL and vary headers
+    private static String keyOf(ResponseDefinition responseDefinition, Request request, Parameters parameters) {
+        StringBuilder key = new StringBuilder(request.getMethod().getName()).append(' ')
+                .append(responseDefinition.getProxyBaseUrl()).append(request.getUrl());
+        for (String header : varyHeadersOf(parameters)) {
+            HttpHeader value = request.header(header);
+            key.append('\n').append(header).append(": ").append(value.isPresent() ? String.join(",", value.values()) : "");
+        }
+        return key.toString();
+    }
+
+    // Method to read the vary headers of a stub, or the default ones
+    @SuppressWarnings("unchecked")
+    private static List<String> varyHeadersOf(Parameters parameters) {
+        if (parameters == null || !parameters.containsKey(VARY_HEADERS_PARAMETER)) {
+            return DEFAULT_VARY_HEADERS;
+        }
+        return (List<String>) parameters.get(VARY_HEADERS_PARAMETER);
+    }
+
+    // Method to keep the upstream headers that describe the response itself
+    private static HttpHeaders keptHeaders(HttpHeaders headers) {
+        List<HttpHeader> kept = new ArrayList<>();
+        for (HttpHeader header : headers.all()) {
+            if (!SKIPPED_HEADERS.contains(header.key().toLowerCase(Locale.ROOT))) {
+                kept.add(header);
+            }
+        }
+        return new HttpHeaders(kept);
+    }
+
+    // Method to add the X-Cache header to response headers
+    private static HttpHeaders withCacheStatus(HttpHeaders headers, String cacheStatus) {
+        List<HttpHeader> withStatus = new ArrayList<>();
+        for (HttpHeader header : headers.all()) {
+            if (!header.key().equalsIgnoreCase(CACHE_STATUS_HEADER)) {
+                withStatus.add(header);
+            }
+        }
+        withStatus.add(new HttpHeader(CACHE_STATUS_HEADER, cacheStatus));
+        return new HttpHeaders(withStatus);
+    }
+
+    // Method to look a cached response up, marking it as most recently used
+    private CachedResponse lookup(String key) {
+        synchronized (cache) {
+            return cache.get(key);
+        }
+    }
+
+    // Method to cache a response, evicting the least recently used one beyond the maximum
+    private void store(String key, CachedResponse cachedResponse) {
+        synchronized (cache) {
+            cache.put(key, cachedResponse);
+        }
+    }
+
+    /**
+     * Upstream response kept in the cache, fresh until its expiry.
+     */
+    private record CachedResponse(int status, HttpHeaders headers, byte[] body, String etag,
+                                  long ttlNanos, long expiresAtNanos) {
+
+        // Method to check that the response can be served without asking the upstream
+        boolean isFreshAt(long nanoTime) {
+            return nanoTime - expiresAtNanos < 0;
+        }
+
+        // Method to return the same response, fresh again after a 304 from the upstream
+        CachedResponse refreshedAt(long nanoTime, long ttlNanos) {
+            return new CachedResponse(status, headers, body, etag, ttlNanos, nanoTime + ttlNanos);
+        }
+    }
+
+}
@@ -0,0 +1,213 @@
+package qa.wiremock.concepts.proxy;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
+import io.restassured.response.Response;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import qa.wiremock.concepts.parallel.WireMockServerPool;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * This code verifies the CachingProxy against a local stand-in for the
+ * students upstream of WireMockProxyTest, which answers with the
+ * Cache-Control and ETag headers of the recorded mappings after a delay,
+ * and reports the hit ratio and the latency of hits and misses.
+ *
+ * @author Jagatheshwaran N
+ */
+public class CachingProxyTest {
+
+    // Delay of the stand-in upstream, as a slow remote service
+    private static final int UPSTREAM_DELAY_MILLIS = 200;
+
+    // Number of requests sent for the same student
+    private static final int REQUESTS = 20;
+
+    // Maximum number of responses of the caching proxy
+    private static final int MAX_ENTRIES = 4;
+
+    // Stand-in of the students upstream
+    private static WireMockServer upstreamServer;
+
+    // Stand-in of a second campus upstream, serving the same URLs
+    private static WireMockServer campusServer;
+
+    // Server proxying every request to the upstream through the cache
+    private static WireMockServer proxyServer;
+
+    // Caching proxy of the proxy server
+    private static CachingProxy cachingProxy;
+
+    // Method to start the upstream and the caching proxy before test execution
+    @BeforeClass
+    public void startupServer() {
+        upstreamServer = WireMockServerPool.acquire(WireMockServerPool.defaultOptions());
+        WireMock upstream = WireMockServerPool.clientFor(upstreamServer);
+        upstream.register(WireMock.get(WireMock.urlPathMatching("/students/[0-9]+"))
+                .willReturn(WireMock.okJson("{\"id\": 2, \"name\": \"Nandhini\"}")
+                        .withHeader("Cache-Control", "public, max-age=60")
+                        .withHeader("ETag", "\"student-v1\"")
+                        .withFixedDelay(UPSTREAM_DELAY_MILLIS)));
+        upstream.register(WireMock.get("/courses")
+                .willReturn(WireMock.okJson("{\"courses\": [\"Maths\"]}")
+                        .withHeader("Cache-Control", "no-cache")
+                        .withHeader("ETag", "\"courses-v1\"")));
+        upstream.register(WireMock.get("/courses").atPriority(1)
+                .withHeader("If-None-Match", WireMock.equalTo("\"courses-v1\""))
+                .willReturn(WireMock.status(304).withHeader("ETag", "\"courses-v1\"")));
+        upstream.register(WireMock.get("/teachers")
+                .willReturn(WireMock.okJson("{\"teachers\": []}").withHeader("Cache-Control", "no-store")));
+        upstream.register(WireMock.get("/rooms")
+                .willReturn(WireMock.okJson("{\"rooms\": []}").withHeader("Cache-Control", "max-age=soon")));
+
+        campusServer = WireMockServerPool.acquire(WireMockServerPool.defaultOptions());
+        WireMockServerPool.clientFor(campusServer).register(WireMock.get(WireMock.urlPathMatching("/students/[0-9]+"))
+                .willReturn(WireMock.okJson("{\"id\": 2, \"name\": \"Karthik\"}")
+                        .withHeader("Cache-Control", "public, max-age=60")));
+
+        cachingProxy = new CachingProxy(MAX_ENTRIES, Duration.ofMinutes(5));
+        proxyServer = WireMockServerPool.acquire(CachingProxy.configure(WireMockServerPool.defaultOptions(), cachingProxy));
+        WireMockServerPool.clientFor(proxyServer).register(WireMock.any(WireMock.anyUrl())
+                .willReturn(WireMock.aResponse()
+                        .proxiedFrom(WireMockServerPool.baseUrlOf(upstreamServer))
+                        .withTransformers(CachingProxy.NAME)));
+        WireMockServerPool.clientFor(proxyServer).register(WireMock.any(WireMock.anyUrl()).atPriority(1)
+                .withHeader("X-Campus", WireMock.equalTo("north"))
+                .willReturn(WireMock.aResponse()
+                        .proxiedFrom(WireMockServerPool.baseUrlOf(campusServer))
+                        .withAdditionalRequestHeader("X-Tenant", "north-campus")
+                        .withTransformers(CachingProxy.NAME)));
+    }
+
+    // Method to shut down the servers after test execution
+    @AfterClass
+    public void shutdownServer() {
+        WireMockServerPool.release(proxyServer);
+        WireMockServerPool.release(upstreamServer);
+        WireMockServerPool.release(campusServer);
+    }
+
+    // Test method to verify that repeated requests are served from the cache, without the upstream delay
+    @Test(priority = 1)
+    public void testServesRepeatedRequestsFromCache() {
+        String url = WireMockServerPool.baseUrlOf(proxyServer) + "/students/2";
+
+        // Warms the client up on the admin API, so that the first request times the upstream only
+        given().when().get(WireMockServerPool.baseUrlOf(proxyServer) + "/__admin/mappings").then().statusCode(200);
+        long[] latencies = new long[REQUESTS];
+        for (int i = 0; i < REQUESTS; i++) {
+            long started = System.nanoTime();
+            Response response = given().when().get(url);
+            latencies[i] = System.nanoTime() - started;
+
+            response.then().statusCode(200).body("id", equalTo(2));
+            Assert.assertEquals(response.header(CachingProxy.CACHE_STATUS_HEADER), i == 0 ? "MISS" : "HIT");
+            // Jetty appends --gzip to the ETag of a gzipped response
+            Assert.assertTrue(response.header("ETag").startsWith("\"student-v1"), response.header("ETag"));
+        }
+        double missMillis = latencies[0] / 1_000_000.0;
+        double hitMillis = Arrays.stream(latencies, 1, REQUESTS).sorted().skip((REQUESTS - 1) / 2).findFirst()
+                .orElseThrow() / 1_000_000.0;
+        System.out.printf("Caching proxy: %s, miss %.1f ms, median hit %.1f ms%n", cachingProxy, missMillis, hitMillis);
+
+        // Assert that the upstream was asked once, and that hits skip its delay
+        upstreamServer.verify(1, WireMock.getRequestedFor(WireMock.urlEqualTo("/students/2")));
+        Assert.assertEquals(cachingProxy.getHits(), REQUESTS - 1);
+        Assert.assertTrue(missMillis >= UPSTREAM_DELAY_MILLIS, "miss took " + missMillis + " ms");
+        Assert.assertTrue(hitMillis < UPSTREAM_DELAY_MILLIS, "median hit took " + hitMillis + " ms");
+    }
+
+    // Test method to verify that no-cache responses are revalidated with their ETag and no-store ones are not kept
+    @Test(priority = 2)
+    public void testRevalidatesAndHonoursNoStore() {
+        String baseUrl = WireMockServerPool.baseUrlOf(proxyServer);
+        given().when().get(baseUrl + "/courses").then().statusCode(200)
+                .header(CachingProxy.CACHE_STATUS_HEADER, "MISS");
+        given().when().get(baseUrl + "/courses").then().statusCode(200)
+                .header(CachingProxy.CACHE_STATUS_HEADER, "REVALIDATED")
+                .body("courses[0]", equalTo("Maths"));
+        upstreamServer.verify(1, WireMock.getRequestedFor(WireMock.urlEqualTo("/courses"))
+                .withHeader("If-None-Match", WireMock.equalTo("\"courses-v1\"")));
+
+        given().when().get(baseUrl + "/teachers").then().statusCode(200).header(CachingProxy.CACHE_STATUS_HEADER, "MISS");
+        given().when().get(baseUrl + "/teachers").then().statusCode(200).header(CachingProxy.CACHE_STATUS_HEADER, "MISS");
+        upstreamServer.verify(2, WireMock.getRequestedFor(WireMock.urlEqualTo("/teachers")));
+    }
+
+    // Test method to verify that the least recently used response is evicted once the cache is full
+    @Test(priority = 3)
+    public void testEvictsLeastRecentlyUsed() {
+        String baseUrl = WireMockServerPool.baseUrlOf(proxyServer);
+        for (int id = 10; id < 10 + MAX_ENTRIES; id++) {
+            given().when().get(baseUrl + "/students/" + id).then().statusCode(200);
+        }
+
+        // Assert that the cache holds its maximum, having dropped /students/2 and /courses as least recently used
+        Assert.assertEquals(cachingProxy.size(), MAX_ENTRIES);
+        Assert.assertEquals(cachingProxy.getEvictions(), 2);
+        given().when().get(baseUrl + "/students/13").then().header(CachingProxy.CACHE_STATUS_HEADER, "HIT");
+        given().when().get(baseUrl + "/students/2").then().header(CachingProxy.CACHE_STATUS_HEADER, "MISS");
+    }
+
+    // Test method to verify that the same URL proxied to two upstreams is cached once per upstream
+    @Test(priority = 4)
+    public void testKeysResponsesByUpstream() {
+        String url = WireMockServerPool.baseUrlOf(proxyServer) + "/students/77";
+        given().when().get(url).then().statusCode(200).body("name", equalTo("Nandhini"))
+                .header(CachingProxy.CACHE_STATUS_HEADER, "MISS");
+
+        // Assert that the other upstream is asked, not served the first upstream's response
+        given().header("X-Campus", "north").when().get(url).then().statusCode(200).body("name", equalTo("Karthik"))
+                .header(CachingProxy.CACHE_STATUS_HEADER, "MISS");
+        given().header("X-Campus", "north").when().get(url).then().statusCode(200).body("name", equalTo("Karthik"))
+                .header(CachingProxy.CACHE_STATUS_HEADER, "HIT");
+        given().when().get(url).then().statusCode(200).body("name", equalTo("Nandhini"))
+                .header(CachingProxy.CACHE_STATUS_HEADER, "HIT");
+    }
+
+    // Test method to verify that a revalidation sends the additional request headers of the stub once
+    @Test(priority = 5)
+    public void testRevalidationSendsAdditionalHeadersOnce() {
+        WireMock campus = WireMockServerPool.clientFor(campusServer);
+        campus.register(WireMock.get("/courses")
+                .willReturn(WireMock.okJson("{\"courses\": [\"Art\"]}")
+                        .withHeader("Cache-Control", "no-cache")
+                        .withHeader("ETag", "\"campus-courses-v1\"")));
+        campus.register(WireMock.get("/courses").atPriority(1)
+                .withHeader("If-None-Match", WireMock.equalTo("\"campus-courses-v1\""))
+                .willReturn(WireMock.status(304)));
+
+        String url = WireMockServerPool.baseUrlOf(proxyServer) + "/courses";
+        given().header("X-Campus", "north").when().get(url).then().statusCode(200)
+                .header(CachingProxy.CACHE_STATUS_HEADER, "MISS");
+        given().header("X-Campus", "north").when().get(url).then().statusCode(200)
+                .header(CachingProxy.CACHE_STATUS_HEADER, "REVALIDATED");
+
+        // Assert that both upstream requests carried the tenant header exactly once
+        List<LoggedRequest> requests = campus.find(WireMock.getRequestedFor(WireMock.urlEqualTo("/courses")));
+        Assert.assertEquals(requests.size(), 2);
+        for (LoggedRequest request : requests) {
+            Assert.assertEquals(request.header("X-Tenant").values(), List.of("north-campus"));
+        }
+    }
+
+    // Test method to verify that a response with a malformed max-age is served, and not kept
+    @Test(priority = 6)
+    public void testMalformedMaxAgeIsNotCached() {
+        String url = WireMockServerPool.baseUrlOf(proxyServer) + "/rooms";
+        given().when().get(url).then().statusCode(200).header(CachingProxy.CACHE_STATUS_HEADER, "MISS");
+        given().when().get(url).then().statusCode(200).header(CachingProxy.CACHE_STATUS_HEADER, "MISS");
+        upstreamServer.verify(2, WireMock.getRequestedFor(WireMock.urlEqualTo("/rooms")));
+    }
+
+}
@@ -4,9 +4,10 @@ import com.github.tomakehurst.wiremock.WireMockServer;
 import com.github.tomakehurst.wiremock.client.WireMock;
 import io.restassured.response.ValidatableResponse;
 import org.testng.Assert;
-import org.testng.annotations.AfterTest;
-import org.testng.annotations.BeforeTest;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
+import qa.wiremock.concepts.parallel.WireMockServerPool;
 
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.Matchers.equalTo;
@@ -22,27 +23,26 @@ import static org.hamcrest.Matchers.equalTo;
  */
 public class WireMockProxyTest {
 
-    // Constants for host and port
+    // Constant for host
     private static final String HOST = "localhost";
-    private static final int PORT = 8080;
 
     // Instance of WireMockServer
     public static WireMockServer wireMockServer;
 
+    // WireMock client bound to this class's server instance
+    private static WireMock wireMock;
+
     // Method to start the WireMock server and configure stubs before test execution
-    @BeforeTest
+    @BeforeClass
     public void startupServer() {
-        // Create a new instance of WireMockServer
-        wireMockServer = new WireMockServer(PORT);
-
-        // Configure WireMock to listen on the specified host and port
-        WireMock.configureFor(HOST, PORT);
+        // Acquires a WireMock server running on a free port from the pool.
+        wireMockServer = WireMockServerPool.acquire();
 
-        // Start the WireMock server
-        wireMockServer.start();
+        // Binds a WireMock client to the acquired server instance.
+        wireMock = WireMockServerPool.clientFor(wireMockServer);
 
         // Stub any request URL to be proxied from "http://localhost:3000/students/2"
-        WireMock.stubFor(
+        wireMock.register(
                 WireMock.any(WireMock.anyUrl()) // Match any HTTP method and any URL
                         .willReturn(WireMock.aResponse()
                                         .proxiedFrom("http://localhost:3000/students/2"))); // Proxy the response from the specified URL
@@ -50,23 +50,23 @@ public class WireMockProxyTest {
     }
 
     // Method to shut down the WireMock server after test execution
-    @AfterTest
+    @AfterClass
     public void shutdownServer() {
         // Check if the WireMock server instance exists and is running
         if (wireMockServer != null && wireMockServer.isRunning()) {
 
-            // Shutdown the WireMock server
-            wireMockServer.shutdownServer();
+            // Releases the WireMock server back to the pool
+            WireMockServerPool.release(wireMockServer);
         }
     }
 
     // Test method to verify the behavior of the proxied GET API
     @Test
     public void testWireMockProxy() {
-        // Construct the request URL using the HOST and PORT constants
-        String requestUrl = String.format("http://%s:%d", HOST, PORT);
+        // Construct the request URL using the HOST constant and the server port
+        String requestUrl = String.format("http://%s:%d", HOST, wireMockServer.port());
 
-        // Send a GET request to "http://localhost:8080"
+        // Send a GET request to the root of the pooled server
         ValidatableResponse response =
                 given() // Start building the request specification
                 .when() // Perform the action (in this case, an HTTP GET request)
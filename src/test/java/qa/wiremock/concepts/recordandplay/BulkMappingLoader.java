@@ -0,0 +1,195 @@
+package qa.wiremock.concepts.recordandplay;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.common.Json;
+import com.github.tomakehurst.wiremock.stubbing.StubImport;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * This code loads a large mappings/ directory into a running server in one
+ * in-process batch, instead of one admin HTTP round trip per stub as
+ * WireMockPlaybackAPITest does with Files.readString(...),
+ * StubMapping.buildFrom(json) and wireMock.register(stubMapping).
+ * The files are split across a fork-join pool and each one is parsed once
+ * by Jackson, from its bytes into a tree, without building a String first.
+ * A file holding a "mappings" array, next to other fields such as "meta",
+ * gives one StubMapping per array element; any other file is bound as a
+ * single StubMapping. All the stubs are then registered with a single
+ * importStubs() call.
+ * <p>
+ * importStubs() looks every imported stub up by id, which WireMock's default
+ * store does by scanning all the stubs, so a large batch should go to a
+ * server with the IndexedStubMappingStore (ConceptStores.configure(options)).
+ * <p>
+ * The stubs are registered as not persistent: they are already on disk, and
+ * a persistent stub would be written back to the server's own mappings/.
+ *
+ * @author Jagatheshwaran N
+ */
+public class BulkMappingLoader {
+
+    // Number of files below which a parse task no longer splits
+    private static final int FILES_PER_TASK = 64;
+
+    // Reader of WireMock's JSON mappings
+    private static final ObjectReader STUB_READER = Json.getObjectMapper().readerFor(StubMapping.class);
+
+    // Pool parsing the mapping files
+    private final ForkJoinPool forkJoinPool;
+
+    // Constructor of a loader parsing on the common fork-join pool
+    public BulkMappingLoader() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    // Constructor of a loader parsing on a given fork-join pool
+    public BulkMappingLoader(ForkJoinPool forkJoinPool) {
+        this.forkJoinPool = forkJoinPool;
+    }
+
+    // Method to load every mapping under a directory into a running server, returning the load timings
+    public Report load(WireMockServer wireMockServer, Path mappingsDirectory) throws IOException {
+        long started = System.nanoTime();
+        List<Path> mappingFiles = listMappingFiles(mappingsDirectory);
+        List<StubMapping> stubMappings = forkJoinPool.invoke(new ParseTask(mappingFiles, 0, mappingFiles.size()));
+        long parsed = System.nanoTime();
+
+        stubMappings.forEach(stubMapping -> stubMapping.setPersistent(false));
+        wireMockServer.importStubs(new StubImport(stubMappings, StubImport.Options.DEFAULTS));
+        long registered = System.nanoTime();
+        return new Report(mappingFiles.size(), stubMappings.size(), parsed - started, registered - parsed);
+    }
+
+    // Method to read the mappings of a file, holding either one mapping or a "mappings" array
+    private static List<StubMapping> readStubMappings(Path mappingFile) {
+        try {
+            // Parses the file once into a tree, then binds either its "mappings" array or the file itself
+            JsonNode tree = STUB_READER.readTree(Files.readAllBytes(mappingFile));
+            JsonNode mappings = tree.get("mappings");
+            if (mappings != null) {
+                List<StubMapping> stubMappings = new ArrayList<>(mappings.size());
+                for (JsonNode mapping : mappings) {
+                    stubMappings.add(STUB_READER.readValue(mapping));
+                }
+                return stubMappings;
+            }
+            StubMapping stubMapping = STUB_READER.readValue(tree);
+            return List.of(stubMapping);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read mapping file " + mappingFile, e);
+        }
+    }
+
+    // Method to list the mapping files under a directory
+    private static List<Path> listMappingFiles(Path mappingsDirectory) throws IOException {
+        try (Stream<Path> files = Files.walk(mappingsDirectory)) {
+            return files.filter(file -> Files.isRegularFile(file) && file.toString().endsWith(".json")).toList();
+        }
+    }
+
+    // Task parsing a range of mapping files, split in halves until the range is small enough
+    private static final class ParseTask extends RecursiveTask<List<StubMapping>> {
+
+        // Mapping files to parse
+        private final List<Path> mappingFiles;
+
+        // Range of the files of this task
+        private final int from;
+        private final int to;
+
+        private ParseTask(List<Path> mappingFiles, int from, int to) {
+            this.mappingFiles = mappingFiles;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected List<StubMapping> compute() {
+            if (to - from <= FILES_PER_TASK) {
+                List<StubMapping> stubMappings = new ArrayList<>(to - from);
+                for (int i = from; i < to; i++) {
+                    stubMappings.addAll(readStubMappings(mappingFiles.get(i)));
+                }
+                return stubMappings;
+            }
+            int middle = (from + to) >>> 1;
+            ParseTask secondHalf = new ParseTask(mappingFiles, middle, to);
+            secondHalf.fork();
+            List<StubMapping> stubMappings = new ParseTask(mappingFiles, from, middle).compute();
+            stubMappings.addAll(secondHalf.join());
+            return stubMappings;
+        }
+
+    }
+
+    /**
+     * Timings of a bulk load.
+     */
+    public static final class Report {
+
+        // Number of mapping files read
+        private final int files;
+
+        // Number of stubs registered
+        private final int stubs;
+
+        // Time spent parsing the files
+        private final long parseNanos;
+
+        // Time spent registering the stubs
+        private final long registerNanos;
+
+        private Report(int files, int stubs, long parseNanos, long registerNanos) {
+            this.files = files;
+            this.stubs = stubs;
+            this.parseNanos = parseNanos;
+            this.registerNanos = registerNanos;
+        }
+
+        public int getFiles() {
+            return files;
+        }
+
+        public int getStubs() {
+            return stubs;
+        }
+
+        public long getParseMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(parseNanos);
+        }
+
+        public long getRegisterMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(registerNanos);
+        }
+
+        // Method to return the time from the start of the load until every stub is served
+        public long getTimeToReadyMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(parseNanos + registerNanos);
+        }
+
+        public double getStubsPerSecond() {
+            return stubs * 1_000_000_000.0 / Math.max(1, parseNanos + registerNanos);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d stubs from %d files ready in %d ms (parse %d ms, register %d ms), %.0f stubs/s",
+                    stubs, files, getTimeToReadyMillis(), getParseMillis(), getRegisterMillis(), getStubsPerSecond());
+        }
+
+    }
+
+}
@@ -0,0 +1,97 @@
+package qa.wiremock.concepts.recordandplay;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import qa.wiremock.concepts.parallel.WireMockServerPool;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * This code verifies the BulkMappingLoader on a mappings/ directory of 3,000
+ * single-mapping files and two files with a "mappings" array, one of them
+ * with its "meta" field first. The load rate against the per-file path of
+ * WireMockPlaybackAPITest is measured by MappingLoadBenchmark.
+ *
+ * @author Jagatheshwaran N
+ */
+public class BulkMappingLoaderTest {
+
+    // Number of single-mapping files of the directory
+    private static final int MAPPING_FILES = 3000;
+
+    // Temporary directory holding the mapping files
+    private static Path workDirectory;
+
+    // Directory of the mapping files
+    private static Path mappingsDirectory;
+
+    // Server loaded by the bulk loader
+    private static WireMockServer bulkServer;
+
+    // Method to write the mapping files and start the server before test execution
+    @BeforeClass
+    public void startupServer() throws IOException {
+        workDirectory = Files.createTempDirectory("bulk-loading");
+        mappingsDirectory = Files.createDirectories(workDirectory.resolve("mappings"));
+        for (int i = 0; i < MAPPING_FILES; i++) {
+            String id = UUID.randomUUID().toString();
+            Files.writeString(mappingsDirectory.resolve("students_" + i + "-" + id + ".json"), String.format(
+                    "{\"id\": \"%s\", \"request\": {\"url\": \"/students/%d\", \"method\": \"GET\"},"
+                            + " \"response\": {\"status\": 200, \"jsonBody\": {\"id\": %d},"
+                            + " \"headers\": {\"Content-Type\": \"application/json\"}}}", id, i, i));
+        }
+        Files.writeString(mappingsDirectory.resolve("courses.json"), "{\"mappings\": ["
+                + "{\"request\": {\"url\": \"/courses/1\", \"method\": \"GET\"}, \"response\": {\"status\": 200, \"body\": \"Maths\"}},"
+                + "{\"request\": {\"url\": \"/courses/2\", \"method\": \"GET\"}, \"response\": {\"status\": 200, \"body\": \"Physics\"}},"
+                + "{\"request\": {\"url\": \"/courses/3\", \"method\": \"GET\"}, \"response\": {\"status\": 200, \"body\": \"History\"}}"
+                + "]}");
+        Files.writeString(mappingsDirectory.resolve("teachers.json"), "{\"meta\": {\"total\": 2}, \"mappings\": ["
+                + "{\"request\": {\"url\": \"/teachers/1\", \"method\": \"GET\"}, \"response\": {\"status\": 200, \"body\": \"Ravi\"}},"
+                + "{\"request\": {\"url\": \"/teachers/2\", \"method\": \"GET\"}, \"response\": {\"status\": 200, \"body\": \"Meena\"}}"
+                + "]}");
+
+        bulkServer = WireMockServerPool.acquire(WireMockServerPool.defaultOptions());
+    }
+
+    // Method to shut down the server and delete the mapping files after test execution
+    @AfterClass
+    public void shutdownServer() throws IOException {
+        WireMockServerPool.release(bulkServer);
+        try (Stream<Path> files = Files.walk(workDirectory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    // Test method to verify that every mapping is loaded in one batch
+    @Test
+    public void testBulkLoad() throws IOException {
+        int stubsBefore = bulkServer.getStubMappings().size();
+        BulkMappingLoader.Report report = new BulkMappingLoader().load(bulkServer, mappingsDirectory);
+        System.out.println("Bulk loader: " + report);
+
+        // Assert that the stubs of both the single-mapping files and the "mappings" arrays are served
+        Assert.assertEquals(report.getFiles(), MAPPING_FILES + 2);
+        Assert.assertEquals(report.getStubs(), MAPPING_FILES + 5);
+        Assert.assertEquals(bulkServer.getStubMappings().size(), stubsBefore + MAPPING_FILES + 5);
+        String baseUrl = WireMockServerPool.baseUrlOf(bulkServer);
+        given().when().get(baseUrl + "/students/2999").then().statusCode(200).body("id", equalTo(2999));
+        given().when().get(baseUrl + "/courses/2").then().statusCode(200).body(equalTo("Physics"));
+
+        // Assert that a "mappings" array after the "meta" field is found too
+        given().when().get(baseUrl + "/teachers/2").then().statusCode(200).body(equalTo("Meena"));
+    }
+
+}
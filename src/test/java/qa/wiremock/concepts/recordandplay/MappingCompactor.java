@@ -0,0 +1,362 @@
+package qa.wiremock.concepts.recordandplay;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.common.ContentTypes;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.http.ContentTypeHeader;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * This code compacts a directory of recorded stub mappings, such as the
+ * get--4880e29c-...json and get--64f0acea-...json recordings that both
+ * match GET / with their bodies and 11 identical headers inlined.
+ * <p>
+ * Duplicate request patterns: mappings with the same request, priority and
+ * scenario state are merged into one, the last of them in the order of the
+ * mapping file paths (and of their position in a "mappings" array). The
+ * insertionIndex is not used, since mapping files written by WireMock's
+ * recorder do not always carry it; the rule only depends on the names of
+ * the files, so the same recording always compacts to the same stubs. A
+ * recording made in one session is named in the order it was recorded
+ * only if its file names sort that way, so recorders that want the latest
+ * response kept should name the files accordingly.
+ * <p>
+ * Bodies: inline, JSON, base64 and file bodies are moved to
+ * __files/bodies/(SHA-256).(extension), so identical bodies share one file.
+ * <p>
+ * Headers: the response headers, without those of the recorded connection
+ * (Date, Keep-Alive, ...), are moved to headers/(SHA-256).json and served
+ * by the SharedHeaderSets transformer, so identical header sets share one
+ * file and one HttpHeaders instance.
+ * <p>
+ * The compacted root is written next to the source, which is left
+ * untouched, and plays back with usingFilesUnderDirectory(target) and
+ * SharedHeaderSets.configure(options). WireMock ignores transformer names it
+ * does not know, so a compacted root played back without SharedHeaderSets
+ * would silently lose its headers; startPlayback(options) refuses it.
+ *
+ * @author Jagatheshwaran N
+ */
+public class MappingCompactor {
+
+    // Directory of the shared body files, under __files
+    public static final String BODIES_DIRECTORY = "bodies";
+
+    // JSON mapper of the mappings, writing them as WireMock does
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    // Response fields that carry a body
+    private static final List<String> BODY_FIELDS = List.of("body", "jsonBody", "base64Body", "bodyFileName");
+
+    // Root with the recorded mappings/ and __files/
+    private final Path sourceRoot;
+
+    // Root of the compacted mappings/, __files/ and headers/
+    private final Path targetRoot;
+
+    // Constructor of a compactor from a recorded root to a compacted root
+    public MappingCompactor(Path sourceRoot, Path targetRoot) {
+        this.sourceRoot = sourceRoot;
+        this.targetRoot = targetRoot;
+    }
+
+    // Method to compact the recorded root, returning the sizes before and after
+    public Report compact() throws IOException {
+        List<Path> mappingFiles = listMappingFiles();
+
+        // First pass: only the location of the last mapping of each request pattern is kept
+        Map<JsonNode, Location> servedMappings = new HashMap<>();
+        int mappingsRead = 0;
+        for (Path mappingFile : mappingFiles) {
+            List<ObjectNode> mappings = readMappings(mappingFile);
+            for (int position = 0; position < mappings.size(); position++) {
+                ObjectNode mapping = mappings.get(position);
+                Location location = new Location(mappingFile, position, mappings.size() == 1);
+                // The files are listed in path order, so the last mapping read of a request pattern wins
+                servedMappings.put(requestKey(mapping), location);
+                mappingsRead++;
+            }
+        }
+        Set<Location> survivors = new HashSet<>(servedMappings.values());
+        servedMappings.clear();
+
+        // Second pass: the surviving mappings are rewritten with shared bodies and header sets
+        Path mappingsDirectory = Files.createDirectories(targetRoot.resolve("mappings"));
+        Path bodiesDirectory = Files.createDirectories(targetRoot.resolve("__files").resolve(BODIES_DIRECTORY));
+        Path headersDirectory = Files.createDirectories(targetRoot.resolve(SharedHeaderSets.HEADERS_DIRECTORY));
+        Set<String> bodyFiles = new HashSet<>();
+        Set<String> headerSets = new HashSet<>();
+        for (Path mappingFile : mappingFiles) {
+            List<ObjectNode> mappings = readMappings(mappingFile);
+            for (int position = 0; position < mappings.size(); position++) {
+                Location location = new Location(mappingFile, position, mappings.size() == 1);
+                if (!survivors.contains(location)) {
+                    continue;
+                }
+                ObjectNode mapping = mappings.get(position);
+                ObjectNode response = (ObjectNode) mapping.path("response");
+                externalizeBody(mapping, response, bodiesDirectory, bodyFiles);
+                externalizeHeaders(response, headersDirectory, headerSets);
+                String fileName = location.alone() ? mappingFile.getFileName().toString()
+                        : mapping.path("id").asText(mappingFile.getFileName() + "-" + position) + ".json";
+                MAPPER.writeValue(mappingsDirectory.resolve(fileName).toFile(), mapping);
+            }
+        }
+
+        return new Report(mappingsRead, survivors.size(), bodyFiles.size(), headerSets.size(),
+                directorySize(sourceRoot.resolve("mappings")) + directorySize(sourceRoot.resolve("__files")),
+                directorySize(targetRoot));
+    }
+
+    // Method to start a server playing back a compacted root, refusing it when its stubs need SharedHeaderSets but it is not registered
+    public static WireMockServer startPlayback(WireMockConfiguration options) {
+        // The server loads its stubs when it is built, before it listens
+        WireMockServer playbackServer = new WireMockServer(options);
+        long sharingStubs = playbackServer.getStubMappings().stream()
+                .filter(stub -> stub.getResponse().getTransformers() != null
+                        && stub.getResponse().getTransformers().contains(SharedHeaderSets.NAME))
+                .count();
+        if (sharingStubs > 0 && !SharedHeaderSets.isRegistered(options)) {
+            throw new IllegalStateException(sharingStubs + " compacted stubs under " + options.filesRoot().getPath()
+                    + " serve shared header sets, register them with SharedHeaderSets.configure(options)");
+        }
+        playbackServer.start();
+        return playbackServer;
+    }
+
+    // Method to move the body of a response to a shared file named by its content hash
+    private void externalizeBody(ObjectNode mapping, ObjectNode response, Path bodiesDirectory,
+                                 Set<String> bodyFiles) throws IOException {
+        byte[] body = readBody(response);
+        if (body == null) {
+            return;
+        }
+        String hash = sha256(body);
+        String url = mapping.path("request").path("url").asText(mapping.path("request").path("urlPath").asText(""));
+        JsonNode contentType = findHeader(response.path("headers"), ContentTypeHeader.KEY);
+        String extension = ContentTypes.determineFileExtension(url,
+                contentType == null ? ContentTypeHeader.absent() : new ContentTypeHeader(headerValue(contentType)), body);
+        String bodyFileName = hash + "." + extension;
+        if (bodyFiles.add(bodyFileName)) {
+            Files.write(bodiesDirectory.resolve(bodyFileName), body);
+        }
+        BODY_FIELDS.forEach(response::remove);
+        response.put("bodyFileName", BODIES_DIRECTORY + "/" + bodyFileName);
+    }
+
+    // Method to move the headers of a response to a shared header set named by its content hash
+    private void externalizeHeaders(ObjectNode response, Path headersDirectory, Set<String> headerSets)
+            throws IOException {
+        JsonNode headersNode = response.remove("headers");
+        if (headersNode == null) {
+            return;
+        }
+        Map<String, JsonNode> sortedHeaders = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        Iterator<Map.Entry<String, JsonNode>> fields = headersNode.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            if (!RecordingCompactor.SKIPPED_HEADERS.contains(field.getKey().toLowerCase())) {
+                sortedHeaders.put(field.getKey(), field.getValue());
+            }
+        }
+        if (sortedHeaders.isEmpty()) {
+            return;
+        }
+
+        ObjectNode headerSet = MAPPER.createObjectNode();
+        sortedHeaders.forEach(headerSet::set);
+        byte[] headerSetBytes = MAPPER.writeValueAsBytes(headerSet);
+        String hash = sha256(headerSetBytes);
+        if (headerSets.add(hash)) {
+            Files.write(headersDirectory.resolve(hash + ".json"), headerSetBytes);
+        }
+
+        ArrayNode transformers = response.has("transformers") ? (ArrayNode) response.get("transformers")
+                : response.putArray("transformers");
+        boolean named = false;
+        for (JsonNode transformer : transformers) {
+            named |= SharedHeaderSets.NAME.equals(transformer.asText());
+        }
+        if (!named) {
+            transformers.add(SharedHeaderSets.NAME);
+        }
+        ObjectNode transformerParameters = response.has("transformerParameters")
+                ? (ObjectNode) response.get("transformerParameters") : response.putObject("transformerParameters");
+        transformerParameters.put(SharedHeaderSets.HEADER_SET_PARAMETER, hash);
+    }
+
+    // Method to read the body of a response, or null when it has none or a templated file name
+    private byte[] readBody(ObjectNode response) throws IOException {
+        if (response.hasNonNull("body")) {
+            return response.get("body").asText().getBytes(StandardCharsets.UTF_8);
+        }
+        if (response.hasNonNull("jsonBody")) {
+            return MAPPER.writeValueAsBytes(response.get("jsonBody"));
+        }
+        if (response.hasNonNull("base64Body")) {
+            return Base64.getDecoder().decode(response.get("base64Body").asText());
+        }
+        if (response.hasNonNull("bodyFileName") && !response.get("bodyFileName").asText().contains("{{")) {
+            Path bodyFile = sourceRoot.resolve("__files").resolve(response.get("bodyFileName").asText());
+            return Files.exists(bodyFile) ? Files.readAllBytes(bodyFile) : null;
+        }
+        return null;
+    }
+
+    // Method to build the key of the request pattern a mapping is served for
+    private static JsonNode requestKey(ObjectNode mapping) {
+        ObjectNode key = MAPPER.createObjectNode();
+        key.set("request", mapping.path("request"));
+        key.set("priority", mapping.path("priority"));
+        key.set("scenarioName", mapping.path("scenarioName"));
+        key.set("requiredScenarioState", mapping.path("requiredScenarioState"));
+        return key;
+    }
+
+    // Method to read the mappings of a file, holding either one mapping or a "mappings" array
+    private static List<ObjectNode> readMappings(Path mappingFile) throws IOException {
+        JsonNode root = MAPPER.readTree(mappingFile.toFile());
+        List<ObjectNode> mappings = new ArrayList<>();
+        if (root.has("mappings")) {
+            root.get("mappings").forEach(mapping -> mappings.add((ObjectNode) mapping));
+        } else if (root.isObject()) {
+            mappings.add((ObjectNode) root);
+        }
+        return mappings;
+    }
+
+    // Method to list the mapping files of the source root, in a stable order
+    private List<Path> listMappingFiles() throws IOException {
+        try (Stream<Path> files = Files.walk(sourceRoot.resolve("mappings"))) {
+            return files.filter(file -> file.toString().endsWith(".json")).sorted().toList();
+        }
+    }
+
+    // Method to find a header of a headers node, ignoring case
+    private static JsonNode findHeader(JsonNode headers, String name) {
+        Iterator<Map.Entry<String, JsonNode>> fields = headers.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            if (field.getKey().equalsIgnoreCase(name)) {
+                return field.getValue();
+            }
+        }
+        return null;
+    }
+
+    // Method to read a header value, given either as a string or as an array of strings
+    private static String headerValue(JsonNode value) {
+        return value.isArray() ? value.path(0).asText() : value.asText();
+    }
+
+    // Method to hash content with SHA-256
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Method to sum the sizes of the files under a directory
+    private static long directorySize(Path directory) throws IOException {
+        if (!Files.exists(directory)) {
+            return 0;
+        }
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(Files::isRegularFile).mapToLong(file -> file.toFile().length()).sum();
+        }
+    }
+
+    // Location of a mapping in the source root, and whether it is the only mapping of its file
+    private record Location(Path file, int position, boolean alone) {
+    }
+
+    /**
+     * Sizes of a recorded root before and after compaction.
+     */
+    public static final class Report {
+
+        // Number of mappings read from the recorded root
+        private final int mappingsRead;
+
+        // Number of mappings written to the compacted root
+        private final int mappingsWritten;
+
+        // Number of shared body files
+        private final int bodyFiles;
+
+        // Number of shared header sets
+        private final int headerSets;
+
+        // Bytes of the recorded mappings/ and __files/
+        private final long sourceBytes;
+
+        // Bytes of the compacted mappings/, __files/ and headers/
+        private final long targetBytes;
+
+        private Report(int mappingsRead, int mappingsWritten, int bodyFiles, int headerSets,
+                       long sourceBytes, long targetBytes) {
+            this.mappingsRead = mappingsRead;
+            this.mappingsWritten = mappingsWritten;
+            this.bodyFiles = bodyFiles;
+            this.headerSets = headerSets;
+            this.sourceBytes = sourceBytes;
+            this.targetBytes = targetBytes;
+        }
+
+        public int getMappingsRead() {
+            return mappingsRead;
+        }
+
+        public int getMappingsWritten() {
+            return mappingsWritten;
+        }
+
+        public int getBodyFiles() {
+            return bodyFiles;
+        }
+
+        public int getHeaderSets() {
+            return headerSets;
+        }
+
+        public long getSourceBytes() {
+            return sourceBytes;
+        }
+
+        public long getTargetBytes() {
+            return targetBytes;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d mappings -> %d (%d body files, %d header sets), %d bytes -> %d bytes",
+                    mappingsRead, mappingsWritten, bodyFiles, headerSets, sourceBytes, targetBytes);
+        }
+
+    }
+
+}
@@ -0,0 +1,146 @@
+package qa.wiremock.concepts.recordandplay;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.UUID;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.startsWith;
+
+/**
+ * This code verifies the MappingCompactor with the two recordings of GET /
+ * under src/test/resources/mappings, and with a synthetic capture of
+ * repeated requests, bodies and headers.
+ * The compacted root must be smaller and must play back the same responses
+ * as the recordings WireMock would have served.
+ *
+ * @author Jagatheshwaran N
+ */
+public class MappingCompactorTest {
+
+    // Recorded mappings of the students upstream
+    private static final Path RECORDED_MAPPINGS = Paths.get("src/test/resources/mappings");
+
+    // Working directory of the recorded and compacted roots
+    private static Path workDirectory;
+
+    // Method to create the working directory before test execution
+    @BeforeClass
+    public void createWorkDirectory() throws IOException {
+        workDirectory = Files.createTempDirectory("mapping-compaction");
+    }
+
+    // Test method to verify that the two recordings of GET / compact into the one WireMock serves
+    @Test
+    public void testRecordedMappingsCompaction() throws IOException {
+        Path sourceRoot = workDirectory.resolve("recorded");
+        Files.createDirectories(sourceRoot.resolve("mappings"));
+        for (String recording : new String[]{"get--4880e29c-6507-4719-894c-d8e43c7268e3.json",
+                "get--64f0acea-e019-4280-93a2-541044611e20.json"}) {
+            Files.copy(RECORDED_MAPPINGS.resolve(recording), sourceRoot.resolve("mappings").resolve(recording));
+        }
+
+        Path targetRoot = workDirectory.resolve("recorded-compacted");
+        MappingCompactor.Report report = new MappingCompactor(sourceRoot, targetRoot).compact();
+
+        // Assert that the duplicate request pattern is merged, with its body and headers moved out
+        Assert.assertEquals(report.getMappingsRead(), 2);
+        Assert.assertEquals(report.getMappingsWritten(), 1);
+        Assert.assertEquals(report.getBodyFiles(), 1);
+        Assert.assertEquals(report.getHeaderSets(), 1);
+
+        // Assert that the recording last by file name (get--64f0acea, all the students) is played back
+        WireMockServer playbackServer = startPlaybackServer(targetRoot);
+        try {
+            given().when().get(playbackServer.baseUrl() + "/")
+                    .then().statusCode(200)
+                    .header("X-Powered-By", "Express")
+                    .header("ETag", startsWith("W/\"227-Id8H9gqHKgYhkMxPzSDWvpOky1I"))
+                    .header("Keep-Alive", nullValue())
+                    .body("", hasSize(3))
+                    .body("[2].name", equalTo("Bob Johnson"));
+        } finally {
+            playbackServer.stop();
+        }
+    }
+
+    // Test method to verify that a capture of repeated requests, bodies and headers shrinks and plays back
+    @Test
+    public void testSyntheticCaptureCompaction() throws IOException {
+        Path sourceRoot = workDirectory.resolve("synthetic");
+        Path mappingsDirectory = Files.createDirectories(sourceRoot.resolve("mappings"));
+        // File names sort in recording order, so the last recording of each request is the last by name
+        for (int i = 0; i < 400; i++) {
+            String id = UUID.randomUUID().toString();
+            String body = String.format("{\\\"course\\\": \\\"course-%d\\\", \\\"students\\\": [1, 2, 3]}", i % 5);
+            Files.writeString(mappingsDirectory.resolve(String.format("get-students-%03d-%s.json", i, id)), String.format(
+                    "{\"id\": \"%s\", \"request\": {\"url\": \"/students/%d\", \"method\": \"GET\"},"
+                            + " \"response\": {\"status\": 200, \"body\": \"%s\", \"headers\": {"
+                            + "\"Content-Type\": \"application/json; charset=utf-8\", \"X-Powered-By\": \"Express\","
+                            + " \"Cache-Control\": \"no-cache\", \"Date\": \"Fri, 10 Nov 2023 05:%02d:00 GMT\"}},"
+                            + " \"uuid\": \"%s\", \"persistent\": true}",
+                    id, i % 100, body, i % 60, id));
+        }
+
+        Path targetRoot = workDirectory.resolve("synthetic-compacted");
+        MappingCompactor.Report report = new MappingCompactor(sourceRoot, targetRoot).compact();
+
+        // Assert that every request pattern is kept once, with shared bodies and a single header set
+        Assert.assertEquals(report.getMappingsWritten(), 100);
+        Assert.assertEquals(report.getBodyFiles(), 5);
+        Assert.assertEquals(report.getHeaderSets(), 1);
+        Assert.assertTrue(report.getTargetBytes() * 2 < report.getSourceBytes(), report.toString());
+
+        // Assert that the last recording of each request is served, with the shared headers
+        SharedHeaderSets sharedHeaderSets = new SharedHeaderSets(
+                WireMockConfiguration.options().usingFilesUnderDirectory(targetRoot.toString()).filesRoot());
+        WireMockServer playbackServer = MappingCompactor.startPlayback(WireMockConfiguration.options()
+                .dynamicPort()
+                .usingFilesUnderDirectory(targetRoot.toString())
+                .extensions(sharedHeaderSets));
+        try {
+            for (int student = 0; student < 100; student += 33) {
+                given().when().get(playbackServer.baseUrl() + "/students/" + student)
+                        .then().statusCode(200)
+                        .header("X-Powered-By", "Express")
+                        .header("Cache-Control", "no-cache")
+                        .body("course", equalTo("course-" + ((300 + student) % 5)));
+            }
+            Assert.assertEquals(sharedHeaderSets.getHeaderSetCount(), 1);
+        } finally {
+            playbackServer.stop();
+        }
+    }
+
+    // Test method to verify that a compacted root is refused when its header sets are not registered
+    @Test(dependsOnMethods = "testRecordedMappingsCompaction")
+    public void testPlaybackWithoutSharedHeaderSets() {
+        WireMockConfiguration options = WireMockConfiguration.options()
+                .dynamicPort()
+                .usingFilesUnderDirectory(workDirectory.resolve("recorded-compacted").toString());
+
+        // Assert that the stubs naming the header sets fail the load instead of losing their headers
+        IllegalStateException refused = Assert.expectThrows(IllegalStateException.class,
+                () -> MappingCompactor.startPlayback(options));
+        Assert.assertTrue(refused.getMessage().contains("SharedHeaderSets.configure"), refused.getMessage());
+    }
+
+    // Method to start a server playing a compacted root back
+    private static WireMockServer startPlaybackServer(Path root) {
+        return MappingCompactor.startPlayback(SharedHeaderSets.configure(WireMockConfiguration.options()
+                .dynamicPort()
+                .usingFilesUnderDirectory(root.toString())));
+    }
+
+}
@@ -0,0 +1,145 @@
+package qa.wiremock.concepts.recordandplay;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.client.MappingBuilder;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.common.ContentTypes;
+import com.github.tomakehurst.wiremock.common.filemaker.FilenameMaker;
+import com.github.tomakehurst.wiremock.http.HttpHeader;
+import com.github.tomakehurst.wiremock.http.HttpHeaders;
+import com.github.tomakehurst.wiremock.http.RequestMethod;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * This code compacts the append-only log of the StreamingRecorder into stub
+ * mappings under mappings/ and response bodies under __files/, the layout
+ * WireMock loads with usingFilesUnderDirectory(root).
+ * The log is read one line at a time and every mapping is written as soon as
+ * its exchange is read. Only the first exchange of each request (method, URL
+ * and a SHA-256 of its body) becomes a stub, as with WireMock's
+ * ignoreRepeatRequests, so the heap holds one digest per distinct request
+ * instead of the capture.
+ *
+ * @author Jagatheshwaran N
+ */
+public class RecordingCompactor {
+
+    // Response headers that describe the recorded connection rather than the response
+    static final Set<String> SKIPPED_HEADERS = Set.of("transfer-encoding", "content-length", "date",
+            "connection", "keep-alive", "matched-stub-id", "matched-stub-name");
+
+    // JSON mapper reading the exchanges
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    // Maker of the mapping file names, as WireMock's recorder names them
+    private final FilenameMaker filenameMaker = new FilenameMaker();
+
+    // Directory of the stub mappings
+    private final Path mappingsDirectory;
+
+    // Directory of the response bodies
+    private final Path filesDirectory;
+
+    // Constructor of a compactor writing under a WireMock root directory
+    public RecordingCompactor(Path rootDirectory) {
+        this.mappingsDirectory = rootDirectory.resolve("mappings");
+        this.filesDirectory = rootDirectory.resolve("__files");
+    }
+
+    // Method to compact a log into mappings and body files, returning the number of mappings written
+    public int compact(Path logFile) throws IOException {
+        Files.createDirectories(mappingsDirectory);
+        Files.createDirectories(filesDirectory);
+        Set<String> recordedRequests = new HashSet<>();
+        int mappingCount = 0;
+        try (BufferedReader reader = Files.newBufferedReader(logFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                JsonNode exchange = MAPPER.readTree(line);
+                byte[] requestBody = Base64.getDecoder().decode(exchange.path("requestBody").asText());
+                String method = exchange.path("method").asText();
+                String url = exchange.path("url").asText();
+                if (recordedRequests.add(requestKey(method, url, requestBody))) {
+                    writeMapping(exchange, method, url, requestBody);
+                    mappingCount++;
+                }
+            }
+        }
+        return mappingCount;
+    }
+
+    // Method to write the stub mapping of one exchange, with its response body in a file of its own
+    private void writeMapping(JsonNode exchange, String method, String url, byte[] requestBody) throws IOException {
+        MappingBuilder request = WireMock.request(method, WireMock.urlEqualTo(url));
+        if (requestBody.length > 0) {
+            request.withRequestBody(WireMock.binaryEqualTo(requestBody));
+        }
+
+        HttpHeaders headers = readHeaders(exchange.path("responseHeaders"));
+        ResponseDefinitionBuilder response = WireMock.aResponse()
+                .withStatus(exchange.path("status").asInt())
+                .withHeaders(headers);
+        byte[] responseBody = Base64.getDecoder().decode(exchange.path("responseBody").asText());
+
+        StubMapping stubMapping = request.willReturn(response).build();
+        String mappingName = filenameMaker.filenameFor(stubMapping);
+        if (responseBody.length > 0) {
+            String extension = ContentTypes.determineFileExtension(url, headers.getContentTypeHeader(), responseBody);
+            String bodyFileName = "body-" + mappingName.substring(0, mappingName.length() - ".json".length())
+                    + "." + extension;
+            Files.write(filesDirectory.resolve(bodyFileName), responseBody);
+            stubMapping = request.willReturn(response.withBodyFile(bodyFileName)).build();
+        }
+        stubMapping.setPersistent(true);
+        Files.writeString(mappingsDirectory.resolve(mappingName), StubMapping.buildJsonStringFor(stubMapping),
+                StandardCharsets.UTF_8);
+    }
+
+    // Method to read the recorded response headers, without those of the recorded connection
+    private static HttpHeaders readHeaders(JsonNode headersNode) {
+        List<HttpHeader> headers = new ArrayList<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = headersNode.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            if (SKIPPED_HEADERS.contains(field.getKey().toLowerCase())) {
+                continue;
+            }
+            List<String> values = new ArrayList<>();
+            field.getValue().forEach(value -> values.add(value.asText()));
+            headers.add(new HttpHeader(field.getKey(), values));
+        }
+        return new HttpHeaders(headers);
+    }
+
+    // Method to build the key of a request from its method, URL and body digest
+    private static String requestKey(String method, String url, byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return RequestMethod.fromString(method).getName() + ' ' + url + ' ' + HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
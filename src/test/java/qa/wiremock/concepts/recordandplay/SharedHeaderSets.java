@@ -0,0 +1,115 @@
+package qa.wiremock.concepts.recordandplay;
+
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.common.FileSource;
+import com.github.tomakehurst.wiremock.common.Json;
+import com.github.tomakehurst.wiremock.core.Options;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.extension.ExtensionDeclarations;
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformerV2;
+import com.github.tomakehurst.wiremock.http.HttpHeader;
+import com.github.tomakehurst.wiremock.http.HttpHeaders;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This code serves the response headers that the MappingCompactor moved out
+ * of the stub mappings into shared header sets.
+ * A compacted stub names its header set by content hash in the "headerSet"
+ * transformer parameter, and the set itself is one JSON file under the
+ * headers/ directory of the files root. Each set is read once and the same
+ * HttpHeaders instance serves every stub that names it, so thousands of
+ * recorded stubs with the same headers hold a single copy of them.
+ * Headers of the stub itself take precedence over those of its set.
+ * <p>
+ * Register it with SharedHeaderSets.configure(options), once the files root
+ * of the compacted recording is configured.
+ *
+ * @author Jagatheshwaran N
+ */
+public class SharedHeaderSets implements ResponseDefinitionTransformerV2 {
+
+    // Name of the extension, as transformer of the compacted stubs
+    public static final String NAME = "shared-headers";
+
+    // Transformer parameter naming the header set of a stub
+    public static final String HEADER_SET_PARAMETER = "headerSet";
+
+    // Directory of the header sets, under the files root
+    public static final String HEADERS_DIRECTORY = "headers";
+
+    // Directory of the header set files
+    private final FileSource headerSetsSource;
+
+    // Header sets read so far, keyed by content hash
+    private final Map<String, HttpHeaders> headerSets = new ConcurrentHashMap<>();
+
+    // Constructor of the transformer reading header sets under a files root
+    public SharedHeaderSets(FileSource filesRoot) {
+        this.headerSetsSource = filesRoot.child(HEADERS_DIRECTORY);
+    }
+
+    // Method to register the transformer on server options, once the files root is configured
+    public static WireMockConfiguration configure(WireMockConfiguration options) {
+        return options.extensions(new SharedHeaderSets(options.filesRoot()));
+    }
+
+    // Method to check whether server options register the transformer, as an instance or by class
+    public static boolean isRegistered(Options options) {
+        ExtensionDeclarations declared = options.getDeclaredExtensions();
+        return declared.getInstances().containsKey(NAME)
+                || declared.getClasses().contains(SharedHeaderSets.class)
+                || declared.getClassNames().contains(SharedHeaderSets.class.getName());
+    }
+
+    @Override
+    public ResponseDefinition transform(ServeEvent serveEvent) {
+        ResponseDefinition responseDefinition = serveEvent.getResponseDefinition();
+        Parameters parameters = serveEvent.getTransformerParameters();
+        if (parameters == null || !parameters.containsKey(HEADER_SET_PARAMETER)) {
+            return responseDefinition;
+        }
+        HttpHeaders sharedHeaders = getHeaderSet(parameters.getString(HEADER_SET_PARAMETER));
+        HttpHeaders ownHeaders = responseDefinition.getHeaders();
+        if (ownHeaders == null || ownHeaders.size() == 0) {
+            return ResponseDefinitionBuilder.like(responseDefinition).withHeaders(sharedHeaders).build();
+        }
+
+        List<HttpHeader> headers = new ArrayList<>(ownHeaders.all());
+        for (HttpHeader header : sharedHeaders.all()) {
+            if (!ownHeaders.getHeader(header.key()).isPresent()) {
+                headers.add(header);
+            }
+        }
+        return ResponseDefinitionBuilder.like(responseDefinition).withHeaders(new HttpHeaders(headers)).build();
+    }
+
+    // Applies only to the compacted stubs that name it
+    @Override
+    public boolean applyGlobally() {
+        return false;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    // Method to return a header set, read from its file the first time it is named
+    public HttpHeaders getHeaderSet(String hash) {
+        return headerSets.computeIfAbsent(hash, key -> Json.read(
+                headerSetsSource.getTextFileNamed(key + ".json").readContentsAsString(), HttpHeaders.class));
+    }
+
+    // Method to return the number of header sets read so far
+    public int getHeaderSetCount() {
+        return headerSets.size();
+    }
+
+}
@@ -0,0 +1,217 @@
+package qa.wiremock.concepts.recordandplay;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.extension.ServeEventListener;
+import com.github.tomakehurst.wiremock.http.HttpHeader;
+import com.github.tomakehurst.wiremock.http.LoggedResponse;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This code records the traffic to an upstream as it happens, instead of
+ * keeping it in the request journal until stopRecording() as WireMock's
+ * recorder does.
+ * A catch-all proxy stub forwards every request to the upstream, and this
+ * extension, as the stub's serve event listener, appends each completed
+ * exchange as one JSON line to an append-only log. Only the exchange being
+ * written is on the heap, so a long capture of a busy upstream costs disk,
+ * not memory. The log is turned into mappings/ and __files/ afterwards by the
+ * RecordingCompactor.
+ * Exchanges are buffered and the log is flushed every flush interval (1 s by
+ * default) by a thread of the recorder, and when the recording stops, so a
+ * busy capture does not pay a write call per exchange; a capture that stops
+ * abruptly keeps every exchange up to the last flush.
+ * <p>
+ * Register it with StreamingRecorder.configure(options, recorder), which
+ * also disables the request journal so that nothing else holds the traffic.
+ *
+ * @author Jagatheshwaran N
+ */
+public class StreamingRecorder implements ServeEventListener {
+
+    // Name of the extension, as serve event listener of the proxy stub
+    public static final String NAME = "streaming-recorder";
+
+    // Priority of the proxy stub, below every stub registered by the tests
+    private static final int PROXY_PRIORITY = 100;
+
+    // Default interval between two flushes of the log
+    public static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofSeconds(1);
+
+    // Size of the buffer of the log writer
+    private static final int BUFFER_CHARS = 64 * 1024;
+
+    // JSON mapper writing the exchanges
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    // Append-only log of the exchanges
+    private final Path logFile;
+
+    // Interval between two flushes of the log while recording
+    private final Duration flushInterval;
+
+    // Writer of the log while recording, null otherwise
+    private BufferedWriter writer;
+
+    // Thread flushing the log every flush interval while recording, null otherwise
+    private ScheduledExecutorService flusher;
+
+    // Catch-all proxy stub while recording, null otherwise
+    private StubMapping proxyStub;
+
+    // Server recording to this log while recording, null otherwise
+    private WireMockServer recordingServer;
+
+    // Number of exchanges written since the recording started
+    private long exchangeCount;
+
+    // Constructor of a recorder appending to a log file, flushed every second
+    public StreamingRecorder(Path logFile) {
+        this(logFile, DEFAULT_FLUSH_INTERVAL);
+    }
+
+    // Constructor of a recorder appending to a log file, flushed every flushInterval
+    public StreamingRecorder(Path logFile, Duration flushInterval) {
+        if (flushInterval.isNegative() || flushInterval.isZero()) {
+            throw new IllegalArgumentException("Flush interval must be positive, was " + flushInterval);
+        }
+        this.logFile = logFile;
+        this.flushInterval = flushInterval;
+    }
+
+    // Method to register the recorder on server options, with the request journal disabled
+    public static WireMockConfiguration configure(WireMockConfiguration options, StreamingRecorder recorder) {
+        return options.extensions(recorder).disableRequestJournal();
+    }
+
+    // Method to start proxying every request of the server to the upstream and appending the exchanges to the log
+    public synchronized void startRecording(WireMockServer wireMockServer, String upstreamBaseUrl) throws IOException {
+        if (writer != null) {
+            throw new IllegalStateException("Already recording to " + logFile);
+        }
+        Files.createDirectories(logFile.toAbsolutePath().getParent());
+        writer = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(logFile,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND), StandardCharsets.UTF_8), BUFFER_CHARS);
+        exchangeCount = 0;
+        flusher = Executors.newSingleThreadScheduledExecutor(task -> Thread.ofPlatform().daemon()
+                .name("streaming-recorder-flush").unstarted(task));
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushInterval.toMillis(), flushInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+        recordingServer = wireMockServer;
+        proxyStub = wireMockServer.stubFor(WireMock.any(WireMock.anyUrl())
+                .atPriority(PROXY_PRIORITY)
+                .willReturn(WireMock.aResponse().proxiedFrom(upstreamBaseUrl))
+                .withServeEventListener(NAME, Parameters.empty()));
+    }
+
+    // Method to stop proxying and close the log, flushing the buffered exchanges, returning the number of exchanges written
+    public synchronized long stopRecording() throws IOException {
+        if (writer == null) {
+            throw new IllegalStateException("Not recording");
+        }
+        recordingServer.removeStub(proxyStub);
+        flusher.shutdown();
+        flusher = null;
+        writer.close();
+        writer = null;
+        proxyStub = null;
+        recordingServer = null;
+        return exchangeCount;
+    }
+
+    @Override
+    public void afterComplete(ServeEvent serveEvent, Parameters parameters) {
+        LoggedRequest request = serveEvent.getRequest();
+        LoggedResponse response = serveEvent.getResponse();
+        if (response == null || response.getFault() != null) {
+            return;
+        }
+
+        ObjectNode exchange = MAPPER.createObjectNode();
+        exchange.put("method", request.getMethod().getName());
+        exchange.put("url", request.getUrl());
+        exchange.put("requestBody", Base64.getEncoder().encodeToString(request.getBody()));
+        exchange.put("status", response.getStatus());
+        ObjectNode headers = exchange.putObject("responseHeaders");
+        if (response.getHeaders() != null) {
+            for (HttpHeader header : response.getHeaders().all()) {
+                headers.putPOJO(header.key(), header.values());
+            }
+        }
+        exchange.put("responseBody", Base64.getEncoder().encodeToString(response.getBody()));
+        String line;
+        try {
+            line = MAPPER.writeValueAsString(exchange);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        append(line);
+    }
+
+    // Listens only to the proxy stub, as serve event listeners apply to every stub by default
+    @Override
+    public boolean applyGlobally() {
+        return false;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    // Method to return the log file of the recorder
+    public Path getLogFile() {
+        return logFile;
+    }
+
+    // Method to write the buffered exchanges to the log now, instead of on the next flush
+    public synchronized void flush() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    // Method to append one exchange to the buffer of the log
+    private synchronized void append(String line) {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.write(line);
+            writer.newLine();
+            exchangeCount++;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Method to flush the log on the flush thread, where an error would only cancel the next flushes
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (IOException ignored) {
+            // The same error surfaces on the next append or when the recording stops
+        }
+    }
+
+}
@@ -0,0 +1,134 @@
+package qa.wiremock.concepts.recordandplay;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import qa.wiremock.concepts.parallel.WireMockServerPool;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.stream.Stream;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * This code verifies the StreamingRecorder and the RecordingCompactor against
+ * a local stand-in for the students upstream of WireMockRecordAPITest, so no
+ * network is needed.
+ * Every exchange must be in the log once the recorder has flushed it, while
+ * the recording is still running,
+ * and the compacted mappings/ and __files/ must play the upstream back from a
+ * fresh server once the upstream is gone.
+ *
+ * @author Jagatheshwaran N
+ */
+public class StreamingRecorderTest {
+
+    // Interval between two flushes of the log
+    private static final Duration FLUSH_INTERVAL = Duration.ofMillis(200);
+
+    // Stand-in of the students upstream
+    private static WireMockServer upstreamServer;
+
+    // Server recording the traffic to the upstream
+    private static WireMockServer recordingServer;
+
+    // Recorder of the recording server
+    private static StreamingRecorder streamingRecorder;
+
+    // Working directory of the log and the compacted root
+    private static Path workDirectory;
+
+    // Method to start the upstream and the recording server before test execution
+    @BeforeClass
+    public void startupServer() throws IOException {
+        workDirectory = Files.createTempDirectory("streaming-recording");
+        streamingRecorder = new StreamingRecorder(workDirectory.resolve("capture.jsonl"), FLUSH_INTERVAL);
+
+        upstreamServer = WireMockServerPool.acquire(WireMockServerPool.defaultOptions());
+        WireMock upstream = WireMockServerPool.clientFor(upstreamServer);
+        upstream.register(WireMock.get("/students/1")
+                .willReturn(WireMock.okJson("{\"id\": 1, \"name\": \"Jagatheshwaran\"}")));
+        upstream.register(WireMock.get("/students/2")
+                .willReturn(WireMock.okJson("{\"id\": 2, \"name\": \"Nandhini\"}")));
+        upstream.register(WireMock.post("/students")
+                .withRequestBody(WireMock.equalToJson("{\"name\": \"Arun\"}"))
+                .willReturn(WireMock.jsonResponse("{\"id\": 3, \"name\": \"Arun\"}", 201)));
+
+        recordingServer = WireMockServerPool.acquire(
+                StreamingRecorder.configure(WireMockServerPool.defaultOptions(), streamingRecorder));
+    }
+
+    // Method to shut down the servers after test execution
+    @AfterClass
+    public void shutdownServer() {
+        WireMockServerPool.release(recordingServer);
+        if (upstreamServer != null) {
+            WireMockServerPool.release(upstreamServer);
+        }
+    }
+
+    // Test method to verify that exchanges are logged as they happen and compacted into a playable root
+    @Test
+    public void testStreamingRecordAndPlayback() throws IOException, InterruptedException {
+        streamingRecorder.startRecording(recordingServer, WireMockServerPool.baseUrlOf(upstreamServer));
+        String recordingUrl = WireMockServerPool.baseUrlOf(recordingServer);
+
+        given().when().get(recordingUrl + "/students/1").then().statusCode(200).body("id", equalTo(1));
+        given().when().get(recordingUrl + "/students/2").then().statusCode(200).body("id", equalTo(2));
+        given().when().get(recordingUrl + "/students/1").then().statusCode(200).body("id", equalTo(1));
+        given().contentType("application/json").body("{\"name\": \"Arun\"}")
+                .when().post(recordingUrl + "/students").then().statusCode(201).body("id", equalTo(3));
+
+        // Assert that every exchange is in the log after the next flush, before the recording stops
+        Thread.sleep(3 * FLUSH_INTERVAL.toMillis());
+        Assert.assertEquals(countLines(streamingRecorder.getLogFile()), 4);
+        Assert.assertEquals(streamingRecorder.stopRecording(), 4);
+
+        // Assert that the repeated request is compacted into a single mapping
+        Path rootDirectory = workDirectory.resolve("compacted");
+        Assert.assertEquals(new RecordingCompactor(rootDirectory).compact(streamingRecorder.getLogFile()), 3);
+        Assert.assertEquals(countFiles(rootDirectory.resolve("mappings")), 3);
+        Assert.assertEquals(countFiles(rootDirectory.resolve("__files")), 3);
+
+        // Assert that a fresh server plays the upstream back from the compacted root once the upstream is gone
+        WireMockServerPool.release(upstreamServer);
+        upstreamServer = null;
+        WireMockServer playbackServer = new WireMockServer(WireMockConfiguration.options()
+                .dynamicPort()
+                .usingFilesUnderDirectory(rootDirectory.toString()));
+        playbackServer.start();
+        try {
+            String playbackUrl = playbackServer.baseUrl();
+            given().when().get(playbackUrl + "/students/1").then().statusCode(200).body("name", equalTo("Jagatheshwaran"));
+            given().when().get(playbackUrl + "/students/2").then().statusCode(200).body("name", equalTo("Nandhini"));
+            given().contentType("application/json").body("{\"name\": \"Arun\"}")
+                    .when().post(playbackUrl + "/students").then().statusCode(201).body("id", equalTo(3));
+            given().when().get(playbackUrl + "/students/4").then().statusCode(404);
+        } finally {
+            playbackServer.stop();
+        }
+    }
+
+    // Method to count the lines of a file
+    private static long countLines(Path file) throws IOException {
+        try (Stream<String> lines = Files.lines(file)) {
+            return lines.count();
+        }
+    }
+
+    // Method to count the files of a directory
+    private static long countFiles(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+}
@@ -6,9 +6,10 @@ import com.github.tomakehurst.wiremock.stubbing.StubMapping;
 import io.restassured.RestAssured;
 import io.restassured.response.Response;
 import org.testng.Assert;
-import org.testng.annotations.AfterTest;
-import org.testng.annotations.BeforeTest;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
+import qa.wiremock.concepts.parallel.WireMockServerPool;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
@@ -26,43 +27,39 @@ import java.nio.file.Paths;
  */
 public class WireMockPlaybackAPITest {
 
-    // Constants for host and port
+    // Constant for host
     private static final String HOST = "localhost";
-    private static final int PORT = 8080;
 
     // Instance of WireMockServer
     public static WireMockServer wireMockServer;
 
+    // WireMock client bound to this class's server instance
+    private static WireMock wireMock;
+
     // Method to start the WireMock server and configure stubs before test execution
-    @BeforeTest
+    @BeforeClass
     public void startupServer() {
-        // Creates a new WireMock server instance.
-        wireMockServer = new WireMockServer(PORT);
-
-        // Starts the WireMock server.
-        wireMockServer.start();
+        // Acquires a WireMock server running on a free port from the pool.
+        wireMockServer = WireMockServerPool.acquire();
 
-        // Configures WireMock to listen on the specified host and port.
-        WireMock.configureFor(HOST, PORT);
+        // Binds a WireMock client to the acquired server instance.
+        wireMock = WireMockServerPool.clientFor(wireMockServer);
     }
 
     // Method to shut down the WireMock server after test execution
-    @AfterTest
+    @AfterClass
     public void shutdownServer() {
         // Checks if the WireMock server is running and not null before shutting it down.
         if (wireMockServer != null && wireMockServer.isRunning()) {
-            wireMockServer.shutdownServer();
+            WireMockServerPool.release(wireMockServer);
         }
     }
 
     // Test method to verify the behavior of the play-back GET API
     @Test
     public void testWireMockPlaybackAPI() throws IOException {
-        // Create a new instance of WireMock
-        WireMock wireMock = new WireMock();
-
-        // Construct the request URL using the specified host and port
-        String requestUrl = String.format("http://%s:%d", HOST, PORT);
+        // Construct the request URL using the specified host and the server port
+        String requestUrl = String.format("http://%s:%d", HOST, wireMockServer.port());
 
         // Read the content of the pre-recorded JSON mapping file into a string
         String jsonString = Files.readString(Paths.get("src/test/resources/mappings/get--4880e29c-6507-4719-894c-d8e43c7268e3.json"), StandardCharsets.UTF_8);
@@ -70,7 +67,7 @@ public class WireMockPlaybackAPITest {
         // Build a StubMapping object from the JSON string representation
         StubMapping stubMapping = StubMapping.buildFrom(jsonString);
 
-        // Register the stub mapping with WireMock
+        // Register the stub mapping with the WireMock client bound to this class's server
         wireMock.register(stubMapping);
 
         // Send a GET request to the playback server using RestAssured
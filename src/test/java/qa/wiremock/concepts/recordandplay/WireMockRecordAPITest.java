@@ -1,10 +1,10 @@
 package qa.wiremock.concepts.recordandplay;
 
 import com.github.tomakehurst.wiremock.WireMockServer;
-import com.github.tomakehurst.wiremock.client.WireMock;
-import org.testng.annotations.AfterTest;
-import org.testng.annotations.BeforeTest;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
+import qa.wiremock.concepts.parallel.WireMockServerPool;
 
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.Matchers.equalTo;
@@ -19,39 +19,32 @@ import static org.hamcrest.Matchers.equalTo;
  */
 public class WireMockRecordAPITest {
 
-    // Constants for host and port
+    // Constant for host
     private static final String HOST = "localhost";
-    private static final int PORT = 8080;
 
     // Instance of WireMockServer
     public static WireMockServer wireMockServer;
 
     // Method to start the WireMock server and configure stubs before test execution
-    @BeforeTest
+    @BeforeClass
     public void startupServer() {
-        // Creates a new WireMock server instance.
-        wireMockServer = new WireMockServer(PORT);
-
-        // Starts the WireMock server.
-        wireMockServer.start();
-
-        // Configures WireMock to listen on the specified host and port.
-        WireMock.configureFor(HOST, PORT);
+        // Acquires a WireMock server running on a free port from the pool.
+        wireMockServer = WireMockServerPool.acquire();
 
         // Start recording API interactions for the specified endpoint
         wireMockServer.startRecording("http://localhost:3000/students/1");
     }
 
     // Method to shut down the WireMock server after test execution
-    @AfterTest
+    @AfterClass
     public void shutdownServer() {
         // Check if the WireMock server instance exists and is running
         if (wireMockServer != null && wireMockServer.isRunning()) {
             // Stop the recording on the WireMock server
             wireMockServer.stopRecording();
 
-            // Stop the WireMock server
-            wireMockServer.stop();
+            // Releases the WireMock server back to the pool
+            WireMockServerPool.release(wireMockServer);
 
             // Ensure proper resource cleanup
             wireMockServer = null;
@@ -61,8 +54,8 @@ public class WireMockRecordAPITest {
     // Test method to verify the behavior of the recorded GET API
     @Test
     public void testWireMockRecordAPI() {
-        // Construct the request URL using the HOST and PORT constants
-        String requestUrl = String.format("http://%s:%d", HOST, PORT);
+        // Construct the request URL using the HOST constant and the server port
+        String requestUrl = String.format("http://%s:%d", HOST, wireMockServer.port());
 
         given() // Start building the request specification
         .when() // Perform the action (in this case, an HTTP GET request)
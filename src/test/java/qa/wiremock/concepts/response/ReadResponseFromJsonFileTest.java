@@ -5,9 +5,10 @@ import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
 import com.github.tomakehurst.wiremock.client.WireMock;
 import io.restassured.response.ValidatableResponse;
 import org.testng.Assert;
-import org.testng.annotations.AfterTest;
-import org.testng.annotations.BeforeTest;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
+import qa.wiremock.concepts.parallel.WireMockServerPool;
 
 import static io.restassured.RestAssured.given;
 
@@ -26,24 +27,23 @@ import static io.restassured.RestAssured.given;
  */
 public class ReadResponseFromJsonFileTest {
 
-    // Constants for host and port
+    // Constant for host
     private static final String HOST = "localhost";
-    private static final int PORT = 8080;
 
     // Instance of WireMockServer
     public static WireMockServer wireMockServer;
 
+    // WireMock client bound to this class's server instance
+    private static WireMock wireMock;
+
     // Method to start the WireMock server and configure stubs before test execution
-    @BeforeTest
+    @BeforeClass
     public void startupServer() {
-        // Creates a new WireMock server instance.
-        wireMockServer = new WireMockServer(PORT);
-
-        // Starts the WireMock server.
-        wireMockServer.start();
+        // Acquires a WireMock server running on a free port from the pool.
+        wireMockServer = WireMockServerPool.acquire();
 
-        // Configures WireMock to listen on the specified host and port.
-        WireMock.configureFor(HOST, PORT);
+        // Binds a WireMock client to the acquired server instance.
+        wireMock = WireMockServerPool.clientFor(wireMockServer);
 
         // Creates a response definition builder object.
         ResponseDefinitionBuilder responseDefinitionBuilder = new ResponseDefinitionBuilder();
@@ -64,23 +64,23 @@ public class ReadResponseFromJsonFileTest {
         responseDefinitionBuilder.withBodyFile("json/worker.json"); // Loads the expected response data from a JSON file
 
         // Stubbing a GET request for the '/worker/1' endpoint with the defined response
-        WireMock.stubFor(WireMock.get("/worker/1").willReturn(responseDefinitionBuilder)); // Defines the request-response behavior
+        wireMock.register(WireMock.get("/worker/1").willReturn(responseDefinitionBuilder)); // Defines the request-response behavior
     }
 
     // Method to shut down the WireMock server after test execution
-    @AfterTest
+    @AfterClass
     public void shutdownServer() {
         // Checks if the WireMock server is running and not null before shutting it down.
         if (wireMockServer != null && wireMockServer.isRunning()) {
-            wireMockServer.shutdownServer();
+            WireMockServerPool.release(wireMockServer);
         }
     }
 
     // Test method to read and validate response from a JSON file using WireMock
     @Test
     public void testReadResponseFromJsonFile() {
-        // Construct the request URL for the '/worker/1' endpoint using HOST and PORT variables
-        String requestUrl = String.format("http://%s:%d/worker/1", HOST, PORT);
+        // Construct the request URL for the '/worker/1' endpoint using the HOST variable and the server port
+        String requestUrl = String.format("http://%s:%d/worker/1", HOST, wireMockServer.port());
 
         // Send a GET request to the constructed URL and capture the response
         ValidatableResponse response =
@@ -0,0 +1,281 @@
+package qa.wiremock.concepts.response;
+
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.extension.ResponseTransformerV2;
+import com.github.tomakehurst.wiremock.http.HttpHeader;
+import com.github.tomakehurst.wiremock.http.Response;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * This code serves very large JSON arrays, generated from an element template
+ * and a count, without ever holding the array in memory:
+ * <p>
+ * stubFor(get("/students").willReturn(okJson("{\"id\": {{number}}, ...}")
+ * .withTransformers(StreamedJsonArray.NAME)
+ * .withTransformerParameters(StreamedJsonArray.count(3_000_000))));
+ * <p>
+ * The body of the stub (inline or a body file) is the template of one
+ * element: {{index}} is replaced by the position of the element from 0,
+ * {{number}} by its position from 1. The template is split once into its
+ * literal bytes and placeholders, and the body becomes a stream generating
+ * "[", the elements separated by ",", and "]" as the servlet writes it,
+ * 128 KB at a time, so a 500 MB array costs the same memory as a small one.
+ * The size of the array is computed from the template, not by generating
+ * it, and sent as Content-Length, so WireMock never reads the body to
+ * measure it.
+ * <p>
+ * WireMock keeps a copy of every response body in the request journal;
+ * configure() caps that copy to LOGGED_BODY_BYTES. Stubs generating arrays
+ * must not use the response-template transformer (it would render the
+ * placeholders) nor a chunked dribble delay on its own (WireMock reads the
+ * whole body to split it); ThrottledResponses, named after this transformer,
+ * streams them at a limited bandwidth or in the chunks of a dribble delay.
+ * <p>
+ * Register it with StreamedJsonArray.configure(options).
+ *
+ * @author Jagatheshwaran N
+ */
+public class StreamedJsonArray implements ResponseTransformerV2 {
+
+    // Name of the extension, as transformer of the stubs generating arrays
+    public static final String NAME = "streamed-json-array";
+
+    // Transformer parameter holding the number of elements of the array
+    public static final String COUNT_PARAMETER = "count";
+
+    // Bytes of a response body kept in the request journal
+    public static final int LOGGED_BODY_BYTES = 4096;
+
+    // Size of the blocks written to the servlet
+    private static final int TRANSFER_BYTES = 128 * 1024;
+
+    // Placeholders of the element template
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\{\\{(index|number)}}");
+
+    // Bytes around and between the elements
+    private static final byte[] OPEN = "[".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] SEPARATOR = ",".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] CLOSE = "]".getBytes(StandardCharsets.UTF_8);
+
+    // Method to register the transformer on server options, capping the body kept in the journal
+    public static WireMockConfiguration configure(WireMockConfiguration options) {
+        return options.extensions(new StreamedJsonArray()).maxLoggedResponseSize(LOGGED_BODY_BYTES);
+    }
+
+    // Method to build the transformer parameters of a stub generating count elements
+    public static Parameters count(long count) {
+        return Parameters.one(COUNT_PARAMETER, count);
+    }
+
+    // Replaces the body, the element template, by the generated array
+    @Override
+    public Response transform(Response response, ServeEvent serveEvent) {
+        Object count = serveEvent.getTransformerParameters().get(COUNT_PARAMETER);
+        if (response.getFault() != null || !(count instanceof Number number)) {
+            return response;
+        }
+        ElementTemplate template = ElementTemplate.parse(response.getBodyAsString());
+        long elements = number.longValue();
+        return Response.Builder.like(response)
+                .headers(response.getHeaders()
+                        .plus(HttpHeader.httpHeader("Content-Length", Long.toString(template.arrayLength(elements)))))
+                .body(() -> template.stream(elements))
+                .build();
+    }
+
+    // Applies only to the stubs that name it
+    @Override
+    public boolean applyGlobally() {
+        return false;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    /**
+     * Element template split into literal bytes and placeholders: literals[0],
+     * placeholder 0, literals[1], ..., literals[placeholders.length].
+     */
+    public static final class ElementTemplate {
+
+        // Literal bytes around the placeholders
+        private final byte[][] literals;
+
+        // Placeholders in order, true for {{number}} and false for {{index}}
+        private final boolean[] numbers;
+
+        // Total bytes of the literals of one element
+        private final long literalLength;
+
+        private ElementTemplate(byte[][] literals, boolean[] numbers) {
+            this.literals = literals;
+            this.numbers = numbers;
+            long length = 0;
+            for (byte[] literal : literals) {
+                length += literal.length;
+            }
+            this.literalLength = length;
+        }
+
+        // Method to split an element template into its literals and placeholders
+        public static ElementTemplate parse(String template) {
+            List<byte[]> literals = new ArrayList<>();
+            List<Boolean> numbers = new ArrayList<>();
+            Matcher matcher = PLACEHOLDER.matcher(template);
+            int start = 0;
+            while (matcher.find()) {
+                literals.add(template.substring(start, matcher.start()).getBytes(StandardCharsets.UTF_8));
+                numbers.add(matcher.group(1).equals("number"));
+                start = matcher.end();
+            }
+            literals.add(template.substring(start).getBytes(StandardCharsets.UTF_8));
+
+            boolean[] placeholders = new boolean[numbers.size()];
+            for (int i = 0; i < placeholders.length; i++) {
+                placeholders[i] = numbers.get(i);
+            }
+            return new ElementTemplate(literals.toArray(byte[][]::new), placeholders);
+        }
+
+        // Method to compute the bytes of an array of count elements, without generating it
+        public long arrayLength(long count) {
+            long length = OPEN.length + CLOSE.length + count * literalLength
+                    + Math.max(0, count - 1) * SEPARATOR.length;
+            for (boolean number : numbers) {
+                length += number ? digitsBelow(count + 1) - digitsBelow(1) : digitsBelow(count);
+            }
+            return length;
+        }
+
+        // Method to open a stream generating an array of count elements
+        public InputStream stream(long count) {
+            return new GeneratedArray(this, count);
+        }
+
+        // Method to count the decimal digits of the numbers from 0 to limit - 1
+        private static long digitsBelow(long limit) {
+            long digits = Math.min(limit, 10);
+            for (long decade = 10, width = 2; decade < limit; decade *= 10, width++) {
+                digits += (Math.min(limit, decade * 10) - decade) * width;
+            }
+            return digits;
+        }
+    }
+
+    /**
+     * Stream of a generated array, copying one small chunk at a time (a
+     * literal, a number or a separator) into the reader's buffer.
+     */
+    private static final class GeneratedArray extends InputStream {
+
+        private final ElementTemplate template;
+        private final long count;
+
+        // Element being written, and its next part: -1 for the separator before it,
+        // then literal 0, placeholder 0, literal 1... in order; the first element has no separator
+        private long element;
+        private int part;
+
+        // Chunk being copied
+        private byte[] chunk = OPEN;
+        private int chunkOffset;
+        private int chunkEnd = OPEN.length;
+
+        // Digits of the current placeholder, right-aligned
+        private final byte[] digits = new byte[20];
+
+        // Buffer of read()
+        private final byte[] single = new byte[1];
+
+        private GeneratedArray(ElementTemplate template, long count) {
+            this.template = template;
+            this.count = count;
+        }
+
+        @Override
+        public int read() {
+            return read(single, 0, 1) < 0 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            int read = 0;
+            while (read < length) {
+                if (chunkOffset == chunkEnd && !nextChunk()) {
+                    return read == 0 ? -1 : read;
+                }
+                int copied = Math.min(length - read, chunkEnd - chunkOffset);
+                System.arraycopy(chunk, chunkOffset, buffer, offset + read, copied);
+                chunkOffset += copied;
+                read += copied;
+            }
+            return read;
+        }
+
+        // Writes the array in blocks of TRANSFER_BYTES, fewer and larger writes to the servlet than InputStream's 16 KB
+        @Override
+        public long transferTo(OutputStream out) throws IOException {
+            byte[] buffer = new byte[TRANSFER_BYTES];
+            long transferred = 0;
+            for (int read = read(buffer, 0, buffer.length); read > 0; read = read(buffer, 0, buffer.length)) {
+                out.write(buffer, 0, read);
+                transferred += read;
+            }
+            return transferred;
+        }
+
+        // Method to move to the next chunk of the array, false once the array is written
+        private boolean nextChunk() {
+            if (chunk == CLOSE) {
+                return false;
+            }
+            int parts = template.literals.length * 2 - 1;
+            if (element >= count) {
+                return setChunk(CLOSE, 0, CLOSE.length);
+            }
+            if (part == -1) {
+                part = 0;
+                return setChunk(SEPARATOR, 0, SEPARATOR.length);
+            }
+            int current = part;
+            // Moves on to the next part, or to the separator of the next element after the last literal
+            if (++part == parts) {
+                element++;
+                part = -1;
+            }
+            if (current % 2 == 0) {
+                byte[] literal = template.literals[current / 2];
+                return setChunk(literal, 0, literal.length);
+            }
+            // A placeholder is never the last part, so the element has not moved on
+            long value = template.numbers[current / 2] ? element + 1 : element;
+            int start = digits.length;
+            do {
+                digits[--start] = (byte) ('0' + value % 10);
+                value /= 10;
+            } while (value > 0);
+            return setChunk(digits, start, digits.length);
+        }
+
+        // Method to start copying a chunk
+        private boolean setChunk(byte[] bytes, int offset, int end) {
+            chunk = bytes;
+            chunkOffset = offset;
+            chunkEnd = end;
+            return true;
+        }
+    }
+
+}
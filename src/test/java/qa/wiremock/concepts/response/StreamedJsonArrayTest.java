@@ -0,0 +1,239 @@
+package qa.wiremock.concepts.response;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import io.restassured.response.Response;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import qa.wiremock.concepts.parallel.WireMockServerPool;
+
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * This code verifies that StreamedJsonArray serves a JSON array generated
+ * from the element template of its stub, including an array larger than the
+ * whole heap of the JVM serving it, which only works if the array is never
+ * held in memory. That server runs in a child JVM with a small fixed heap,
+ * so the size of the array does not depend on the machine.
+ *
+ * @author Jagatheshwaran N
+ */
+public class StreamedJsonArrayTest {
+
+    // Element template of the arrays
+    private static final String STUDENT_FILE = "json/student.json";
+
+    // Elements of the small array
+    private static final int SMALL_COUNT = 3;
+
+    // Heap of the child JVM, and elements of its array, about 160 MB
+    private static final int CHILD_HEAP_MB = 64;
+    private static final long LARGE_COUNT = 1_000_000;
+
+    // Time allowed for the child JVM to print its readiness line
+    private static final long STARTUP_TIMEOUT_SECONDS = 60;
+
+    // Prefix of the readiness line of the child JVM, followed by its port
+    private static final String READY_PREFIX = "READY ";
+
+    // Instance of WireMockServer
+    private static WireMockServer wireMockServer;
+
+    // Process of the child JVM serving the array larger than its heap, and its port
+    private static Process largeArrayServer;
+    private static int largeArrayPort;
+
+    // Method to start the WireMock server with stubs generating arrays of students, and the child JVM, before test execution
+    @BeforeClass
+    public void startupServer() throws Exception {
+        wireMockServer = WireMockServerPool.acquire(StreamedJsonArray.configure(WireMockConfiguration.options()));
+        WireMock client = WireMockServerPool.clientFor(wireMockServer);
+        client.register(WireMock.get("/students")
+                .willReturn(WireMock.ok().withHeader("Content-Type", "application/json")
+                        .withBodyFile(STUDENT_FILE)
+                        .withTransformers(StreamedJsonArray.NAME)
+                        .withTransformerParameters(StreamedJsonArray.count(SMALL_COUNT))));
+        client.register(WireMock.get("/students/none")
+                .willReturn(WireMock.okJson("{\"id\": {{number}}}")
+                        .withTransformers(StreamedJsonArray.NAME)
+                        .withTransformerParameters(StreamedJsonArray.count(0))));
+
+        largeArrayServer = new ProcessBuilder(Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                "-Xmx" + CHILD_HEAP_MB + "m", "-XX:+ExitOnOutOfMemoryError",
+                "-cp", System.getProperty("java.class.path"), LargeArrayServer.class.getName(), Long.toString(LARGE_COUNT))
+                .redirectErrorStream(true)
+                .start();
+        try {
+            // Waits on the readiness line, then keeps draining the output of the child JVM
+            BufferedReader output = new BufferedReader(new InputStreamReader(largeArrayServer.getInputStream(), StandardCharsets.UTF_8));
+            String readyLine = CompletableFuture.supplyAsync(() -> readUntilReady(output))
+                    .get(STARTUP_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            Thread.ofPlatform().daemon().name("large-array-output").start(() -> output.lines().forEach(System.out::println));
+            largeArrayPort = Integer.parseInt(readyLine.substring(READY_PREFIX.length()).trim());
+        } catch (Exception e) {
+            largeArrayServer.destroyForcibly();
+            throw e;
+        }
+    }
+
+    // Method to shut down the WireMock server and the child JVM after test execution
+    @AfterClass
+    public void shutdownServer() throws InterruptedException {
+        WireMockServerPool.release(wireMockServer);
+        if (largeArrayServer != null) {
+            largeArrayServer.destroy();
+            largeArrayServer.waitFor(10, TimeUnit.SECONDS);
+        }
+    }
+
+    // Test method to verify that a small array repeats the body file with the position of each element
+    @Test
+    public void testSmallArrayFromBodyFile() {
+        Response response = given().baseUri(WireMockServerPool.baseUrlOf(wireMockServer))
+                .when().get("/students")
+                .then().statusCode(200).contentType("application/json")
+                .extract().response();
+
+        // Assert that every student of the list is there, numbered from 1
+        Assert.assertEquals(response.jsonPath().getList("id"), List.of(1, 2, 3));
+        Assert.assertEquals(response.jsonPath().getString("[2].name"), "John Doe");
+        Assert.assertEquals(response.jsonPath().getList("[0].courses"), List.of("Mathematics", "History", "Science"));
+
+        // Assert that an empty array is still valid JSON
+        Assert.assertEquals(given().baseUri(WireMockServerPool.baseUrlOf(wireMockServer))
+                .when().get("/students/none").asString(), "[]");
+    }
+
+    // Test method to verify that an array larger than the heap of its server is streamed whole, and only its start is journaled
+    @Test
+    public void testArrayLargerThanHeap() throws IOException, InterruptedException {
+        StreamedJsonArray.ElementTemplate template = StreamedJsonArray.ElementTemplate.parse(
+                Files.readString(Paths.get("src/test/resources/__files/" + STUDENT_FILE), StandardCharsets.UTF_8));
+        long largeBytes = template.arrayLength(LARGE_COUNT);
+        Assert.assertTrue(largeBytes > 2L * CHILD_HEAP_MB * 1024 * 1024, largeBytes + " bytes");
+
+        HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + largeArrayPort + "/students/all")).build();
+
+        long start = System.nanoTime();
+        HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        Assert.assertEquals(response.statusCode(), 200);
+        Assert.assertEquals(response.headers().firstValueAsLong("Content-Length").orElse(-1), largeBytes);
+
+        // Parses the array as it arrives, checking the position of every element
+        long elements = 0;
+        CountingInputStream body = new CountingInputStream(response.body());
+        try (JsonParser parser = new JsonFactory().createParser(body)) {
+            Assert.assertEquals(parser.nextToken(), JsonToken.START_ARRAY);
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                elements++;
+                Assert.assertEquals(parser.nextFieldName(), "id");
+                parser.nextToken();
+                if (parser.getLongValue() != elements) {
+                    Assert.fail("Element " + elements + " has id " + parser.getLongValue());
+                }
+                while (parser.nextToken() != JsonToken.END_OBJECT) {
+                    parser.skipChildren();
+                }
+            }
+            Assert.assertEquals(parser.currentToken(), JsonToken.END_ARRAY);
+        }
+        long elapsedMillis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        System.out.println("Streamed " + elements + " students, " + body.count / (1024 * 1024) + " MB, in "
+                + elapsedMillis + " ms from a server with a heap of " + CHILD_HEAP_MB + " MB");
+
+        // Assert that the whole array arrived and the server survived it
+        Assert.assertEquals(elements, LARGE_COUNT);
+        Assert.assertEquals(body.count, largeBytes);
+        Assert.assertTrue(largeArrayServer.isAlive(), "The server of the large array exited");
+
+        // Assert that the journal kept only the start of the array
+        List<ServeEvent> serveEvents = new WireMock("localhost", largeArrayPort).getServeEvents();
+        Assert.assertEquals(serveEvents.size(), 1);
+        Assert.assertEquals(serveEvents.get(0).getResponse().getBody().length, StreamedJsonArray.LOGGED_BODY_BYTES);
+    }
+
+    // Method to read the output of the child JVM up to its readiness line
+    private static String readUntilReady(BufferedReader output) {
+        try {
+            for (String line = output.readLine(); line != null; line = output.readLine()) {
+                if (line.startsWith(READY_PREFIX)) {
+                    return line;
+                }
+                System.out.println(line);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read the output of the large array server", e);
+        }
+        throw new IllegalStateException("Large array server exited before it was ready");
+    }
+
+    /**
+     * Main class of the child JVM: a server generating an array of students
+     * of the given count, printing its port once started.
+     */
+    public static final class LargeArrayServer {
+
+        public static void main(String[] args) {
+            WireMockServer server = new WireMockServer(StreamedJsonArray.configure(WireMockConfiguration.options().dynamicPort()));
+            server.start();
+            server.stubFor(WireMock.get("/students/all")
+                    .willReturn(WireMock.ok().withHeader("Content-Type", "application/json")
+                            .withBodyFile(STUDENT_FILE)
+                            .withTransformers(StreamedJsonArray.NAME)
+                            .withTransformerParameters(StreamedJsonArray.count(Long.parseLong(args[0])))));
+            System.out.println(READY_PREFIX + server.port());
+            System.out.flush();
+        }
+    }
+
+    /**
+     * Stream counting the bytes read through it.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private long count;
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int read = super.read();
+            count += read < 0 ? 0 : 1;
+            return read;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            count += Math.max(read, 0);
+            return read;
+        }
+    }
+
+}
@@ -0,0 +1,78 @@
+package qa.wiremock.concepts.response_template;
+
+import com.github.jknack.handlebars.Helper;
+import com.github.tomakehurst.wiremock.core.Options;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.extension.Extension;
+import com.github.tomakehurst.wiremock.extension.ExtensionFactory;
+import com.github.tomakehurst.wiremock.extension.TemplateHelperProviderExtension;
+import com.github.tomakehurst.wiremock.extension.TemplateModelDataProviderExtension;
+import com.github.tomakehurst.wiremock.extension.WireMockServices;
+import com.github.tomakehurst.wiremock.extension.responsetemplating.ResponseTemplateTransformer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * This code replaces WireMock's "response-template" transformer with one that
+ * renders through the CachedTemplateEngine.
+ * Stubs keep using .withTransformers("response-template"); the built-in
+ * transformer is switched off and this factory registers the same transformer
+ * under the same name, with the template helpers and model data providers of
+ * the other extensions of the server.
+ *
+ * @author Jagatheshwaran N
+ */
+public class CachedResponseTemplating implements ExtensionFactory {
+
+    // Template engine of the server, set once the server has started
+    private volatile CachedTemplateEngine templateEngine;
+
+    // Method to switch server options to the cached response templating
+    public static WireMockConfiguration configure(WireMockConfiguration options) {
+        return configure(options, new CachedResponseTemplating());
+    }
+
+    // Method to switch server options to the given cached response templating
+    public static WireMockConfiguration configure(WireMockConfiguration options, CachedResponseTemplating templating) {
+        return options.templatingEnabled(false).extensions(templating);
+    }
+
+    @Override
+    public List<Extension> create(WireMockServices services) {
+        Options options = services.getOptions();
+
+        Map<String, Helper<?>> helpers = collectHelpers(services.getExtensions()
+                .ofType(TemplateHelperProviderExtension.class).values());
+        List<TemplateModelDataProviderExtension> modelDataProviders = new ArrayList<>(services.getExtensions()
+                .ofType(TemplateModelDataProviderExtension.class).values());
+
+        templateEngine = new CachedTemplateEngine(helpers,
+                options.getMaxTemplateCacheEntries(),
+                options.getTemplatePermittedSystemKeys(),
+                options.getTemplateEscapingDisabled());
+        return List.of(new ResponseTemplateTransformer(templateEngine,
+                options.getResponseTemplatingGlobal(),
+                services.getFiles(),
+                modelDataProviders));
+    }
+
+    // Method to collect the helpers of template helper extensions in registration order; a helper name
+    // provided twice keeps the last one, as Handlebars does when a helper is registered again
+    static Map<String, Helper<?>> collectHelpers(Collection<TemplateHelperProviderExtension> extensions) {
+        return extensions.stream()
+                .flatMap(extension -> extension.provideTemplateHelpers().entrySet().stream())
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (earlier, later) -> later,
+                        LinkedHashMap::new));
+    }
+
+    // Method to return the template engine of the server, for its cache statistics
+    public CachedTemplateEngine getTemplateEngine() {
+        return templateEngine;
+    }
+
+}
@@ -0,0 +1,87 @@
+package qa.wiremock.concepts.response_template;
+
+import com.github.jknack.handlebars.Helper;
+import com.github.tomakehurst.wiremock.extension.responsetemplating.HandlebarsOptimizedTemplate;
+import com.github.tomakehurst.wiremock.extension.responsetemplating.TemplateEngine;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This code caches the compiled Handlebars templates of response-template
+ * stubs by their template text, so that a template is parsed once and every
+ * later request only renders it.
+ * WireMock's own cache is keyed by the whole response definition, which is
+ * hashed again on every request, and by the file name for body files, so an
+ * edited body file keeps its old template. Keying by the template text (its
+ * hash, confirmed by equality) fixes both and lets stubs with the same
+ * template share one compiled template.
+ * When the cache is bounded, the least recently used template is evicted
+ * first: the cache is an access-ordered LinkedHashMap behind one lock, held
+ * only for the lookup itself (templates are compiled outside of it). The
+ * hit/miss counters are kept so that the cache can be reported.
+ *
+ * @author Jagatheshwaran N
+ */
+public class CachedTemplateEngine extends TemplateEngine {
+
+    // Compiled templates by their template text, in least recently used order
+    private final Map<String, HandlebarsOptimizedTemplate> templates;
+
+    // Cache statistics
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public CachedTemplateEngine(Map<String, Helper<?>> helpers,
+                                Long maxEntries,
+                                Set<String> permittedSystemKeys,
+                                boolean escapingDisabled) {
+        super(helpers, maxEntries, permittedSystemKeys, escapingDisabled);
+        this.templates = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            // Evicts the least recently used template once the cache is over its bound
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, HandlebarsOptimizedTemplate> eldest) {
+                return maxEntries != null && size() > maxEntries;
+            }
+        });
+    }
+
+    @Override
+    public HandlebarsOptimizedTemplate getTemplate(Object key, String content) {
+        HandlebarsOptimizedTemplate template = templates.get(content);
+        if (template != null) {
+            hits.increment();
+            return template;
+        }
+
+        misses.increment();
+        template = getUncachedTemplate(content);
+        HandlebarsOptimizedTemplate concurrentlyCompiled = templates.putIfAbsent(content, template);
+        return concurrentlyCompiled != null ? concurrentlyCompiled : template;
+    }
+
+    @Override
+    public long getCacheSize() {
+        return templates.size();
+    }
+
+    @Override
+    public void invalidateCache() {
+        super.invalidateCache();
+        templates.clear();
+    }
+
+    // Method to count the requests rendered with an already compiled template
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    // Method to count the templates compiled
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+}
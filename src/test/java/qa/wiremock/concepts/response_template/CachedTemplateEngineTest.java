@@ -0,0 +1,181 @@
+package qa.wiremock.concepts.response_template;
+
+import com.github.jknack.handlebars.Helper;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.extension.TemplateHelperProviderExtension;
+import io.restassured.path.json.JsonPath;
+import org.json.JSONObject;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import qa.wiremock.concepts.parallel.WireMockServerPool;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * This code verifies the compiled template cache of the CachedTemplateEngine
+ * with the flight template of WireMockResponseTemplatingTest.
+ * The template must be compiled once and then only rendered, every request
+ * must still get its own random values and query parameters, and two stubs
+ * with the same template must share the compiled template. A bounded cache
+ * must evict the least recently used template, and a helper name provided by
+ * two extensions must keep the last one.
+ *
+ * @author Jagatheshwaran N
+ */
+public class CachedTemplateEngineTest {
+
+    // Path of the flight stub definition
+    private static final String FLIGHT_FILE = System.getProperty("user.dir") + "/src/test/resources/__files/json/flight.json";
+
+    // Cached response templating of the server, to read the cache statistics
+    private static CachedResponseTemplating templating;
+
+    // Instance of WireMockServer
+    private static WireMockServer wireMockServer;
+
+    // WireMock client bound to this class's server instance
+    private static WireMock wireMock;
+
+    // Flight response template
+    private static String flightTemplate;
+
+    // Method to start a server with the cached response templating before test execution
+    @BeforeClass
+    public void startupServer() throws IOException {
+        templating = new CachedResponseTemplating();
+        wireMockServer = WireMockServerPool.acquire(
+                CachedResponseTemplating.configure(WireMockConfiguration.options(), templating));
+        wireMock = WireMockServerPool.clientFor(wireMockServer);
+
+        flightTemplate = new JSONObject(Files.readString(Paths.get(FLIGHT_FILE), StandardCharsets.UTF_8))
+                .getJSONObject("response").getJSONObject("jsonBody").toString(2);
+        wireMock.register(WireMock.get(WireMock.urlPathEqualTo("/flights"))
+                .willReturn(ResponseDefinitionBuilder.responseDefinition().withStatus(200)
+                        .withBody(flightTemplate)
+                        .withTransformers("response-template")));
+    }
+
+    // Method to shut down the WireMock server after test execution
+    @AfterClass
+    public void shutdownServer() {
+        WireMockServerPool.release(wireMockServer);
+    }
+
+    // Test method to verify that the flight template is compiled once and rendered per request
+    @Test(priority = 1)
+    public void testTemplateIsCompiledOnce() {
+        CachedTemplateEngine templateEngine = templating.getTemplateEngine();
+        long missesBefore = templateEngine.getMissCount();
+        long hitsBefore = templateEngine.getHitCount();
+
+        JsonPath first = getFlights("Chennai", "Texas");
+        JsonPath second = getFlights("Delhi", "Dubai");
+        getFlights("Mumbai", "London");
+
+        // Assert that only the first request compiled the template
+        Assert.assertEquals(templateEngine.getMissCount() - missesBefore, 1);
+        Assert.assertEquals(templateEngine.getHitCount() - hitsBefore, 2);
+
+        // Assert that the cached template still renders each request's values
+        Assert.assertEquals(first.getString("available[0].from"), "Chennai");
+        Assert.assertEquals(second.getString("available[0].from"), "Delhi");
+        Assert.assertNotEquals(first.getString("cancelled[0].cancellationId"),
+                second.getString("cancelled[0].cancellationId"));
+    }
+
+    // Test method to verify that stubs with the same template share the compiled template
+    @Test(priority = 2)
+    public void testStubsShareTemplateByText() {
+        wireMock.register(WireMock.get(WireMock.urlPathEqualTo("/flights/return"))
+                .willReturn(ResponseDefinitionBuilder.responseDefinition().withStatus(200)
+                        .withBody(flightTemplate)
+                        .withTransformers("response-template")));
+        getFlights("Chennai", "Texas");
+
+        CachedTemplateEngine templateEngine = templating.getTemplateEngine();
+        long missesBefore = templateEngine.getMissCount();
+        given().queryParam("from", "Texas").queryParam("to", "Chennai")
+                .when().get(WireMockServerPool.baseUrlOf(wireMockServer) + "/flights/return")
+                .then().statusCode(200);
+
+        // Assert that the second stub did not compile the template again
+        Assert.assertEquals(templateEngine.getMissCount() - missesBefore, 0);
+    }
+
+    // Test method to verify that a bounded cache evicts the least recently used template
+    @Test(priority = 3)
+    public void testBoundEvictsLeastRecentlyUsed() {
+        CachedTemplateEngine templateEngine = new CachedTemplateEngine(Map.of(), 2L, Set.of(), false);
+        templateEngine.getTemplate(null, "{{request.path}}");
+        templateEngine.getTemplate(null, "{{request.method}}");
+        // Uses the first template again, so the second one becomes the least recently used
+        templateEngine.getTemplate(null, "{{request.path}}");
+        templateEngine.getTemplate(null, "{{request.url}}");
+
+        // Assert that the first template survived the eviction and the second one did not
+        long missesBefore = templateEngine.getMissCount();
+        templateEngine.getTemplate(null, "{{request.path}}");
+        Assert.assertEquals(templateEngine.getMissCount() - missesBefore, 0);
+        templateEngine.getTemplate(null, "{{request.method}}");
+        Assert.assertEquals(templateEngine.getMissCount() - missesBefore, 1);
+        Assert.assertEquals(templateEngine.getCacheSize(), 2);
+    }
+
+    // Test method to verify that a helper name provided by two extensions keeps the last registered one
+    @Test(priority = 4)
+    public void testDuplicateHelperNameKeepsLastExtension() throws IOException {
+        Map<String, Helper<?>> helpers = CachedResponseTemplating.collectHelpers(
+                List.of(new CampusHelper("south-campus", "South"), new CampusHelper("north-campus", "North")));
+
+        // Assert that the helpers were merged, with the helper of the last extension
+        Assert.assertEquals(helpers.size(), 1);
+        Assert.assertEquals(helpers.get("campus").apply(null, null), "North");
+    }
+
+    // Method to request the flights between two cities
+    private static JsonPath getFlights(String from, String to) {
+        return given().queryParam("from", from).queryParam("to", to)
+                .when().get(WireMockServerPool.baseUrlOf(wireMockServer) + "/flights")
+                .then().statusCode(200)
+                .extract().jsonPath();
+    }
+
+    /**
+     * Extension providing a "campus" helper that renders a fixed campus name.
+     */
+    private static final class CampusHelper implements TemplateHelperProviderExtension {
+
+        private final String name;
+        private final String campus;
+
+        private CampusHelper(String name, String campus) {
+            this.name = name;
+            this.campus = campus;
+        }
+
+        @Override
+        public Map<String, Helper<?>> provideTemplateHelpers() {
+            Helper<Object> helper = (context, options) -> campus;
+            return Map.of("campus", helper);
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+    }
+
+}
@@ -0,0 +1,307 @@
+package qa.wiremock.concepts.response_template;
+
+import com.github.javafaker.Faker;
+import com.github.jknack.handlebars.Context;
+import com.github.jknack.handlebars.Helper;
+import com.github.jknack.handlebars.Options;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.extension.TemplateHelperProviderExtension;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * This code provides the "synthetic" template helper, which fills responses
+ * with realistic people: names, emails, phones, addresses and ids.
+ * Calling Faker on every request is far too slow under load, so the data is
+ * generated once, from a seed: Faker fills small vocabularies of first names,
+ * last names, streets, cities and states, stored back to back in char arrays,
+ * and a seeded generator combines them into records held in primitive arrays
+ * (one array per field). A render only picks a record and reads its fields,
+ * with no lock and no call to Faker.
+ * <p>
+ * {{synthetic 'name' key=request.pathSegments.[1]}} reads the record of a
+ * key, so the same key always gives the same person and every field of a
+ * render describes that person. Without a key, each render draws the next
+ * record of a seeded sequence (one atomic increment), shared by all the
+ * fields of the same template context: the fields at the top of a template
+ * are one person, and each item of an {{#each}} block is a person of its
+ * own. The same seed gives the same pools, the same record for a key and the
+ * same sequence of records.
+ * <p>
+ * Fields: id, firstName, lastName, name, email, phone, street, city, state,
+ * zipcode, country.
+ * <p>
+ * Register it with SyntheticDataPools.configure(options, new SyntheticDataPools(seed)).
+ *
+ * @author Jagatheshwaran N
+ */
+public class SyntheticDataPools implements TemplateHelperProviderExtension {
+
+    // Name of the extension, and of the template helper
+    public static final String NAME = "synthetic-data";
+    public static final String HELPER = "synthetic";
+
+    // Fields served by the helper
+    public static final List<String> FIELDS = List.of("id", "firstName", "lastName", "name", "email", "phone",
+            "street", "city", "state", "zipcode", "country");
+
+    // Default number of records, a power of two
+    public static final int DEFAULT_RECORDS = 1 << 16;
+
+    // Sizes of the vocabularies generated by Faker
+    private static final int FIRST_NAMES = 512;
+    private static final int LAST_NAMES = 512;
+    private static final int STREETS = 1024;
+    private static final int LOCALITIES = 256;
+
+    // Country of every address, as in the worker fixtures
+    private static final String COUNTRY = "United States";
+
+    // Increment of the SplitMix64 sequence of records
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    // Key of the records drawn for the contexts of the current render, in the render's data
+    private static final String RENDER_RECORDS = NAME + ".records";
+
+    // Local part of an email address for a name without any letter a to z
+    private static final String EMAIL_FALLBACK = "person";
+
+    // Seed of the pools
+    private final long seed;
+
+    // Vocabularies
+    private final CharPool firstNames;
+    private final CharPool lastNames;
+    private final CharPool streets;
+    private final CharPool cities;
+    private final CharPool states;
+
+    // First and last names as they appear in email addresses
+    private final CharPool emailFirstNames;
+    private final CharPool emailLastNames;
+
+    // Records, one array per field, indexed by record
+    private final int mask;
+    private final short[] firstNameOf;
+    private final short[] lastNameOf;
+    private final short[] streetOf;
+    private final short[] localityOf;
+    private final long[] phoneOf;
+    private final int[] idOf;
+
+    // Zip code of each locality
+    private final int[] zipOf;
+
+    // Sequence of the records drawn by renders without a key
+    private final AtomicLong sequence;
+
+    // Constructor of pools of the default number of records
+    public SyntheticDataPools(long seed) {
+        this(seed, DEFAULT_RECORDS);
+    }
+
+    // Constructor of pools of a power of two number of records
+    public SyntheticDataPools(long seed, int records) {
+        if (Integer.bitCount(records) != 1) {
+            throw new IllegalArgumentException("Number of records must be a power of two, was " + records);
+        }
+        this.seed = seed;
+        this.sequence = new AtomicLong(seed);
+
+        // Vocabularies, from a Faker seeded with the pools' seed
+        Faker faker = new Faker(Locale.US, new Random(seed));
+        firstNames = CharPool.of(FIRST_NAMES, () -> faker.name().firstName());
+        lastNames = CharPool.of(LAST_NAMES, () -> faker.name().lastName());
+        streets = CharPool.of(STREETS, () -> faker.address().streetAddress());
+        cities = CharPool.of(LOCALITIES, () -> faker.address().city());
+        states = CharPool.of(LOCALITIES, () -> faker.address().state());
+        emailFirstNames = firstNames.map(SyntheticDataPools::emailPart);
+        emailLastNames = lastNames.map(SyntheticDataPools::emailPart);
+
+        // Records combining the vocabularies, from a generator seeded with the pools' seed
+        SplittableRandom random = new SplittableRandom(seed);
+        zipOf = new int[LOCALITIES];
+        for (int i = 0; i < LOCALITIES; i++) {
+            zipOf[i] = random.nextInt(10_000, 100_000);
+        }
+        long idOffset = random.nextLong(90_000_000L);
+        mask = records - 1;
+        firstNameOf = new short[records];
+        lastNameOf = new short[records];
+        streetOf = new short[records];
+        localityOf = new short[records];
+        phoneOf = new long[records];
+        idOf = new int[records];
+        for (int i = 0; i < records; i++) {
+            firstNameOf[i] = (short) random.nextInt(FIRST_NAMES);
+            lastNameOf[i] = (short) random.nextInt(LAST_NAMES);
+            streetOf[i] = (short) random.nextInt(STREETS);
+            localityOf[i] = (short) random.nextInt(LOCALITIES);
+            // Area and exchange codes start from 2, as in North American numbers
+            phoneOf[i] = random.nextLong(200L, 1000L) * 10_000_000L + random.nextLong(2_000_000L, 10_000_000L);
+            // Eight digit ids, distinct since 2654435761 is coprime with 90000000
+            idOf[i] = 10_000_000 + (int) Math.floorMod(i * 2654435761L + idOffset, 90_000_000L);
+        }
+    }
+
+    // Method to register the helper on server options
+    public static WireMockConfiguration configure(WireMockConfiguration options, SyntheticDataPools pools) {
+        return options.extensions(pools);
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public Map<String, Helper<?>> provideTemplateHelpers() {
+        Helper<Object> helper = this::apply;
+        return Map.of(HELPER, helper);
+    }
+
+    // Method to return the seed of the pools
+    public long getSeed() {
+        return seed;
+    }
+
+    // Method to return the number of records
+    public int getRecordCount() {
+        return mask + 1;
+    }
+
+    // Method to return the record of a key
+    public int recordOf(Object key) {
+        return (int) mix64(seed ^ String.valueOf(key).hashCode() * GOLDEN_GAMMA) & mask;
+    }
+
+    // Method to draw the next record of the seeded sequence
+    public int nextRecord() {
+        return (int) mix64(sequence.getAndAdd(GOLDEN_GAMMA)) & mask;
+    }
+
+    // Method to read a field of a record
+    public String value(String field, int record) {
+        int index = record & mask;
+        return switch (field) {
+            case "id" -> Integer.toString(idOf[index]);
+            case "firstName" -> firstNames.get(firstNameOf[index]);
+            case "lastName" -> lastNames.get(lastNameOf[index]);
+            case "name" -> firstNames.get(firstNameOf[index]) + ' ' + lastNames.get(lastNameOf[index]);
+            case "email" -> email(index);
+            case "phone" -> phone(phoneOf[index]);
+            case "street" -> streets.get(streetOf[index]);
+            case "city" -> cities.get(localityOf[index]);
+            case "state" -> states.get(localityOf[index]);
+            case "zipcode" -> Integer.toString(zipOf[localityOf[index]]);
+            case "country" -> COUNTRY;
+            default -> throw new IllegalArgumentException("Unknown synthetic field '" + field + "', expected one of " + FIELDS);
+        };
+    }
+
+    // Method to render a field, for the record of the key or of the current render
+    private Object apply(Object field, Options options) {
+        Object key = options.hash("key");
+        int record;
+        if (key != null) {
+            record = recordOf(key);
+        } else {
+            // Every field of a context reads the record drawn by its first field, so each {{#each}} item is its own person
+            Map<Context, Integer> drawn = options.data(RENDER_RECORDS);
+            if (drawn == null) {
+                drawn = new IdentityHashMap<>();
+                options.data(RENDER_RECORDS, drawn);
+            }
+            record = drawn.computeIfAbsent(options.context, context -> nextRecord());
+        }
+        return value(String.valueOf(field), record);
+    }
+
+    // Method to build the email address of a record from its name and id
+    private String email(int index) {
+        return emailFirstNames.get(firstNameOf[index]) + '.' + emailLastNames.get(lastNameOf[index])
+                + idOf[index] % 1000 + "@example.com";
+    }
+
+    // Method to turn a name into lower case letters only, as in an email address, never empty
+    private static String emailPart(String name) {
+        String part = name.toLowerCase(Locale.ROOT).replaceAll("[^a-z]", "");
+        return part.isEmpty() ? EMAIL_FALLBACK : part;
+    }
+
+    // Method to format a ten digit phone number as 123-456-7890
+    private static String phone(long number) {
+        char[] chars = {'0', '0', '0', '-', '0', '0', '0', '-', '0', '0', '0', '0'};
+        for (int i = chars.length - 1; i >= 0; i--) {
+            if (chars[i] != '-') {
+                chars[i] = (char) ('0' + number % 10);
+                number /= 10;
+            }
+        }
+        return new String(chars);
+    }
+
+    // SplitMix64 finaliser, spreading keys and sequence values over the records
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Strings stored back to back in one char array, with the offset of each.
+     */
+    private static final class CharPool {
+
+        private final char[] chars;
+        private final int[] offsets;
+
+        private CharPool(char[] chars, int[] offsets) {
+            this.chars = chars;
+            this.offsets = offsets;
+        }
+
+        // Method to build a pool of the given number of generated strings
+        private static CharPool of(int size, Supplier<String> generator) {
+            List<String> values = new ArrayList<>(size);
+            int length = 0;
+            for (int i = 0; i < size; i++) {
+                String value = generator.get();
+                values.add(value);
+                length += value.length();
+            }
+            char[] chars = new char[length];
+            int[] offsets = new int[size + 1];
+            for (int i = 0; i < size; i++) {
+                String value = values.get(i);
+                value.getChars(0, value.length(), chars, offsets[i]);
+                offsets[i + 1] = offsets[i] + value.length();
+            }
+            return new CharPool(chars, offsets);
+        }
+
+        // Method to build a pool of the strings of this pool, transformed
+        private CharPool map(UnaryOperator<String> transformation) {
+            List<String> values = new ArrayList<>(offsets.length - 1);
+            for (int i = 0; i < offsets.length - 1; i++) {
+                values.add(transformation.apply(get(i)));
+            }
+            return of(values.size(), values.iterator()::next);
+        }
+
+        // Method to read a string of the pool
+        private String get(int index) {
+            return new String(chars, offsets[index], offsets[index + 1] - offsets[index]);
+        }
+    }
+
+}
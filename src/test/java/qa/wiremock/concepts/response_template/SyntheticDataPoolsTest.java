@@ -0,0 +1,164 @@
+package qa.wiremock.concepts.response_template;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import io.restassured.path.json.JsonPath;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import qa.wiremock.concepts.parallel.WireMockServerPool;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * This code verifies that the "synthetic" template helper of
+ * SyntheticDataPools serves realistic, varied workers that are reproducible
+ * from the seed: the same worker for the same id, and the same sequence of
+ * workers from servers with the same seed.
+ *
+ * @author Jagatheshwaran N
+ */
+public class SyntheticDataPoolsTest {
+
+    // Seed of the pools
+    private static final long SEED = 42;
+
+    // Worker template in the shape of json/worker.json, keyed by the id in the URL when given
+    private static final String WORKER_TEMPLATE = "{\"worker\": {"
+            + "\"id\": \"EMP{{synthetic 'id' %1$s}}\", \"name\": \"{{synthetic 'name' %1$s}}\","
+            + " \"email\": \"{{synthetic 'email' %1$s}}\", \"phone\": \"{{synthetic 'phone' %1$s}}\","
+            + " \"address\": {\"street\": \"{{synthetic 'street' %1$s}}\", \"city\": \"{{synthetic 'city' %1$s}}\","
+            + " \"state\": \"{{synthetic 'state' %1$s}}\", \"zipcode\": \"{{synthetic 'zipcode' %1$s}}\","
+            + " \"country\": \"{{synthetic 'country' %1$s}}\"}}}";
+
+    // Team template, a list of unkeyed workers
+    private static final String TEAM_TEMPLATE = "{\"team\": [{{#each (range 1 5)}}{{#unless @first}}, {{/unless}}"
+            + "{\"name\": \"{{synthetic 'name'}}\", \"email\": \"{{synthetic 'email'}}\"}{{/each}}],"
+            + " \"lead\": {\"name\": \"{{synthetic 'name'}}\", \"email\": \"{{synthetic 'email'}}\"}}";
+
+    // Servers with pools of the same seed
+    private static WireMockServer wireMockServer;
+    private static WireMockServer sameSeedServer;
+
+    // Pools of the first server
+    private static SyntheticDataPools pools;
+
+    // Method to start two servers with pools of the same seed before test execution
+    @BeforeClass
+    public void startupServers() {
+        pools = new SyntheticDataPools(SEED);
+        wireMockServer = startServer(pools);
+        sameSeedServer = startServer(new SyntheticDataPools(SEED));
+    }
+
+    // Method to shut down the WireMock servers after test execution
+    @AfterClass
+    public void shutdownServers() {
+        WireMockServerPool.release(wireMockServer);
+        WireMockServerPool.release(sameSeedServer);
+    }
+
+    // Test method to verify that a worker id always gives the same, realistic worker
+    @Test
+    public void testKeyedWorkersAreStableAndRealistic() {
+        JsonPath first = worker(wireMockServer, "/workers/1001");
+        JsonPath again = worker(wireMockServer, "/workers/1001");
+        JsonPath otherServer = worker(sameSeedServer, "/workers/1001");
+
+        // Assert that the worker is the same on every request and on the server with the same seed
+        Assert.assertEquals(again.getMap("worker"), first.getMap("worker"));
+        Assert.assertEquals(otherServer.getMap("worker"), first.getMap("worker"));
+
+        // Assert that it is the record of the key, and that its fields look real
+        int record = pools.recordOf("1001");
+        Assert.assertEquals(first.getString("worker.name"), pools.value("name", record));
+        Assert.assertTrue(first.getString("worker.id").matches("EMP\\d{8}"), first.getString("worker.id"));
+        Assert.assertTrue(first.getString("worker.phone").matches("[2-9]\\d{2}-[2-9]\\d{2}-\\d{4}"), first.getString("worker.phone"));
+        Assert.assertTrue(first.getString("worker.email").matches("[a-z]+\\.[a-z]+\\d+@example\\.com"), first.getString("worker.email"));
+        Assert.assertTrue(first.getString("worker.address.zipcode").matches("\\d{5}"));
+        Assert.assertEquals(first.getString("worker.address.country"), "United States");
+
+        // Assert that different ids give varied workers
+        Set<String> names = new HashSet<>();
+        Set<String> phones = new HashSet<>();
+        for (int id = 0; id < 100; id++) {
+            JsonPath worker = worker(wireMockServer, "/workers/" + id);
+            names.add(worker.getString("worker.name"));
+            phones.add(worker.getString("worker.phone"));
+        }
+        System.out.println(names.size() + " distinct names and " + phones.size() + " distinct phones over 100 workers");
+        Assert.assertTrue(names.size() >= 90, names.size() + " names");
+        Assert.assertEquals(phones.size(), 100);
+    }
+
+    // Test method to verify that workers without a key follow the seeded sequence, each consistent with itself
+    @Test
+    public void testUnkeyedWorkersFollowTheSeededSequence() {
+        for (int i = 0; i < 20; i++) {
+            JsonPath worker = worker(wireMockServer, "/workers/any");
+            JsonPath sameSeedWorker = worker(sameSeedServer, "/workers/any");
+
+            // Assert that both servers serve the same sequence, and every field of a worker is the same person
+            Assert.assertEquals(sameSeedWorker.getMap("worker"), worker.getMap("worker"));
+            assertSamePerson(worker.getString("worker.name"), worker.getString("worker.email"));
+        }
+    }
+
+    // Test method to verify that each item of an {{#each}} block is a person of its own, consistent with itself
+    @Test
+    public void testEachItemIsItsOwnWorker() {
+        JsonPath team = worker(wireMockServer, "/workers/team");
+        JsonPath sameSeedTeam = worker(sameSeedServer, "/workers/team");
+
+        // Assert that both servers serve the same team, which also keeps their sequences in step
+        Assert.assertEquals(sameSeedTeam.getList("team"), team.getList("team"));
+
+        List<Map<String, String>> members = team.getList("team");
+        Assert.assertEquals(members.size(), 5);
+        Set<String> emails = new HashSet<>();
+        for (Map<String, String> member : members) {
+            assertSamePerson(member.get("name"), member.get("email"));
+            emails.add(member.get("email"));
+        }
+        assertSamePerson(team.getString("lead.name"), team.getString("lead.email"));
+        emails.add(team.getString("lead.email"));
+
+        // Assert that the five members and the lead are six different people
+        Assert.assertEquals(emails.size(), 6, emails.toString());
+    }
+
+    // Method to assert that an email address was built from a name
+    private static void assertSamePerson(String name, String email) {
+        String[] parts = name.toLowerCase().replaceAll("[^a-z ]", "").split(" ");
+        Assert.assertTrue(email.startsWith(parts[0] + "." + parts[parts.length - 1]), email + " for " + name);
+    }
+
+    // Method to start a server serving workers from the given pools
+    private static WireMockServer startServer(SyntheticDataPools syntheticDataPools) {
+        WireMockServer server = WireMockServerPool.acquire(
+                SyntheticDataPools.configure(WireMockServerPool.defaultOptions(), syntheticDataPools));
+        WireMock client = WireMockServerPool.clientFor(server);
+        client.register(WireMock.get(WireMock.urlPathMatching("/workers/[0-9]+"))
+                .willReturn(WireMock.okJson(String.format(WORKER_TEMPLATE, "key=request.pathSegments.[1]"))
+                        .withTransformers("response-template")));
+        client.register(WireMock.get("/workers/any")
+                .willReturn(WireMock.okJson(String.format(WORKER_TEMPLATE, ""))
+                        .withTransformers("response-template")));
+        client.register(WireMock.get("/workers/team")
+                .willReturn(WireMock.okJson(TEAM_TEMPLATE).withTransformers("response-template")));
+        return server;
+    }
+
+    // Method to fetch a worker, or a team of workers
+    private static JsonPath worker(WireMockServer server, String path) {
+        return given().baseUri(WireMockServerPool.baseUrlOf(server)).when().get(path)
+                .then().statusCode(200).extract().jsonPath();
+    }
+
+}
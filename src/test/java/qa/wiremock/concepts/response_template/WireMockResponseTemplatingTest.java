@@ -6,9 +6,10 @@ import com.github.tomakehurst.wiremock.client.WireMock;
 import io.restassured.response.ValidatableResponse;
 import org.json.JSONObject;
 import org.testng.Assert;
-import org.testng.annotations.AfterTest;
-import org.testng.annotations.BeforeTest;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
+import qa.wiremock.concepts.parallel.WireMockServerPool;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
@@ -33,27 +34,26 @@ import static io.restassured.RestAssured.given;
  */
 public class WireMockResponseTemplatingTest {
 
-    // Constants for host and port
+    // Constant for host
     private static final String HOST = "localhost";
-    private static final int PORT = 8080;
 
     // Instance of WireMockServer
     public static WireMockServer wireMockServer;
 
+    // WireMock client bound to this class's server instance
+    private static WireMock wireMock;
+
     // Define the base file path for JSON files
     private static final String FILE_PATH = System.getProperty("user.dir") + "/src/test/resources/__files/json/";
 
     // Method to start the WireMock server and configure stubs before test execution
-    @BeforeTest
+    @BeforeClass
     public void startServer() {
-        // Creates a new WireMock server instance.
-        wireMockServer = new WireMockServer(PORT);
-
-        // Starts the WireMock server.
-        wireMockServer.start();
+        // Acquires a WireMock server running on a free port from the pool.
+        wireMockServer = WireMockServerPool.acquire();
 
-        // Configures WireMock to listen on the specified host and port.
-        WireMock.configureFor(HOST, PORT);
+        // Binds a WireMock client to the acquired server instance.
+        wireMock = WireMockServerPool.clientFor(wireMockServer);
 
         // Read the contents of the 'flight.json' file located in the specified FILE_PATH
         JSONObject flightJson = new JSONObject(readJsonFile(FILE_PATH + "flight.json"));
@@ -65,7 +65,7 @@ public class WireMockResponseTemplatingTest {
         responseBody = new String(responseBody.getBytes(StandardCharsets.UTF_8));
 
         // Stub the WireMock server to define a mocked response for the "/flights" GET request
-        WireMock.stubFor(WireMock.get(WireMock.urlPathEqualTo("/flights"))
+        wireMock.register(WireMock.get(WireMock.urlPathEqualTo("/flights"))
                 // Set the response status code to 200 (OK)
                 .willReturn(ResponseDefinitionBuilder.responseDefinition().withStatus(200)
                         // Include the extracted body as the response body
@@ -76,19 +76,19 @@ public class WireMockResponseTemplatingTest {
     }
 
     // Method to shut down the WireMock server after test execution
-    @AfterTest
+    @AfterClass
     public void shutdownServer() {
         // Checks if the WireMock server is running and not null before shutting it down.
         if (wireMockServer != null && wireMockServer.isRunning()) {
-            wireMockServer.shutdownServer();
+            WireMockServerPool.release(wireMockServer);
         }
     }
 
     // Test method to validate the behavior of the WireMockResponseTemplating by sending a GET request
     @Test
     public void testWireMockResponseTemplating() {
-        // Construct the request URL using the HOST and PORT variables
-        String requestUrl = String.format("http://%s:%d/flights?from=Chennai&to=Texas", HOST, PORT);
+        // Construct the request URL using the HOST variable and the server port
+        String requestUrl = String.format("http://%s:%d/flights?from=Chennai&to=Texas", HOST, wireMockServer.port());
 
         // Perform the GET request and validate the response
         ValidatableResponse response =
@@ -0,0 +1,170 @@
+package qa.wiremock.concepts.server;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import qa.wiremock.concepts.delay.NonBlockingDelays;
+import qa.wiremock.concepts.endpointcount.RingBufferRequestJournalStore;
+import qa.wiremock.concepts.jfr.PipelineEvents;
+import qa.wiremock.concepts.response_template.CachedResponseTemplating;
+import qa.wiremock.concepts.stores.ConceptStores;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This code is a main class starting a standalone WireMock server from the
+ * mappings and __files of src/test/resources/standalone, with the concept
+ * stores, cached templating, JFR pipeline events and non-blocking delays, for
+ * StartServerAsStandaloneAndMockAPITest and for manual testing. Its root is
+ * its own, so its stubs are not loaded by the servers of the other tests.
+ * Once the server is up it prints one line, which scripts can wait on instead
+ * of polling the port:
+ * READY http://localhost:8080 stubs=2 startup=640 ms jvm=1210 ms
+ * <p>
+ * mvn test-compile exec:exec -Pstandalone [-Dstandalone.args="--port=9090 --container-threads=50"]
+ * <p>
+ * Options, each as --name=value:
+ * - port: HTTP port, 8080 by default, 0 for a free port;
+ * - root-dir: directory holding mappings and __files, src/test/resources/standalone by default;
+ * - acceptors: Jetty acceptor threads;
+ * - container-threads: Jetty worker threads;
+ * - accept-queue: depth of the accept queue of the server socket;
+ * - keep-alive-ms: idle time after which a kept-alive connection is closed;
+ * - journal: full (WireMock's default), disabled, bounded (the last journal-size
+ * requests), or a ring buffer journal of journal-size requests: on-heap,
+ * off-heap or counters-only;
+ * - journal-size: requests kept by the bounded and ring buffer journals, 10000 by default.
+ *
+ * @author Jagatheshwaran N
+ */
+public final class StandaloneLauncher {
+
+    // Prefix of the readiness line
+    public static final String READY_PREFIX = "READY ";
+
+    // Defaults of the options
+    private static final int DEFAULT_PORT = 8080;
+    private static final String DEFAULT_ROOT_DIR = "src/test/resources/standalone";
+    private static final int DEFAULT_JOURNAL_SIZE = 10_000;
+
+    // Names of the options
+    private static final Set<String> OPTION_NAMES = Set.of("port", "root-dir", "acceptors", "container-threads",
+            "accept-queue", "keep-alive-ms", "journal", "journal-size");
+
+    // Usage printed for --help and invalid options
+    private static final String USAGE = "Usage: StandaloneLauncher [--port=8080] [--root-dir=src/test/resources/standalone]"
+            + " [--acceptors=N] [--container-threads=N] [--accept-queue=N] [--keep-alive-ms=N]"
+            + " [--journal=full|disabled|bounded|on-heap|off-heap|counters-only] [--journal-size=10000]";
+
+    private StandaloneLauncher() {
+    }
+
+    // Method to start the server, print the readiness line and keep running until the JVM is stopped
+    public static void main(String[] args) {
+        long start = System.nanoTime();
+        if (args.length == 1 && args[0].equals("--help")) {
+            System.out.println(USAGE);
+            return;
+        }
+
+        WireMockConfiguration options;
+        try {
+            options = options(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+
+        WireMockServer wireMockServer = new WireMockServer(options);
+        wireMockServer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(wireMockServer::stop, "standalone-shutdown"));
+
+        System.out.println(READY_PREFIX + "http://localhost:" + wireMockServer.port()
+                + " stubs=" + wireMockServer.getStubMappings().size()
+                + " startup=" + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms"
+                + " jvm=" + ManagementFactory.getRuntimeMXBean().getUptime() + " ms");
+        System.out.flush();
+    }
+
+    // Method to build the server options from the command line options
+    public static WireMockConfiguration options(String... args) {
+        Map<String, String> values = parse(args);
+
+        WireMockConfiguration options = WireMockConfiguration.options()
+                .port(intOption(values, "port", DEFAULT_PORT))
+                .usingFilesUnderDirectory(values.getOrDefault("root-dir", DEFAULT_ROOT_DIR));
+        ConceptStores stores = new ConceptStores(options.filesRoot())
+                .withIndexedStubStore()
+                .withCachedFiles(ConceptStores.DEFAULT_MAX_CACHED_FILE_BYTES)
+                .withBodyLoadEvents();
+
+        int journalSize = intOption(values, "journal-size", DEFAULT_JOURNAL_SIZE);
+        String journal = values.getOrDefault("journal", "full");
+        switch (journal) {
+            case "full" -> {
+            }
+            case "disabled" -> options.disableRequestJournal();
+            case "bounded" -> options.maxRequestJournalEntries(journalSize);
+            case "on-heap", "off-heap", "counters-only" -> stores.withRingBufferJournal(journalSize,
+                    RingBufferRequestJournalStore.Mode.valueOf(journal.replace('-', '_').toUpperCase(Locale.ROOT)));
+            default -> throw new IllegalArgumentException("Unknown journal mode: " + journal);
+        }
+        options = NonBlockingDelays.configure(PipelineEvents.configure(CachedResponseTemplating.configure(options.withStores(stores))));
+
+        // Threading and connection options override the defaults of the non-blocking delays
+        if (values.containsKey("acceptors")) {
+            options.jettyAcceptors(intOption(values, "acceptors", 0));
+        }
+        if (values.containsKey("container-threads")) {
+            options.containerThreads(intOption(values, "container-threads", 0));
+        }
+        if (values.containsKey("accept-queue")) {
+            options.jettyAcceptQueueSize(intOption(values, "accept-queue", 0));
+        }
+        if (values.containsKey("keep-alive-ms")) {
+            options.jettyIdleTimeout((long) intOption(values, "keep-alive-ms", 0));
+        }
+        return options;
+    }
+
+    // Method to read --name=value options, rejecting unknown names
+    private static Map<String, String> parse(String... args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                throw new IllegalArgumentException("Options must be given as --name=value: " + arg);
+            }
+            String name = arg.substring(2, equals);
+            if (!OPTION_NAMES.contains(name)) {
+                throw new IllegalArgumentException("Unknown option: " + name);
+            }
+            values.put(name, arg.substring(equals + 1));
+        }
+        return values;
+    }
+
+    // Method to read a non-negative number option
+    private static int intOption(Map<String, String> values, String name, int defaultValue) {
+        String value = values.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            int number = Integer.parseInt(value);
+            if (number < 0) {
+                throw new IllegalArgumentException("Option " + name + " must not be negative: " + value);
+            }
+            return number;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Option " + name + " must be a number: " + value);
+        }
+    }
+
+}
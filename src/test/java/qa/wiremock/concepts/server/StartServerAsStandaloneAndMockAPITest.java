@@ -2,8 +2,20 @@ package qa.wiremock.concepts.server;
 
 import io.restassured.response.ValidatableResponse;
 import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
 import static io.restassured.RestAssured.given;
 
 /**
@@ -13,20 +25,66 @@ import static io.restassured.RestAssured.given;
  * of a WireMock API server set up on the local host at port 8080.
  * The tests focus on different endpoints ("/user/1" and "/user/2"), checking status
  * codes and content types to ensure the expected responses are being simulated.
+ * The standalone server is started in its own JVM by the StandaloneLauncher, from
+ * the mappings and __files of src/test/resources/standalone, and the test waits on its
+ * readiness line; -Dstandalone.url=http://localhost:8080 uses a server started by hand.
  *
  * @author Jagatheshwaran N
  */
 public class StartServerAsStandaloneAndMockAPITest {
 
-    // Constants for host and port
-    private static final String HOST = "localhost";
-    private static final int PORT = 8080;
+    // Time allowed for the standalone server to print its readiness line
+    private static final long STARTUP_TIMEOUT_SECONDS = 60;
+
+    // Base URL of the standalone server
+    private static String baseUrl;
+
+    // Process of the standalone server, null when it was started by hand
+    private static Process standaloneServer;
+
+    // Method to start the standalone server in its own JVM, on a free port, before test execution
+    @BeforeClass
+    public void startupServer() throws IOException, InterruptedException, ExecutionException, TimeoutException {
+        baseUrl = System.getProperty("standalone.url");
+        if (baseUrl != null) {
+            return;
+        }
+        standaloneServer = new ProcessBuilder(Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", System.getProperty("java.class.path"), StandaloneLauncher.class.getName(), "--port=0")
+                .redirectErrorStream(true)
+                .start();
+
+        try {
+            // Waits on the readiness line, then keeps draining the output of the server
+            BufferedReader output = new BufferedReader(new InputStreamReader(standaloneServer.getInputStream(), StandardCharsets.UTF_8));
+            String readyLine = CompletableFuture.supplyAsync(() -> readUntilReady(output))
+                    .get(STARTUP_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            System.out.println(readyLine);
+            Thread.ofPlatform().daemon().name("standalone-output").start(() -> output.lines().forEach(System.out::println));
+            baseUrl = readyLine.substring(StandaloneLauncher.READY_PREFIX.length()).split(" ")[0];
+        } catch (Exception e) {
+            // A server that never got ready is not left running behind the failed class
+            standaloneServer.destroyForcibly();
+            standaloneServer.waitFor(10, TimeUnit.SECONDS);
+            standaloneServer = null;
+            throw e;
+        }
+    }
+
+    // Method to stop the standalone server after test execution
+    @AfterClass
+    public void shutdownServer() throws InterruptedException {
+        if (standaloneServer != null) {
+            standaloneServer.destroy();
+            standaloneServer.waitFor(10, TimeUnit.SECONDS);
+        }
+    }
 
     // Test method to verify the behavior of the mocked GET API
     @Test(priority = 1)
     public void testStartServerAsStandaloneAndMockAPIType1() {
-        // Construct the request URL using the HOST and PORT constants
-        String requestUrl = String.format("http://%s:%d/user/1", HOST, PORT);
+        // Construct the request URL from the base URL of the standalone server
+        String requestUrl = baseUrl + "/user/1";
 
         // Perform a GET request using RestAssured to the specified endpoint
         given() // Start building the request specification
@@ -42,8 +100,8 @@ public class StartServerAsStandaloneAndMockAPITest {
     // Test method to verify the behavior of the mocked GET API
     @Test(priority = 2)
     public void testStartServerAsStandaloneAndMockAPIType2() {
-        // Construct the request URL using the HOST and PORT constants
-        String requestUrl = String.format("http://%s:%d/user/2", HOST, PORT);
+        // Construct the request URL from the base URL of the standalone server
+        String requestUrl = baseUrl + "/user/2";
 
         // Perform a GET request using RestAssured to the specified endpoint
         ValidatableResponse response =
@@ -66,4 +124,18 @@ public class StartServerAsStandaloneAndMockAPITest {
         Assert.assertEquals(contentType, "text/plain");
     }
 
+    // Method to read the output of the standalone server up to its readiness line
+    private static String readUntilReady(BufferedReader output) {
+        try {
+            for (String line = output.readLine(); line != null; line = output.readLine()) {
+                if (line.startsWith(StandaloneLauncher.READY_PREFIX)) {
+                    return line;
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read the output of the standalone server", e);
+        }
+        throw new IllegalStateException("Standalone server exited before it was ready");
+    }
+
 }
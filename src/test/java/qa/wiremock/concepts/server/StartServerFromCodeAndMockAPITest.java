@@ -5,9 +5,10 @@ import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
 import com.github.tomakehurst.wiremock.client.WireMock;
 import io.restassured.response.ValidatableResponse;
 import org.testng.Assert;
-import org.testng.annotations.AfterTest;
-import org.testng.annotations.BeforeTest;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
+import qa.wiremock.concepts.parallel.WireMockServerPool;
 
 import static io.restassured.RestAssured.given;
 
@@ -23,24 +24,23 @@ import static io.restassured.RestAssured.given;
  */
 public class StartServerFromCodeAndMockAPITest {
 
-    // Constants for host and port
+    // Constant for host
     private static final String HOST = "localhost";
-    private static final int PORT = 8080;
 
     // Instance of WireMockServer
     public static WireMockServer wireMockServer;
 
+    // WireMock client bound to this class's server instance
+    private static WireMock wireMock;
+
     // Method to start the WireMock server and configure stubs before test execution
-    @BeforeTest
+    @BeforeClass
     public void initializeServer() {
-        // Create a new instance of WireMockServer
-        wireMockServer = new WireMockServer(PORT);
-
-        // Start the WireMockServer
-        wireMockServer.start();
+        // Acquires a WireMock server running on a free port from the pool.
+        wireMockServer = WireMockServerPool.acquire();
 
-        // Configure WireMock to use the specified host and port
-        WireMock.configureFor(HOST, PORT);
+        // Binds a WireMock client to the acquired server instance.
+        wireMock = WireMockServerPool.clientFor(wireMockServer);
 
         // Create a response definition builder to define the response
         ResponseDefinitionBuilder responseDefinitionBuilder = new ResponseDefinitionBuilder();
@@ -57,23 +57,23 @@ public class StartServerFromCodeAndMockAPITest {
         responseDefinitionBuilder.withBody("Hello John, Nice to see you!!");
 
         // Stub the WireMock server to respond with the defined response when receiving a GET request to "/employee/1"
-        WireMock.stubFor(WireMock.get("/employee/1").willReturn(responseDefinitionBuilder));
+        wireMock.register(WireMock.get("/employee/1").willReturn(responseDefinitionBuilder));
     }
 
     // Method to shut down the WireMock server after test execution
-    @AfterTest
+    @AfterClass
     public void shutdownServer() {
         // Checks if the WireMock server is running and not null before shutting it down.
         if (wireMockServer != null && wireMockServer.isRunning()) {
-            wireMockServer.shutdownServer();
+            WireMockServerPool.release(wireMockServer);
         }
     }
 
     // Test method to verify the behavior of the mocked GET API
     @Test
     public void testStartServerFromCodeAndMockAPI() {
-        // Construct the request URL using the HOST and PORT constants
-        String requestUrl = String.format("http://%s:%d/employee/1", HOST, PORT);
+        // Construct the request URL using the HOST constant and the server port
+        String requestUrl = String.format("http://%s:%d/employee/1", HOST, wireMockServer.port());
 
         // Perform a GET request using RestAssured to the specified endpoint
         ValidatableResponse response =
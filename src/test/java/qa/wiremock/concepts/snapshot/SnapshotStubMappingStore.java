@@ -0,0 +1,165 @@
+package qa.wiremock.concepts.snapshot;
+
+import com.github.tomakehurst.wiremock.common.Urls;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.RequestMethod;
+import com.github.tomakehurst.wiremock.matching.RequestMatcherExtension;
+import com.github.tomakehurst.wiremock.store.StubMappingStore;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import com.github.tomakehurst.wiremock.stubbing.SubEvent;
+import qa.wiremock.concepts.matching.IndexedStubMappingStore;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * This code provides a stub store that starts from a StubSnapshot instead of
+ * parsing every mapping, so a server with 100k stubs is ready as soon as the
+ * snapshot index is read.
+ * A stub of the snapshot is parsed the first time it can match a request
+ * (by method and URL, as the IndexedStubMappingStore indexes it), is looked
+ * up by id, or is listed, and is then kept in an IndexedStubMappingStore
+ * with the insertion index it was saved with. Residual stubs (regex, path
+ * template, anyUrl) can match any request and are parsed at startup.
+ * Stubs added, replaced or removed at runtime go to the same store, after
+ * every stub of the snapshot in matching order.
+ * <p>
+ * Register it with new ConceptStores(filesRoot).withSnapshot(snapshotFile).
+ *
+ * @author Jagatheshwaran N
+ */
+public class SnapshotStubMappingStore implements StubMappingStore {
+
+    // Method name of the stubs that accept any HTTP method
+    private static final String ANY_METHOD = RequestMethod.ANY.getName();
+
+    // Snapshot the stubs are parsed from
+    private final StubSnapshot snapshot;
+
+    // Store of the parsed and runtime stubs
+    private final IndexedStubMappingStore parsedStore = new IndexedStubMappingStore();
+
+    // Entries of the stubs with an exact URL, keyed by method and URL
+    private final Map<String, List<StubSnapshot.Entry>> urlEntries = new HashMap<>();
+
+    // Entries of the stubs with an exact URL path, keyed by method and path
+    private final Map<String, List<StubSnapshot.Entry>> urlPathEntries = new HashMap<>();
+
+    // Entries of the stubs by id
+    private final Map<UUID, StubSnapshot.Entry> entriesById = new HashMap<>();
+
+    // Entries still to parse, removed once parsed or once the store is cleared
+    private final Set<StubSnapshot.Entry> unparsedEntries = ConcurrentHashMap.newKeySet();
+
+    // Constructor of a store opening a snapshot file
+    public SnapshotStubMappingStore(Path snapshotFile) throws IOException {
+        this.snapshot = StubSnapshot.open(snapshotFile);
+        parsedStore.reserveInsertionIndexes(snapshot.getNextInsertionIndex());
+        for (StubSnapshot.Entry entry : snapshot.getEntries()) {
+            unparsedEntries.add(entry);
+            if (entry.id() != null) {
+                entriesById.put(entry.id(), entry);
+            }
+            switch (entry.kind()) {
+                case StubSnapshot.EXACT_URL ->
+                        urlEntries.computeIfAbsent(entry.key(), key -> new ArrayList<>(1)).add(entry);
+                case StubSnapshot.EXACT_URL_PATH ->
+                        urlPathEntries.computeIfAbsent(entry.key(), key -> new ArrayList<>(1)).add(entry);
+                default -> parse(entry);
+            }
+        }
+    }
+
+    @Override
+    public Stream<StubMapping> getAll() {
+        snapshot.getEntries().forEach(this::parse);
+        return parsedStore.getAll();
+    }
+
+    @Override
+    public Optional<StubMapping> get(UUID id) {
+        StubSnapshot.Entry entry = entriesById.get(id);
+        if (entry != null) {
+            parse(entry);
+        }
+        return parsedStore.get(id);
+    }
+
+    @Override
+    public Stream<StubMapping> findAllMatchingRequest(Request request,
+                                                      Map<String, RequestMatcherExtension> customMatchers,
+                                                      Consumer<SubEvent> subEventConsumer) {
+        String method = request.getMethod().getName();
+        String url = request.getUrl();
+        String path = Urls.getPath(url);
+        parseAll(urlEntries.get(StubSnapshot.key(method, url)));
+        parseAll(urlEntries.get(StubSnapshot.key(ANY_METHOD, url)));
+        parseAll(urlPathEntries.get(StubSnapshot.key(method, path)));
+        parseAll(urlPathEntries.get(StubSnapshot.key(ANY_METHOD, path)));
+        return parsedStore.findAllMatchingRequest(request, customMatchers, subEventConsumer);
+    }
+
+    @Override
+    public void add(StubMapping stubMapping) {
+        parsedStore.add(stubMapping);
+    }
+
+    @Override
+    public void replace(StubMapping existing, StubMapping updated) {
+        parsedStore.replace(existing, updated);
+    }
+
+    @Override
+    public void remove(StubMapping stubMapping) {
+        // Parses the stub first, so that a snapshot stub removed before any request stays removed
+        if (stubMapping.getId() != null) {
+            get(stubMapping.getId());
+        } else {
+            getAll();
+        }
+        parsedStore.remove(stubMapping);
+    }
+
+    @Override
+    public synchronized void clear() {
+        unparsedEntries.clear();
+        parsedStore.clear();
+    }
+
+    // Method to count the stubs of the snapshot not parsed yet
+    public int getUnparsedCount() {
+        return unparsedEntries.size();
+    }
+
+    // Method to parse the stubs of an index entry list
+    private void parseAll(List<StubSnapshot.Entry> entries) {
+        if (entries != null) {
+            entries.forEach(this::parse);
+        }
+    }
+
+    // Method to parse a stub of the snapshot into the store, once
+    private void parse(StubSnapshot.Entry entry) {
+        if (!unparsedEntries.contains(entry)) {
+            return;
+        }
+        synchronized (this) {
+            // Removed only once the stub is in the store, so a concurrent request waits here instead of missing it
+            if (unparsedEntries.contains(entry)) {
+                parsedStore.restore(snapshot.read(entry));
+                unparsedEntries.remove(entry);
+            }
+        }
+    }
+
+}
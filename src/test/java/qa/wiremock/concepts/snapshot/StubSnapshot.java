@@ -0,0 +1,200 @@
+package qa.wiremock.concepts.snapshot;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.common.Json;
+import com.github.tomakehurst.wiremock.matching.RequestPattern;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import qa.wiremock.concepts.matching.IndexedStubMappingStore;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * This code saves a stub registry to a versioned binary snapshot file, and
+ * reads it back through a memory-mapped buffer.
+ * <p>
+ * Layout, big-endian:
+ * header: magic "WMSS", version;
+ * stubs: the compact JSON of each stub, with its inline body, one after the other;
+ * index: for each stub, its kind (exact URL, exact URL path or residual),
+ * id, offset and length of its JSON, and its method and URL key;
+ * trailer: stub count, next insertion index, index offset, magic "WMSS".
+ * <p>
+ * Opening a snapshot only reads the index, so a new server can find any stub
+ * by method and URL or by id without parsing the others (see the
+ * SnapshotStubMappingStore). A file of another version is refused rather than
+ * misread, and is saved again from a running server.
+ *
+ * @author Jagatheshwaran N
+ */
+public final class StubSnapshot {
+
+    // Magic number of the header and the trailer, "WMSS"
+    static final int MAGIC = 0x574D5353;
+
+    // Version of the layout, increased whenever it changes
+    public static final int VERSION = 1;
+
+    // Kinds of the index entries, as the IndexedStubMappingStore indexes stubs
+    static final byte EXACT_URL = 0;
+    static final byte EXACT_URL_PATH = 1;
+    static final byte RESIDUAL = 2;
+
+    // Size of the trailer in bytes
+    private static final int TRAILER_BYTES = Integer.BYTES + Long.BYTES + Long.BYTES + Integer.BYTES;
+
+    // Writer and reader of the stub JSON
+    private static final ObjectWriter STUB_WRITER = Json.getObjectMapper().writerFor(StubMapping.class);
+    private static final ObjectReader STUB_READER = Json.getObjectMapper().readerFor(StubMapping.class);
+
+    // Memory-mapped snapshot file
+    private final MappedByteBuffer buffer;
+
+    // Index entries of the stubs, in file order
+    private final List<Entry> entries;
+
+    // Insertion index following the highest one of the snapshot
+    private final long nextInsertionIndex;
+
+    private StubSnapshot(MappedByteBuffer buffer, List<Entry> entries, long nextInsertionIndex) {
+        this.buffer = buffer;
+        this.entries = entries;
+        this.nextInsertionIndex = nextInsertionIndex;
+    }
+
+    // Method to save every stub of a running server to a snapshot file
+    public static void save(WireMockServer wireMockServer, Path snapshotFile) throws IOException {
+        write(wireMockServer.getStubMappings(), snapshotFile);
+    }
+
+    // Method to write stubs to a snapshot file
+    public static void write(Collection<StubMapping> stubMappings, Path snapshotFile) throws IOException {
+        List<Entry> entries = new ArrayList<>(stubMappings.size());
+        long nextInsertionIndex = 0;
+        try (OutputStream file = Files.newOutputStream(snapshotFile);
+             DataOutputStream output = new DataOutputStream(new BufferedOutputStream(file, 1 << 16))) {
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            for (StubMapping stubMapping : stubMappings) {
+                byte[] json = STUB_WRITER.writeValueAsBytes(stubMapping);
+                entries.add(entryOf(stubMapping, output.size(), json.length));
+                output.write(json);
+                nextInsertionIndex = Math.max(nextInsertionIndex, stubMapping.getInsertionIndex() + 1);
+            }
+
+            // DataOutputStream counts up to Integer.MAX_VALUE, which bounds a snapshot to 2 GB
+            long indexOffset = output.size();
+            for (Entry entry : entries) {
+                output.writeByte(entry.kind());
+                output.writeLong(entry.id() != null ? entry.id().getMostSignificantBits() : 0);
+                output.writeLong(entry.id() != null ? entry.id().getLeastSignificantBits() : 0);
+                output.writeLong(entry.offset());
+                output.writeInt(entry.length());
+                byte[] key = entry.key() != null ? entry.key().getBytes(StandardCharsets.UTF_8) : new byte[0];
+                output.writeInt(key.length);
+                output.write(key);
+            }
+            output.writeInt(entries.size());
+            output.writeLong(nextInsertionIndex);
+            output.writeLong(indexOffset);
+            output.writeInt(MAGIC);
+        }
+    }
+
+    // Method to open a snapshot file by memory-mapping it and reading its index
+    public static StubSnapshot open(Path snapshotFile) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(snapshotFile, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.capacity() < 2 * Integer.BYTES + TRAILER_BYTES || buffer.getInt(0) != MAGIC
+                || buffer.getInt(buffer.capacity() - Integer.BYTES) != MAGIC) {
+            throw new IllegalStateException(snapshotFile + " is not a stub snapshot");
+        }
+        int version = buffer.getInt(Integer.BYTES);
+        if (version != VERSION) {
+            throw new IllegalStateException(snapshotFile + " is a version " + version
+                    + " stub snapshot, this code reads version " + VERSION + "; save it again");
+        }
+
+        int trailer = buffer.capacity() - TRAILER_BYTES;
+        int stubCount = buffer.getInt(trailer);
+        long nextInsertionIndex = buffer.getLong(trailer + Integer.BYTES);
+        ByteBuffer index = buffer.duplicate().position((int) buffer.getLong(trailer + Integer.BYTES + Long.BYTES));
+        List<Entry> entries = new ArrayList<>(stubCount);
+        for (int i = 0; i < stubCount; i++) {
+            byte kind = index.get();
+            long mostSignificantBits = index.getLong();
+            long leastSignificantBits = index.getLong();
+            long offset = index.getLong();
+            int length = index.getInt();
+            byte[] key = new byte[index.getInt()];
+            index.get(key);
+            UUID id = mostSignificantBits == 0 && leastSignificantBits == 0 ? null
+                    : new UUID(mostSignificantBits, leastSignificantBits);
+            entries.add(new Entry(kind, kind == RESIDUAL ? null : new String(key, StandardCharsets.UTF_8),
+                    id, offset, length));
+        }
+        return new StubSnapshot(buffer, entries, nextInsertionIndex);
+    }
+
+    // Method to parse the stub of an index entry from the mapped file
+    public StubMapping read(Entry entry) {
+        byte[] json = new byte[entry.length()];
+        buffer.get((int) entry.offset(), json);
+        try {
+            return STUB_READER.readValue(json);
+        } catch (IOException e) {
+            throw new IllegalStateException("Corrupt stub at offset " + entry.offset() + " of the snapshot", e);
+        }
+    }
+
+    // Method to return the index entries of the stubs, in file order
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    // Method to return the insertion index following the highest one of the snapshot
+    public long getNextInsertionIndex() {
+        return nextInsertionIndex;
+    }
+
+    // Method to build the index entry of a stub, with the method and URL key of the IndexedStubMappingStore
+    private static Entry entryOf(StubMapping stubMapping, long offset, int length) {
+        RequestPattern requestPattern = stubMapping.getRequest();
+        if (!IndexedStubMappingStore.isIndexable(requestPattern)) {
+            return new Entry(RESIDUAL, null, stubMapping.getId(), offset, length);
+        }
+        String method = requestPattern.getMethod().getName();
+        return requestPattern.getUrl() != null
+                ? new Entry(EXACT_URL, key(method, requestPattern.getUrl()), stubMapping.getId(), offset, length)
+                : new Entry(EXACT_URL_PATH, key(method, requestPattern.getUrlPath()), stubMapping.getId(), offset, length);
+    }
+
+    // Method to build an index key from a method and a URL
+    static String key(String method, String url) {
+        return method + " " + url;
+    }
+
+    /**
+     * Index entry of a stub of the snapshot.
+     */
+    public record Entry(byte kind, String key, UUID id, long offset, int length) {
+    }
+
+}
@@ -0,0 +1,124 @@
+package qa.wiremock.concepts.snapshot;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import qa.wiremock.concepts.parallel.WireMockServerPool;
+import qa.wiremock.concepts.stores.ConceptStores;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * This code verifies that a server started from a StubSnapshot serves the
+ * same stubs as the server it was saved from, parsing only the stubs that
+ * requests need, and that runtime stubs are matched after the snapshot ones.
+ *
+ * @author Jagatheshwaran N
+ */
+public class StubSnapshotTest {
+
+    // Number of students stubbed on the saved server
+    private static final int STUDENTS = 1000;
+
+    // Snapshot of the saved server
+    private static Path snapshotFile;
+
+    // Server started from the snapshot
+    private static WireMockServer snapshotServer;
+
+    // Stores of the server started from the snapshot
+    private static ConceptStores snapshotStores;
+
+    // Number of stubs of the saved server
+    private static int savedStubs;
+
+    // Method to save a server with stubs to a snapshot and start a new server from it before test execution
+    @BeforeClass
+    public void startupServer() throws IOException {
+        WireMockServer savedServer = WireMockServerPool.acquire(WireMockServerPool.defaultOptions());
+        WireMock wireMock = WireMockServerPool.clientFor(savedServer);
+        for (int i = 0; i < STUDENTS; i++) {
+            wireMock.register(WireMock.get("/students/" + i).willReturn(WireMock.okJson("{\"id\": " + i + "}")));
+        }
+        wireMock.register(WireMock.get(WireMock.urlPathEqualTo("/courses"))
+                .willReturn(WireMock.okJson("{\"courses\": [\"Maths\"]}")));
+        wireMock.register(WireMock.get(WireMock.urlPathMatching("/teachers/[0-9]+"))
+                .willReturn(WireMock.okJson("{\"teacher\": true}")));
+        wireMock.register(WireMock.get("/students/7").atPriority(1)
+                .willReturn(WireMock.okJson("{\"id\": 7, \"prioritised\": true}")));
+        snapshotFile = Files.createTempFile("stubs", ".snapshot");
+        StubSnapshot.save(savedServer, snapshotFile);
+        savedStubs = savedServer.getStubMappings().size();
+        WireMockServerPool.release(savedServer);
+
+        // Starts from a root without mappings/, so that every stub comes from the snapshot
+        WireMockConfiguration options = WireMockConfiguration.options()
+                .dynamicPort()
+                .usingFilesUnderDirectory(Files.createTempDirectory("snapshot-root").toString());
+        snapshotStores = new ConceptStores(options.filesRoot()).withSnapshot(snapshotFile);
+        snapshotServer = new WireMockServer(options.withStores(snapshotStores));
+        snapshotServer.start();
+    }
+
+    // Method to shut down the snapshot server after test execution
+    @AfterClass
+    public void shutdownServer() {
+        snapshotServer.stop();
+    }
+
+    // Test method to verify that the snapshot stubs are served, parsing only those the requests need
+    @Test(priority = 1)
+    public void testServesSnapshotStubsOnDemand() {
+        SnapshotStubMappingStore store = snapshotStores.getSnapshotStubStore();
+        int unparsedAtStartup = store.getUnparsedCount();
+
+        // Assert that only the residual regex stub was parsed at startup
+        Assert.assertTrue(unparsedAtStartup >= STUDENTS, "only " + unparsedAtStartup + " stubs left unparsed");
+
+        String baseUrl = snapshotServer.baseUrl();
+        given().when().get(baseUrl + "/students/42").then().statusCode(200).body("id", equalTo(42));
+        given().when().get(baseUrl + "/courses?page=1").then().statusCode(200).body("courses[0]", equalTo("Maths"));
+        given().when().get(baseUrl + "/teachers/3").then().statusCode(200).body("teacher", equalTo(true));
+        given().when().get(baseUrl + "/students/7").then().statusCode(200).body("prioritised", equalTo(true));
+
+        // Assert that the requests parsed their own stubs only
+        Assert.assertEquals(store.getUnparsedCount(), unparsedAtStartup - 4);
+    }
+
+    // Test method to verify that runtime stubs override snapshot stubs and that every stub is listed
+    @Test(priority = 2)
+    public void testRuntimeStubsAfterSnapshotStubs() {
+        snapshotServer.stubFor(WireMock.get("/students/42").willReturn(WireMock.okJson("{\"id\": 42, \"runtime\": true}")));
+        given().when().get(snapshotServer.baseUrl() + "/students/42").then().statusCode(200).body("runtime", equalTo(true));
+
+        // Assert that the admin listing holds every snapshot stub and the runtime stub
+        Assert.assertEquals(snapshotServer.getStubMappings().size(), savedStubs + 1);
+        Assert.assertEquals(snapshotStores.getSnapshotStubStore().getUnparsedCount(), 0);
+    }
+
+    // Test method to verify that a snapshot of another version is refused
+    @Test(priority = 3)
+    public void testRefusesOtherSnapshotVersion() throws IOException {
+        Path otherVersion = Files.createTempFile("stubs-v0", ".snapshot");
+        Files.copy(snapshotFile, otherVersion, StandardCopyOption.REPLACE_EXISTING);
+        try (RandomAccessFile file = new RandomAccessFile(otherVersion.toFile(), "rw")) {
+            file.seek(Integer.BYTES);
+            file.writeInt(StubSnapshot.VERSION + 1);
+        }
+        IllegalStateException refused = Assert.expectThrows(IllegalStateException.class,
+                () -> StubSnapshot.open(otherVersion));
+        Assert.assertTrue(refused.getMessage().contains("save it again"), refused.getMessage());
+    }
+
+}
@@ -0,0 +1,94 @@
+package qa.wiremock.concepts.statefulness;
+
+import com.github.tomakehurst.wiremock.common.Urls;
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.http.Cookie;
+import com.github.tomakehurst.wiremock.http.Request;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This code names the request attribute that identifies a virtual user for
+ * the SessionScenarios: a cookie, a header or a path segment.
+ * The key is carried in the stub's extension parameters, so it survives the
+ * JSON round trip of a stub registered through a remote WireMock client.
+ *
+ * @author Jagatheshwaran N
+ */
+public final class SessionKey {
+
+    // Parameter names of the three kinds of session keys
+    static final String COOKIE_PARAMETER = "sessionCookie";
+    static final String HEADER_PARAMETER = "sessionHeader";
+    static final String PATH_SEGMENT_PARAMETER = "sessionPathSegment";
+
+    // Parameter name of this key
+    private final String parameterName;
+
+    // Cookie or header name, or path segment index
+    private final Object value;
+
+    private SessionKey(String parameterName, Object value) {
+        this.parameterName = parameterName;
+        this.value = value;
+    }
+
+    // Method to key sessions by the value of a cookie
+    public static SessionKey cookie(String name) {
+        return new SessionKey(COOKIE_PARAMETER, name);
+    }
+
+    // Method to key sessions by the value of a header
+    public static SessionKey header(String name) {
+        return new SessionKey(HEADER_PARAMETER, name);
+    }
+
+    // Method to key sessions by a path segment, counted from 0 (for /users/42/cart, segment 1 is "42")
+    public static SessionKey pathSegment(int index) {
+        return new SessionKey(PATH_SEGMENT_PARAMETER, index);
+    }
+
+    // Method to read the session key of a stub from its extension parameters
+    static SessionKey fromParameters(Parameters parameters) {
+        if (parameters.containsKey(COOKIE_PARAMETER)) {
+            return cookie(parameters.getString(COOKIE_PARAMETER));
+        }
+        if (parameters.containsKey(HEADER_PARAMETER)) {
+            return header(parameters.getString(HEADER_PARAMETER));
+        }
+        if (parameters.containsKey(PATH_SEGMENT_PARAMETER)) {
+            return pathSegment(parameters.getInt(PATH_SEGMENT_PARAMETER));
+        }
+        throw new IllegalArgumentException("Session scenario parameters have no session key: " + parameters);
+    }
+
+    // Method to return the parameter name of this key
+    String parameterName() {
+        return parameterName;
+    }
+
+    // Method to return the parameter value of this key
+    Object parameterValue() {
+        return value;
+    }
+
+    // Method to extract the session of a request, or null when the request has none
+    String extract(Request request) {
+        switch (parameterName) {
+            case COOKIE_PARAMETER:
+                Cookie cookie = request.getCookies().get((String) value);
+                return cookie == null || cookie.isAbsent() ? null : cookie.getValue();
+            case HEADER_PARAMETER:
+                return request.containsHeader((String) value) ? request.getHeader((String) value) : null;
+            default:
+                // Splits the path without its leading slash, so segment 0 is the first name after it
+                List<String> segments = Arrays.stream(Urls.getPath(request.getUrl()).split("/"))
+                        .filter(segment -> !segment.isEmpty())
+                        .toList();
+                int index = (Integer) value;
+                return index < segments.size() ? segments.get(index) : null;
+        }
+    }
+
+}
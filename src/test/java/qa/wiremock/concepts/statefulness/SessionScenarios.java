@@ -0,0 +1,156 @@
+package qa.wiremock.concepts.statefulness;
+
+import com.github.tomakehurst.wiremock.admin.Router;
+import com.github.tomakehurst.wiremock.client.MappingBuilder;
+import com.github.tomakehurst.wiremock.extension.AdminApiExtension;
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.extension.ServeEventListener;
+import com.github.tomakehurst.wiremock.extension.StubLifecycleListener;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.RequestMethod;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import com.github.tomakehurst.wiremock.matching.MatchResult;
+import com.github.tomakehurst.wiremock.matching.RequestMatcherExtension;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This code keeps scenario state per session instead of per scenario, so that
+ * concurrent virtual users each move through their own state machine
+ * (emptycart, addcart, fullcart, deletecart) instead of sharing WireMock's
+ * single global scenario state.
+ * The session of a request is read from a cookie, header or path segment
+ * (SessionKey). States live in a ConcurrentHashMap keyed by scenario and
+ * session: matching only reads it, and a transition is a compare-and-set
+ * from the stub's required state, so sessions never contend with each other
+ * and two racing requests of one session move it only once.
+ * Sessions back in the "Started" state are removed from the map.
+ * <p>
+ * The extension is both the custom request matcher of the stubs (required
+ * state) and their serve event listener (new state); register it with
+ * options.extensions(sessionScenarios) and build stubs with
+ * SessionScenarios.inSessionScenario(...).
+ * <p>
+ * Every session goes back to "Started" whenever the stubs are reset:
+ * resetAll(), resetMappings(), /__admin/reset and the reset of
+ * WireMockServerPool.release() all notify the extension as a stub lifecycle
+ * listener. WireMock's resetScenarios() (/__admin/scenarios/reset) notifies
+ * no extension and its route cannot be replaced, so the session states have
+ * an admin route of their own:
+ * - DELETE /__admin/session-scenarios: moves every session back to "Started".
+ *
+ * @author Jagatheshwaran N
+ */
+public class SessionScenarios extends RequestMatcherExtension
+        implements ServeEventListener, StubLifecycleListener, AdminApiExtension {
+
+    // Name of the extension, as matcher, serve event listener, stub lifecycle listener and admin extension
+    public static final String NAME = "session-scenario";
+
+    // Parameter names of the stubs
+    private static final String SCENARIO_PARAMETER = "scenario";
+    private static final String REQUIRED_STATE_PARAMETER = "requiredState";
+    private static final String NEW_STATE_PARAMETER = "newState";
+
+    // Scenario states of the sessions that left the "Started" state, keyed by scenario and session
+    private final Map<String, String> states = new ConcurrentHashMap<>();
+
+    // Method to restrict a stub to the sessions in a state of a scenario, and move them to a new state (or null)
+    public static MappingBuilder inSessionScenario(MappingBuilder mappingBuilder, SessionKey sessionKey,
+                                                   String scenario, String requiredState, String newState) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put(sessionKey.parameterName(), sessionKey.parameterValue());
+        parameters.put(SCENARIO_PARAMETER, scenario);
+        parameters.put(REQUIRED_STATE_PARAMETER, requiredState);
+        mappingBuilder.andMatching(NAME, Parameters.from(parameters));
+        if (newState != null) {
+            parameters.put(NEW_STATE_PARAMETER, newState);
+            mappingBuilder.withServeEventListener(NAME, Parameters.from(parameters));
+        }
+        return mappingBuilder;
+    }
+
+    @Override
+    public MatchResult match(Request request, Parameters parameters) {
+        String session = SessionKey.fromParameters(parameters).extract(request);
+        if (session == null) {
+            return MatchResult.noMatch();
+        }
+        String requiredState = parameters.getString(REQUIRED_STATE_PARAMETER);
+        return MatchResult.of(requiredState.equals(getState(parameters.getString(SCENARIO_PARAMETER), session)));
+    }
+
+    @Override
+    public void afterMatch(ServeEvent serveEvent, Parameters parameters) {
+        String session = SessionKey.fromParameters(parameters).extract(serveEvent.getRequest());
+        if (session != null) {
+            compareAndSet(parameters.getString(SCENARIO_PARAMETER), session,
+                    parameters.getString(REQUIRED_STATE_PARAMETER), parameters.getString(NEW_STATE_PARAMETER));
+        }
+    }
+
+    // Listens only to the stubs that name it, as serve event listeners apply to every stub by default
+    @Override
+    public boolean applyGlobally() {
+        return false;
+    }
+
+    // Moves every session back to "Started" along with the stubs and WireMock's own scenarios
+    @Override
+    public void afterStubsReset() {
+        reset();
+    }
+
+    @Override
+    public void contributeAdminApiRoutes(Router router) {
+        router.add(RequestMethod.DELETE, "/session-scenarios", (admin, serveEvent, pathParams) -> {
+            reset();
+            return ResponseDefinition.ok();
+        });
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    // Method to return the state of a session in a scenario
+    public String getState(String scenario, String session) {
+        return states.getOrDefault(key(scenario, session), Scenario.STARTED);
+    }
+
+    // Method to move a session from an expected state to a new state, returning whether it was in the expected state
+    public boolean compareAndSet(String scenario, String session, String expectedState, String newState) {
+        String key = key(scenario, session);
+        if (expectedState.equals(newState)) {
+            return expectedState.equals(getState(scenario, session));
+        }
+        if (Scenario.STARTED.equals(expectedState)) {
+            return states.putIfAbsent(key, newState) == null;
+        }
+        if (Scenario.STARTED.equals(newState)) {
+            return states.remove(key, expectedState);
+        }
+        return states.replace(key, expectedState, newState);
+    }
+
+    // Method to return the number of sessions outside the "Started" state
+    public int getSessionCount() {
+        return states.size();
+    }
+
+    // Method to move every session back to the "Started" state
+    public void reset() {
+        states.clear();
+    }
+
+    // Method to build the state key of a session in a scenario
+    private static String key(String scenario, String session) {
+        return scenario + '\u0000' + session;
+    }
+
+}
@@ -0,0 +1,195 @@
+package qa.wiremock.concepts.statefulness;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
+import org.json.JSONObject;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import qa.wiremock.concepts.parallel.WireMockServerPool;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * This code verifies the SessionScenarios with the cart stubs of
+ * WireMockStatefulBehaviorTest.
+ * 500 virtual users, each with its own session cookie, go through emptycart,
+ * addcart, fullcart and deletecart at the same time, and every one of them
+ * must see its own cart. Sessions keyed by a path segment or a header must
+ * also move independently, and every session must go back to "Started"
+ * on the admin route of the extension and on a reset of the server.
+ *
+ * @author Jagatheshwaran N
+ */
+public class SessionScenariosTest {
+
+    // Define the base file path for the cart JSON files
+    private static final String FILE_PATH = System.getProperty("user.dir") + "/src/test/resources/__files/json/cart/";
+
+    // Number of virtual users shopping at once
+    private static final int VIRTUAL_USERS = 500;
+
+    // Book added to the cart
+    private static final String BOOK = "MicroService Architecture";
+
+    // Session scenarios of the server, to read the session states
+    private static SessionScenarios sessionScenarios;
+
+    // Instance of WireMockServer
+    private static WireMockServer wireMockServer;
+
+    // WireMock client bound to this class's server instance
+    private static WireMock wireMock;
+
+    // Method to start a server with the session scenarios and the cart stubs before test execution
+    @BeforeClass
+    public void startupServer() {
+        sessionScenarios = new SessionScenarios();
+        wireMockServer = WireMockServerPool.acquire(WireMockServerPool.defaultOptions().extensions(sessionScenarios));
+        wireMock = WireMockServerPool.clientFor(wireMockServer);
+
+        SessionKey sessionCookie = SessionKey.cookie("session");
+        JSONObject emptyCart = readJsonFile("emptycart.json");
+        JSONObject addCart = readJsonFile("addcart.json");
+        JSONObject fullCart = readJsonFile("fullcart.json");
+        JSONObject deleteCart = readJsonFile("deletecart.json");
+
+        wireMock.register(SessionScenarios.inSessionScenario(WireMock.get(WireMock.urlPathEqualTo("/cart-items")),
+                        sessionCookie, emptyCart.getString("scenarioName"), emptyCart.getString("requiredScenarioState"), null)
+                .willReturn(ResponseDefinitionBuilder.responseDefinition().withStatus(200)
+                        .withBody(emptyCart.getJSONObject("response").toString(2))));
+        wireMock.register(SessionScenarios.inSessionScenario(WireMock.post(WireMock.urlPathEqualTo("/cart-items"))
+                                .withRequestBody(WireMock.containing(BOOK)),
+                        sessionCookie, addCart.getString("scenarioName"), addCart.getString("requiredScenarioState"),
+                        addCart.getString("newScenarioState"))
+                .willReturn(ResponseDefinitionBuilder.responseDefinition().withStatus(201)
+                        .withBody(addCart.getJSONObject("response").toString(2))));
+        wireMock.register(SessionScenarios.inSessionScenario(WireMock.get(WireMock.urlPathEqualTo("/cart-items")),
+                        sessionCookie, fullCart.getString("scenarioName"), fullCart.getString("requiredScenarioState"), null)
+                .willReturn(ResponseDefinitionBuilder.responseDefinition().withStatus(200)
+                        .withBody(fullCart.getJSONObject("response").toString(2))));
+        wireMock.register(SessionScenarios.inSessionScenario(WireMock.delete(WireMock.urlPathEqualTo("/cart-items")),
+                        sessionCookie, deleteCart.getString("scenarioName"), deleteCart.getString("requiredScenarioState"),
+                        deleteCart.getString("newScenarioState"))
+                .willReturn(ResponseDefinitionBuilder.responseDefinition().withStatus(204)));
+    }
+
+    // Method to shut down the WireMock server after test execution
+    @AfterClass
+    public void shutdownServer() {
+        WireMockServerPool.release(wireMockServer);
+    }
+
+    // Test method to verify that concurrent virtual users each go through their own cart states
+    @Test(priority = 1)
+    public void testConcurrentShoppersHaveOwnCarts() throws Exception {
+        HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        String cartUrl = WireMockServerPool.baseUrlOf(wireMockServer) + "/cart-items";
+
+        List<CompletableFuture<String>> shoppers = new ArrayList<>(VIRTUAL_USERS);
+        for (int i = 0; i < VIRTUAL_USERS; i++) {
+            String cookie = "session=shopper-" + i;
+            shoppers.add(send(httpClient, cookie, HttpRequest.newBuilder(URI.create(cartUrl)).GET(), 200, "[]")
+                    .thenCompose(step -> send(httpClient, cookie, HttpRequest.newBuilder(URI.create(cartUrl))
+                            .POST(HttpRequest.BodyPublishers.ofString(BOOK)), 201, "cart added successfully"))
+                    .thenCompose(step -> send(httpClient, cookie, HttpRequest.newBuilder(URI.create(cartUrl)).GET(), 200, BOOK))
+                    .thenCompose(step -> send(httpClient, cookie, HttpRequest.newBuilder(URI.create(cartUrl)).DELETE(), 204, ""))
+                    .thenCompose(step -> send(httpClient, cookie, HttpRequest.newBuilder(URI.create(cartUrl)).GET(), 200, "[]"))
+                    .handle((step, failure) -> failure == null ? null : cookie + ": " + failure.getMessage()));
+        }
+        CompletableFuture.allOf(shoppers.toArray(CompletableFuture[]::new)).get(60, TimeUnit.SECONDS);
+
+        // Assert that every shopper saw its own empty, full and again empty cart
+        List<String> failures = shoppers.stream().map(CompletableFuture::join).filter(failure -> failure != null).toList();
+        Assert.assertTrue(failures.isEmpty(), failures.size() + " shoppers saw another cart, first: "
+                + (failures.isEmpty() ? "" : failures.get(0)));
+
+        // Assert that every session is back in the "Started" state and no longer held in memory
+        Assert.assertEquals(sessionScenarios.getSessionCount(), 0);
+    }
+
+    // Test method to verify that sessions keyed by a path segment or a header move independently
+    @Test(priority = 2)
+    public void testPathSegmentAndHeaderSessions() {
+        wireMock.register(SessionScenarios.inSessionScenario(WireMock.post(WireMock.urlPathMatching("/users/[^/]+/cart")),
+                        SessionKey.pathSegment(1), "user_cart", Scenario.STARTED, "Cart has book")
+                .willReturn(WireMock.status(201)));
+        wireMock.register(SessionScenarios.inSessionScenario(WireMock.get(WireMock.urlPathMatching("/users/[^/]+/cart")),
+                        SessionKey.pathSegment(1), "user_cart", "Cart has book", null)
+                .willReturn(WireMock.okJson("{\"cart\": [\"" + BOOK + "\"]}")));
+        wireMock.register(SessionScenarios.inSessionScenario(WireMock.get(WireMock.urlPathEqualTo("/session")),
+                        SessionKey.header("X-Session-Id"), "login", Scenario.STARTED, "Logged in")
+                .willReturn(WireMock.okJson("{\"login\": true}")));
+
+        String baseUrl = WireMockServerPool.baseUrlOf(wireMockServer);
+        given().when().post(baseUrl + "/users/alice/cart").then().statusCode(201);
+
+        // Assert that only the session of the path segment moved to the full cart
+        given().when().get(baseUrl + "/users/alice/cart").then().statusCode(200);
+        given().when().get(baseUrl + "/users/bob/cart").then().statusCode(404);
+        Assert.assertEquals(sessionScenarios.getState("user_cart", "alice"), "Cart has book");
+        Assert.assertEquals(sessionScenarios.getState("user_cart", "bob"), Scenario.STARTED);
+
+        // Assert that a header session logs in once, and a request without the header never matches
+        given().header("X-Session-Id", "carol").when().get(baseUrl + "/session").then().statusCode(200);
+        given().header("X-Session-Id", "carol").when().get(baseUrl + "/session").then().statusCode(404);
+        given().header("X-Session-Id", "dave").when().get(baseUrl + "/session").then().statusCode(200);
+        given().when().get(baseUrl + "/session").then().statusCode(404);
+    }
+
+    // Test method to verify that the admin route and a reset of the server move every session back to "Started"
+    @Test(priority = 3)
+    public void testResetsClearSessions() {
+        String baseUrl = WireMockServerPool.baseUrlOf(wireMockServer);
+        given().cookie("session", "erin").body(BOOK).when().post(baseUrl + "/cart-items").then().statusCode(201);
+        Assert.assertEquals(sessionScenarios.getState("book_shopping", "erin"), "Cart has book");
+
+        // Assert that the admin route of the extension forgets the session
+        given().when().delete(baseUrl + "/__admin/session-scenarios").then().statusCode(200);
+        Assert.assertEquals(sessionScenarios.getSessionCount(), 0);
+        given().cookie("session", "erin").body(BOOK).when().post(baseUrl + "/cart-items").then().statusCode(201);
+        Assert.assertEquals(sessionScenarios.getSessionCount(), 1);
+
+        // Assert that a reset of the server, as done when it goes back to the pool, forgets the session too
+        wireMockServer.resetAll();
+        Assert.assertEquals(sessionScenarios.getSessionCount(), 0);
+    }
+
+    // Method to send one step of a shopper and check its status and body
+    private static CompletableFuture<Void> send(HttpClient httpClient, String cookie, HttpRequest.Builder request,
+                                                int expectedStatus, String expectedBody) {
+        return httpClient.sendAsync(request.header("Cookie", cookie).build(), HttpResponse.BodyHandlers.ofString())
+                .thenAccept(response -> {
+                    if (response.statusCode() != expectedStatus || !response.body().contains(expectedBody)) {
+                        throw new IllegalStateException("expected " + expectedStatus + " with " + expectedBody
+                                + " but got " + response.statusCode() + " " + response.body());
+                    }
+                });
+    }
+
+    // Method to read a cart JSON file
+    private static JSONObject readJsonFile(String fileName) {
+        try {
+            return new JSONObject(Files.readString(Paths.get(FILE_PATH + fileName), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+}
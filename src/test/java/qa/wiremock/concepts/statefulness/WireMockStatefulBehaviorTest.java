@@ -6,9 +6,10 @@ import com.github.tomakehurst.wiremock.client.WireMock;
 import io.restassured.response.ValidatableResponse;
 import org.json.JSONObject;
 import org.testng.Assert;
-import org.testng.annotations.AfterTest;
-import org.testng.annotations.BeforeTest;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
+import qa.wiremock.concepts.parallel.WireMockServerPool;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
@@ -44,13 +45,15 @@ import static io.restassured.RestAssured.given;
  */
 public class WireMockStatefulBehaviorTest {
 
-    // Constants for host and port
+    // Constant for host
     private static final String HOST = "localhost";
-    private static final int PORT = 8080;
 
     // Instance of WireMockServer
     public static WireMockServer wireMockServer;
 
+    // WireMock client bound to this class's server instance
+    private static WireMock wireMock;
+
     // Define the base file path for JSON files
     private static final String FILE_PATH = System.getProperty("user.dir") + "/src/test/resources/__files/json/cart/";
 
@@ -61,34 +64,31 @@ public class WireMockStatefulBehaviorTest {
     private String scenarioState;
 
     // Method to start the WireMock server and configure stubs before test execution
-    @BeforeTest
+    @BeforeClass
     public void startServer() {
-        // Creates a new WireMock server instance.
-        wireMockServer = new WireMockServer(PORT);
-
-        // Starts the WireMock server.
-        wireMockServer.start();
+        // Acquires a WireMock server running on a free port from the pool.
+        wireMockServer = WireMockServerPool.acquire();
 
-        // Configures WireMock to listen on the specified host and port.
-        WireMock.configureFor(HOST, PORT);
+        // Binds a WireMock client to the acquired server instance.
+        wireMock = WireMockServerPool.clientFor(wireMockServer);
     }
 
     // Method to shut down the WireMock server after test execution
-    @AfterTest
+    @AfterClass
     public void shutdownServer() {
         // Check if the WireMock server instance exists and is running
         if (wireMockServer != null && wireMockServer.isRunning()) {
 
-            // Shutdown the WireMock server
-            wireMockServer.shutdownServer();
+            // Releases the WireMock server back to the pool
+            WireMockServerPool.release(wireMockServer);
         }
     }
 
     // Test method to simulate an empty cart scenario
     @Test(priority = 1)
     public void emptyCart() {
-        // Construct the request URL for cart items using the HOST and PORT variables
-        String requestUrl = String.format("http://%s:%d/cart-items", HOST, PORT);
+        // Construct the request URL for cart items using the HOST variable and the server port
+        String requestUrl = String.format("http://%s:%d/cart-items", HOST, wireMockServer.port());
 
         // Read the content of 'emptycart.json' containing the scenario details and parse it as a JSON object
         JSONObject emptyCartJson = new JSONObject(readJsonFile(FILE_PATH + "emptycart.json"));
@@ -104,7 +104,7 @@ public class WireMockStatefulBehaviorTest {
         responseBody = new String(responseBody.getBytes(StandardCharsets.UTF_8));
 
         // Stub the WireMock server for a GET request to '/cart-items' for the empty cart scenario
-        WireMock.stubFor(WireMock.get(WireMock.urlPathEqualTo("/cart-items"))
+        wireMock.register(WireMock.get(WireMock.urlPathEqualTo("/cart-items"))
                 // Specify the scenario name and required state for scenario-based mocking
                 .inScenario(scenarioName)
                 .whenScenarioStateIs(scenarioState)
@@ -127,8 +127,8 @@ public class WireMockStatefulBehaviorTest {
     // Test method to simulate adding an item to the cart
     @Test(priority = 2)
     public void addCart() {
-        // Construct the request URL for cart items using the HOST and PORT variables
-        String requestUrl = String.format("http://%s:%d/cart-items", HOST, PORT);
+        // Construct the request URL for cart items using the HOST variable and the server port
+        String requestUrl = String.format("http://%s:%d/cart-items", HOST, wireMockServer.port());
 
         // Read the content of 'addcart.json' containing the scenario details and parse it as a JSON object
         JSONObject addCartJson = new JSONObject(readJsonFile(FILE_PATH + "addcart.json"));
@@ -144,7 +144,7 @@ public class WireMockStatefulBehaviorTest {
         responseBody = new String(responseBody.getBytes(StandardCharsets.UTF_8));
 
         // Stub the WireMock server for a POST request to '/cart-items' to add an item to the cart
-        WireMock.stubFor(WireMock.post(WireMock.urlPathEqualTo("/cart-items"))
+        wireMock.register(WireMock.post(WireMock.urlPathEqualTo("/cart-items"))
                 // Specify the scenario name and required state for scenario-based mocking
                 .inScenario(scenarioName)
                 .whenScenarioStateIs(scenarioState)
@@ -174,8 +174,8 @@ public class WireMockStatefulBehaviorTest {
     // Test method to simulate a full cart scenario
     @Test(priority = 3)
     public void fullCart() {
-        // Construct the request URL for cart items using the HOST and PORT variables
-        String requestUrl = String.format("http://%s:%d/cart-items", HOST, PORT);
+        // Construct the request URL for cart items using the HOST variable and the server port
+        String requestUrl = String.format("http://%s:%d/cart-items", HOST, wireMockServer.port());
 
         // Read the content of 'fullcart.json' containing the scenario details and parse it as a JSON object
         JSONObject fullCartJson = new JSONObject(readJsonFile(FILE_PATH + "fullcart.json"));
@@ -191,7 +191,7 @@ public class WireMockStatefulBehaviorTest {
         responseBody = new String(responseBody.getBytes(StandardCharsets.UTF_8));
 
         // Stub the WireMock server for a GET request to '/cart-items' for the full cart scenario
-        WireMock.stubFor(WireMock.get(WireMock.urlPathEqualTo("/cart-items"))
+        wireMock.register(WireMock.get(WireMock.urlPathEqualTo("/cart-items"))
                 // Specify the scenario name and required state for scenario-based mocking
                 .inScenario(scenarioName)
                 .whenScenarioStateIs(scenarioState)
@@ -217,8 +217,8 @@ public class WireMockStatefulBehaviorTest {
     // Test method to simulate deleting items from the cart
     @Test(priority = 4)
     public void deleteCart() {
-        // Construct the request URL for cart items using the HOST and PORT variables
-        String requestUrl = String.format("http://%s:%d/cart-items", HOST, PORT);
+        // Construct the request URL for cart items using the HOST variable and the server port
+        String requestUrl = String.format("http://%s:%d/cart-items", HOST, wireMockServer.port());
 
         // Read the content of 'deletecart.json' containing the scenario details and parse it as a JSON object
         JSONObject deleteCartJson = new JSONObject(readJsonFile(FILE_PATH + "deletecart.json"));
@@ -228,7 +228,7 @@ public class WireMockStatefulBehaviorTest {
         scenarioState = deleteCartJson.getString("requiredScenarioState");
 
         // Stub the WireMock server for a DELETE request to '/cart-items' to delete items from the cart
-        WireMock.stubFor(WireMock.delete(WireMock.urlPathEqualTo("/cart-items"))
+        wireMock.register(WireMock.delete(WireMock.urlPathEqualTo("/cart-items"))
                 // Specify the scenario name and required state for scenario-based mocking
                 .inScenario(scenarioName)
                 .whenScenarioStateIs(scenarioState)
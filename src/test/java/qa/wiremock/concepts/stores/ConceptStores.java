@@ -0,0 +1,156 @@
+package qa.wiremock.concepts.stores;
+
+import com.github.tomakehurst.wiremock.common.FileSource;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.store.BlobStore;
+import com.github.tomakehurst.wiremock.store.DefaultStores;
+import com.github.tomakehurst.wiremock.store.RequestJournalStore;
+import com.github.tomakehurst.wiremock.store.StubMappingStore;
+import com.github.tomakehurst.wiremock.store.files.FileSourceBlobStore;
+import qa.wiremock.concepts.endpointcount.RingBufferRequestJournalStore;
+import qa.wiremock.concepts.files.CachedFilesBlobStore;
+import qa.wiremock.concepts.jfr.BodyLoadEventsBlobStore;
+import qa.wiremock.concepts.matching.IndexedStubMappingStore;
+import qa.wiremock.concepts.snapshot.SnapshotStubMappingStore;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * This code plugs the stores of the concept packages into a WireMock server.
+ * Each store is switched on separately, so that benchmarks can compare it with
+ * WireMock's default, and every store that is not switched on stays WireMock's
+ * default one.
+ * <p>
+ * Indexed stub store: stubs looked up by HTTP method and URL (IndexedStubMappingStore).
+ * <p>
+ * Cached files: __files body files served from memory (CachedFilesBlobStore).
+ * <p>
+ * Snapshot: stubs parsed on demand from a binary snapshot (SnapshotStubMappingStore).
+ * <p>
+ * Ring buffer journal: the last requests only, with exact per-stub counters
+ * (RingBufferRequestJournalStore).
+ * <p>
+ * Body load events: a JFR event for every body file read (BodyLoadEventsBlobStore),
+ * wrapping the cached or default files store.
+ *
+ * @author Jagatheshwaran N
+ */
+public class ConceptStores extends DefaultStores {
+
+    // Default upper bound of the cached body files
+    public static final long DEFAULT_MAX_CACHED_FILE_BYTES = 64L * 1024 * 1024;
+
+    // Stub store indexed by HTTP method and URL, null for WireMock's default
+    private IndexedStubMappingStore indexedStubStore;
+
+    // Cached body files store, null for WireMock's default
+    private CachedFilesBlobStore cachedFilesBlobStore;
+
+    // Stub store starting from a snapshot, null when no snapshot is used
+    private SnapshotStubMappingStore snapshotStubStore;
+
+    // Request journal store of fixed size, null for WireMock's default
+    private RingBufferRequestJournalStore ringBufferJournalStore;
+
+    // Files store committing body load events, null when they are not switched on
+    private BodyLoadEventsBlobStore bodyLoadEventsBlobStore;
+
+    public ConceptStores(FileSource fileRoot) {
+        super(fileRoot);
+    }
+
+    // Method to switch server options to every concept store, once the files root is configured
+    public static WireMockConfiguration configure(WireMockConfiguration options) {
+        return options.withStores(new ConceptStores(options.filesRoot())
+                .withIndexedStubStore()
+                .withCachedFiles(DEFAULT_MAX_CACHED_FILE_BYTES)
+                .withBodyLoadEvents());
+    }
+
+    // Method to look stubs up through the IndexedStubMappingStore
+    public ConceptStores withIndexedStubStore() {
+        indexedStubStore = new IndexedStubMappingStore();
+        return this;
+    }
+
+    // Method to serve body files from a cache bounded to the given total size
+    public ConceptStores withCachedFiles(long maxCachedBytes) {
+        return withCachedFiles(maxCachedBytes, CachedFilesBlobStore.DEFAULT_REVALIDATE_INTERVAL);
+    }
+
+    // Method to serve body files from a bounded cache, checking cached files on disk at most once per interval
+    public ConceptStores withCachedFiles(long maxCachedBytes, Duration revalidateInterval) {
+        cachedFilesBlobStore = new CachedFilesBlobStore((FileSourceBlobStore) getBlobStore("__files"), maxCachedBytes,
+                revalidateInterval);
+        return this;
+    }
+
+    // Method to commit a JFR event for every body file read, once the files store is chosen
+    public ConceptStores withBodyLoadEvents() {
+        bodyLoadEventsBlobStore = cachedFilesBlobStore != null
+                ? new BodyLoadEventsBlobStore(cachedFilesBlobStore)
+                : new BodyLoadEventsBlobStore((FileSourceBlobStore) getBlobStore("__files"));
+        return this;
+    }
+
+    // Method to start the stubs from a snapshot file, in place of the indexed stub store
+    public ConceptStores withSnapshot(Path snapshotFile) throws IOException {
+        snapshotStubStore = new SnapshotStubMappingStore(snapshotFile);
+        return this;
+    }
+
+    // Method to keep only the last requests in the journal, counting every request per stub
+    public ConceptStores withRingBufferJournal(int capacity, RingBufferRequestJournalStore.Mode mode) {
+        return withRingBufferJournal(capacity, mode, RingBufferRequestJournalStore.DEFAULT_SLOT_BYTES);
+    }
+
+    // Method to keep only the last requests in the journal, with off-heap slots of the given size
+    public ConceptStores withRingBufferJournal(int capacity, RingBufferRequestJournalStore.Mode mode, int slotBytes) {
+        ringBufferJournalStore = new RingBufferRequestJournalStore(capacity, mode, slotBytes);
+        return this;
+    }
+
+    @Override
+    public StubMappingStore getStubStore() {
+        if (snapshotStubStore != null) {
+            return snapshotStubStore;
+        }
+        return indexedStubStore != null ? indexedStubStore : super.getStubStore();
+    }
+
+    @Override
+    public RequestJournalStore getRequestJournalStore() {
+        return ringBufferJournalStore != null ? ringBufferJournalStore : super.getRequestJournalStore();
+    }
+
+    @Override
+    public BlobStore getFilesBlobStore() {
+        if (bodyLoadEventsBlobStore != null) {
+            return bodyLoadEventsBlobStore;
+        }
+        return cachedFilesBlobStore != null ? cachedFilesBlobStore : super.getFilesBlobStore();
+    }
+
+    // Method to return the indexed stub store, for its index statistics
+    public IndexedStubMappingStore getIndexedStubStore() {
+        return indexedStubStore;
+    }
+
+    // Method to return the snapshot stub store, for its parsing statistics
+    public SnapshotStubMappingStore getSnapshotStubStore() {
+        return snapshotStubStore;
+    }
+
+    // Method to return the ring buffer journal store, for its counters
+    public RingBufferRequestJournalStore getRingBufferJournalStore() {
+        return ringBufferJournalStore;
+    }
+
+    // Method to return the cached body files store, for its cache statistics
+    public CachedFilesBlobStore getCachedFilesBlobStore() {
+        return cachedFilesBlobStore;
+    }
+
+}
@@ -5,9 +5,10 @@ import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
 import com.github.tomakehurst.wiremock.client.WireMock;
 import io.restassured.response.ValidatableResponse;
 import org.testng.Assert;
-import org.testng.annotations.AfterTest;
-import org.testng.annotations.BeforeTest;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
+import qa.wiremock.concepts.parallel.WireMockServerPool;
 
 import static io.restassured.RestAssured.given;
 
@@ -23,24 +24,23 @@ import static io.restassured.RestAssured.given;
  */
 public class WireMockAnyUrlGetAPITest {
 
-    // Constants for host and port
+    // Constant for host
     private static final String HOST = "localhost";
-    private static final int PORT = 8080;
 
     // Instance of WireMockServer
     public static WireMockServer wireMockServer;
 
+    // WireMock client bound to this class's server instance
+    private static WireMock wireMock;
+
     // Method to start the WireMock server and configure stubs before test execution
-    @BeforeTest
+    @BeforeClass
     public void startupServer() {
-        // Creates a new WireMock server instance.
-        wireMockServer = new WireMockServer(PORT);
-
-        // Starts the WireMock server.
-        wireMockServer.start();
+        // Acquires a WireMock server running on a free port from the pool.
+        wireMockServer = WireMockServerPool.acquire();
 
-        // Configures WireMock to listen on the specified host and port.
-        WireMock.configureFor(HOST, PORT);
+        // Binds a WireMock client to the acquired server instance.
+        wireMock = WireMockServerPool.clientFor(wireMockServer);
 
         // Creates a response definition builder object.
         ResponseDefinitionBuilder responseDefinitionBuilder = new ResponseDefinitionBuilder();
@@ -56,7 +56,7 @@ public class WireMockAnyUrlGetAPITest {
 
         // Create a stub for any incoming request (using WireMock's any() method)
         // and specify that any URL pattern will match
-        WireMock.stubFor(
+        wireMock.register(
                 // Match any HTTP method on any URL
                 WireMock.any(WireMock.anyUrl())
                         // Define the response to be returned for any request matching the criteria
@@ -65,19 +65,19 @@ public class WireMockAnyUrlGetAPITest {
     }
 
     // Method to shut down the WireMock server after test execution
-    @AfterTest
+    @AfterClass
     public void shutdownServer() {
         // Checks if the WireMock server is running and not null before shutting it down.
         if (wireMockServer != null && wireMockServer.isRunning()) {
-            wireMockServer.shutdownServer();
+            WireMockServerPool.release(wireMockServer);
         }
     }
 
     @Test
     public void testWireMockAnyUrlGetAPI() {
 
-        // Construct the request URL for the '/user/emp101' endpoint using HOST and PORT variables
-        String requestUrl = String.format("http://%s:%d/user/emp101", HOST, PORT);
+        // Construct the request URL for the '/user/emp101' endpoint using the HOST variable and the server port
+        String requestUrl = String.format("http://%s:%d/user/emp101", HOST, wireMockServer.port());
 
         // Send a GET request to the constructed URL and capture the response
         ValidatableResponse response =
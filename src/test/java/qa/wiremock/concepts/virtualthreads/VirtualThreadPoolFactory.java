@@ -0,0 +1,45 @@
+package qa.wiremock.concepts.virtualthreads;
+
+import com.github.tomakehurst.wiremock.core.Options;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.http.ThreadPoolFactory;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.eclipse.jetty.util.thread.ThreadPool;
+
+import java.util.concurrent.Executors;
+
+/**
+ * This code builds the Jetty thread pool of a WireMock server so that requests
+ * are handled on virtual threads.
+ * The platform threads of the pool (containerThreads) only run Jetty's
+ * acceptors and selectors; every request is dispatched to a new virtual
+ * thread, so blocking work such as fixed delays, proxying to a slow origin or
+ * reading a body file parks the virtual thread instead of holding one of the
+ * few platform threads.
+ * Opt in with VirtualThreadPoolFactory.configure(options); servers built
+ * without it keep WireMock's bounded platform-thread pool.
+ *
+ * @author Jagatheshwaran N
+ */
+public class VirtualThreadPoolFactory implements ThreadPoolFactory {
+
+    // Name prefix of the virtual threads handling requests
+    private static final String THREAD_NAME_PREFIX = "wiremock-virtual-";
+
+    // Method to switch server options to request handling on virtual threads
+    public static WireMockConfiguration configure(WireMockConfiguration options) {
+        return options.threadPoolFactory(new VirtualThreadPoolFactory());
+    }
+
+    @Override
+    public ThreadPool buildThreadPool(Options options) {
+        QueuedThreadPool threadPool = new QueuedThreadPool(options.containerThreads());
+        threadPool.setName("wiremock-platform");
+
+        // Jetty runs the blocking request handling tasks on this executor when it is set
+        threadPool.setVirtualThreadsExecutor(Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name(THREAD_NAME_PREFIX, 0).factory()));
+        return threadPool;
+    }
+
+}
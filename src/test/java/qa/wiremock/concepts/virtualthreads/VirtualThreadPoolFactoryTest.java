@@ -0,0 +1,150 @@
+package qa.wiremock.concepts.virtualthreads;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.extension.ServeEventListener;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import qa.wiremock.concepts.parallel.WireMockServerPool;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * This code verifies the VirtualThreadPoolFactory on a server with a few
+ * platform threads and blocking (not scheduler-based) fixed delays.
+ * Requests must be handled on virtual threads, and hundreds of delayed
+ * requests must be delayed on the server at the same time, far more of them
+ * than there are platform threads.
+ * A listener counts the requests between the start of their response,
+ * where the delay blocks, and its completion, so no wall-clock timing is
+ * asserted.
+ *
+ * @author Jagatheshwaran N
+ */
+public class VirtualThreadPoolFactoryTest {
+
+    // Platform threads of the server, far fewer than the concurrent requests
+    private static final int CONTAINER_THREADS = 8;
+
+    // Number of delayed requests sent at once
+    private static final int CONCURRENT_REQUESTS = 200;
+
+    // Fixed delay of the delayed stub in milliseconds
+    private static final int DELAY = 500;
+
+    // Threads that handled the requests, recorded by the listener
+    private static final Queue<Thread> HANDLING_THREADS = new ConcurrentLinkedQueue<>();
+
+    // Requests being responded to, delay included, and the most of them at once, recorded by the listener
+    private static final AtomicInteger RESPONDING = new AtomicInteger();
+    private static final AtomicInteger PEAK_RESPONDING = new AtomicInteger();
+
+    // Instance of WireMockServer
+    private static WireMockServer wireMockServer;
+
+    // Method to start a server with request handling on virtual threads before test execution
+    @BeforeClass
+    public void startupServer() {
+        wireMockServer = WireMockServerPool.acquire(VirtualThreadPoolFactory.configure(WireMockConfiguration.options()
+                .containerThreads(CONTAINER_THREADS)
+                .extensions(new HandlingThreadListener())));
+
+        WireMock wireMock = WireMockServerPool.clientFor(wireMockServer);
+        wireMock.register(WireMock.get(WireMock.urlPathEqualTo("/flights")).willReturn(WireMock.okJson("[]")));
+        wireMock.register(WireMock.get(WireMock.urlPathEqualTo("/flights/delayed"))
+                .willReturn(WireMock.ok().withFixedDelay(DELAY)));
+    }
+
+    // Method to shut down the WireMock server after test execution
+    @AfterClass
+    public void shutdownServer() {
+        WireMockServerPool.release(wireMockServer);
+    }
+
+    // Test method to verify that requests are handled on virtual threads
+    @Test(priority = 1)
+    public void testRequestIsHandledOnVirtualThread() {
+        HANDLING_THREADS.clear();
+        given().when().get(WireMockServerPool.baseUrlOf(wireMockServer) + "/flights")
+                .then().statusCode(200);
+
+        Thread handlingThread = HANDLING_THREADS.poll();
+        Assert.assertNotNull(handlingThread, "The request was not seen by the listener");
+        Assert.assertTrue(handlingThread.isVirtual(), handlingThread + " is not a virtual thread");
+        Assert.assertTrue(handlingThread.getName().startsWith("wiremock-virtual-"));
+    }
+
+    // Test method to verify that many more blocking delays than platform threads run at the same time
+    @Test(priority = 2)
+    public void testBlockingDelaysRunConcurrently() throws Exception {
+        PEAK_RESPONDING.set(0);
+        HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        HttpRequest request = HttpRequest.newBuilder(
+                URI.create(WireMockServerPool.baseUrlOf(wireMockServer) + "/flights/delayed")).GET().build();
+
+        long startTime = System.nanoTime();
+        List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>(CONCURRENT_REQUESTS);
+        for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+            responses.add(httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
+        }
+        CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new)).get(60, TimeUnit.SECONDS);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+        int peakResponding = PEAK_RESPONDING.get();
+
+        // Print the elapsed time and the peak for visibility purposes
+        System.out.printf("%d blocking %d ms delays on %d platform threads: %d ms, peak %d delayed at once%n",
+                CONCURRENT_REQUESTS, DELAY, CONTAINER_THREADS, elapsedMillis, peakResponding);
+
+        // Assert that every request was served
+        Assert.assertTrue(responses.stream().allMatch(response -> response.join().statusCode() == 200),
+                "Some delayed requests failed");
+
+        // Assert that the delays blocked at the same time on far more threads than the platform pool has
+        Assert.assertTrue(peakResponding >= CONCURRENT_REQUESTS / 2,
+                "Only " + peakResponding + " requests were delayed at once on " + CONTAINER_THREADS + " platform threads");
+    }
+
+    // Listener recording the thread each request is handled on, and how many requests are being delayed at once
+    public static class HandlingThreadListener implements ServeEventListener {
+
+        @Override
+        public void beforeMatch(ServeEvent serveEvent, Parameters parameters) {
+            HANDLING_THREADS.add(Thread.currentThread());
+        }
+
+        // Counts the request from the start of its response, which the blocking delay holds up
+        @Override
+        public void beforeResponseSent(ServeEvent serveEvent, Parameters parameters) {
+            PEAK_RESPONDING.accumulateAndGet(RESPONDING.incrementAndGet(), Math::max);
+        }
+
+        @Override
+        public void afterComplete(ServeEvent serveEvent, Parameters parameters) {
+            RESPONDING.decrementAndGet();
+        }
+
+        @Override
+        public String getName() {
+            return "handling-thread-listener";
+        }
+
+    }
+
+}